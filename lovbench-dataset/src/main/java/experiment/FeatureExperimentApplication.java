@@ -12,11 +12,11 @@ import experiment.feature.scoring.graph.BetweennessScorer;
 import experiment.feature.scoring.graph.HITSScorer;
 import experiment.feature.scoring.graph.HubDWRankScorer;
 import experiment.configuration.ExperimentConfiguration;
+import experiment.model.CorpusDictionary;
 import experiment.repository.file.GroundTruthTermRanking;
 import experiment.repository.triplestore.AbstractOntologyMetadataRepository;
 import experiment.repository.triplestore.AbstractOntologyRepository;
 import experiment.repository.triplestore.AbstractOntologySearchRepository;
-import experiment.repository.triplestore.LOVSearchRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,7 +41,10 @@ public class FeatureExperimentApplication {
         // init repository
         AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
         AbstractOntologyMetadataRepository metadataRepository = ExperimentConfiguration.getInstance().getRepositoryMetadata();
-        AbstractOntologySearchRepository searchRepository = new LOVSearchRepository(ExperimentConfiguration.getInstance().getDbnameSearch());
+        AbstractOntologySearchRepository searchRepository = ExperimentConfiguration.getInstance().getRepositorySearch();
+
+        // assign dictionary ids to all ontologies and terms of the corpus
+        CorpusDictionary.getInstance().register(repository);
 
         // init scorer objects
         HITSScorer hitsScorer = new HITSScorer(repository, repository.getOwlImports());
@@ -101,6 +104,7 @@ public class FeatureExperimentApplication {
 
         GroundTruthTermRanking groundTruthTermRanking = GroundTruthTermRanking.parse(ExperimentConfiguration.getInstance().getGroundTruthTermsFilePath());
         featureExtractorTerms.extract(groundTruthTermRanking);
+        log.info(repository.getOntologyGraphCache().toString());
 
     }
 
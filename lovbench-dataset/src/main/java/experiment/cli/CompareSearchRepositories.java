@@ -0,0 +1,209 @@
+package experiment.cli;
+
+import arq.cmdline.CmdGeneral;
+import com.opencsv.CSVWriter;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.model.Term;
+import experiment.model.query.TermQuery;
+import experiment.repository.file.FileUtil;
+import experiment.repository.file.GroundTruthTermRanking;
+import experiment.repository.triplestore.AbstractOntologySearchRepository;
+import experiment.repository.triplestore.LOVSearchRepository;
+import experiment.repository.triplestore.LuceneSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This script writes a parity report of the embedded search index (LuceneSearchRepository) against the Stardog search database (LOVSearchRepository).
+ *
+ * For every query of the term ground truth, the report lists the number of terms found by both repositories, the Jaccard similarity of the found terms,
+ * the overlap of the top 10 terms, and the Spearman rank correlation of the scores of the terms found by both. The last line holds the means.
+ */
+public class CompareSearchRepositories extends CmdGeneral {
+
+    /**
+     * Number of top ranked terms that are compared.
+     */
+    public static final int TOP_K = 10;
+
+    private String groundTruthFile;
+    private String reportFile;
+
+    private static final Logger log = LoggerFactory.getLogger( CompareSearchRepositories.class );
+
+    public static void main(String... args) {
+        new CompareSearchRepositories(args).mainRun();
+    }
+
+    public CompareSearchRepositories(String[] argv) {
+        super(argv);
+        getUsage().startCategory("Arguments");
+        getUsage().addUsage("groundtruth.csv", "Term ground truth file that contains the queries");
+        getUsage().addUsage("report.csv", "Filename of the parity report to write");
+        getUsage().addUsage("lov.nq", "(Optional) LOV N-Quads dump to build the search index from if it does not exist yet");
+    }
+
+    @Override
+    protected String getSummary() {
+        return getCommandName() + " groundtruth.csv report.csv [lov.nq]";
+    }
+
+    @Override
+    protected void processModulesAndArgs() {
+        if (getPositional().size() < 2) {
+            doHelp();
+        }
+        this.groundTruthFile = getPositionalArg(0);
+        this.reportFile = getPositionalArg(1);
+        if (getPositional().size() > 2) {
+            ExperimentConfiguration.getInstance().setLovNqFile(getPositionalArg(2));
+        }
+    }
+
+    @Override
+    protected void exec() {
+        AbstractOntologySearchRepository stardogSearch = new LOVSearchRepository(ExperimentConfiguration.getInstance().getDbnameSearch());
+        LuceneSearchRepository embeddedSearch = new LuceneSearchRepository(ExperimentConfiguration.getInstance().getSearchIndexDir());
+
+        Set<TermQuery> queries = GroundTruthTermRanking.parse(this.groundTruthFile).getGroundTruthTable().rowKeySet();
+        FileUtil.createFolderIfNotExists(new File(this.reportFile));
+        try (
+                Writer writer = Files.newBufferedWriter(Paths.get(this.reportFile));
+                CSVWriter csvWriter = FileUtil.getCSVWriter(writer)
+        ) {
+            csvWriter.writeNext(new String[]{"Query", "StardogTerms", "EmbeddedTerms", "CommonTerms", "Jaccard", "OverlapTop" + TOP_K, "Spearman", "StardogMs", "EmbeddedMs"});
+            double[] sums = new double[8];
+            int countSpearman = 0;
+            for (TermQuery query : queries) {
+                long start = System.currentTimeMillis();
+                Map<Term, Double> stardogScores = stardogSearch.search(query);
+                long stardogTime = System.currentTimeMillis() - start;
+                start = System.currentTimeMillis();
+                Map<Term, Double> embeddedScores = embeddedSearch.search(query);
+                long embeddedTime = System.currentTimeMillis() - start;
+
+                double[] parity = CompareSearchRepositories.compare(stardogScores, embeddedScores, TOP_K);
+                csvWriter.writeNext(new String[]{String.join(" ", query.getSearchWords()), Integer.toString(stardogScores.size()), Integer.toString(embeddedScores.size()), Integer.toString((int) parity[0]), Double.toString(parity[1]), Double.toString(parity[2]), Double.toString(parity[3]), Long.toString(stardogTime), Long.toString(embeddedTime)});
+
+                double[] values = new double[]{stardogScores.size(), embeddedScores.size(), parity[0], parity[1], parity[2], parity[3], stardogTime, embeddedTime};
+                for (int i = 0; i < values.length; i++) {
+                    if (i != 5) {
+                        sums[i] += values[i];
+                    } else if (!Double.isNaN(values[i])) {
+                        sums[i] += values[i];
+                        countSpearman++;
+                    }
+                }
+            }
+            String[] means = new String[]{"MEAN", "", "", "", "", "", "", "", ""};
+            for (int i = 0; i < sums.length; i++) {
+                double mean = i == 5 ? sums[i] / Math.max(countSpearman, 1) : sums[i] / Math.max(queries.size(), 1);
+                means[i + 1] = Double.toString(mean);
+            }
+            csvWriter.writeNext(means);
+            log.info(String.format("Search parity report for %s queries written to %s: mean Jaccard %s, mean top %s overlap %s, mean Spearman %s", queries.size(), this.reportFile, means[4], TOP_K, means[5], means[6]));
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        } finally {
+            embeddedSearch.close();
+        }
+    }
+
+    /**
+     * Compares the scores of a candidate search with a reference search.
+     *
+     * @param reference
+     * @param candidate
+     * @param k
+     * @return number of common terms, Jaccard similarity, overlap of the top k terms, Spearman correlation of the common terms (NaN for less than two)
+     */
+    public static double[] compare(Map<Term, Double> reference, Map<Term, Double> candidate, int k) {
+        Set<Term> common = new HashSet<>(reference.keySet());
+        common.retainAll(candidate.keySet());
+        Set<Term> union = new HashSet<>(reference.keySet());
+        union.addAll(candidate.keySet());
+        double jaccard = union.isEmpty() ? 1.0 : (double) common.size() / union.size();
+
+        Set<Term> referenceTop = new HashSet<>(CompareSearchRepositories.rank(reference).subList(0, Math.min(k, reference.size())));
+        List<Term> candidateTop = CompareSearchRepositories.rank(candidate).subList(0, Math.min(k, candidate.size()));
+        int topOverlap = 0;
+        for (Term term : candidateTop) {
+            if (referenceTop.contains(term)) {
+                topOverlap++;
+            }
+        }
+        double overlap = referenceTop.isEmpty() ? (candidateTop.isEmpty() ? 1.0 : 0.0) : (double) topOverlap / referenceTop.size();
+
+        double spearman = Double.NaN;
+        if (common.size() > 1) {
+            Map<Term, Double> referenceRanks = CompareSearchRepositories.getRanks(reference, common);
+            Map<Term, Double> candidateRanks = CompareSearchRepositories.getRanks(candidate, common);
+            double meanRank = (common.size() + 1) / 2.0;
+            double covariance = 0;
+            double referenceVariance = 0;
+            double candidateVariance = 0;
+            for (Term term : common) {
+                double referenceDeviation = referenceRanks.get(term) - meanRank;
+                double candidateDeviation = candidateRanks.get(term) - meanRank;
+                covariance += referenceDeviation * candidateDeviation;
+                referenceVariance += referenceDeviation * referenceDeviation;
+                candidateVariance += candidateDeviation * candidateDeviation;
+            }
+            spearman = (referenceVariance == 0 || candidateVariance == 0) ? Double.NaN : covariance / Math.sqrt(referenceVariance * candidateVariance);
+        }
+        return new double[]{common.size(), jaccard, overlap, spearman};
+    }
+
+    /**
+     * Returns the terms by descending score, ties ordered by URI.
+     */
+    private static List<Term> rank(Map<Term, Double> scores) {
+        List<Term> ranking = new ArrayList<>(scores.keySet());
+        ranking.sort(Comparator.comparing((Term term) -> scores.get(term)).reversed().thenComparing(Term::getTermUri));
+        return ranking;
+    }
+
+    /**
+     * Returns the (fractional) ranks of the given terms by descending score, where tied terms share their mean rank.
+     */
+    private static Map<Term, Double> getRanks(Map<Term, Double> scores, Set<Term> terms) {
+        Map<Term, Double> subScores = new HashMap<>();
+        for (Term term : terms) {
+            subScores.put(term, scores.get(term));
+        }
+        List<Term> ranking = CompareSearchRepositories.rank(subScores);
+        Map<Term, Double> ranks = new HashMap<>();
+        int i = 0;
+        while (i < ranking.size()) {
+            int j = i;
+            while (j + 1 < ranking.size() && subScores.get(ranking.get(j + 1)).equals(subScores.get(ranking.get(i)))) {
+                j++;
+            }
+            double rank = (i + j) / 2.0 + 1;
+            for (int l = i; l <= j; l++) {
+                ranks.put(ranking.get(l), rank);
+            }
+            i = j + 1;
+        }
+        return ranks;
+    }
+
+    @Override
+    protected String getCommandName() {
+        return "compare-search-lov";
+    }
+}
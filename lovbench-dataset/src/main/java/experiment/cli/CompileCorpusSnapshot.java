@@ -0,0 +1,61 @@
+package experiment.cli;
+
+import arq.cmdline.CmdGeneral;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.repository.file.CorpusSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * This script compiles the LOV N-Quads dump into a binary corpus snapshot (see CorpusSnapshot).
+ * The snapshot can be passed instead of the dump wherever a lov.nq file is expected and loads much faster.
+ */
+public class CompileCorpusSnapshot extends CmdGeneral {
+
+    private String lovNqFile;
+    private String snapshotFile;
+
+    private static final Logger log = LoggerFactory.getLogger( CompileCorpusSnapshot.class );
+
+    public static void main(String... args) {
+        new CompileCorpusSnapshot(args).mainRun();
+    }
+
+    public CompileCorpusSnapshot(String[] argv) {
+        super(argv);
+        getUsage().startCategory("Arguments");
+        getUsage().addUsage("lov.nq", "Filename or URL of the LOV N-Quads dump");
+        getUsage().addUsage("snapshot", "Filename of the corpus snapshot to write (e.g., lov.snapshot)");
+    }
+
+    @Override
+    protected String getSummary() {
+        return getCommandName() + " lov.nq snapshot";
+    }
+
+    @Override
+    protected void processModulesAndArgs() {
+        if (getPositional().size() < 2) {
+            doHelp();
+        }
+        this.lovNqFile = getPositionalArg(0);
+        this.snapshotFile = getPositionalArg(1);
+    }
+
+    @Override
+    protected void exec() {
+        try {
+            CorpusSnapshot.compile(this.lovNqFile, this.snapshotFile, ExperimentConfiguration.getInstance().getLOVgraph());
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    @Override
+    protected String getCommandName() {
+        return "compile-corpus-lov";
+    }
+}
@@ -2,6 +2,7 @@ package experiment.configuration;
 
 import com.opencsv.CSVWriter;
 import experiment.model.query.enums.QueryMatch;
+import experiment.model.query.enums.QueryTimeoutPolicy;
 import experiment.repository.file.FileUtil;
 import experiment.repository.triplestore.*;
 import org.slf4j.Logger;
@@ -134,6 +135,16 @@ public class ExperimentConfiguration {
      */
     String dbnameSearch = "LOVsearch_20190806";
 
+    /**
+     * Indicates whether the label search is served from an embedded Lucene index (see LuceneSearchRepository) instead of the Stardog search database.
+     */
+    boolean embeddedSearch = false;
+
+    /**
+     * Directory of the embedded search index, which is built from the lov.nq file if it does not exist.
+     */
+    String searchIndexDir = cacheDir + "search_index/";
+
     /**
      * Database server url.
      */
@@ -149,6 +160,125 @@ public class ExperimentConfiguration {
      */
     String dbPassword = "admin";
 
+    /**
+     * Maximum number of open connections per database connector.
+     */
+    int dbPoolSize = 4;
+
+    /**
+     * Time in ms after which an unused database connection is closed.
+     */
+    long dbPoolIdleTimeout = 60000;
+
+    /**
+     * If true, the ontology repository answers requests with Graph API lookups on the in-memory dataset of the lovNqFile (see LOVGraphRepository)
+     * instead of sparql queries on the database.
+     */
+    boolean graphRepository = false;
+
+    /**
+     * Number of threads for repository operations that are fanned out over the ontologies of the collection.
+     */
+    int repositoryThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Maximum number of ontology graphs that are kept in the ontology graph cache.
+     */
+    int ontologyGraphCacheSize = 1024;
+
+    /**
+     * Maximum number of class and property hierarchy indexes that are kept per repository.
+     */
+    int hierarchyIndexCacheSize = 1024;
+
+    /**
+     * Maximum number of asynchronous queries that run at the same time per connector, 0 for the default of the backend.
+     */
+    int asyncQueryThreads = 0;
+
+    /**
+     * Maximum number of asynchronous queries that wait for a thread per connector, further queries run on the calling thread.
+     */
+    int asyncQueryQueueSize = 256;
+
+    /**
+     * Time in ms after which a query is cancelled, 0 for no timeout.
+     */
+    long queryTimeout = 0;
+
+    /**
+     * What the feature extraction does with a (query, element) pair whose score could not be computed because a query timed out.
+     */
+    QueryTimeoutPolicy queryTimeoutPolicy = QueryTimeoutPolicy.SKIP;
+
+    /**
+     * Score of pairs whose computation timed out, for the SENTINEL query timeout policy.
+     */
+    double queryTimeoutSentinel = -1.0;
+
+    /**
+     * Number of times a timed out score is computed again, for the RETRY query timeout policy.
+     */
+    int queryTimeoutRetries = 1;
+
+    /**
+     * Queries that take at least this time in ms are written to the slow query journal, 0 to journal all queries.
+     */
+    long slowQueryThreshold = 10000;
+
+    /**
+     * Journal of slow and timed out queries (see QueryJournal), null for slow_queries.log in the resultDir.
+     */
+    String slowQueryJournalFile;
+
+    /**
+     * Size in bytes after which the slow query journal rolls over.
+     */
+    long slowQueryJournalMaxBytes = 10 * 1024 * 1024;
+
+    /**
+     * Number of rolled over slow query journals that are kept.
+     */
+    int slowQueryJournalFiles = 5;
+
+    /**
+     * Indicates whether the queries of the repositories are measured per repository method (see QueryMetrics).
+     * Off by default, as each query is attributed to its repository method by walking the stack of the thread that issues it.
+     */
+    boolean queryMetrics = false;
+
+    /**
+     * Time in ms between two dumps of the query metrics, 0 for no periodic dump.
+     */
+    long queryMetricsDumpInterval = 60000;
+
+    /**
+     * File to which the query metrics are dumped, null for query_metrics.json in the resultDir.
+     */
+    String queryMetricsFile;
+
+    /**
+     * Number of threads for the feature extraction of terms, 1 for sequential extraction.
+     */
+    int extractionThreads = 1;
+
+    /**
+     * If true, the relevance features of terms are extracted query by query on a shared context of the query (see QueryContext), otherwise feature by feature.
+     */
+    boolean queryMajorExtraction = false;
+
+    /**
+     * If true, the feature extraction of terms journals every computed score to extractionJournalFile and skips the scores that are already journaled,
+     * so an interrupted extraction continues where it stopped (see ExtractionJournal).
+     */
+    boolean extractionCheckpoints = false;
+
+    /**
+     * Journal of the scores of a checkpointed extraction, which is removed when the extraction is finalized, null for extraction_journal.csv in the resultDir.
+     * A run is resumed by a later process with the same journal file, e.g. by setting the resultDir of the interrupted run.
+     */
+    String extractionJournalFile;
+
     /**
      * Configuration for the query match for query-match-dependent scoring algorithms.
      */
@@ -170,7 +300,7 @@ public class ExperimentConfiguration {
     boolean makeElasticSearchTests = false;
 
     /**
-     * The repository to access the ontology collection.
+     * The repository to access the ontology collection, created on first use according to graphRepository.
      */
     AbstractOntologyRepository repository;
 
@@ -179,12 +309,15 @@ public class ExperimentConfiguration {
      */
     AbstractOntologyMetadataRepository repositoryMetadata;
 
+    /**
+     * The repository for full-text search in the ontology collection, created on first use.
+     */
+    AbstractOntologySearchRepository repositorySearch;
 
     private static final Logger log = LoggerFactory.getLogger( ExperimentConfiguration.class );
 
     private ExperimentConfiguration() {
         // @TODO read config from file and/or parse cmd line configuration
-        this.repository = LOVRepository.getInstance(this.dbnameOntologies);
         this.repositoryMetadata = LOVMetadataRepository.getInstance(this.dbnameMetadata);
     }
 
@@ -300,6 +433,9 @@ public class ExperimentConfiguration {
     }
 
     public AbstractOntologyRepository getRepository() {
+        if (repository == null) {
+            repository = graphRepository ? new LOVGraphRepository() : LOVRepository.getInstance(dbnameOntologies);
+        }
         return repository;
     }
 
@@ -315,6 +451,49 @@ public class ExperimentConfiguration {
         this.repositoryMetadata = repositoryMetadata;
     }
 
+    public AbstractOntologySearchRepository getRepositorySearch() {
+        if (repositorySearch == null) {
+            repositorySearch = embeddedSearch ? new LuceneSearchRepository(searchIndexDir) : new LOVSearchRepository(dbnameSearch);
+        }
+        return repositorySearch;
+    }
+
+    public void setRepositorySearch(AbstractOntologySearchRepository repositorySearch) {
+        this.repositorySearch = repositorySearch;
+    }
+
+    public boolean isEmbeddedSearch() {
+        return embeddedSearch;
+    }
+
+    public void setEmbeddedSearch(boolean embeddedSearch) {
+        this.embeddedSearch = embeddedSearch;
+        this.repositorySearch = null;
+    }
+
+    public boolean isGraphRepository() {
+        return graphRepository;
+    }
+
+    public void setGraphRepository(boolean graphRepository) {
+        if (graphRepository != this.graphRepository) {
+            if (this.repository instanceof LOVGraphRepository) {
+                ((LOVGraphRepository) this.repository).close();
+            }
+            this.repository = null;
+        }
+        this.graphRepository = graphRepository;
+    }
+
+    public String getSearchIndexDir() {
+        return searchIndexDir;
+    }
+
+    public void setSearchIndexDir(String searchIndexDir) {
+        this.searchIndexDir = searchIndexDir;
+        this.repositorySearch = null;
+    }
+
     public String getMaximumFrequencyFile() {
         return maximumFrequencyFile;
     }
@@ -379,6 +558,182 @@ public class ExperimentConfiguration {
         this.dbPassword = dbPassword;
     }
 
+    public int getDbPoolSize() {
+        return dbPoolSize;
+    }
+
+    public void setDbPoolSize(int dbPoolSize) {
+        this.dbPoolSize = dbPoolSize;
+    }
+
+    public long getDbPoolIdleTimeout() {
+        return dbPoolIdleTimeout;
+    }
+
+    public void setDbPoolIdleTimeout(long dbPoolIdleTimeout) {
+        this.dbPoolIdleTimeout = dbPoolIdleTimeout;
+    }
+
+    public int getRepositoryThreads() {
+        return repositoryThreads;
+    }
+
+    public void setRepositoryThreads(int repositoryThreads) {
+        this.repositoryThreads = repositoryThreads;
+    }
+
+    public int getOntologyGraphCacheSize() {
+        return ontologyGraphCacheSize;
+    }
+
+    public void setOntologyGraphCacheSize(int ontologyGraphCacheSize) {
+        this.ontologyGraphCacheSize = ontologyGraphCacheSize;
+    }
+
+    public int getAsyncQueryThreads() {
+        return asyncQueryThreads;
+    }
+
+    public void setAsyncQueryThreads(int asyncQueryThreads) {
+        this.asyncQueryThreads = asyncQueryThreads;
+    }
+
+    public int getAsyncQueryQueueSize() {
+        return asyncQueryQueueSize;
+    }
+
+    public void setAsyncQueryQueueSize(int asyncQueryQueueSize) {
+        this.asyncQueryQueueSize = asyncQueryQueueSize;
+    }
+
+    public long getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    public void setQueryTimeout(long queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+
+    public QueryTimeoutPolicy getQueryTimeoutPolicy() {
+        return queryTimeoutPolicy;
+    }
+
+    public void setQueryTimeoutPolicy(QueryTimeoutPolicy queryTimeoutPolicy) {
+        this.queryTimeoutPolicy = queryTimeoutPolicy;
+    }
+
+    public double getQueryTimeoutSentinel() {
+        return queryTimeoutSentinel;
+    }
+
+    public void setQueryTimeoutSentinel(double queryTimeoutSentinel) {
+        this.queryTimeoutSentinel = queryTimeoutSentinel;
+    }
+
+    public int getQueryTimeoutRetries() {
+        return queryTimeoutRetries;
+    }
+
+    public void setQueryTimeoutRetries(int queryTimeoutRetries) {
+        this.queryTimeoutRetries = queryTimeoutRetries;
+    }
+
+    public long getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(long slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    public String getSlowQueryJournalFile() {
+        return slowQueryJournalFile != null ? slowQueryJournalFile : resultDir + "slow_queries.log";
+    }
+
+    public void setSlowQueryJournalFile(String slowQueryJournalFile) {
+        this.slowQueryJournalFile = slowQueryJournalFile;
+    }
+
+    public long getSlowQueryJournalMaxBytes() {
+        return slowQueryJournalMaxBytes;
+    }
+
+    public void setSlowQueryJournalMaxBytes(long slowQueryJournalMaxBytes) {
+        this.slowQueryJournalMaxBytes = slowQueryJournalMaxBytes;
+    }
+
+    public int getSlowQueryJournalFiles() {
+        return slowQueryJournalFiles;
+    }
+
+    public void setSlowQueryJournalFiles(int slowQueryJournalFiles) {
+        this.slowQueryJournalFiles = slowQueryJournalFiles;
+    }
+
+    public boolean isQueryMetrics() {
+        return queryMetrics;
+    }
+
+    public void setQueryMetrics(boolean queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    public long getQueryMetricsDumpInterval() {
+        return queryMetricsDumpInterval;
+    }
+
+    public void setQueryMetricsDumpInterval(long queryMetricsDumpInterval) {
+        this.queryMetricsDumpInterval = queryMetricsDumpInterval;
+    }
+
+    public String getQueryMetricsFile() {
+        return queryMetricsFile != null ? queryMetricsFile : resultDir + "query_metrics.json";
+    }
+
+    public void setQueryMetricsFile(String queryMetricsFile) {
+        this.queryMetricsFile = queryMetricsFile;
+    }
+
+    public int getExtractionThreads() {
+        return extractionThreads;
+    }
+
+    public void setExtractionThreads(int extractionThreads) {
+        this.extractionThreads = extractionThreads;
+    }
+
+    public boolean isQueryMajorExtraction() {
+        return queryMajorExtraction;
+    }
+
+    public void setQueryMajorExtraction(boolean queryMajorExtraction) {
+        this.queryMajorExtraction = queryMajorExtraction;
+    }
+
+    public boolean isExtractionCheckpoints() {
+        return extractionCheckpoints;
+    }
+
+    public void setExtractionCheckpoints(boolean extractionCheckpoints) {
+        this.extractionCheckpoints = extractionCheckpoints;
+    }
+
+    public String getExtractionJournalFile() {
+        return extractionJournalFile != null ? extractionJournalFile : resultDir + "extraction_journal.csv";
+    }
+
+    public void setExtractionJournalFile(String extractionJournalFile) {
+        this.extractionJournalFile = extractionJournalFile;
+    }
+
+    public int getHierarchyIndexCacheSize() {
+        return hierarchyIndexCacheSize;
+    }
+
+    public void setHierarchyIndexCacheSize(int hierarchyIndexCacheSize) {
+        this.hierarchyIndexCacheSize = hierarchyIndexCacheSize;
+    }
+
     public QueryMatch getQueryMatch() {
         return queryMatch;
     }
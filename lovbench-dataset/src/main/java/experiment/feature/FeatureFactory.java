@@ -15,8 +15,14 @@ import experiment.feature.scoring.graph.HITSScorer;
 import experiment.feature.scoring.graph.HubDWRankScorer;
 import experiment.repository.triplestore.AbstractOntologyMetadataRepository;
 import experiment.repository.triplestore.AbstractOntologyRepository;
-import experiment.repository.triplestore.LOVSearchRepository;
 
+/**
+ * Creates features by name.
+ *
+ * Features created by the same factory share one instance of each scorer and declare it as prerequisite (see AbstractFeature.getPrerequisites()),
+ * so the FeaturePlanner of the extraction computes the scorer state once for all of them.
+ *
+ */
 public class FeatureFactory {
 
     AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
@@ -34,7 +40,7 @@ public class FeatureFactory {
             case BooleanMatch.FEATURE_NAME:
                 return new BooleanMatch(repository);
             case LabelSearch.FEATURE_NAME:
-                return new LabelSearch(repository, new LOVSearchRepository(ExperimentConfiguration.getInstance().getDbnameSearch()));
+                return new LabelSearch(repository, ExperimentConfiguration.getInstance().getRepositorySearch());
             case LOVTermMatch.FEATURE_NAME:
                 return new LOVTermMatch(repository, this.getLovScorer());
             case LOVTermPopularity.FEATURE_NAME:
@@ -1,7 +1,11 @@
 package experiment.feature.extraction;
 
+import experiment.feature.scoring.AbstractScorer;
 import experiment.repository.triplestore.AbstractOntologyRepository;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -10,11 +14,21 @@ import java.util.Objects;
  */
 public abstract class AbstractFeature {
 
+    /**
+     * Cost hint of features that do not read a scorer.
+     */
+    public static final double DEFAULT_COST_HINT = 1.0;
+
     /**
      * Repository for access to ontology collection.
      */
     protected AbstractOntologyRepository repository;
 
+    /**
+     * Scorers whose state the feature reads.
+     */
+    private final List<AbstractScorer> prerequisites;
+
     /**
      * Function that returns the name of the feature.
      *
@@ -22,8 +36,32 @@ public abstract class AbstractFeature {
      */
     abstract public String getFeatureName();
 
-    public AbstractFeature(AbstractOntologyRepository repository) {
+    public AbstractFeature(AbstractOntologyRepository repository, AbstractScorer... prerequisites) {
         this.repository = repository;
+        this.prerequisites = Collections.unmodifiableList(Arrays.asList(prerequisites));
+    }
+
+    /**
+     * Scorers whose state the feature reads, as passed to the constructor. Features that declare the same scorer object share its precomputation (see FeaturePlanner).
+     *
+     * @return List<AbstractScorer>
+     */
+    public List<AbstractScorer> getPrerequisites() {
+        return this.prerequisites;
+    }
+
+    /**
+     * Relative cost of scoring the feature, the most expensive features are scheduled first.
+     * By default it is the cost of the most expensive scorer that the feature reads.
+     *
+     * @return double
+     */
+    public double getCostHint() {
+        double costHint = DEFAULT_COST_HINT;
+        for (AbstractScorer prerequisite : this.prerequisites) {
+            costHint = Math.max(costHint, prerequisite.getCostHint());
+        }
+        return costHint;
     }
 
     public AbstractOntologyRepository getRepository() {
@@ -1,11 +1,18 @@
 package experiment.feature.extraction;
 
+import experiment.configuration.ExperimentConfiguration;
 import experiment.feature.extraction.ontology.AbstractOntologyFeature;
+import experiment.model.query.enums.QueryTimeoutPolicy;
+import experiment.repository.file.FeatureSetScores;
+import experiment.repository.triplestore.connector.QueryTimeoutException;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Abstract class for feature extractors.
@@ -20,6 +27,72 @@ public abstract class AbstractFeatureExtractor {
 
     private static final Logger log = LoggerFactory.getLogger( AbstractFeatureExtractor.class );
 
+    /**
+     * Computes a score, or the scores of a feature in bulk, under the query timeout policy of the configuration (see QueryTimeoutPolicy).
+     *
+     * @param description of the computation for the log
+     * @param computation
+     * @param <T>
+     * @return Optional<T> the result, or empty if a query timed out
+     */
+    protected <T> Optional<T> computeWithTimeoutPolicy(String description, Supplier<T> computation) {
+        ExperimentConfiguration configuration = ExperimentConfiguration.getInstance();
+        int retries = configuration.getQueryTimeoutPolicy().equals(QueryTimeoutPolicy.RETRY) ? configuration.getQueryTimeoutRetries() : 0;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return Optional.of(computation.get());
+            } catch (QueryTimeoutException e) {
+                if (attempt >= retries) {
+                    log.warn(String.format("Query timed out while computing %s: %s", description, e.getMessage()));
+                    return Optional.empty();
+                }
+                log.warn(String.format("Query timed out while computing %s, retry %s of %s", description, attempt + 1, retries));
+            }
+        }
+    }
+
+    /**
+     * Computes the score of a pair under the query timeout policy of the configuration.
+     *
+     * @param description of the pair for the log
+     * @param score
+     * @return Optional<Double> the score, the sentinel score or empty if the pair is to be skipped
+     */
+    protected Optional<Double> computeScore(String description, Supplier<Double> score) {
+        Optional<Double> computedScore = this.computeWithTimeoutPolicy(description, score);
+        return computedScore.isPresent() ? computedScore : this.getTimeoutScore();
+    }
+
+    /**
+     * Returns the score of pairs whose computation timed out: the sentinel of the configuration for the SENTINEL policy, otherwise empty, i.e. the pair is skipped.
+     *
+     * @return Optional<Double>
+     */
+    protected Optional<Double> getTimeoutScore() {
+        if (ExperimentConfiguration.getInstance().getQueryTimeoutPolicy().equals(QueryTimeoutPolicy.SENTINEL)) {
+            return Optional.of(ExperimentConfiguration.getInstance().getQueryTimeoutSentinel());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Adds the score of a pair, or leaves the pair out of the results if it has no score.
+     *
+     * @param featureSetScores
+     * @param queryElementPair
+     * @param feature
+     * @param score
+     * @param <Q>
+     * @param <R>
+     */
+    protected <Q,R> void addScore(FeatureSetScores<Q,R> featureSetScores, Pair<Q,R> queryElementPair, AbstractFeature feature, Optional<Double> score) {
+        if (score.isPresent()) {
+            featureSetScores.addScore(queryElementPair, feature, score.get());
+        } else {
+            featureSetScores.skip(queryElementPair);
+        }
+    }
+
     public List<AbstractOntologyFeature> getOntologyFeatures() {
         return ontologyFeatures;
     }
@@ -19,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Iterator;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -37,7 +38,7 @@ public class FeatureExtractorOntologies extends AbstractFeatureExtractor {
     public void extract(GroundTruthOntologyRanking groundTruthOntologyRanking) {
 
         if (this.ontologyFeatures.size() > 0) {
-            FeatureSetScores featureSetScores = new FeatureSetScores(ExtractionType.ONTOLOGY);
+            FeatureSetScores<OntologyQuery, Ontology> featureSetScores = new FeatureSetScores<>(ExtractionType.ONTOLOGY);
 
             for (AbstractOntologyFeature ontologyFeature : this.ontologyFeatures) {
                 log.info(String.format("############ Extracting Scores For %s ############", ontologyFeature.getFeatureName()));
@@ -45,14 +46,14 @@ public class FeatureExtractorOntologies extends AbstractFeatureExtractor {
 
                 if (ontologyFeature instanceof AbstractOntologyImportanceFeature) {
                     Set<Ontology> ontologySet = groundTruthOntologyRanking.getGroundTruthTable().columnKeySet();
-                    ((AbstractOntologyImportanceFeature) ontologyFeature).computeScores(ontologySet);
+                    boolean computed = this.computeWithTimeoutPolicy(ontologyFeature.getFeatureName(), () -> ((AbstractOntologyImportanceFeature) ontologyFeature).computeScores(ontologySet)).isPresent();
 
                     while (tableIterator.hasNext()) {
                         Table.Cell<OntologyQuery, Ontology, Relevance> groundTruthRow = (Table.Cell) tableIterator.next();
                         OntologyQuery query = groundTruthRow.getRowKey();
                         Ontology ontology = groundTruthRow.getColumnKey();
-                        double score = ((AbstractOntologyImportanceFeature) ontologyFeature).getScore(ontology);
-                        featureSetScores.addScore(Pair.of(query,ontology),ontologyFeature,score);
+                        Optional<Double> score = computed ? Optional.of(((AbstractOntologyImportanceFeature) ontologyFeature).getScore(ontology)) : this.getTimeoutScore();
+                        this.addScore(featureSetScores, Pair.of(query,ontology), ontologyFeature, score);
                     }
 
                 } else if (ontologyFeature instanceof AbstractOntologyRelevanceFeature) {
@@ -62,9 +63,9 @@ public class FeatureExtractorOntologies extends AbstractFeatureExtractor {
                         OntologyQuery query = groundTruthRow.getRowKey();
                         Ontology ontology = groundTruthRow.getColumnKey();
                         log.info(String.format("Computing score for feature %s and query %s and ontology %s", ontologyFeature.getFeatureName(), query, ontology));
-                        double score = ((AbstractOntologyRelevanceFeature) ontologyFeature).getScore(query, ontology);
-                        log.info(String.format("Computing score for feature %s and query %s and ontology %s, resulted in %s", ontologyFeature.getFeatureName(), query, ontology, score));
-                        featureSetScores.addScore(Pair.of(query, ontology), ontologyFeature, score);
+                        Optional<Double> score = this.computeScore(String.format("%s of query %s and ontology %s", ontologyFeature.getFeatureName(), query, ontology), () -> ((AbstractOntologyRelevanceFeature) ontologyFeature).getScore(query, ontology));
+                        log.info(String.format("Computing score for feature %s and query %s and ontology %s, resulted in %s", ontologyFeature.getFeatureName(), query, ontology, score.isPresent() ? score.get() : "skipped"));
+                        this.addScore(featureSetScores, Pair.of(query, ontology), ontologyFeature, score);
                     }
                 }
                 featureSetScores.writeCsv(ontologyFeature);
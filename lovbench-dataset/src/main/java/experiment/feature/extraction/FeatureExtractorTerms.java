@@ -1,6 +1,7 @@
 package experiment.feature.extraction;
 
 import com.google.common.collect.Table;
+import experiment.configuration.ExperimentConfiguration;
 import experiment.feature.extraction.ontology.AbstractOntologyFeature;
 import experiment.feature.extraction.ontology.importance.AbstractOntologyImportanceFeature;
 import experiment.feature.extraction.ontology.relevance.AbstractOntologyRelevanceFeature;
@@ -10,14 +11,28 @@ import experiment.feature.extraction.term.relevance.AbstractTermRelevanceFeature
 import experiment.model.*;
 import experiment.model.query.TermQuery;
 import experiment.model.query.enums.ExtractionType;
-import experiment.repository.file.FeatureScores;
+import experiment.repository.file.ExtractionJournal;
 import experiment.repository.file.FeatureSetScores;
 import experiment.repository.file.GroundTruthTermRanking;
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import experiment.repository.triplestore.connector.QueryExecutor;
+import experiment.repository.triplestore.metrics.QueryMetrics;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Class to extract features for terms.
@@ -33,100 +48,426 @@ public class FeatureExtractorTerms extends AbstractFeatureExtractor {
 
     private static final Logger log = LoggerFactory.getLogger( FeatureExtractorTerms.class );
 
+    /**
+     * Number of chunks per extraction thread into which the cells of a relevance feature are split.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Journal of the running extraction if extractionCheckpoints is configured, otherwise null.
+     */
+    private ExtractionJournal journal;
+
     /**
      * Extracts all features currently contained in the features lists for a given term ground truth.
      *
+     * With more than one extractionThreads in the configuration, the features are computed in parallel and the cells of relevance features in chunks.
+     * The scores are collected in the order of the sequential extraction, so the scores and files do not depend on the number of threads.
+     * The shared scorer state is computed first (see FeaturePlanner), the most expensive features are then started first and their scores collected in declared order.
+     * With queryMajorExtraction in the configuration, the relevance features are computed query by query instead of feature by feature (see computeScoresByQuery()).
+     *
+     * With extractionCheckpoints in the configuration, the scores are journaled while they are computed (see ExtractionJournal) and the scores that are already
+     * journaled by an interrupted run are not computed again. Once all features are extracted, the journal is compacted into the CSV files (see finalizeJournal()).
+     *
      * @param groundTruthTermRanking
      */
     public void extract(GroundTruthTermRanking groundTruthTermRanking) {
 
-        Map<AbstractFeature, FeatureScores<TermQuery,Term>> allScores = new HashMap<>();
         FeatureSetScores<TermQuery,Term> featureSetScores = new FeatureSetScores<>(ExtractionType.TERM);
 
-        if (this.termFeatures.size() > 0) {
-            for (AbstractTermFeature termFeature : this.termFeatures) {
-                log.info(String.format("############ Extracting Scores For %s ############", termFeature.getFeatureName()));
-                Iterator tableIterator = groundTruthTermRanking.getGroundTruthTable().cellSet().iterator();
+        Map<Ontology, Set<Term>> groundTruthOntologies = new HashMap<>();
+        for (Term term : groundTruthTermRanking.getGroundTruthTable().columnKeySet()) {
+            groundTruthOntologies.computeIfAbsent(term.getOntologyOfTerm(), ontology -> new HashSet<>()).add(term);
+        }
 
-                if (termFeature instanceof AbstractTermImportanceFeature) {
-                    Set<Term> termSet = groundTruthTermRanking.getGroundTruthTable().columnKeySet();
-                    ((AbstractTermImportanceFeature) termFeature).computeScores(termSet);
-                    int i = 1;
-                    while (tableIterator.hasNext()) {
-                        Table.Cell<TermQuery, Term, Relevance> groundTruthRow = (Table.Cell) tableIterator.next();
-                        TermQuery query = groundTruthRow.getRowKey();
-                        Term term = groundTruthRow.getColumnKey();
-                        log.debug("Query: " + i);
-                        i++;
-                        double score = ((AbstractTermImportanceFeature) termFeature).getScore(term);
-                        featureSetScores.addScore(Pair.of(query,term),termFeature,score);
-                    }
-                } else if (termFeature instanceof AbstractTermRelevanceFeature) {
-                    int i = 1;
-                    while (tableIterator.hasNext()) {
-                        Table.Cell<TermQuery, Term, Relevance> groundTruthRow = (Table.Cell) tableIterator.next();
-                        TermQuery query = groundTruthRow.getRowKey();
-                        Term term = groundTruthRow.getColumnKey();
-
-                        log.debug("Query: " + i);
-                        i++;
-                        double score = ((AbstractTermRelevanceFeature) termFeature).getScore(query, term);
-                        featureSetScores.addScore(Pair.of(query,term),termFeature,score);
+        Set<Term> termSet = groundTruthTermRanking.getGroundTruthTable().columnKeySet();
+        List<Table.Cell<TermQuery, Term, Relevance>> cells = new ArrayList<>(groundTruthTermRanking.getGroundTruthTable().cellSet());
+        List<AbstractFeature> features = new ArrayList<>(this.termFeatures);
+        features.addAll(this.ontologyFeatures);
+
+        int threads = ExperimentConfiguration.getInstance().getExtractionThreads();
+        ExecutorService executor = null;
+        this.journal = this.openJournal(features, cells);
+        try {
+            Map<AbstractFeature, Supplier<List<Optional<Double>>>> featureScores = new IdentityHashMap<>();
+            List<AbstractFeature> pendingFeatures = new ArrayList<>();
+            for (AbstractFeature feature : features) {
+                List<Optional<Double>> journaledScores = this.getJournaledScores(feature, cells);
+                if (journaledScores != null) {
+                    log.info(String.format("Scores of %s are journaled", feature.getFeatureName()));
+                    featureScores.put(feature, () -> journaledScores);
+                } else {
+                    pendingFeatures.add(feature);
+                }
+            }
+            FeaturePlanner planner = new FeaturePlanner(pendingFeatures);
+
+            executor = threads > 1 ? this.createExecutor(threads) : null;
+            if (!pendingFeatures.isEmpty()) {
+                planner.precompute(groundTruthOntologies, executor != null ? executor : Runnable::run);
+            }
+
+            boolean queryMajor = ExperimentConfiguration.getInstance().isQueryMajorExtraction();
+            List<AbstractFeature> queryMajorFeatures = new ArrayList<>();
+            for (AbstractFeature feature : planner.getSchedule()) {
+                if (queryMajor && isRelevanceFeature(feature)) {
+                    queryMajorFeatures.add(feature);
+                } else if (executor == null) {
+                    featureScores.put(feature, () -> this.computeScores(feature, termSet, cells));
+                } else {
+                    CompletableFuture<List<Optional<Double>>> scores = this.computeScoresAsync(feature, termSet, cells, executor, threads);
+                    featureScores.put(feature, () -> QueryExecutor.join(scores));
+                }
+            }
+            if (!queryMajorFeatures.isEmpty()) {
+                CompletableFuture<Map<AbstractFeature, List<Optional<Double>>>> scores = this.computeScoresByQuery(queryMajorFeatures, cells, executor != null ? executor : Runnable::run);
+                for (AbstractFeature feature : queryMajorFeatures) {
+                    featureScores.put(feature, () -> QueryExecutor.join(scores).get(feature));
+                }
+            }
+
+            for (AbstractFeature feature : features) {
+                log.info(String.format("############ Extracting Scores For %s ############", feature.getFeatureName()));
+                List<Optional<Double>> scores = featureScores.get(feature).get();
+                if (scores != null) {
+                    for (int j = 0; j < cells.size(); j++) {
+                        Table.Cell<TermQuery, Term, Relevance> groundTruthRow = cells.get(j);
+                        this.addScore(featureSetScores, Pair.of(groundTruthRow.getRowKey(), groundTruthRow.getColumnKey()), feature, scores.get(j));
                     }
                 }
-                featureSetScores.writeCsv(termFeature);
+                if (this.journal == null) {
+                    featureSetScores.writeCsv(feature);
+                } else {
+                    this.journal.flush();
+                }
+            }
+            if (this.journal != null) {
+                this.finalizeJournal(featureSetScores, features);
+            } else {
+                featureSetScores.writeCsv();
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            if (this.journal != null) {
+                this.journal.close();
+                this.journal = null;
             }
         }
+        this.logQueryMetrics();
+    }
 
-        if (this.ontologyFeatures.size() > 0) {
+    /**
+     * Opens the journal of the configuration if extractionCheckpoints is configured, otherwise returns null.
+     * The journal belongs to the features and ground truth cells of the run (see fingerprint()).
+     *
+     * @param features
+     * @param cells
+     * @return ExtractionJournal
+     */
+    private ExtractionJournal openJournal(List<AbstractFeature> features, List<Table.Cell<TermQuery, Term, Relevance>> cells) {
+        if (!ExperimentConfiguration.getInstance().isExtractionCheckpoints()) {
+            return null;
+        }
+        try {
+            return new ExtractionJournal(ExperimentConfiguration.getInstance().getExtractionJournalFile(), fingerprint(features, cells));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open the extraction journal", e);
+        }
+    }
 
-            for (AbstractOntologyFeature ontologyFeature : this.ontologyFeatures) {
-                log.info(String.format("############ Extracting Scores For %s ############", ontologyFeature.getFeatureName()));
+    /**
+     * Returns the fingerprint of a run, a SHA-256 hash of the names of its features and the query keys and terms of its ground truth cells.
+     * It does not depend on the order of the features or cells.
+     *
+     * @param features
+     * @param cells
+     * @return String
+     */
+    static String fingerprint(List<AbstractFeature> features, List<Table.Cell<TermQuery, Term, Relevance>> cells) {
+        List<String> featureNames = new ArrayList<>();
+        for (AbstractFeature feature : features) {
+            featureNames.add(feature.getFeatureName());
+        }
+        Collections.sort(featureNames);
+        List<String> cellKeys = new ArrayList<>();
+        for (Table.Cell<TermQuery, Term, Relevance> cell : cells) {
+            cellKeys.add(cell.getRowKey().getKey() + "\t" + cell.getColumnKey());
+        }
+        Collections.sort(cellKeys);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.join("\n", featureNames).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.join("\n", cellKeys).getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
 
-                Iterator tableIterator = groundTruthTermRanking.getGroundTruthTable().cellSet().iterator();
+    /**
+     * Returns the journaled scores of a feature for the cells, or null if there is no journal or a score of the feature is not journaled.
+     *
+     * @param feature
+     * @param cells
+     * @return List<Optional<Double>>
+     */
+    private List<Optional<Double>> getJournaledScores(AbstractFeature feature, List<Table.Cell<TermQuery, Term, Relevance>> cells) {
+        if (this.journal == null) {
+            return null;
+        }
+        List<Optional<Double>> scores = new ArrayList<>(cells.size());
+        for (Table.Cell<TermQuery, Term, Relevance> groundTruthRow : cells) {
+            Double score = this.journal.getScore(feature.getFeatureName(), groundTruthRow.getRowKey().getKey(), groundTruthRow.getColumnKey().toString());
+            if (score == null) {
+                return null;
+            }
+            scores.add(Optional.of(score));
+        }
+        return scores;
+    }
 
-                if (ontologyFeature instanceof AbstractOntologyImportanceFeature) {
-                    Set<Term> termSet = groundTruthTermRanking.getGroundTruthTable().columnKeySet();
-                    Set<Ontology> ontologySet = new HashSet<>();
-                    for (Term term : termSet) {
-                        Ontology ontology = new Ontology(term.getOntologyUriOfTerm());
-                        if (!ontologySet.contains(ontology)) {
-                            ontologySet.add(ontology);
-                        }
-                    }
-                    ((AbstractOntologyImportanceFeature) ontologyFeature).computeScores(ontologySet);
-
-                    int i = 1;
-                    while (tableIterator.hasNext()) {
-                        Table.Cell<TermQuery, Term, Relevance> groundTruthRow = (Table.Cell) tableIterator.next();
-                        TermQuery query = groundTruthRow.getRowKey();
-                        Term term = groundTruthRow.getColumnKey();
-                        Ontology ontology = new Ontology(term.getOntologyUriOfTerm());
-
-                        log.debug("Query: " + i);
-                        i++;
-                        double score = ((AbstractOntologyImportanceFeature) ontologyFeature).getScore(ontology);
-                        featureSetScores.addScore(Pair.of(query,term),ontologyFeature,score);
-                    }
+    /**
+     * Journals the computed scores of a feature for the cells. Scores of cells that timed out are not journaled, so they are computed again by the next run.
+     *
+     * @param feature
+     * @param cells
+     * @param scores
+     */
+    private void journalScores(AbstractFeature feature, List<Table.Cell<TermQuery, Term, Relevance>> cells, List<Double> scores) {
+        if (this.journal != null) {
+            for (int i = 0; i < cells.size(); i++) {
+                this.journal.record(feature.getFeatureName(), cells.get(i).getRowKey().getKey(), cells.get(i).getColumnKey().toString(), scores.get(i));
+            }
+        }
+    }
 
-                } else if (ontologyFeature instanceof AbstractOntologyRelevanceFeature) {
-                    int i = 1;
-                    while (tableIterator.hasNext()) {
-                        Table.Cell<TermQuery, Term, Relevance> groundTruthRow = (Table.Cell) tableIterator.next();
-                        TermQuery query = groundTruthRow.getRowKey();
-                        Term term = groundTruthRow.getColumnKey();
-                        Ontology ontology = new Ontology(term.getOntologyUriOfTerm());
-
-                        log.debug("Query: " + i);
-                        i++;
-                        double score = ((AbstractOntologyRelevanceFeature) ontologyFeature).getScore(query, ontology);
-                        featureSetScores.addScore(Pair.of(query, term), ontologyFeature, score);
-                    }
+    /**
+     * Finalizes a checkpointed extraction: writes the scores of all features to the feature CSV files and the file with all scores, replacing
+     * the content of the files, and deletes the journal.
+     *
+     * @param featureSetScores
+     * @param features
+     */
+    private void finalizeJournal(FeatureSetScores<TermQuery,Term> featureSetScores, List<AbstractFeature> features) {
+        for (AbstractFeature feature : features) {
+            featureSetScores.writeCsv(feature, false);
+        }
+        featureSetScores.writeCsv(false);
+        log.info(String.format("Extraction finalized with %s journaled scores", this.journal.size()));
+        this.journal.delete();
+        this.journal = null;
+    }
+
+    /**
+     * Computes the scores of a feature for the cells of the ground truth, in the order of the cells.
+     * Returns null if the feature is neither an importance nor a relevance feature.
+     *
+     * @param feature
+     * @param termSet
+     * @param cells
+     * @return List<Optional<Double>>
+     */
+    private List<Optional<Double>> computeScores(AbstractFeature feature, Set<Term> termSet, List<Table.Cell<TermQuery, Term, Relevance>> cells) {
+        if (feature instanceof AbstractTermImportanceFeature) {
+            AbstractTermImportanceFeature termFeature = (AbstractTermImportanceFeature) feature;
+            boolean computed = this.computeWithTimeoutPolicy(termFeature.getFeatureName(), () -> termFeature.computeScores(termSet)).isPresent();
+            if (!computed) {
+                return new ArrayList<>(Collections.nCopies(cells.size(), this.getTimeoutScore()));
+            }
+            List<Double> scores = new ArrayList<>(cells.size());
+            for (Table.Cell<TermQuery, Term, Relevance> groundTruthRow : cells) {
+                scores.add(termFeature.getScore(groundTruthRow.getColumnKey()));
+            }
+            this.journalScores(feature, cells, scores);
+            return toOptionals(scores);
+        } else if (feature instanceof AbstractOntologyImportanceFeature) {
+            AbstractOntologyImportanceFeature ontologyFeature = (AbstractOntologyImportanceFeature) feature;
+            Set<Ontology> ontologySet = new HashSet<>();
+            for (Term term : termSet) {
+                ontologySet.add(term.getOntologyOfTerm());
+            }
+            boolean computed = this.computeWithTimeoutPolicy(ontologyFeature.getFeatureName(), () -> ontologyFeature.computeScores(ontologySet)).isPresent();
+            if (!computed) {
+                return new ArrayList<>(Collections.nCopies(cells.size(), this.getTimeoutScore()));
+            }
+            List<Double> scores = new ArrayList<>(cells.size());
+            for (Table.Cell<TermQuery, Term, Relevance> groundTruthRow : cells) {
+                scores.add(ontologyFeature.getScore(groundTruthRow.getColumnKey().getOntologyOfTerm()));
+            }
+            this.journalScores(feature, cells, scores);
+            return toOptionals(scores);
+        } else if (isRelevanceFeature(feature)) {
+            return this.computeRelevanceScores(feature, cells);
+        }
+        return null;
+    }
+
+    /**
+     * Computes the scores of a relevance feature for the cells of the ground truth, in the order of the cells.
+     *
+     * @param feature
+     * @param cells
+     * @return List<Optional<Double>>
+     */
+    private List<Optional<Double>> computeRelevanceScores(AbstractFeature feature, List<Table.Cell<TermQuery, Term, Relevance>> cells) {
+        List<Optional<Double>> scores = new ArrayList<>(cells.size());
+        for (Table.Cell<TermQuery, Term, Relevance> groundTruthRow : cells) {
+            TermQuery query = groundTruthRow.getRowKey();
+            Term term = groundTruthRow.getColumnKey();
+            log.debug(String.format("Query %s, term %s", query, term));
+            Double journaledScore = this.journal != null ? this.journal.getScore(feature.getFeatureName(), query.getKey(), term.toString()) : null;
+            if (journaledScore != null) {
+                scores.add(Optional.of(journaledScore));
+                continue;
+            }
+            Optional<Double> score;
+            if (feature instanceof AbstractTermRelevanceFeature) {
+                score = this.computeWithTimeoutPolicy(String.format("%s of query %s and term %s", feature.getFeatureName(), query, term), () -> ((AbstractTermRelevanceFeature) feature).getScore(query, term));
+            } else {
+                Ontology ontology = term.getOntologyOfTerm();
+                score = this.computeWithTimeoutPolicy(String.format("%s of query %s and ontology %s", feature.getFeatureName(), query, ontology), () -> ((AbstractOntologyRelevanceFeature) feature).getScore(query, ontology));
+            }
+            if (score.isPresent() && this.journal != null) {
+                this.journal.record(feature.getFeatureName(), query.getKey(), term.toString(), score.get());
+            }
+            scores.add(score.isPresent() ? score : this.getTimeoutScore());
+        }
+        return scores;
+    }
+
+    /**
+     * Computes the scores of a feature on the executor. The cells of relevance features are split into chunks that are computed in parallel,
+     * importance features are computed by one task as their scores are computed in bulk.
+     *
+     * @param feature
+     * @param termSet
+     * @param cells
+     * @param executor
+     * @param threads
+     * @return CompletableFuture<List<Optional<Double>>>
+     */
+    private CompletableFuture<List<Optional<Double>>> computeScoresAsync(AbstractFeature feature, Set<Term> termSet, List<Table.Cell<TermQuery, Term, Relevance>> cells, ExecutorService executor, int threads) {
+        if (!isRelevanceFeature(feature)) {
+            return CompletableFuture.supplyAsync(() -> this.computeScores(feature, termSet, cells), executor);
+        }
+        int chunkSize = Math.max(1, cells.size() / (threads * CHUNKS_PER_THREAD));
+        List<CompletableFuture<List<Optional<Double>>>> chunks = new ArrayList<>();
+        for (int from = 0; from < cells.size(); from += chunkSize) {
+            List<Table.Cell<TermQuery, Term, Relevance>> chunk = cells.subList(from, Math.min(from + chunkSize, cells.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> this.computeRelevanceScores(feature, chunk), executor));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<Optional<Double>> scores = new ArrayList<>(cells.size());
+            for (CompletableFuture<List<Optional<Double>>> chunk : chunks) {
+                scores.addAll(chunk.join());
+            }
+            return scores;
+        });
+    }
+
+    /**
+     * Computes the scores of relevance features query by query, in the order of the cells. The features of a query are computed one after the other
+     * on the context of the query in their repositories (see QueryContext), so the matches and labels of the query are looked up once for all features.
+     * The context is closed after the query, so the intermediate results do not accumulate over the queries. The queries are computed in parallel on the executor.
+     *
+     * @param features
+     * @param cells
+     * @param executor
+     * @return CompletableFuture<Map<AbstractFeature, List<Optional<Double>>>>
+     */
+    private CompletableFuture<Map<AbstractFeature, List<Optional<Double>>>> computeScoresByQuery(List<AbstractFeature> features, List<Table.Cell<TermQuery, Term, Relevance>> cells, Executor executor) {
+        Map<TermQuery, List<Integer>> queryCells = new LinkedHashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            queryCells.computeIfAbsent(cells.get(i).getRowKey(), query -> new ArrayList<>()).add(i);
+        }
+        // Each query sets the scores of its own cells only
+        Map<AbstractFeature, List<Optional<Double>>> scores = new IdentityHashMap<>();
+        for (AbstractFeature feature : features) {
+            scores.put(feature, new ArrayList<>(Collections.nCopies(cells.size(), null)));
+        }
+        List<CompletableFuture<Void>> queries = new ArrayList<>();
+        for (Map.Entry<TermQuery, List<Integer>> query : queryCells.entrySet()) {
+            queries.add(CompletableFuture.runAsync(() -> this.computeQueryScores(query.getKey(), query.getValue(), features, cells, scores), executor));
+        }
+        return CompletableFuture.allOf(queries.toArray(new CompletableFuture[0])).thenApply(done -> scores);
+    }
+
+    /**
+     * Computes the scores of relevance features for the cells of one query within the context of the query.
+     *
+     * @param query
+     * @param cellIndexes indexes of the cells of the query
+     * @param features
+     * @param cells
+     * @param scores to which the scores of the cells are set
+     */
+    private void computeQueryScores(TermQuery query, List<Integer> cellIndexes, List<AbstractFeature> features, List<Table.Cell<TermQuery, Term, Relevance>> cells, Map<AbstractFeature, List<Optional<Double>>> scores) {
+        List<Table.Cell<TermQuery, Term, Relevance>> queryCells = new ArrayList<>(cellIndexes.size());
+        for (int cellIndex : cellIndexes) {
+            queryCells.add(cells.get(cellIndex));
+        }
+        Set<AbstractOntologyRepository> repositories = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (AbstractFeature feature : features) {
+            if (feature.getRepository() != null) {
+                repositories.add(feature.getRepository());
+            }
+        }
+        for (AbstractOntologyRepository repository : repositories) {
+            repository.openQueryContext(query);
+        }
+        try {
+            for (AbstractFeature feature : features) {
+                List<Optional<Double>> queryScores = this.computeRelevanceScores(feature, queryCells);
+                List<Optional<Double>> featureScores = scores.get(feature);
+                for (int j = 0; j < cellIndexes.size(); j++) {
+                    featureScores.set(cellIndexes.get(j), queryScores.get(j));
                 }
-                featureSetScores.writeCsv(ontologyFeature);
             }
+        } finally {
+            for (AbstractOntologyRepository repository : repositories) {
+                repository.closeQueryContext(query);
+            }
+        }
+    }
+
+    private static List<Optional<Double>> toOptionals(List<Double> scores) {
+        List<Optional<Double>> optionals = new ArrayList<>(scores.size());
+        for (Double score : scores) {
+            optionals.add(Optional.of(score));
+        }
+        return optionals;
+    }
+
+    private static boolean isRelevanceFeature(AbstractFeature feature) {
+        return feature instanceof AbstractTermRelevanceFeature || feature instanceof AbstractOntologyRelevanceFeature;
+    }
+
+    /**
+     * Creates the executor for parallel extraction with daemon threads, so a failed extraction does not keep the JVM alive.
+     *
+     * @param threads
+     * @return ExecutorService
+     */
+    private ExecutorService createExecutor(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "extraction-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Prints the query metrics of the repositories and writes them to the result directory.
+     */
+    private void logQueryMetrics() {
+        if (ExperimentConfiguration.getInstance().isQueryMetrics()) {
+            QueryMetrics.getInstance().writeJson(ExperimentConfiguration.getInstance().getQueryMetricsFile());
+            log.info(String.format("Query metrics per repository method:%n%s", QueryMetrics.getInstance().getSummary()));
         }
-        featureSetScores.writeCsv();
     }
 
     public FeatureSetScores<TermQuery,Term> extractImportance(Map<Ontology,Set<Term>> ontologiesAndTerms) {
@@ -138,6 +479,14 @@ public class FeatureExtractorTerms extends AbstractFeatureExtractor {
         for (Set<Term> ontologyTermSet : ontologiesAndTerms.values()) {
             termSet.addAll(ontologyTermSet);
         }
+        List<AbstractFeature> features = new ArrayList<>(this.termFeatures);
+        features.addAll(this.ontologyFeatures);
+        ExecutorService executor = this.createExecutor(ExperimentConfiguration.getInstance().getRepositoryThreads());
+        try {
+            new FeaturePlanner(features).precompute(ontologiesAndTerms, executor);
+        } finally {
+            executor.shutdownNow();
+        }
 
         if (this.ontologyFeatures.size() > 0) {
 
@@ -145,16 +494,16 @@ public class FeatureExtractorTerms extends AbstractFeatureExtractor {
 
                 if (ontologyFeature instanceof AbstractOntologyImportanceFeature) {
 
-                    Map<Ontology, Double> scores = ((AbstractOntologyImportanceFeature) ontologyFeature).computeScores(ontologySet);
+                    Optional<Map<Ontology, Double>> scores = this.computeWithTimeoutPolicy(ontologyFeature.getFeatureName(), () -> ((AbstractOntologyImportanceFeature) ontologyFeature).computeScores(ontologySet));
 
                     Iterator<Term> termIterator = termSet.iterator();
                     while (termIterator.hasNext()) {
                         Term term = termIterator.next();
                         TermQuery query = null;
-                        Ontology ontology = new Ontology(term.getOntologyUriOfTerm());
+                        Ontology ontology = term.getOntologyOfTerm();
 
-                        double score = scores.get(ontology);//(AbstractOntologyImportanceFeature) ontologyFeature).getScore(ontology);
-                        featureSetScores.addScore(Pair.of(query,term),ontologyFeature,score);
+                        Optional<Double> score = scores.isPresent() ? Optional.of(scores.get().get(ontology)) : this.getTimeoutScore();//(AbstractOntologyImportanceFeature) ontologyFeature).getScore(ontology);
+                        this.addScore(featureSetScores, Pair.of(query,term), ontologyFeature, score);
                     }
                 }
             }
@@ -166,7 +515,15 @@ public class FeatureExtractorTerms extends AbstractFeatureExtractor {
 
                 if (termFeature instanceof AbstractTermImportanceFeature) {
                     for (Map.Entry<Ontology,Set<Term>> ontologyAndTerms : ontologiesAndTerms.entrySet()) {
-                        Map<Term,Double> scores = ((AbstractTermImportanceFeature) termFeature).computeScores(ontologyAndTerms.getValue(), ontologyAndTerms.getKey());
+                        Optional<Map<Term,Double>> computedScores = this.computeWithTimeoutPolicy(String.format("%s of ontology %s", termFeature.getFeatureName(), ontologyAndTerms.getKey()), () -> ((AbstractTermImportanceFeature) termFeature).computeScores(ontologyAndTerms.getValue(), ontologyAndTerms.getKey()));
+                        if (!computedScores.isPresent()) {
+                            for (Term term : ontologyAndTerms.getValue()) {
+                                TermQuery query = null;
+                                this.addScore(featureSetScores, Pair.of(query,term), termFeature, this.getTimeoutScore());
+                            }
+                            continue;
+                        }
+                        Map<Term,Double> scores = computedScores.get();
                         for (Map.Entry<Term,Double> scoreEntry : scores.entrySet() ) {
                             TermQuery query = null;
                             Term term = scoreEntry.getKey();
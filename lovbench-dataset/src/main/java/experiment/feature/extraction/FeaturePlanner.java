@@ -0,0 +1,148 @@
+package experiment.feature.extraction;
+
+import experiment.feature.scoring.AbstractScorer;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Plans the extraction of a set of features from the scorers that the features declare as prerequisites.
+ *
+ * The scorers form a graph of prerequisites in which scorers shared by several features are one node. The planner computes the state of each scorer
+ * once per ontology after the state of its prerequisites (see precompute()), and orders the features for scoring by their cost hint (see getSchedule()).
+ *
+ */
+public class FeaturePlanner {
+
+    /**
+     * The features in the order in which they were declared.
+     */
+    private final List<AbstractFeature> features;
+
+    /**
+     * The scorers of the features in an order in which each scorer follows its prerequisites.
+     */
+    private final List<AbstractScorer> scorers;
+
+    private static final Logger log = LoggerFactory.getLogger( FeaturePlanner.class );
+
+    public FeaturePlanner(Collection<? extends AbstractFeature> features) {
+        this.features = new ArrayList<>(features);
+        this.scorers = sortScorers(this.features);
+    }
+
+    /**
+     * Computes the state of all scorers for the given ontologies and terms. The computation of a scorer for an ontology starts once its prerequisites are computed
+     * for that ontology, independent computations run in parallel on the executor and the most expensive scorers are started first.
+     *
+     * A failed computation is logged and ignored, the features compute the missing state again when they are scored.
+     *
+     * @param ontologiesAndTerms
+     * @param executor
+     */
+    public void precompute(Map<Ontology, Set<Term>> ontologiesAndTerms, Executor executor) {
+        if (this.scorers.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Map<AbstractScorer, Map<Ontology, CompletableFuture<Void>>> computations = new IdentityHashMap<>();
+        for (AbstractScorer scorer : this.scorers) {
+            Map<Ontology, CompletableFuture<Void>> scorerComputations = new HashMap<>();
+            for (Map.Entry<Ontology, Set<Term>> ontologyAndTerms : ontologiesAndTerms.entrySet()) {
+                Ontology ontology = ontologyAndTerms.getKey();
+                List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+                for (AbstractScorer prerequisite : scorer.getPrerequisites()) {
+                    prerequisites.add(computations.get(prerequisite).get(ontology));
+                }
+                CompletableFuture<Void> computation = CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture[0]))
+                        .thenRunAsync(() -> scorer.precompute(ontology, ontologyAndTerms.getValue()), executor)
+                        .exceptionally(e -> {
+                            log.warn(String.format("Failed to precompute %s for ontology %s: %s", scorer.getClass().getName(), ontology, e.getCause() != null ? e.getCause() : e));
+                            return null;
+                        });
+                scorerComputations.put(ontology, computation);
+            }
+            computations.put(scorer, scorerComputations);
+        }
+        for (Map<Ontology, CompletableFuture<Void>> scorerComputations : computations.values()) {
+            CompletableFuture.allOf(scorerComputations.values().toArray(new CompletableFuture[0])).join();
+        }
+        log.info(String.format("Precomputed %s scorers for %s ontologies in %s ms", this.scorers.size(), ontologiesAndTerms.size(), System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Returns the features ordered by their cost hint, the most expensive first. Features with the same cost hint keep their declared order.
+     *
+     * @return List<AbstractFeature>
+     */
+    public List<AbstractFeature> getSchedule() {
+        List<AbstractFeature> schedule = new ArrayList<>(this.features);
+        schedule.sort(Comparator.comparingDouble(AbstractFeature::getCostHint).reversed());
+        return schedule;
+    }
+
+    /**
+     * Returns each scorer of the features once, every scorer after its prerequisites.
+     *
+     * @return List<AbstractScorer>
+     */
+    public List<AbstractScorer> getScorers() {
+        return Collections.unmodifiableList(this.scorers);
+    }
+
+    /**
+     * Collects the scorers of the features and their transitive prerequisites, and orders them such that every scorer follows its prerequisites.
+     * Among the scorers whose prerequisites are ordered, the scorer with the highest cost hint comes first.
+     *
+     * @param features
+     * @return List<AbstractScorer>
+     */
+    private static List<AbstractScorer> sortScorers(List<AbstractFeature> features) {
+        Map<AbstractScorer, Integer> missingPrerequisites = new IdentityHashMap<>();
+        Map<AbstractScorer, List<AbstractScorer>> dependents = new IdentityHashMap<>();
+        Deque<AbstractScorer> unvisited = new ArrayDeque<>();
+        for (AbstractFeature feature : features) {
+            unvisited.addAll(feature.getPrerequisites());
+        }
+        while (!unvisited.isEmpty()) {
+            AbstractScorer scorer = unvisited.poll();
+            if (missingPrerequisites.containsKey(scorer)) {
+                continue;
+            }
+            Set<AbstractScorer> prerequisites = Collections.newSetFromMap(new IdentityHashMap<>());
+            prerequisites.addAll(scorer.getPrerequisites());
+            missingPrerequisites.put(scorer, prerequisites.size());
+            for (AbstractScorer prerequisite : prerequisites) {
+                dependents.computeIfAbsent(prerequisite, p -> new ArrayList<>()).add(scorer);
+                unvisited.add(prerequisite);
+            }
+        }
+
+        List<AbstractScorer> sorted = new ArrayList<>();
+        PriorityQueue<AbstractScorer> ready = new PriorityQueue<>(Comparator.comparingDouble(AbstractScorer::getCostHint).reversed());
+        for (Map.Entry<AbstractScorer, Integer> scorer : missingPrerequisites.entrySet()) {
+            if (scorer.getValue() == 0) {
+                ready.add(scorer.getKey());
+            }
+        }
+        while (!ready.isEmpty()) {
+            AbstractScorer scorer = ready.poll();
+            sorted.add(scorer);
+            for (AbstractScorer dependent : dependents.getOrDefault(scorer, Collections.emptyList())) {
+                int missing = missingPrerequisites.merge(dependent, -1, Integer::sum);
+                if (missing == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (sorted.size() < missingPrerequisites.size()) {
+            throw new IllegalStateException("The prerequisites of the scorers contain a cycle");
+        }
+        return sorted;
+    }
+}
@@ -1,6 +1,7 @@
 package experiment.feature.extraction.ontology;
 
 import experiment.feature.extraction.AbstractFeature;
+import experiment.feature.scoring.AbstractScorer;
 import experiment.repository.triplestore.AbstractOntologyRepository;
 
 /**
@@ -9,8 +10,8 @@ import experiment.repository.triplestore.AbstractOntologyRepository;
  */
 public abstract class AbstractOntologyFeature extends AbstractFeature {
 
-    public AbstractOntologyFeature(AbstractOntologyRepository repository) {
-        super(repository);
+    public AbstractOntologyFeature(AbstractOntologyRepository repository, AbstractScorer... prerequisites) {
+        super(repository, prerequisites);
     }
 
 }
@@ -1,6 +1,7 @@
 package experiment.feature.extraction.ontology.importance;
 
 import experiment.feature.extraction.ontology.AbstractOntologyFeature;
+import experiment.feature.scoring.AbstractScorer;
 import experiment.model.Ontology;
 import experiment.repository.triplestore.AbstractOntologyRepository;
 import org.slf4j.Logger;
@@ -23,8 +24,8 @@ public abstract class AbstractOntologyImportanceFeature extends AbstractOntology
 
     private static final Logger log = LoggerFactory.getLogger( AbstractOntologyImportanceFeature.class );
 
-    public AbstractOntologyImportanceFeature(AbstractOntologyRepository repository) {
-        super(repository);
+    public AbstractOntologyImportanceFeature(AbstractOntologyRepository repository, AbstractScorer... prerequisites) {
+        super(repository, prerequisites);
     }
 
 
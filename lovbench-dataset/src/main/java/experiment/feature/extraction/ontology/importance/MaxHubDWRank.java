@@ -22,7 +22,7 @@ public class MaxHubDWRank extends AbstractOntologyImportanceFeature {
     private static final Logger log = LoggerFactory.getLogger( MaxHubDWRank.class );
 
     public MaxHubDWRank(AbstractOntologyRepository repository, HubDWRankScorer hubDWRankScorer) {
-        super(repository);
+        super(repository, hubDWRankScorer);
         this.hubDWRankScorer = hubDWRankScorer;
     }
 
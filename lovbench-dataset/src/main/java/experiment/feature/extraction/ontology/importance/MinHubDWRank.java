@@ -22,7 +22,7 @@ public class MinHubDWRank extends AbstractOntologyImportanceFeature {
     private static final Logger log = LoggerFactory.getLogger( MinHubDWRank.class );
 
     public MinHubDWRank(AbstractOntologyRepository repository, HubDWRankScorer hubDWRankScorer) {
-        super(repository);
+        super(repository, hubDWRankScorer);
         this.hubDWRankScorer = hubDWRankScorer;
     }
 
@@ -1,6 +1,7 @@
 package experiment.feature.extraction.ontology.relevance;
 
 import experiment.feature.extraction.ontology.AbstractOntologyFeature;
+import experiment.feature.scoring.AbstractScorer;
 import experiment.model.Ontology;
 import experiment.model.query.AbstractQuery;
 import experiment.repository.triplestore.AbstractOntologyRepository;
@@ -13,8 +14,8 @@ import experiment.repository.triplestore.AbstractOntologyRepository;
  */
 public abstract class AbstractOntologyRelevanceFeature extends AbstractOntologyFeature {
 
-    public AbstractOntologyRelevanceFeature(AbstractOntologyRepository repository) {
-        super(repository);
+    public AbstractOntologyRelevanceFeature(AbstractOntologyRepository repository, AbstractScorer... prerequisites) {
+        super(repository, prerequisites);
     }
 
     /**
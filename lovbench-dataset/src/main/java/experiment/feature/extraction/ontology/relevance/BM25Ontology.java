@@ -29,7 +29,7 @@ public class BM25Ontology extends AbstractOntologyRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( BM25Ontology.class );
 
     public BM25Ontology(AbstractOntologyRepository repository, TFIDFScorer tfidfScorer) {
-        super(repository);
+        super(repository, tfidfScorer);
         this.tfidfScorer = tfidfScorer;
     }
 
@@ -25,7 +25,7 @@ public class BetweennessMeasure extends AbstractOntologyRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( BetweennessMeasure.class );
 
     public BetweennessMeasure(AbstractOntologyRepository repository, BetweennessScorer betweennessScorer) {
-        super(repository);
+        super(repository, betweennessScorer);
         this.betweennessScorer = betweennessScorer;
     }
 
@@ -29,7 +29,7 @@ public class DensityMeasure extends AbstractOntologyRelevanceFeature {
     public static final String FEATURE_NAME = "Density_O";
 
     public DensityMeasure(AbstractOntologyRepository repository, TermStatsScorer termStatsScorer) {
-        super(repository);
+        super(repository, termStatsScorer);
         this.termStatsScorer = termStatsScorer;
     }
 
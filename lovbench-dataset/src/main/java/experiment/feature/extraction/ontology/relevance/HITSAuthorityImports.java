@@ -27,7 +27,7 @@ public class HITSAuthorityImports extends AbstractOntologyRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( HITSAuthorityImports.class );
 
     public HITSAuthorityImports(AbstractOntologyRepository repository, HITSScorer hits) {
-        super(repository);
+        super(repository, hits);
         this.hits = hits;
     }
 
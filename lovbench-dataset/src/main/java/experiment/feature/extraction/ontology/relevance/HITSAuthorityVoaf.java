@@ -31,7 +31,7 @@ public class HITSAuthorityVoaf extends AbstractOntologyRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( HITSAuthorityVoaf.class );
 
     public HITSAuthorityVoaf(AbstractOntologyRepository repository, HITSScorer hits) {
-        super(repository);
+        super(repository, hits);
         this.hits = hits;
     }
 
@@ -26,7 +26,7 @@ public class HITSHubImports extends AbstractOntologyRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( HITSHubImports.class );
 
     public HITSHubImports(AbstractOntologyRepository repository, HITSScorer hits) {
-        super(repository);
+        super(repository, hits);
         this.hits = hits;
     }
 
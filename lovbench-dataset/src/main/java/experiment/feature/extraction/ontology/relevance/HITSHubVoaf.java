@@ -27,7 +27,7 @@ public class HITSHubVoaf extends AbstractOntologyRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( HITSHubVoaf.class );
 
     public HITSHubVoaf(AbstractOntologyRepository repository, HITSScorer hits) {
-        super(repository);
+        super(repository, hits);
         this.hits = hits;
     }
 
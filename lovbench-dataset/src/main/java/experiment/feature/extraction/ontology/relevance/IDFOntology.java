@@ -26,7 +26,7 @@ public class IDFOntology extends AbstractOntologyRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( IDFOntology.class );
 
     public IDFOntology(AbstractOntologyRepository repository, TFIDFScorer tfidfScorer) {
-        super(repository);
+        super(repository, tfidfScorer);
         this.tfidfScorer = tfidfScorer;
     }
 
@@ -17,7 +17,7 @@ public class LOVOntologyMatch extends AbstractOntologyRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( LOVOntologyMatch.class );
 
     public LOVOntologyMatch(AbstractOntologyRepository repository, LOVScorer lovScorer) {
-        super(repository);
+        super(repository, lovScorer);
         this.lovScorer = lovScorer;
     }
 
@@ -1,14 +1,11 @@
 package experiment.feature.extraction.ontology.relevance;
 
-import edu.uci.ics.jung.algorithms.shortestpath.DijkstraDistance;
-import edu.uci.ics.jung.graph.Graph;
-import edu.uci.ics.jung.graph.util.EdgeType;
-import experiment.feature.scoring.graph.util.JungGraphUtil;
 import experiment.model.Ontology;
 import experiment.model.Term;
 import experiment.model.query.AbstractQuery;
 import experiment.model.query.enums.TermType;
 import experiment.repository.triplestore.AbstractOntologyRepository;
+import experiment.repository.triplestore.graph.OntologyGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,8 +33,8 @@ public class SemanticSimilarityMeasure extends AbstractOntologyRelevanceFeature
     public double getScore(AbstractQuery query, Ontology ontology) {
         double semanticSimilarityScore = 0.0;
         List<Term> classQueryMatches = new ArrayList<>(this.repository.getTermQueryMatch(query,ontology, TermType.CLASS));
-        Graph<Term,String> ontologyGraph = JungGraphUtil.createOntologyGraph(this.repository.getOntologyGraphTriples(ontology), EdgeType.UNDIRECTED);
-        DijkstraDistance<Term,String> distance = new DijkstraDistance<>(ontologyGraph);
+        // Shortest paths are searched on the cached ontology graph, as undirected graph
+        OntologyGraph ontologyGraph = this.repository.getOntologyGraphCache().getGraph(ontology);
 
         if (classQueryMatches != null && classQueryMatches.size() > 0) {
             if (classQueryMatches.size() ==  1) {
@@ -49,15 +46,11 @@ public class SemanticSimilarityMeasure extends AbstractOntologyRelevanceFeature
                     Term classQueryMatchStart = classQueryMatches.get(i);
                     for (int j = i + 1; j < classQueryMatches.size(); j++) {
                         Term classQueryMatchEnd = classQueryMatches.get(j);
-                        if (ontologyGraph.containsVertex(classQueryMatchStart) && ontologyGraph.containsVertex(classQueryMatchEnd)) {
+                        if (ontologyGraph.containsNode(classQueryMatchStart) && ontologyGraph.containsNode(classQueryMatchEnd)) {
                             if (!classQueryMatchStart.equals(classQueryMatchEnd)) {
 //                            int shortestPathLength = this.repository.getShortestPathLength(classQueryMatchStart, classQueryMatchEnd);
 
-                                Number shortestPathLengthNumber = distance.getDistance(classQueryMatchStart, classQueryMatchEnd);
-                                int shortestPathLength = 0;
-                                if (shortestPathLengthNumber != null) {
-                                    shortestPathLength = shortestPathLengthNumber.intValue();
-                                }
+                                int shortestPathLength = Math.max(ontologyGraph.getDistance(classQueryMatchStart, classQueryMatchEnd), 0);
 
                                 log.debug(String.format("Shortest path %s - %s: %s", classQueryMatchStart, classQueryMatchEnd, shortestPathLength));
                                 shortestPathLengthSum += shortestPathLength;
@@ -26,7 +26,7 @@ public class TFIDFOntology extends AbstractOntologyRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( TFIDFOntology.class );
 
     public TFIDFOntology(AbstractOntologyRepository repository, TFIDFScorer tfidfScorer) {
-        super(repository);
+        super(repository, tfidfScorer);
         this.tfidfScorer = tfidfScorer;
     }
 
@@ -27,7 +27,7 @@ public class TFOntology extends AbstractOntologyRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( TFOntology.class );
 
     public TFOntology(AbstractOntologyRepository repository, TFIDFScorer tfidfScorer) {
-        super(repository);
+        super(repository, tfidfScorer);
         this.tfidfScorer = tfidfScorer;
     }
 
@@ -3,6 +3,8 @@ package experiment.feature.extraction.ontology.relevance;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVWriter;
 import experiment.feature.scoring.TFIDFScorer;
+import experiment.feature.scoring.util.ComputeOnceCache;
+import experiment.model.CorpusDictionary;
 import experiment.model.Ontology;
 import experiment.model.Term;
 import experiment.model.query.AbstractQuery;
@@ -10,6 +12,7 @@ import experiment.model.query.TermQuery;
 import experiment.configuration.ExperimentConfiguration;
 import experiment.repository.file.FileUtil;
 import experiment.repository.triplestore.AbstractOntologyRepository;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,21 +30,24 @@ public class VSMOntology extends AbstractOntologyRelevanceFeature {
      */
     TFIDFScorer tfidfScorer;
 
-    Map<AbstractQuery, Map<Ontology, Double>> vsmScoreCache = new HashMap<>();
+    /**
+     * Caches the scores per query and ontology.
+     */
+    ComputeOnceCache<Pair<AbstractQuery, Ontology>, Double> vsmScoreCache = new ComputeOnceCache<>();
 
     public static final String FEATURE_NAME = "VSM_O";
 
     private static final Logger log = LoggerFactory.getLogger( VSMOntology.class );
 
     public VSMOntology(AbstractOntologyRepository repository, TFIDFScorer tfidfScorer) {
-        super(repository);
+        super(repository, tfidfScorer);
         this.tfidfScorer = tfidfScorer;
         this.readVsmFromCsv();
     }
 
     @Override
     public double getScore(AbstractQuery query, Ontology ontology) {
-        if (!this.vsmScoreCache.containsKey(query) || !this.vsmScoreCache.get(query).containsKey(ontology)) {
+        return this.vsmScoreCache.get(Pair.of(query, ontology), key -> {
             double vsm = 0.0;
 
             // get maximum frequency of words in searchWords
@@ -63,8 +69,8 @@ public class VSMOntology extends AbstractOntologyRelevanceFeature {
                 double tfidfOntology = 0.0;
                 double tfidfQuery = 0.0;
 
-                Map<Ontology, Set<Term>> matchedTermsPerOntology = this.repository.getQueryMatch(searchWordQuery);
-                Set<Term> matchedTerms = matchedTermsPerOntology.get(ontology);
+                // Only the matches in this ontology are needed; the repository caches the matches per search word
+                Set<Term> matchedTerms = this.repository.getTermQueryMatch(searchWordQuery, ontology);
 
                 if (matchedTerms != null && !matchedTerms.isEmpty()) {
                     for (Term matchedTerm : matchedTerms) {
@@ -92,14 +98,9 @@ public class VSMOntology extends AbstractOntologyRelevanceFeature {
                 }
 
             }
-            if (!this.vsmScoreCache.containsKey(query)) {
-                this.vsmScoreCache.put(query,new HashMap<>());
-            }
-            this.vsmScoreCache.get(query).put(ontology,vsm);
             this.writeVsmCsv(query, ontology, vsm);
-        }
-
-        return this.vsmScoreCache.get(query).get(ontology);
+            return vsm;
+        });
     }
 
     @Override
@@ -108,7 +109,7 @@ public class VSMOntology extends AbstractOntologyRelevanceFeature {
     }
 
 
-    public void writeVsmCsv(AbstractQuery query, Ontology ontology, double vsm) {
+    public synchronized void writeVsmCsv(AbstractQuery query, Ontology ontology, double vsm) {
         String filename = ExperimentConfiguration.getInstance().getVsmFile();
         File file = new File(filename);
         FileUtil.createFolderIfNotExists(file);
@@ -132,12 +133,9 @@ public class VSMOntology extends AbstractOntologyRelevanceFeature {
             String[] arrLine;
             while ((arrLine = csvReader.readNext()) != null) {
                 AbstractQuery query = new TermQuery(arrLine[0]);
-                Ontology ontology = new Ontology(arrLine[1]);
+                Ontology ontology = CorpusDictionary.getInstance().getOntology(arrLine[1]);
                 double vsm = Double.parseDouble(arrLine[2]);
-                if (!this.vsmScoreCache.containsKey(query)) {
-                    this.vsmScoreCache.put(query,new HashMap<>());
-                }
-                this.vsmScoreCache.get(query).put(ontology,vsm);
+                this.vsmScoreCache.put(Pair.of(query, ontology), vsm);
             }
             br.close();
             csvReader.close();
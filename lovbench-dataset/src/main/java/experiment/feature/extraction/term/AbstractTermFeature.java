@@ -1,6 +1,7 @@
 package experiment.feature.extraction.term;
 
 import experiment.feature.extraction.AbstractFeature;
+import experiment.feature.scoring.AbstractScorer;
 import experiment.repository.triplestore.AbstractOntologyRepository;
 
 /**
@@ -9,8 +10,8 @@ import experiment.repository.triplestore.AbstractOntologyRepository;
  */
 public abstract class AbstractTermFeature extends AbstractFeature {
 
-    public AbstractTermFeature(AbstractOntologyRepository repository) {
-        super(repository);
+    public AbstractTermFeature(AbstractOntologyRepository repository, AbstractScorer... prerequisites) {
+        super(repository, prerequisites);
     }
 
 }
@@ -1,6 +1,7 @@
 package experiment.feature.extraction.term.importance;
 
 import experiment.feature.extraction.term.AbstractTermFeature;
+import experiment.feature.scoring.AbstractScorer;
 import experiment.model.Ontology;
 import experiment.model.Term;
 import experiment.repository.triplestore.AbstractOntologyRepository;
@@ -23,8 +24,8 @@ public abstract class AbstractTermImportanceFeature extends AbstractTermFeature
 
     private static final Logger log = LoggerFactory.getLogger(AbstractTermImportanceFeature.class);
 
-    public AbstractTermImportanceFeature(AbstractOntologyRepository repository) {
-        super(repository);
+    public AbstractTermImportanceFeature(AbstractOntologyRepository repository, AbstractScorer... prerequisites) {
+        super(repository, prerequisites);
     }
 
     /**
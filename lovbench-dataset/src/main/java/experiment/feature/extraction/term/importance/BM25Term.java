@@ -28,12 +28,12 @@ public class BM25Term extends AbstractTermImportanceFeature {
     private static final Logger log = LoggerFactory.getLogger( BM25Term.class );
 
     public BM25Term(AbstractOntologyRepository repository, TFIDFScorer tfidfScorer) {
-        super(repository);
+        super(repository, tfidfScorer);
         this.tfidfScorer = tfidfScorer;
     }
 
     public BM25Term(AbstractOntologyRepository repository, TFIDFScorer tfidfScorer, double k, double b) {
-        super(repository);
+        super(repository, tfidfScorer);
         this.tfidfScorer = tfidfScorer;
         this.k = k;
         this.b = b;
@@ -44,7 +44,7 @@ public class BM25Term extends AbstractTermImportanceFeature {
         Map<Term, Double> scores = new HashMap<>();
         for (Term term : termSet) {
             if (ontology == null) {
-                ontology = new Ontology(term.getOntologyUriOfTerm());
+                ontology = term.getOntologyOfTerm();
             }
             double bm25Score = this.tfidfScorer.idf(term) *
                     (       (this.tfidfScorer.tf(term, ontology) * this.k + 1 ) /
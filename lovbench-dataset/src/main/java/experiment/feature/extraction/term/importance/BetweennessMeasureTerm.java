@@ -23,7 +23,7 @@ public class BetweennessMeasureTerm extends AbstractTermImportanceFeature {
     private static final Logger log = LoggerFactory.getLogger( BetweennessMeasureTerm.class );
 
     public BetweennessMeasureTerm(AbstractOntologyRepository repository, BetweennessScorer betweennessScorer) {
-        super(repository);
+        super(repository, betweennessScorer);
         this.betweennessScorer = betweennessScorer;
         if (this.scores == null) {
             this.scores = new HashMap<>();
@@ -35,7 +35,7 @@ public class BetweennessMeasureTerm extends AbstractTermImportanceFeature {
         Map<Term, Double> setScores = new HashMap<>();
         for (Term term : termSet) {
             if (ontology == null) {
-                ontology = new Ontology(term.getOntologyUriOfTerm());
+                ontology = term.getOntologyOfTerm();
             }
             double score = this.betweennessScorer.betweenness(term,ontology);
             setScores.put(term, score);
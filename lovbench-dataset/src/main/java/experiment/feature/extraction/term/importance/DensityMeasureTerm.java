@@ -32,12 +32,12 @@ public class DensityMeasureTerm extends AbstractTermImportanceFeature {
     private static final Logger log = LoggerFactory.getLogger( DensityMeasureTerm.class );
 
     public DensityMeasureTerm(AbstractOntologyRepository repository, TermStatsScorer termStatsScorer) {
-        super(repository);
+        super(repository, termStatsScorer);
         this.termStatsScorer = termStatsScorer;
     }
 
     public DensityMeasureTerm(AbstractOntologyRepository repository, TermStatsScorer termStatsScorer, double weightSubClass, double weightSuperClass, double weightRelations, double weightSiblings) {
-        super(repository);
+        super(repository, termStatsScorer);
         this.termStatsScorer = termStatsScorer;
         this.weightSubClass = weightSubClass;
         this.weightSuperClass = weightSuperClass;
@@ -26,7 +26,7 @@ public class HubDWRank extends AbstractTermImportanceFeature {
     private static final Logger log = LoggerFactory.getLogger( HubDWRank.class );
 
     public HubDWRank(AbstractOntologyRepository repository, HubDWRankScorer hubDWRankScorer) {
-        super(repository);
+        super(repository, hubDWRankScorer);
         this.hubDWRankScorer = hubDWRankScorer;
     }
 
@@ -34,7 +34,7 @@ public class HubDWRank extends AbstractTermImportanceFeature {
     public Map<Term, Double> computeScores(Set<Term> termSet, Ontology ontology) {
         Map<Term, Double> scores = new HashMap<>();
         if (ontology == null && !termSet.isEmpty()) {
-            ontology = new Ontology(termSet.iterator().next().getOntologyUriOfTerm());
+            ontology = termSet.iterator().next().getOntologyOfTerm();
         }
         Map<Term,Double> allOntologyTermScores = this.hubDWRankScorer.getHubScores(ontology);
         for (Term term : termSet) {
@@ -28,7 +28,7 @@ public class IDFTerm extends AbstractTermImportanceFeature {
     private static final Logger log = LoggerFactory.getLogger( IDFTerm.class );
 
     public IDFTerm(AbstractOntologyRepository repository, TFIDFScorer tfidfScorer) {
-        super(repository);
+        super(repository, tfidfScorer);
         this.tfidfScorer = tfidfScorer;
     }
 
@@ -20,7 +20,7 @@ public class Relations extends AbstractTermImportanceFeature {
     private static final Logger log = LoggerFactory.getLogger( Relations.class );
 
     public Relations(AbstractOntologyRepository repository, TermStatsScorer termStatsScorer) {
-        super(repository);
+        super(repository, termStatsScorer);
         this.termStatsScorer = termStatsScorer;
     }
 
@@ -16,7 +16,7 @@ public class Siblings extends AbstractTermImportanceFeature {
     public static final String FEATURE_NAME = "Siblings_T";
 
     public Siblings(AbstractOntologyRepository repository, TermStatsScorer termStatsScorer) {
-        super(repository);
+        super(repository, termStatsScorer);
         this.termStatsScorer = termStatsScorer;
     }
 
@@ -16,7 +16,7 @@ public class Subclasses extends AbstractTermImportanceFeature {
     public static final String FEATURE_NAME = "Subclasses_T";
 
     public Subclasses(AbstractOntologyRepository repository, TermStatsScorer termStatsScorer) {
-        super(repository);
+        super(repository, termStatsScorer);
         this.termStatsScorer = termStatsScorer;
     }
 
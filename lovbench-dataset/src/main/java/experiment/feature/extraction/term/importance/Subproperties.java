@@ -16,7 +16,7 @@ public class Subproperties extends AbstractTermImportanceFeature {
     public static final String FEATURE_NAME = "Subproperties_T";
 
     public Subproperties(AbstractOntologyRepository repository, TermStatsScorer termStatsScorer) {
-        super(repository);
+        super(repository, termStatsScorer);
         this.termStatsScorer = termStatsScorer;
     }
 
@@ -16,7 +16,7 @@ public class Superclasses extends AbstractTermImportanceFeature {
     public static final String FEATURE_NAME = "Superclasses_T";
 
     public Superclasses(AbstractOntologyRepository repository, TermStatsScorer termStatsScorer) {
-        super(repository);
+        super(repository, termStatsScorer);
         this.termStatsScorer = termStatsScorer;
     }
 
@@ -16,7 +16,7 @@ public class Superproperties extends AbstractTermImportanceFeature {
     public static final String FEATURE_NAME = "Superproperties_T";
 
     public Superproperties(AbstractOntologyRepository repository, TermStatsScorer termStatsScorer) {
-        super(repository);
+        super(repository, termStatsScorer);
         this.termStatsScorer = termStatsScorer;
     }
 
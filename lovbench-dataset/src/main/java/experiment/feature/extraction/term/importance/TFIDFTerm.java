@@ -28,7 +28,7 @@ public class TFIDFTerm extends AbstractTermImportanceFeature {
     private static final Logger log = LoggerFactory.getLogger( TFIDFTerm.class );
 
     public TFIDFTerm(AbstractOntologyRepository repository, TFIDFScorer tfidfScorer) {
-        super(repository);
+        super(repository, tfidfScorer);
         this.tfidfScorer = tfidfScorer;
     }
 
@@ -39,7 +39,7 @@ public class TFIDFTerm extends AbstractTermImportanceFeature {
         Map<Term, Double> scores = new HashMap<>();
         for (Term term : termSet) {
             if (ontology == null) {
-                ontology = new Ontology(term.getOntologyUriOfTerm());
+                ontology = term.getOntologyOfTerm();
             }
             double tfidfScore = this.tfidfScorer.tf(term, ontology) * this.tfidfScorer.idf(term);
             if (Double.compare(tfidfScore, 0.0) == 0) {
@@ -28,7 +28,7 @@ public class TFTerm extends AbstractTermImportanceFeature {
     private static final Logger log = LoggerFactory.getLogger( TFTerm.class );
 
     public TFTerm(AbstractOntologyRepository repository, TFIDFScorer tfidfScorer) {
-        super(repository);
+        super(repository, tfidfScorer);
         this.tfidfScorer = tfidfScorer;
     }
 
@@ -37,7 +37,7 @@ public class TFTerm extends AbstractTermImportanceFeature {
         Map<Term, Double> scores = new HashMap<>();
         for (Term term : termSet) {
             if (ontology == null ) {
-                ontology = new Ontology(term.getOntologyUriOfTerm());
+                ontology = term.getOntologyOfTerm();
             }
             double tfScore = this.tfidfScorer.tf(term, ontology);
             scores.put(term, tfScore);
@@ -1,6 +1,7 @@
 package experiment.feature.extraction.term.relevance;
 
 import experiment.feature.extraction.term.AbstractTermFeature;
+import experiment.feature.scoring.AbstractScorer;
 import experiment.model.query.TermQuery;
 import experiment.model.Term;
 import experiment.repository.triplestore.AbstractOntologyRepository;
@@ -11,8 +12,8 @@ import experiment.repository.triplestore.AbstractOntologyRepository;
  */
 public abstract class AbstractTermRelevanceFeature extends AbstractTermFeature {
 
-    public AbstractTermRelevanceFeature(AbstractOntologyRepository repository) {
-        super(repository);
+    public AbstractTermRelevanceFeature(AbstractOntologyRepository repository, AbstractScorer... prerequisites) {
+        super(repository, prerequisites);
     }
 
     abstract public double getScore(TermQuery query, Term term);
@@ -1,6 +1,5 @@
 package experiment.feature.extraction.term.relevance;
 
-import experiment.model.Ontology;
 import experiment.model.Term;
 import experiment.model.query.TermQuery;
 import experiment.repository.triplestore.AbstractOntologyRepository;
@@ -21,7 +20,7 @@ public class BooleanMatch extends AbstractTermRelevanceFeature {
 
     @Override
     public double getScore(TermQuery query, Term term) {
-        Set<Term> termMatches = this.repository.getTermQueryMatch(query,new Ontology(term.getOntologyUriOfTerm()));
+        Set<Term> termMatches = this.repository.getTermQueryMatch(query,term.getOntologyOfTerm());
         return (termMatches.contains(term)) ? 1.0 : 0.0;
     }
 
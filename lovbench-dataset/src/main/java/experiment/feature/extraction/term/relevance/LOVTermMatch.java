@@ -19,7 +19,7 @@ public class LOVTermMatch extends AbstractTermRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( LOVTermMatch.class );
 
     public LOVTermMatch(AbstractOntologyRepository repository, LOVScorer lovScorer) {
-        super(repository);
+        super(repository, lovScorer);
         this.lovScorer = lovScorer;
     }
 
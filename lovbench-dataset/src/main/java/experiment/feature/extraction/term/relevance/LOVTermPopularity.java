@@ -19,7 +19,7 @@ public class LOVTermPopularity extends AbstractTermRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( LOVTermPopularity.class );
 
     public LOVTermPopularity(AbstractOntologyRepository repository, LOVScorer lovScorer) {
-        super(repository);
+        super(repository, lovScorer);
         this.lovScorer = lovScorer;
     }
 
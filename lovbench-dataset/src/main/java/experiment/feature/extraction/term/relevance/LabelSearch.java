@@ -1,5 +1,6 @@
 package experiment.feature.extraction.term.relevance;
 
+import experiment.feature.scoring.util.ComputeOnceCache;
 import experiment.model.Term;
 import experiment.model.query.TermQuery;
 import experiment.repository.triplestore.AbstractOntologyRepository;
@@ -8,17 +9,24 @@ import javafx.util.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class LabelSearch extends AbstractTermRelevanceFeature {
 
     AbstractOntologySearchRepository searchRepository;
 
-    Map<TermQuery,Map<Term,Double>> searchScores = new HashMap<>();
+    /**
+     * Search results per query.
+     */
+    ComputeOnceCache<TermQuery,Map<Term,Double>> searchScores = new ComputeOnceCache<>();
 
     public static final String FEATURE_NAME = "LabelSearch_T";
 
+    /**
+     * Cost hint of a label search on the search repository, which the feature runs once per query instead of reading a scorer.
+     */
+    public static final double COST_HINT = 3.0;
+
     private static final Logger log = LoggerFactory.getLogger( LabelSearch.class );
 
     public LabelSearch(AbstractOntologyRepository repository, AbstractOntologySearchRepository searchRepository) {
@@ -28,13 +36,11 @@ public class LabelSearch extends AbstractTermRelevanceFeature {
 
     @Override
     public double getScore(TermQuery query, Term term) {
-        if (!this.searchScores.containsKey(query)) {
-            this.searchScores.put(query, this.searchRepository.search(query));
-        }
+        Map<Term,Double> scores = this.searchScores.get(query, this.searchRepository::search);
 
-        if (this.searchScores.get(query).containsKey(term)) {
-            log.debug(String.format("Query %s term %s score %s",query,term,this.searchScores.get(query).get(term)));
-            return this.searchScores.get(query).get(term);
+        if (scores.containsKey(term)) {
+            log.debug(String.format("Query %s term %s score %s",query,term,scores.get(term)));
+            return scores.get(term);
         } else {
             log.debug(String.format("Query %s term %s score %s",query,term,"ZERO"));
             return 0.0;
@@ -42,6 +48,11 @@ public class LabelSearch extends AbstractTermRelevanceFeature {
 
     }
 
+    @Override
+    public double getCostHint() {
+        return LabelSearch.COST_HINT;
+    }
+
     @Override
     public String getFeatureName() {
         return LabelSearch.FEATURE_NAME;
@@ -24,7 +24,7 @@ public class VSMTerm extends AbstractTermRelevanceFeature {
     private static final Logger log = LoggerFactory.getLogger( VSMTerm.class );
 
     public VSMTerm(AbstractOntologyRepository repository, TFIDFScorer tfidfScorer) {
-        super(repository);
+        super(repository, tfidfScorer);
         this.tfidfScorer = tfidfScorer;
     }
 
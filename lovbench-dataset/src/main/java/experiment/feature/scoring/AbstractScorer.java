@@ -1,5 +1,12 @@
 package experiment.feature.scoring;
 
+import experiment.model.Ontology;
+import experiment.model.Term;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Upper class for scorer classes.
  *
@@ -7,6 +14,37 @@ package experiment.feature.scoring;
  *
  * In some cases algorithms can also be made independent from the AbstractRepository object which remains in the features.
  *
+ * Scorers that are shared by several features can compute their state ahead of the feature scoring (see precompute() and FeaturePlanner).
+ *
  */
 public abstract class AbstractScorer {
+
+    /**
+     * Computes the state of the scorer for an ontology and the terms of the ontology that will be scored.
+     * Scorers without state per ontology do nothing.
+     *
+     * @param ontology
+     * @param terms
+     */
+    public void precompute(Ontology ontology, Set<Term> terms) {
+    }
+
+    /**
+     * Relative cost of the scorer for one ontology or query, the most expensive precomputations are started first.
+     * Features take the cost hint of the scorers they read (see AbstractFeature.getCostHint()).
+     *
+     * @return double
+     */
+    public double getCostHint() {
+        return 1.0;
+    }
+
+    /**
+     * Scorers whose state has to be computed before the state of this scorer.
+     *
+     * @return List<AbstractScorer>
+     */
+    public List<AbstractScorer> getPrerequisites() {
+        return Collections.emptyList();
+    }
 }
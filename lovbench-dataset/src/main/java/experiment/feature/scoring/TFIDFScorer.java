@@ -1,12 +1,16 @@
 package experiment.feature.scoring;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVWriter;
+import experiment.model.CorpusDictionary;
 import experiment.model.Ontology;
 import experiment.model.Term;
 import experiment.configuration.ExperimentConfiguration;
+import experiment.feature.scoring.util.ComputeOnceCache;
+import experiment.feature.scoring.util.IdCache;
+import experiment.feature.scoring.util.IdDoubleCache;
+import experiment.feature.scoring.util.IdIntCache;
+import experiment.feature.scoring.util.IdIntMap;
 import experiment.repository.file.FileUtil;
 import experiment.repository.triplestore.AbstractOntologyRepository;
 import org.slf4j.Logger;
@@ -17,7 +21,7 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 
@@ -34,16 +38,23 @@ public class TFIDFScorer extends AbstractScorer {
 
     /**
      * Caches maximum frequencies of term occurences per ontology as they are computationally very expensive.
+     * The caches are keyed by the corpus dictionary IDs of ontologies and terms and compute each value once, also when the scorer is shared by threads.
      */
-    Map<Ontology, Integer> maximumFrequencyCache = new HashMap<>();
+    IdIntCache maximumFrequencyCache = new IdIntCache();
 
-    Map<Ontology, Map<Term, Integer>> frequencyCache = new HashMap<>();
+    /**
+     * Term frequencies per ontology.
+     */
+    IdCache<TermFrequencies> frequencyCache = new IdCache<>();
 
-    Table<Term, Ontology, Double> tfCache = HashBasedTable.create();
+    /**
+     * TF scores per ontology and term (see tfKey()), only used with the file cache. Otherwise the tf is computed from the cached term frequencies.
+     */
+    ComputeOnceCache<Long, Double> tfCache = new ComputeOnceCache<>();
 
-    Map<Term, Double> idfCache = new HashMap<>();
+    IdDoubleCache idfCache = new IdDoubleCache();
 
-    Map<Ontology, Double> ontologyNormCache = new HashMap<>();
+    IdDoubleCache ontologyNormCache = new IdDoubleCache();
 
     boolean useFileCache;
 
@@ -65,6 +76,26 @@ public class TFIDFScorer extends AbstractScorer {
         }
     }
 
+    /**
+     * Counts the term frequencies of the ontology and computes tf and idf of the terms.
+     *
+     * @param ontology
+     * @param terms
+     */
+    @Override
+    public void precompute(Ontology ontology, Set<Term> terms) {
+        this.getTermFrequencies(ontology);
+        for (Term term : terms) {
+            this.tf(term, ontology);
+            this.idf(term);
+        }
+    }
+
+    @Override
+    public double getCostHint() {
+        return 2.0;
+    }
+
     /**
      * Computes the Term Frequency for term in ontology
      *
@@ -73,22 +104,25 @@ public class TFIDFScorer extends AbstractScorer {
      * @return double
      */
     public double tf(Term term, Ontology ontology) {
-        if (!this.frequencyCache.containsKey(ontology)) {
-            this.countAllFrequencies(ontology);
-        }
-        if (!this.tfCache.contains(term, ontology)) {
-            double tf = 0.0;
-            if (this.frequencyCache.get(ontology).containsKey(term)) {
-                tf = 0.5 + ((0.5 * (double)this.frequencyCache.get(ontology).get(term)) / (double)this.getMaximumFrequency(ontology));
-            } else {
-                log.error("It seems that the term " + term.getTermUri() + " does not belong to ontology " + ontology.getOntologyUri() + ". TF will be set to zero but this should not happen.");
-            }
-            this.tfCache.put(term, ontology, tf);
-            if (this.useFileCache) {
+        if (this.useFileCache) {
+            return this.tfCache.get(tfKey(term, ontology), key -> {
+                double tf = this.computeTf(term, ontology);
                 this.writeTfCsv(term, ontology, tf);
-            }
+                return tf;
+            });
         }
-        return this.tfCache.get(term, ontology);
+        return this.computeTf(term, ontology);
+    }
+
+    private double computeTf(Term term, Ontology ontology) {
+        double tf = 0.0;
+        IdIntMap frequencies = this.getTermFrequencies(ontology).frequencies;
+        if (frequencies.contains(term.getId())) {
+            tf = 0.5 + ((0.5 * (double)frequencies.get(term.getId())) / (double)this.getMaximumFrequency(ontology));
+        } else {
+            log.error("It seems that the term " + term.getTermUri() + " does not belong to ontology " + ontology.getOntologyUri() + ". TF will be set to zero but this should not happen.");
+        }
+        return tf;
     }
 
     /**
@@ -98,7 +132,7 @@ public class TFIDFScorer extends AbstractScorer {
      * @return double
      */
     public double idf(Term term) {
-        if (!this.idfCache.containsKey(term)) {
+        return this.idfCache.computeIfAbsent(term.getId(), id -> {
             int ontologiesContainingTerms = this.repository.countOntologiesContainingTerm(term);
             double idf = 0.0;
             if (ontologiesContainingTerms == 0) {
@@ -106,61 +140,58 @@ public class TFIDFScorer extends AbstractScorer {
             } else {
                 idf = Math.log((double)this.repository.countOntologies() / (double)ontologiesContainingTerms);
             }
-            this.idfCache.put(term, idf);
             if (this.useFileCache) {
                 this.writeIdfCsv(term, idf);
             }
-        }
-        return this.idfCache.get(term);
+            return idf;
+        });
     }
 
-    private void countAllFrequencies(Ontology ontology) {
-        Map<Term, Integer> frequencies = new HashMap<>();
-        int maxFreq = 0;
-        for (Term term : this.repository.getAllTerms(ontology)) {
-            int freq = this.repository.termFrequency(term, ontology);
-            if (freq > 0) {
-                frequencies.put(term, freq);
-                if (freq > maxFreq) {
-                    maxFreq = freq;
-                }
-            }
-        }
-        this.maximumFrequencyCache.put(ontology, maxFreq);
-        this.frequencyCache.put(ontology, frequencies);
+    /**
+     * Returns the frequencies of all terms in an ontology, counting them in one scan of the ontology graph if they are not cached.
+     *
+     * @param ontology
+     * @return TermFrequencies
+     */
+    private TermFrequencies getTermFrequencies(Ontology ontology) {
+        return this.frequencyCache.computeIfAbsent(ontology.getId(), id -> new TermFrequencies(this.repository.termFrequencies(ontology)));
     }
 
     /**
-     * Reads the maximum term frequency of an ontology from cache, or if it does not exists computes it and stores it to cache and a file.
+     * Reads the maximum term frequency of an ontology from cache, or if it does not exists computes it with the term frequencies of the ontology.
      *
      * @param ontology
      * @return int
      */
     private int getMaximumFrequency(Ontology ontology) {
-        if (!this.maximumFrequencyCache.containsKey(ontology)) {
-            // This approach does not scale well because the sparql query is too comples.
-            // Instead, run countAllFrequencies() first and this case should never happen.
+        // This approach does not scale well because the sparql query is too comples.
+        // Instead, the maximum is taken from the term frequencies of the ontology.
 //            int maxFrequency = this.repository.maximumFrequency(ontology);
 //            this.maximumFrequencyCache.put(ontology, maxFrequency);
 //            this.writeMaximumFrequencyCsv(ontology, maxFrequency);
-            this.countAllFrequencies(ontology);
-        }
-        return this.maximumFrequencyCache.get(ontology);
+        return this.maximumFrequencyCache.computeIfAbsent(ontology.getId(), id -> this.getTermFrequencies(ontology).maximumFrequency);
     }
 
     public double getOntologyNorm(Ontology ontology) {
-        double ontologyNorm = 0.0;
-        if (!this.ontologyNormCache.containsKey(ontology)) {
+        return this.ontologyNormCache.computeIfAbsent(ontology.getId(), id -> {
             Set<Term> termsInOntology = this.repository.getAllTerms(ontology);
             double tfidfSquaredSum = 0.0;
             for (Term term : termsInOntology) {
                 tfidfSquaredSum += Math.pow(this.tf(term, ontology) * this.idf(term), 2);
             }
-            ontologyNorm = Math.sqrt(tfidfSquaredSum);
-            this.ontologyNormCache.put(ontology, ontologyNorm);
-        }
+            return Math.sqrt(tfidfSquaredSum);
+        });
+    }
 
-        return this.ontologyNormCache.get(ontology);
+    /**
+     * Key of the TF cache for a term in an ontology.
+     *
+     * @param term
+     * @param ontology
+     * @return long
+     */
+    private static long tfKey(Term term, Ontology ontology) {
+        return ((long) ontology.getId() << 32) | (term.getId() & 0xFFFFFFFFL);
     }
 
     /**
@@ -169,7 +200,7 @@ public class TFIDFScorer extends AbstractScorer {
      * @param ontology
      * @param maximumFrequency
      */
-    public void writeMaximumFrequencyCsv(Ontology ontology, int maximumFrequency) {
+    public synchronized void writeMaximumFrequencyCsv(Ontology ontology, int maximumFrequency) {
         String filename = ExperimentConfiguration.getInstance().getMaximumFrequencyFile();
         File file = new File(filename);
         FileUtil.createFolderIfNotExists(file);
@@ -183,7 +214,7 @@ public class TFIDFScorer extends AbstractScorer {
         }
     }
 
-    public void writeTfCsv(Term term, Ontology ontology, double tf) {
+    public synchronized void writeTfCsv(Term term, Ontology ontology, double tf) {
         String filename = ExperimentConfiguration.getInstance().getTfFile();
         File file = new File(filename);
         FileUtil.createFolderIfNotExists(file);
@@ -197,7 +228,7 @@ public class TFIDFScorer extends AbstractScorer {
         }
     }
 
-    public void writeIdfCsv(Term term, double idf) {
+    public synchronized void writeIdfCsv(Term term, double idf) {
         String filename = ExperimentConfiguration.getInstance().getIdfFile();
         File file = new File(filename);
         FileUtil.createFolderIfNotExists(file);
@@ -220,10 +251,10 @@ public class TFIDFScorer extends AbstractScorer {
                 CSVReader csvReader = new CSVReader(br);
                 String[] arrLine;
                 while ((arrLine = csvReader.readNext()) != null) {
-                    Ontology ontology = new Ontology(arrLine[0]);
+                    Ontology ontology = CorpusDictionary.getInstance().getOntology(arrLine[0]);
                     int maxFrequency = Integer.parseInt(arrLine[1]);
                     log.debug("Maximum frequency read from cache: " + ontology + ": " + maxFrequency);
-                    this.maximumFrequencyCache.put(ontology, maxFrequency);
+                    this.maximumFrequencyCache.put(ontology.getId(), maxFrequency);
                 }
                 br.close();
                 csvReader.close();
@@ -239,10 +270,10 @@ public class TFIDFScorer extends AbstractScorer {
                 CSVReader csvReader = new CSVReader(br);
                 String[] arrLine;
                 while ((arrLine = csvReader.readNext()) != null) {
-                    Term term = new Term(arrLine[0]);
-                    Ontology ontology = new Ontology(arrLine[1]);
+                    Term term = CorpusDictionary.getInstance().getTerm(arrLine[0]);
+                    Ontology ontology = CorpusDictionary.getInstance().getOntology(arrLine[1]);
                     double tf = Double.parseDouble(arrLine[2]);
-                    this.tfCache.put(term, ontology, tf);
+                    this.tfCache.put(tfKey(term, ontology), tf);
                 }
                 br.close();
                 csvReader.close();
@@ -258,9 +289,9 @@ public class TFIDFScorer extends AbstractScorer {
                 CSVReader csvReader = new CSVReader(br);
                 String[] arrLine;
                 while ((arrLine = csvReader.readNext()) != null) {
-                    Term term = new Term(arrLine[0]);
+                    Term term = CorpusDictionary.getInstance().getTerm(arrLine[0]);
                     double idf = Double.parseDouble(arrLine[1]);
-                    this.idfCache.put(term, idf);
+                    this.idfCache.put(term.getId(), idf);
                 }
                 br.close();
                 csvReader.close();
@@ -269,4 +300,32 @@ public class TFIDFScorer extends AbstractScorer {
             }
         }
     }
+
+    /**
+     * Frequencies of the terms of an ontology, keyed by the corpus dictionary ID of the term.
+     */
+    private static class TermFrequencies {
+
+        final IdIntMap frequencies;
+
+        int maximumFrequency = 0;
+
+        TermFrequencies(Map<Term, Integer> termFrequencies) {
+            int[] termIds = new int[termFrequencies.size()];
+            int[] frequencies = new int[termFrequencies.size()];
+            int size = 0;
+            for (Map.Entry<Term, Integer> termFrequency : termFrequencies.entrySet()) {
+                int freq = termFrequency.getValue();
+                if (freq > 0) {
+                    termIds[size] = termFrequency.getKey().getId();
+                    frequencies[size] = freq;
+                    size++;
+                    if (freq > this.maximumFrequency) {
+                        this.maximumFrequency = freq;
+                    }
+                }
+            }
+            this.frequencies = new IdIntMap(Arrays.copyOf(termIds, size), Arrays.copyOf(frequencies, size));
+        }
+    }
 }
@@ -1,74 +1,263 @@
 package experiment.feature.scoring;
 
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.vocabulary.OWL;
+import experiment.feature.scoring.util.IdIntCache;
+import experiment.model.CorpusDictionary;
 import experiment.model.Ontology;
 import experiment.model.Term;
 import experiment.repository.triplestore.AbstractOntologyRepository;
+import experiment.repository.triplestore.connector.QueryExecutor;
+import experiment.repository.triplestore.index.HierarchyIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntSupplier;
 
+/**
+ * Statistics about the position of terms in their ontology. The hierarchy counts are answered from the hierarchy indexes of the repository
+ * (see AbstractOntologyRepository.getHierarchyIndex()), which are built once per ontology.
+ *
+ * The statistics are either computed term by term when they are first requested, or for all terms of a set of ontologies at once (see prefetch()).
+ */
 public class TermStatsScorer extends AbstractScorer {
 
-    Map<Term, Integer> subclasses = new HashMap<>();
+    /**
+     * Caches of the term statistics, keyed by the corpus dictionary ID of the term.
+     */
+    IdIntCache subclasses = new IdIntCache();
+
+    IdIntCache superclasses = new IdIntCache();
 
-    Map<Term, Integer> superclasses = new HashMap<>();
+    IdIntCache siblings = new IdIntCache();
 
-    Map<Term, Integer> siblings = new HashMap<>();
+    IdIntCache relations = new IdIntCache();
 
-    Map<Term, Integer> relations = new HashMap<>();
+    IdIntCache subproperties = new IdIntCache();
 
-    Map<Term, Integer> subproperties = new HashMap<>();
+    IdIntCache superproperties = new IdIntCache();
 
-    Map<Term, Integer> superproperties = new HashMap<>();
+    /**
+     * Ontologies (by corpus dictionary ID) whose statistics were computed for all terms, with the number of terms with statistics.
+     * Terms of these ontologies without cached statistics are in no hierarchy and have no relations.
+     */
+    IdIntCache prefetchedOntologies = new IdIntCache();
 
     /**
      * The repository for the ontology collection.
      */
     AbstractOntologyRepository repository;
 
+    private static final Logger log = LoggerFactory.getLogger( TermStatsScorer.class );
+
     public TermStatsScorer(AbstractOntologyRepository repository) {
         this.repository = repository;
     }
 
-    public int countSubclasses(Term term) {
-        if (!this.subclasses.containsKey(term)) {
-            this.subclasses.put(term, this.repository.countSubClasses(term, new Ontology(term.getOntologyUriOfTerm())));
+    /**
+     * Computes the statistics of all terms of the ontologies, in parallel per ontology on the executor of the caller. Ontologies that were already prefetched are skipped.
+     *
+     * @param ontologies
+     * @param executor
+     */
+    public void prefetch(Set<Ontology> ontologies, Executor executor) {
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Integer>> ontologyTermStats = new ArrayList<>();
+        for (Ontology ontology : ontologies) {
+            if (!this.isPrefetched(ontology)) {
+                ontologyTermStats.add(CompletableFuture.supplyAsync(() -> this.prefetch(ontology), executor));
+            }
         }
-        return this.subclasses.get(term);
+        int countTerms = 0;
+        for (CompletableFuture<Integer> termStats : ontologyTermStats) {
+            countTerms += QueryExecutor.join(termStats);
+        }
+        log.info(String.format("Term statistics prefetched for %s terms of %s ontologies in %s ms", countTerms, ontologyTermStats.size(), System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Computes the statistics of all terms of the ontology.
+     *
+     * @param ontology
+     * @param terms
+     */
+    @Override
+    public void precompute(Ontology ontology, Set<Term> terms) {
+        this.prefetch(ontology);
+    }
+
+    @Override
+    public double getCostHint() {
+        return 3.0;
+    }
+
+    /**
+     * Returns true if the statistics of all terms of the ontology are computed or being computed.
+     *
+     * @param ontology
+     * @return boolean
+     */
+    public boolean isPrefetched(Ontology ontology) {
+        return this.prefetchedOntologies.contains(ontology.getId());
+    }
+
+    public int countSubclasses(Term term) {
+        return this.getTermStat(this.subclasses, term, () -> this.repository.countSubClasses(term, term.getOntologyOfTerm()));
     }
 
     public int countSuperclasses(Term term) {
-        if (!this.superclasses.containsKey(term)) {
-            this.superclasses.put(term, this.repository.countSuperClasses(term, new Ontology(term.getOntologyUriOfTerm())));
-        }
-        return this.superclasses.get(term);
+        return this.getTermStat(this.superclasses, term, () -> this.repository.countSuperClasses(term, term.getOntologyOfTerm()));
     }
 
     public int countSiblings(Term term) {
-        if (!this.siblings.containsKey(term)) {
-            this.siblings.put(term, this.repository.countSiblings(term, new Ontology(term.getOntologyUriOfTerm())));
-        }
-        return siblings.get(term);
+        return this.getTermStat(this.siblings, term, () -> this.repository.countSiblings(term, term.getOntologyOfTerm()));
     }
 
     public int countRelations(Term term) {
-        if (!this.relations.containsKey(term)) {
-            this.relations.put(term, this.repository.countRelations(term, new Ontology(term.getOntologyUriOfTerm())));
-        }
-        return relations.get(term);
+        return this.getTermStat(this.relations, term, () -> this.repository.countRelations(term, term.getOntologyOfTerm()));
     }
 
     public int countSubproperties(Term term) {
-        if (!this.subproperties.containsKey(term)) {
-            this.subproperties.put(term, this.repository.countSubProperties(term, new Ontology(term.getOntologyUriOfTerm())));
-        }
-        return subproperties.get(term);
+        return this.getTermStat(this.subproperties, term, () -> this.repository.countSubProperties(term, term.getOntologyOfTerm()));
     }
 
     public int countSuperproperties(Term term) {
-        if (!this.superproperties.containsKey(term)) {
-            this.superproperties.put(term, this.repository.countSuperProperties(term, new Ontology(term.getOntologyUriOfTerm())));
+        return this.getTermStat(this.superproperties, term, () -> this.repository.countSuperProperties(term, term.getOntologyOfTerm()));
+    }
+
+    /**
+     * Computes the statistics of all terms of an ontology, or waits for them if another thread computes them.
+     *
+     * @param ontology
+     * @return int number of terms with statistics
+     */
+    private int prefetch(Ontology ontology) {
+        return this.prefetchedOntologies.computeIfAbsent(ontology.getId(), id -> this.addTermStats(this.computeTermStats(ontology)));
+    }
+
+    /**
+     * Returns a statistic of a term from the prefetched statistics of its ontology, or from the cache of statistics that are counted term by term.
+     *
+     * @param stats
+     * @param term
+     * @param count
+     * @return int
+     */
+    private int getTermStat(IdIntCache stats, Term term, IntSupplier count) {
+        if (this.isPrefetched(term.getOntologyOfTerm())) {
+            this.prefetch(term.getOntologyOfTerm());
+            return stats.get(term.getId());
+        }
+        return stats.computeIfAbsent(term.getId(), id -> count.getAsInt());
+    }
+
+    /**
+     * Computes the statistics of all terms of an ontology from its class and property hierarchy indexes and one count of the relations of all classes.
+     * Only terms that are defined by the ontology are kept, as the statistics of a term always refer to its own ontology.
+     *
+     * @param ontology
+     * @return OntologyTermStats
+     */
+    private OntologyTermStats computeTermStats(Ontology ontology) {
+        OntologyTermStats termStats = new OntologyTermStats(ontology);
+        HierarchyIndex<Node> classHierarchy = this.repository.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.CLASSES);
+        for (Node classNode : classHierarchy.getNodes()) {
+            int[] stats = termStats.getStats(classNode);
+            if (stats != null) {
+                stats[OntologyTermStats.SUBCLASSES] = classHierarchy.countDescendants(classNode, true);
+                stats[OntologyTermStats.SUPERCLASSES] = classHierarchy.countAncestors(classNode, true);
+                stats[OntologyTermStats.SIBLINGS] = classHierarchy.countSiblings(classNode, OWL.Thing.asNode(), true);
+            }
+        }
+        HierarchyIndex<Node> propertyHierarchy = this.repository.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.PROPERTIES);
+        for (Node propertyNode : propertyHierarchy.getNodes()) {
+            int[] stats = termStats.getStats(propertyNode);
+            if (stats != null) {
+                stats[OntologyTermStats.SUBPROPERTIES] = propertyHierarchy.countDescendants(propertyNode, true);
+                stats[OntologyTermStats.SUPERPROPERTIES] = propertyHierarchy.countAncestors(propertyNode, true);
+            }
+        }
+        for (Map.Entry<Term, Integer> classRelations : this.repository.countRelations(ontology).entrySet()) {
+            if (classRelations.getKey().getOntologyOfTerm().equals(ontology)) {
+                termStats.getStats(classRelations.getKey().getId())[OntologyTermStats.RELATIONS] = classRelations.getValue();
+            }
+        }
+        return termStats;
+    }
+
+    /**
+     * Adds the statistics of the terms of an ontology to the caches.
+     *
+     * @param termStats
+     * @return int number of terms with statistics
+     */
+    private int addTermStats(OntologyTermStats termStats) {
+        for (Map.Entry<Integer, int[]> stats : termStats.stats.entrySet()) {
+            int id = stats.getKey();
+            this.subclasses.put(id, stats.getValue()[OntologyTermStats.SUBCLASSES]);
+            this.superclasses.put(id, stats.getValue()[OntologyTermStats.SUPERCLASSES]);
+            this.siblings.put(id, stats.getValue()[OntologyTermStats.SIBLINGS]);
+            this.relations.put(id, stats.getValue()[OntologyTermStats.RELATIONS]);
+            this.subproperties.put(id, stats.getValue()[OntologyTermStats.SUBPROPERTIES]);
+            this.superproperties.put(id, stats.getValue()[OntologyTermStats.SUPERPROPERTIES]);
+        }
+        return termStats.stats.size();
+    }
+
+    /**
+     * Statistics of the terms of one ontology, computed in a worker thread before they are added to the caches.
+     */
+    private static class OntologyTermStats {
+
+        static final int SUBCLASSES = 0;
+
+        static final int SUPERCLASSES = 1;
+
+        static final int SIBLINGS = 2;
+
+        static final int RELATIONS = 3;
+
+        static final int SUBPROPERTIES = 4;
+
+        static final int SUPERPROPERTIES = 5;
+
+        final Ontology ontology;
+
+        /**
+         * Statistics by term ID.
+         */
+        final Map<Integer, int[]> stats = new LinkedHashMap<>();
+
+        OntologyTermStats(Ontology ontology) {
+            this.ontology = ontology;
+        }
+
+        /**
+         * Returns the statistics of a node, or null if it is not a term of the ontology.
+         *
+         * @param node
+         * @return int[]
+         */
+        int[] getStats(Node node) {
+            if (!node.isURI()) {
+                return null;
+            }
+            Term term = CorpusDictionary.getInstance().getTerm(node.getURI());
+            if (!term.getOntologyOfTerm().equals(this.ontology)) {
+                return null;
+            }
+            return this.getStats(term.getId());
+        }
+
+        int[] getStats(int id) {
+            return this.stats.computeIfAbsent(id, termId -> new int[6]);
         }
-        return superproperties.get(term);
     }
 }
@@ -3,6 +3,8 @@ package experiment.feature.scoring.api;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVWriter;
 import experiment.feature.scoring.AbstractScorer;
+import experiment.feature.scoring.util.ComputeOnceCache;
+import experiment.model.CorpusDictionary;
 import experiment.model.Ontology;
 import experiment.model.Term;
 import experiment.model.query.AbstractQuery;
@@ -10,6 +12,7 @@ import experiment.model.query.TermQuery;
 import experiment.configuration.ExperimentConfiguration;
 import experiment.repository.file.FileUtil;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -34,17 +37,22 @@ public class LOVScorer extends AbstractScorer {
     /**
      * Caches the scores of the lov term match.
      */
-    Map<TermQuery,Map<Term,Double>> lovTermMatchCache;
+    ComputeOnceCache<TermQuery,Map<Term,Double>> lovTermMatchCache = new ComputeOnceCache<>();
 
     /**
      * Caches the scores of lov term popularity.
      */
-    Map<TermQuery,Map<Term,Double>> lovTermPopularityCache;
+    ComputeOnceCache<TermQuery,Map<Term,Double>> lovTermPopularityCache = new ComputeOnceCache<>();
+
+    /**
+     * Caches the responses of the term API (match and popularity scores), which serve both term caches.
+     */
+    ComputeOnceCache<TermQuery,Pair<Map<Term,Double>,Map<Term,Double>>> lovTermApiCache = new ComputeOnceCache<>();
 
     /**
      * Caches the scores of lov ontology match.
      */
-    Map<AbstractQuery,Map<Ontology,Double>> lovOntologyMatchCache = new HashMap<>();
+    ComputeOnceCache<AbstractQuery,Map<Ontology,Double>> lovOntologyMatchCache = new ComputeOnceCache<>();
 
     private static final Logger log = LoggerFactory.getLogger( LOVScorer.class );
 
@@ -52,9 +60,19 @@ public class LOVScorer extends AbstractScorer {
      * If scores have been previously queried from the API, they will be loaded from file.
      */
     public LOVScorer() {
-        this.lovTermMatchCache = this.readTermScores(ExperimentConfiguration.getInstance().getLovAPITermMatchScoresFile());
-        this.lovTermPopularityCache = this.readTermScores(ExperimentConfiguration.getInstance().getLovAPITermPopularityScoresFile());
-        this.lovOntologyMatchCache = this.readOntologyScores(ExperimentConfiguration.getInstance().getLovAPIOntologyMatchScoresFile());
+        this.readTermScores(ExperimentConfiguration.getInstance().getLovAPITermMatchScoresFile()).forEach(this.lovTermMatchCache::put);
+        this.readTermScores(ExperimentConfiguration.getInstance().getLovAPITermPopularityScoresFile()).forEach(this.lovTermPopularityCache::put);
+        this.readOntologyScores(ExperimentConfiguration.getInstance().getLovAPIOntologyMatchScoresFile()).forEach(this.lovOntologyMatchCache::put);
+    }
+
+    /**
+     * Scores that are not cached are requested from the LOV API, which is slower than any query on the repository.
+     *
+     * @return double
+     */
+    @Override
+    public double getCostHint() {
+        return 10.0;
     }
 
     /**
@@ -65,14 +83,8 @@ public class LOVScorer extends AbstractScorer {
      * @return
      */
     public double getTermMatchScore(TermQuery query, Term term) {
-        double score = 0.0;
-        if (!this.lovTermMatchCache.containsKey(query)) {
-            this.getScoresFromTermApi(query);
-        }
-        if (this.lovTermMatchCache.get(query).containsKey(term)) {
-            score = this.lovTermMatchCache.get(query).get(term);
-        }
-        return score;
+        Map<Term,Double> scores = this.lovTermMatchCache.get(query, termQuery -> this.lovTermApiCache.get(termQuery, this::getScoresFromTermApi).getLeft());
+        return scores.getOrDefault(term, 0.0);
     }
 
     /**
@@ -83,14 +95,8 @@ public class LOVScorer extends AbstractScorer {
      * @return
      */
     public double getTermPopularityScore(TermQuery query, Term term) {
-        double score = 0.0;
-        if (!this.lovTermPopularityCache.containsKey(query)) {
-            this.getScoresFromTermApi(query);
-        }
-        if (this.lovTermPopularityCache.get(query).containsKey(term)) {
-            score = this.lovTermPopularityCache.get(query).get(term);
-        }
-        return score;
+        Map<Term,Double> scores = this.lovTermPopularityCache.get(query, termQuery -> this.lovTermApiCache.get(termQuery, this::getScoresFromTermApi).getRight());
+        return scores.getOrDefault(term, 0.0);
     }
 
     /**
@@ -101,22 +107,20 @@ public class LOVScorer extends AbstractScorer {
      * @return
      */
     public double getOntologyMatchScore(AbstractQuery query, Ontology ontology) {
-        double score = 0.0;
-        if (!this.lovOntologyMatchCache.containsKey(query)) {
-            this.getScoresFromVocabularyApi(query);
-        }
-        if (this.lovOntologyMatchCache.containsKey(query) && this.lovOntologyMatchCache.get(query).containsKey(ontology)) {
-            score = this.lovOntologyMatchCache.get(query).get(ontology);
-        }
-        return score;
+        Map<Ontology,Double> scores = this.lovOntologyMatchCache.get(query, this::getScoresFromVocabularyApi);
+        return scores.getOrDefault(ontology, 0.0);
     }
 
     /**
-     * Gets the term scores from the LOV api for a given query. Scores will be added to cache and appended to file. Raw json response is also stored.
+     * Gets the term scores from the LOV api for a given query. Scores will be appended to file, the raw json response is also stored.
+     * Requests are made one at a time to respect the rate limit of the API.
      *
      * @param query
+     * @return Pair<Map<Term,Double>,Map<Term,Double>> match and popularity scores
      */
-    private void getScoresFromTermApi(TermQuery query) {
+    private synchronized Pair<Map<Term,Double>,Map<Term,Double>> getScoresFromTermApi(TermQuery query) {
+        Map<Term,Double> termMatchScores = new HashMap<>();
+        Map<Term,Double> termPopularityScores = new HashMap<>();
         String filename = ExperimentConfiguration.getInstance().getLovAPIJSONResponsePath()+"term/"+query.toString().replace("/", "_")+".json";
         File file = new File(filename);
         if (!file.exists()) {
@@ -132,9 +136,6 @@ public class LOVScorer extends AbstractScorer {
                 JSONObject json = new JSONObject(IOUtils.toString(new URL(url), Charset.forName("UTF-8")));
                 this.saveJsonResponse(json, filename);
 
-                this.lovTermMatchCache.put(query, new HashMap<>());
-                this.lovTermPopularityCache.put(query, new HashMap<>());
-
                 // Iterate through results and add to cache
                 if (json != null && json.has("results")) {
                     JSONArray results = json.getJSONArray("results");
@@ -147,12 +148,12 @@ public class LOVScorer extends AbstractScorer {
                         scoreFeatureHit = (double) Math.round(scoreFeatureHit * 1000000d) / 1000000d;
                         double scoreFeaturePop = result.getDouble("scoreFeaturePop");
                         scoreFeaturePop = (double) Math.round(scoreFeaturePop * 1000000d) / 1000000d;
-                        this.lovTermMatchCache.get(query).put(new Term(uri), scoreFeatureHit);
-                        this.lovTermPopularityCache.get(query).put(new Term(uri), scoreFeaturePop);
+                        termMatchScores.put(CorpusDictionary.getInstance().getTerm(uri), scoreFeatureHit);
+                        termPopularityScores.put(CorpusDictionary.getInstance().getTerm(uri), scoreFeaturePop);
                         i++;
                     }
-                    this.saveTermScores(ExperimentConfiguration.getInstance().getLovAPITermMatchScoresFile(), query, this.lovTermMatchCache.get(query));
-                    this.saveTermScores(ExperimentConfiguration.getInstance().getLovAPITermPopularityScoresFile(), query, this.lovTermPopularityCache.get(query));
+                    this.saveTermScores(ExperimentConfiguration.getInstance().getLovAPITermMatchScoresFile(), query, termMatchScores);
+                    this.saveTermScores(ExperimentConfiguration.getInstance().getLovAPITermPopularityScoresFile(), query, termPopularityScores);
                 }
             } catch (JSONException e) {
                 e.printStackTrace();
@@ -160,14 +161,18 @@ public class LOVScorer extends AbstractScorer {
                 e.printStackTrace();
             }
         }
+        return Pair.of(termMatchScores, termPopularityScores);
     }
 
     /**
-     * Gets the ontology scores from the LOV api for a given query. Scores will be added to cache and appended to file. Raw json response is also stored.
+     * Gets the ontology scores from the LOV api for a given query. Scores will be appended to file, the raw json response is also stored.
+     * Requests are made one at a time to respect the rate limit of the API.
      *
      * @param query
+     * @return Map<Ontology,Double>
      */
-    private void getScoresFromVocabularyApi(AbstractQuery query) {
+    private synchronized Map<Ontology,Double> getScoresFromVocabularyApi(AbstractQuery query) {
+        Map<Ontology,Double> ontologyMatchScores = new HashMap<>();
         String filename = ExperimentConfiguration.getInstance().getLovAPIJSONResponsePath()+"ontology/"+query.toString().replace("/", "_")+".json";
         File file = new File(filename);
         if (!file.exists()) {
@@ -183,7 +188,6 @@ public class LOVScorer extends AbstractScorer {
                 JSONObject json = new JSONObject(IOUtils.toString(new URL(url), Charset.forName("UTF-8")));
 
                 this.saveJsonResponse(json, filename);
-                this.lovOntologyMatchCache.put(query, new HashMap<>());
 
                 // Iterate through results and add to cache
                 if (json != null && json.has("results")) {
@@ -195,10 +199,10 @@ public class LOVScorer extends AbstractScorer {
                         //                    uri = uri.substring(2,uri.length()-2);
                         double scoreFeatureHit = result.getDouble("_score");
                         scoreFeatureHit = (double) Math.round(scoreFeatureHit * 1000000d) / 1000000d;
-                        this.lovOntologyMatchCache.get(query).put(new Ontology(uri), scoreFeatureHit);
+                        ontologyMatchScores.put(CorpusDictionary.getInstance().getOntology(uri), scoreFeatureHit);
                         i++;
                     }
-                    this.saveOntologyScores(ExperimentConfiguration.getInstance().getLovAPIOntologyMatchScoresFile(), query, this.lovOntologyMatchCache.get(query));
+                    this.saveOntologyScores(ExperimentConfiguration.getInstance().getLovAPIOntologyMatchScoresFile(), query, ontologyMatchScores);
                 }
             } catch (JSONException e) {
                 e.printStackTrace();
@@ -206,6 +210,7 @@ public class LOVScorer extends AbstractScorer {
                 e.printStackTrace();
             }
         }
+        return ontologyMatchScores;
     }
 
     /**
@@ -248,7 +253,7 @@ public class LOVScorer extends AbstractScorer {
                 String[] arrLine;
                 while ((arrLine = csvReader.readNext()) != null) {
                     TermQuery termQuery = new TermQuery(arrLine[0]);
-                    Term term = new Term(arrLine[1]);
+                    Term term = CorpusDictionary.getInstance().getTerm(arrLine[1]);
 //                    log.info(String.format("LOV score read from file: %s - %s", termQuery.toString(), term.toString()));
                     double score = Double.parseDouble(arrLine[2]);
 //                    log.info(String.format("LOV score read from file: %s - %s - %s", termQuery.toString(), term.toString(), score));
@@ -306,7 +311,7 @@ public class LOVScorer extends AbstractScorer {
                 String[] arrLine;
                 while ((arrLine = csvReader.readNext()) != null) {
                     AbstractQuery ontologyQuery = new TermQuery(arrLine[0]);
-                    Ontology ontology = new Ontology(arrLine[1]);
+                    Ontology ontology = CorpusDictionary.getInstance().getOntology(arrLine[1]);
                     double score = Double.parseDouble(arrLine[2]);
                     log.debug(String.format("LOV score read from file: %s - %s - %s", ontologyQuery.toString(), ontology.toString(), score));
                     if (!scores.containsKey(ontologyQuery)) {
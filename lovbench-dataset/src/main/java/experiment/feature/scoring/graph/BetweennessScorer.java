@@ -6,6 +6,8 @@ import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import experiment.feature.scoring.AbstractScorer;
 import experiment.feature.scoring.graph.util.JungGraphUtil;
+import experiment.feature.scoring.util.IdCache;
+import experiment.model.CorpusDictionary;
 import experiment.model.Ontology;
 import experiment.model.Term;
 import experiment.repository.file.LOVPrefixes;
@@ -18,6 +20,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Scorer for the betweenness score of a graph.
@@ -25,9 +28,9 @@ import java.util.Map;
 public class BetweennessScorer extends AbstractScorer {
 
     /**
-     * Caches the betweeness scores.
+     * Caches the betweeness scores, keyed by the corpus dictionary ID of the ontology.
      */
-    private Map<Ontology, Map<Term,Double>> betweennessScoreCache = new HashMap<>();
+    private IdCache<Map<Term,Double>> betweennessScoreCache = new IdCache<>();
 
     /**
      * Repository with ontology collection.
@@ -40,6 +43,21 @@ public class BetweennessScorer extends AbstractScorer {
         this.repository = repository;
     }
 
+    @Override
+    public void precompute(Ontology ontology, Set<Term> terms) {
+        this.allBetweennessScores(ontology);
+    }
+
+    /**
+     * Betweenness centrality is the most expensive graph algorithm of the scorers.
+     *
+     * @return double
+     */
+    @Override
+    public double getCostHint() {
+        return 10.0;
+    }
+
     /**
      * Returns betweenness score for a term in an ontology from cache, or runs betweenness scorer if no scores available.
      *
@@ -49,29 +67,25 @@ public class BetweennessScorer extends AbstractScorer {
      */
     public double betweenness(Term term, Ontology ontology) {
         double betweenness = 0.0;
-        if (!this.betweennessScoreCache.containsKey(ontology)) {
-            this.runBetweennessScorer(ontology);
-        }
-        if (this.betweennessScoreCache.get(ontology).containsKey(term)) {
-            betweenness = this.betweennessScoreCache.get(ontology).get(term);
+        Map<Term,Double> scores = this.allBetweennessScores(ontology);
+        if (scores.containsKey(term)) {
+            betweenness = scores.get(term);
         }
         return betweenness;
     }
 
     public Map<Term,Double> allBetweennessScores(Ontology ontology) {
-        if (!this.betweennessScoreCache.containsKey(ontology)) {
-            this.runBetweennessScorer(ontology);
-        }
-        return this.betweennessScoreCache.get(ontology);
+        return this.betweennessScoreCache.computeIfAbsent(ontology.getId(), id -> this.runBetweennessScorer(ontology));
     }
 
     /**
      * Computes the betweenness of nodes in an ontology graph.
      *
      * @param ontology
+     * @return Map<Term,Double>
      */
-    public void runBetweennessScorer(Ontology ontology) {
-        Graph<Term,String> ontologyGraph = JungGraphUtil.createOntologyGraph(this.repository.getOntologyGraphTriples(ontology), EdgeType.UNDIRECTED);
+    public Map<Term,Double> runBetweennessScorer(Ontology ontology) {
+        Graph<Term,String> ontologyGraph = JungGraphUtil.createOntologyGraph(this.repository.getOntologyGraphCache().getGraph(ontology), false, EdgeType.UNDIRECTED);
         BetweennessCentrality ranker = new BetweennessCentrality(ontologyGraph,true, true);
         ranker.evaluate();
 
@@ -80,7 +94,7 @@ public class BetweennessScorer extends AbstractScorer {
         String termPrefixForOntology = LOVPrefixes.getInstance().getTermPrefixForOntologyPrefix(ontology.getOntologyPrefix());
 
         // Missing ontologies in the dump have to be skipped - which will not have a prefix specified.
-        this.betweennessScoreCache.put(ontology, new HashMap<>());
+        Map<Term,Double> scores = new HashMap<>();
         if (termPrefixForOntology != null && !termPrefixForOntology.isEmpty()) {
 
             log.debug(String.format("Count scores: %s", ranker.getRankings().size()));
@@ -93,23 +107,24 @@ public class BetweennessScorer extends AbstractScorer {
 
                 } else if (ranking.getRanked() instanceof String) {
                     String termUri = ((String) ranking.getRanked()).split("::")[0];
-                    ranked = new Term(termUri);
+                    ranked = CorpusDictionary.getInstance().getTerm(termUri);
                 }
                 double score = ranking.rankScore;
                 log.debug(String.format("Betweenness score for term %s in ontology %s: %s", ranked.toString(), ontology.getOntologyUri(), score));
                 // We filter ontology terms so late because all graph nodes should be considered for the scoring.
                 if (ranked.getTermUri().startsWith(termPrefixForOntology)) {
-                    if (this.betweennessScoreCache.get(ontology).containsKey(ranked)) {
-                        double tmp = this.betweennessScoreCache.get(ontology).get(ranked);
-                        this.betweennessScoreCache.get(ontology).put(ranked, tmp + score);
+                    if (scores.containsKey(ranked)) {
+                        double tmp = scores.get(ranked);
+                        scores.put(ranked, tmp + score);
                     } else {
-                        this.betweennessScoreCache.get(ontology).put(ranked, score);
+                        scores.put(ranked, score);
                     }
                 } else {
                     log.debug(String.format("Score dismissed: %s", ranked));
                 }
             }
         }
+        return scores;
     }
 
     /**
@@ -120,7 +135,7 @@ public class BetweennessScorer extends AbstractScorer {
      * @param score
      */
     private void addScoreToCache(Ontology ontology, Term term, Double score) {
-        if (!this.betweennessScoreCache.containsKey(ontology)) {
+        if (!this.betweennessScoreCache.contains(ontology.getId())) {
         }
     }
 }
@@ -1,12 +1,11 @@
 package experiment.feature.scoring.graph;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
 import edu.uci.ics.jung.algorithms.scoring.HITS;
 import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import experiment.feature.scoring.AbstractScorer;
 import experiment.feature.scoring.graph.util.JungGraphUtil;
+import experiment.feature.scoring.util.ComputeOnceCache;
 import experiment.model.Ontology;
 import experiment.model.query.AbstractQuery;
 import experiment.repository.triplestore.AbstractOntologyRepository;
@@ -14,7 +13,9 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -26,14 +27,9 @@ public class HITSScorer extends AbstractScorer {
     private static final Logger log = LoggerFactory.getLogger( HITSScorer.class );
 
     /**
-     * Caches the authority scores to avoid re-computations.
+     * Caches the authority and hub scores per query to avoid re-computations.
      */
-    Table<AbstractQuery,Ontology,Double> authorityScores = HashBasedTable.create();
-
-    /**
-     * Caches the hub scores to avoid re-computations.
-     */
-    Table<AbstractQuery,Ontology,Double> hubScores = HashBasedTable.create();
+    ComputeOnceCache<AbstractQuery, QueryHitsScores> hitsScores = new ComputeOnceCache<>();
 
     AbstractOntologyRepository repository;
 
@@ -44,6 +40,16 @@ public class HITSScorer extends AbstractScorer {
         this.graphRelations = graphRelations;
     }
 
+    /**
+     * HITS runs on the graph of the query matches once per query.
+     *
+     * @return double
+     */
+    @Override
+    public double getCostHint() {
+        return 3.0;
+    }
+
     /**
      * Reads authority score from cache, if it is not contained, it computes both HITS scores and adds to cache.
      *
@@ -52,11 +58,7 @@ public class HITSScorer extends AbstractScorer {
      * @return double
      */
     public double getAuthorityScore(AbstractQuery query, Ontology ontology) {
-        if (!this.authorityScores.containsRow(query)) {
-            this.runHits(query);
-        }
-
-        return this.getScoreFromTable(this.authorityScores,query,ontology);
+        return this.hitsScores.get(query, this::runHits).authorityScores.getOrDefault(ontology, 0.0);
     }
 
     /**
@@ -67,11 +69,7 @@ public class HITSScorer extends AbstractScorer {
      * @return double
      */
     public double getHubScore(AbstractQuery query, Ontology ontology) {
-        if (!this.hubScores.containsRow(query)) {
-            this.runHits(query);
-        }
-
-        return this.getScoreFromTable(this.hubScores,query,ontology);
+        return this.hitsScores.get(query, this::runHits).hubScores.getOrDefault(ontology, 0.0);
     }
 
 
@@ -79,8 +77,10 @@ public class HITSScorer extends AbstractScorer {
      * Runs the HITS algorithm.
      *
      * @param query
+     * @return QueryHitsScores
      */
-    private void runHits(AbstractQuery query) {
+    private QueryHitsScores runHits(AbstractQuery query) {
+        QueryHitsScores scores = new QueryHitsScores();
         Set<Pair<Ontology, Ontology>> graphRelationsOfQueryMatch = new HashSet<>();
         Set<Ontology> queryMatch = this.repository.getOntologyQueryMatch(query);
         if (!queryMatch.isEmpty()) {
@@ -101,45 +101,22 @@ public class HITSScorer extends AbstractScorer {
 
             for (Ontology ontology : graph.getVertices()) {
                 log.debug("adding score for: " + query.toString() + " - " + ontology.toString());
-                this.authorityScores.put(query, ontology, hits.getVertexScore(ontology).authority);
-                this.hubScores.put(query, ontology, hits.getVertexScore(ontology).hub);
+                scores.authorityScores.put(ontology, hits.getVertexScore(ontology).authority);
+                scores.hubScores.put(ontology, hits.getVertexScore(ontology).hub);
             }
         } else {
             log.debug(String.format("Query lead to zero matches or to a graph with no import edges for query %s", query.toString()));
-            this.authorityScores.put(query, new Ontology(""), 0.0);
-            this.hubScores.put(query, new Ontology(""), 0.0);
         }
+        return scores;
     }
 
     /**
-     * Reads a score from cache. Return 0 if not found.
-     *
-     * @param table
-     * @param query
-     * @param ontology
-     * @return double
+     * HITS scores of the ontologies that match a query. Ontologies without scores have the score 0.
      */
-    private double getScoreFromTable(Table<AbstractQuery,Ontology,Double> table, AbstractQuery query, Ontology ontology) {
-        if (table.contains(query, ontology)) {
-            return table.get(query,ontology);
-        } else {
-            return 0.0;
-        }
-    }
-
-    public Table<AbstractQuery, Ontology, Double> getAuthorityScores() {
-        return authorityScores;
-    }
+    private static class QueryHitsScores {
 
-    public void setAuthorityScores(Table<AbstractQuery, Ontology, Double> authorityScores) {
-        this.authorityScores = authorityScores;
-    }
-
-    public Table<AbstractQuery, Ontology, Double> getHubScores() {
-        return hubScores;
-    }
+        final Map<Ontology, Double> authorityScores = new HashMap<>();
 
-    public void setHubScores(Table<AbstractQuery, Ontology, Double> hubScores) {
-        this.hubScores = hubScores;
+        final Map<Ontology, Double> hubScores = new HashMap<>();
     }
 }
@@ -4,6 +4,7 @@ import edu.uci.ics.jung.graph.util.EdgeType;
 import experiment.feature.scoring.AbstractScorer;
 import experiment.feature.scoring.graph.util.JungGraphUtil;
 import experiment.feature.scoring.normaliser.Normalise;
+import experiment.feature.scoring.util.IdCache;
 import experiment.model.Ontology;
 import experiment.model.Term;
 import experiment.repository.file.LOVPrefixes;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Class that computes HubScores as specified by DWRank.
@@ -31,19 +33,9 @@ public class HubDWRankScorer extends AbstractScorer {
     AbstractOntologyRepository repository;
 
     /**
-     * Caches the max hub scores per ontology.
+     * Caches the hub scores of all terms with their minimum and maximum per ontology, keyed by the corpus dictionary ID of the ontology.
      */
-    Map<Ontology, Double> maxHubScoreCache = new HashMap<>();
-
-    /**
-     * Caches the min hub score per ontology.
-     */
-    Map<Ontology, Double> minHubScoreCache = new HashMap<>();
-
-    /**
-     * Caches the hub score for all terms.
-     */
-    Map<Ontology, Map<Term, Double>> hubScoreCache = new HashMap<>();
+    IdCache<OntologyHubScores> hubScoreCache = new IdCache<>();
 
     private static final Logger log = LoggerFactory.getLogger(HubDWRankScorer.class);
 
@@ -51,6 +43,16 @@ public class HubDWRankScorer extends AbstractScorer {
         this.repository = repository;
     }
 
+    @Override
+    public void precompute(Ontology ontology, Set<Term> terms) {
+        this.getOntologyHubScores(ontology);
+    }
+
+    @Override
+    public double getCostHint() {
+        return 4.0;
+    }
+
     /**
      * Computes the hub scores, as reversed pagerank with zscore normalisation.
      *
@@ -58,37 +60,7 @@ public class HubDWRankScorer extends AbstractScorer {
      * @return
      */
     public Map<Term, Double> getHubScores(Ontology ontology) {
-        if (this.hubScoreCache.containsKey(ontology)) {
-            return this.hubScoreCache.get(ontology);
-        }
-
-        Map<Term, Double> filteredOntologyTermScores = new HashMap<>();
-
-        Map<Term, Double> ontologyTermScores = this.pageRankScorer.run(JungGraphUtil.createOntologyGraph(this.repository.getOntologyGraphTriples(ontology, true), EdgeType.DIRECTED));
-
-        double minHub = Double.MAX_VALUE;
-        double maxHub = 0.0;
-        for (Term term : this.repository.getAllTerms(ontology)) {
-            if (ontologyTermScores.containsKey(term)) {
-                double score = ontologyTermScores.get(term);
-                if (Double.compare(score, minHub) == -1) {
-                    minHub = score;
-                }
-                if (Double.compare(score, maxHub) == 1) {
-                    maxHub = score;
-                }
-                filteredOntologyTermScores.put(term, score);
-            } else {
-                if (Double.compare(0.0, minHub) == -1) {
-                    minHub = 0.0;
-                }
-                filteredOntologyTermScores.put(term, 0.0);
-            }
-        }
-        this.maxHubScoreCache.put(ontology, maxHub);
-        this.minHubScoreCache.put(ontology, minHub);
-
-        return filteredOntologyTermScores;
+        return this.getOntologyHubScores(ontology).scores;
     }
 
     /**
@@ -98,10 +70,7 @@ public class HubDWRankScorer extends AbstractScorer {
      * @return
      */
     public double getMaxHubScore(Ontology ontology) {
-        if (!this.maxHubScoreCache.containsKey(ontology)) {
-            this.getHubScores(ontology);
-        }
-        return this.maxHubScoreCache.get(ontology);
+        return this.getOntologyHubScores(ontology).maxHub;
     }
 
     /**
@@ -111,9 +80,53 @@ public class HubDWRankScorer extends AbstractScorer {
      * @return
      */
     public double getMinHubScore(Ontology ontology) {
-        if (!this.minHubScoreCache.containsKey(ontology)) {
-            this.getHubScores(ontology);
+        return this.getOntologyHubScores(ontology).minHub;
+    }
+
+    private OntologyHubScores getOntologyHubScores(Ontology ontology) {
+        return this.hubScoreCache.computeIfAbsent(ontology.getId(), id -> {
+            Map<Term, Double> filteredOntologyTermScores = new HashMap<>();
+
+            Map<Term, Double> ontologyTermScores = this.pageRankScorer.run(JungGraphUtil.createOntologyGraph(this.repository.getOntologyGraphCache().getGraph(ontology), true, EdgeType.DIRECTED));
+
+            double minHub = Double.MAX_VALUE;
+            double maxHub = 0.0;
+            for (Term term : this.repository.getAllTerms(ontology)) {
+                if (ontologyTermScores.containsKey(term)) {
+                    double score = ontologyTermScores.get(term);
+                    if (Double.compare(score, minHub) == -1) {
+                        minHub = score;
+                    }
+                    if (Double.compare(score, maxHub) == 1) {
+                        maxHub = score;
+                    }
+                    filteredOntologyTermScores.put(term, score);
+                } else {
+                    if (Double.compare(0.0, minHub) == -1) {
+                        minHub = 0.0;
+                    }
+                    filteredOntologyTermScores.put(term, 0.0);
+                }
+            }
+            return new OntologyHubScores(filteredOntologyTermScores, minHub, maxHub);
+        });
+    }
+
+    /**
+     * Hub scores of the terms of an ontology.
+     */
+    private static class OntologyHubScores {
+
+        final Map<Term, Double> scores;
+
+        final double minHub;
+
+        final double maxHub;
+
+        OntologyHubScores(Map<Term, Double> scores, double minHub, double maxHub) {
+            this.scores = scores;
+            this.minHub = minHub;
+            this.maxHub = maxHub;
         }
-        return this.minHubScoreCache.get(ontology);
     }
 }
@@ -2,6 +2,7 @@ package experiment.feature.scoring.graph.util;
 
 import com.mxgraph.layout.mxCircleLayout;
 import com.mxgraph.swing.mxGraphComponent;
+import experiment.model.CorpusDictionary;
 import experiment.model.Ontology;
 import org.jgraph.graph.DefaultEdge;
 import org.jgrapht.Graph;
@@ -38,8 +39,8 @@ public class JGraphTUtil {
             String fromOntologyIRI = importStatement.getValue("importingOntology").stringValue();
             String toOntologyIRI = importStatement.getValue("importedOntology").stringValue();
 
-            Ontology fromOntology = new Ontology(fromOntologyIRI);
-            Ontology toOntology = new Ontology(toOntologyIRI);
+            Ontology fromOntology = CorpusDictionary.getInstance().getOntology(fromOntologyIRI);
+            Ontology toOntology = CorpusDictionary.getInstance().getOntology(toOntologyIRI);
 
             if (!graph.containsVertex(fromOntology)) {
                 graph.addVertex(fromOntology);
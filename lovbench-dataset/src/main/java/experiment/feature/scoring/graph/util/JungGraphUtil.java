@@ -6,6 +6,7 @@ import edu.uci.ics.jung.graph.SparseMultigraph;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import experiment.model.Ontology;
 import experiment.model.Term;
+import experiment.repository.triplestore.graph.OntologyGraph;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.slf4j.Logger;
@@ -114,4 +115,28 @@ public class JungGraphUtil {
         }
         return graph;
     }
+
+    /**
+     * Creates an ontology graph from the compact ontology graph of the ontology graph cache, optionally reversed.
+     *
+     * @param ontologyGraph
+     * @param reversed
+     * @param edgeType
+     * @return
+     */
+    public static Graph<Term,String> createOntologyGraph(OntologyGraph ontologyGraph, boolean reversed, EdgeType edgeType) {
+        Graph<Term,String> graph = new SparseMultigraph<>();
+        for (int edge = 0; edge < ontologyGraph.countEdges(); edge++) {
+            Term subject = ontologyGraph.getSubject(edge, reversed);
+            Term object = ontologyGraph.getObject(edge, reversed);
+            if (!graph.containsVertex(subject)) {
+                graph.addVertex(subject);
+            }
+            if (!graph.containsVertex(object)) {
+                graph.addVertex(object);
+            }
+            graph.addEdge(ontologyGraph.getPredicate(edge) + "::" + subject + "::" + object, subject, object, edgeType);
+        }
+        return graph;
+    }
 }
@@ -0,0 +1,170 @@
+package experiment.feature.scoring.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+/**
+ * Base of the caches keyed by dense corpus dictionary IDs (see experiment.model.CorpusDictionary), which can be read and filled concurrently
+ * and compute the value of each ID at most once, like ComputeOnceCache.
+ *
+ * Values are kept in pages of primitive arrays that are allocated for the ranges of IDs that are used, so cached values are neither boxed nor hashed.
+ * Only while a value is being computed, the ID has an entry in a map of running computations that other threads requesting it wait for.
+ *
+ * @param <P> array type of the values of a page
+ */
+abstract class AbstractIdCache<P> {
+
+    static final int PAGE_BITS = 10;
+
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /**
+     * Values of PAGE_SIZE consecutive IDs. A value is published by setting its flag after it has been written.
+     *
+     * @param <P>
+     */
+    static final class Page<P> {
+
+        final P values;
+
+        private final AtomicIntegerArray present = new AtomicIntegerArray(PAGE_SIZE);
+
+        Page(P values) {
+            this.values = values;
+        }
+
+        boolean isPresent(int slot) {
+            return this.present.get(slot) != 0;
+        }
+    }
+
+    /**
+     * Pages by the upper bits of the ID, replaced by a larger copy when a page is added.
+     */
+    private volatile Page<P>[] pages = newPages(0);
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Computations that are running, by ID.
+     */
+    private final ConcurrentHashMap<Integer, Computation<Void>> computations = new ConcurrentHashMap<>();
+
+    /**
+     * Allocates the values of a page.
+     *
+     * @return P
+     */
+    protected abstract P newValues();
+
+    /**
+     * Returns true if the value of the ID is computed or being computed.
+     *
+     * @param id
+     * @return boolean
+     */
+    public boolean contains(int id) {
+        Page<P> page = this.getPage(id);
+        return (page != null && page.isPresent(id & PAGE_MASK)) || this.computations.containsKey(id);
+    }
+
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Returns the page of an ID, or null if no value of its page has been stored.
+     *
+     * @param id
+     * @return Page<P>
+     */
+    final Page<P> getPage(int id) {
+        Page<P>[] pages = this.pages;
+        int index = id >>> PAGE_BITS;
+        return index < pages.length ? pages[index] : null;
+    }
+
+    /**
+     * Returns the page of an ID, adding it if it does not exist yet.
+     *
+     * @param id
+     * @return Page<P>
+     */
+    final Page<P> getOrAddPage(int id) {
+        Page<P> page = this.getPage(id);
+        if (page == null) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Negative ID " + id);
+            }
+            synchronized (this) {
+                page = this.getPage(id);
+                if (page == null) {
+                    int index = id >>> PAGE_BITS;
+                    Page<P>[] pages = newPages(Math.max(index + 1, this.pages.length));
+                    System.arraycopy(this.pages, 0, pages, 0, this.pages.length);
+                    page = new Page<>(this.newValues());
+                    pages[index] = page;
+                    this.pages = pages;
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Publishes the value that has been written to the slot of a page.
+     *
+     * @param page
+     * @param slot
+     */
+    final void setPresent(Page<P> page, int slot) {
+        if (page.present.getAndSet(slot, 1) == 0) {
+            this.size.incrementAndGet();
+        }
+    }
+
+    /**
+     * Makes sure that the value of an ID is present: runs the computation, which writes the value to the page, if the value is neither cached
+     * nor being computed by another thread, or waits for the computation of the other thread.
+     * Failed computations are not cached: the waiting threads receive the exception of the computation and the next request computes the value again.
+     *
+     * @param id
+     * @param computeValue
+     * @return Page<P> the page that contains the value
+     */
+    final Page<P> computeOnce(int id, Consumer<Page<P>> computeValue) {
+        Page<P> page = this.getOrAddPage(id);
+        int slot = id & PAGE_MASK;
+        while (!page.isPresent(slot)) {
+            Computation<Void> computation = new Computation<>();
+            Computation<Void> running = this.computations.putIfAbsent(id, computation);
+            if (running != null) {
+                running.await();
+                continue;
+            }
+            try {
+                // The value may have been published between the check and the registration of the computation
+                if (!page.isPresent(slot)) {
+                    computeValue.accept(page);
+                    this.setPresent(page, slot);
+                }
+                computation.complete(null);
+            } catch (RuntimeException | Error e) {
+                computation.completeExceptionally(e);
+                throw e;
+            } finally {
+                this.computations.remove(id, computation);
+            }
+        }
+        return page;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <P> Page<P>[] newPages(int length) {
+        return (Page<P>[]) new Page[length];
+    }
+}
@@ -0,0 +1,159 @@
+package experiment.feature.scoring.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache that keeps at most maxSize values and computes the value of each key at most once at a time, like ComputeOnceCache.
+ * The least recently used value is evicted when the cache is full.
+ *
+ * Values are computed outside of the lock, so values of different keys can be computed in parallel. While a value is computed,
+ * other threads that request it wait for the computation, which is tracked only until its value is cached or it fails.
+ * A request counts as hit if it is served from the cache or by the computation of another thread, and as miss if it computes the value.
+ * Values must not be null.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedComputeOnceCache<K, V> {
+
+    private final int maxSize;
+
+    private final LinkedHashMap<K, V> values;
+
+    /**
+     * Computations that are running, by key.
+     */
+    private final Map<K, Computation<V>> computations = new HashMap<>();
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    private long evictions = 0;
+
+    public BoundedComputeOnceCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.values = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > BoundedComputeOnceCache.this.maxSize) {
+                    BoundedComputeOnceCache.this.evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the value of a key, computing it if it is neither cached nor being computed by another thread.
+     *
+     * @param key
+     * @param compute
+     * @return V
+     */
+    public V get(K key, Function<? super K, ? extends V> compute) {
+        Computation<V> computation;
+        boolean computing = false;
+        synchronized (this) {
+            V value = this.values.get(key);
+            if (value != null) {
+                this.hits++;
+                return value;
+            }
+            computation = this.computations.get(key);
+            if (computation != null) {
+                this.hits++;
+            } else {
+                computation = new Computation<>();
+                this.computations.put(key, computation);
+                this.misses++;
+                computing = true;
+            }
+        }
+        return computing ? this.compute(key, compute, computation) : computation.await();
+    }
+
+    /**
+     * Computes and caches the value of a key, and completes the computation that other threads wait for.
+     *
+     * @param key
+     * @param compute
+     * @param computation
+     * @return V
+     */
+    private V compute(K key, Function<? super K, ? extends V> compute, Computation<V> computation) {
+        V value;
+        try {
+            value = compute.apply(key);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                this.computations.remove(key);
+            }
+            computation.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            this.values.put(key, value);
+            this.computations.remove(key);
+        }
+        computation.complete(value);
+        return value;
+    }
+
+    public synchronized int size() {
+        return this.values.size();
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Returns the cached values, from the least to the most recently used.
+     *
+     * @return List<V>
+     */
+    public synchronized List<V> values() {
+        return new ArrayList<>(this.values.values());
+    }
+
+    /**
+     * Returns the number of computations that are running.
+     *
+     * @return int
+     */
+    synchronized int countComputations() {
+        return this.computations.size();
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Returns the share of requests that were served without computing the value.
+     *
+     * @return double
+     */
+    public synchronized double getHitRate() {
+        return this.hits + this.misses == 0 ? 0.0 : (double) this.hits / (this.hits + this.misses);
+    }
+
+    public synchronized void clear() {
+        this.values.clear();
+    }
+}
@@ -0,0 +1,37 @@
+package experiment.feature.scoring.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Computation of a cached value by the thread that created it, which other threads requesting the value wait for.
+ *
+ * @param <V>
+ */
+class Computation<V> extends CompletableFuture<V> {
+
+    private final Thread owner = Thread.currentThread();
+
+    /**
+     * Waits for the value and rethrows the failure of the computation as it was thrown.
+     * A thread that waits for its own computation, i.e. computes a value recursively, fails instead of waiting forever.
+     *
+     * @return V
+     */
+    V await() {
+        if (!this.isDone() && this.owner == Thread.currentThread()) {
+            throw new IllegalStateException("Recursive computation of a cached value");
+        }
+        try {
+            return this.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package experiment.feature.scoring.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache that can be read and filled concurrently and computes the value of each key at most once.
+ *
+ * The first thread that requests a missing key computes its value, other threads that request the same key in the meantime
+ * wait for that computation instead of repeating it. Failed computations are not cached: the waiting threads receive the
+ * exception of the computation and the next request computes the value again.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ComputeOnceCache<K, V> {
+
+    private final ConcurrentHashMap<K, Computation<V>> values = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the value of a key, computing it if it is neither cached nor being computed by another thread.
+     *
+     * @param key
+     * @param compute
+     * @return V
+     */
+    public V get(K key, Function<? super K, ? extends V> compute) {
+        Computation<V> computation = this.values.get(key);
+        if (computation == null) {
+            Computation<V> newComputation = new Computation<>();
+            computation = this.values.putIfAbsent(key, newComputation);
+            if (computation == null) {
+                try {
+                    V value = compute.apply(key);
+                    newComputation.complete(value);
+                    return value;
+                } catch (RuntimeException | Error e) {
+                    this.values.remove(key, newComputation);
+                    newComputation.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        return computation.await();
+    }
+
+    /**
+     * Returns the value of a key if it is computed, otherwise null without waiting for or starting a computation.
+     *
+     * @param key
+     * @return V
+     */
+    public V getIfPresent(K key) {
+        Computation<V> computation = this.values.get(key);
+        return computation != null && computation.isDone() && !computation.isCompletedExceptionally() ? computation.join() : null;
+    }
+
+    /**
+     * Caches a value that was computed elsewhere, e.g. read from a file.
+     *
+     * @param key
+     * @param value
+     */
+    public void put(K key, V value) {
+        Computation<V> computation = new Computation<>();
+        computation.complete(value);
+        this.values.put(key, computation);
+    }
+
+    /**
+     * Returns true if the value of the key is computed or being computed.
+     *
+     * @param key
+     * @return boolean
+     */
+    public boolean contains(K key) {
+        return this.values.containsKey(key);
+    }
+
+    public void remove(K key) {
+        this.values.remove(key);
+    }
+
+    public void clear() {
+        this.values.clear();
+    }
+
+    public int size() {
+        return this.values.size();
+    }
+}
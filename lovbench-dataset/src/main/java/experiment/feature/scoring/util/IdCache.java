@@ -0,0 +1,58 @@
+package experiment.feature.scoring.util;
+
+import java.util.function.IntFunction;
+
+/**
+ * Cache of objects keyed by dense corpus dictionary IDs (see experiment.model.CorpusDictionary), which computes the value of each ID once,
+ * also when it is shared by threads (see AbstractIdCache). The keys are not boxed or hashed.
+ *
+ * @param <V> value type
+ */
+public class IdCache<V> extends AbstractIdCache<Object[]> {
+
+    @Override
+    protected Object[] newValues() {
+        return new Object[PAGE_SIZE];
+    }
+
+    /**
+     * Returns the cached value, or null if no value is cached for the ID.
+     *
+     * @param id
+     * @return V
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int id) {
+        Page<Object[]> page = this.getPage(id);
+        return page != null && page.isPresent(id & PAGE_MASK) ? (V) page.values[id & PAGE_MASK] : null;
+    }
+
+    /**
+     * Caches a value that was computed elsewhere.
+     *
+     * @param id
+     * @param value
+     */
+    public void put(int id, V value) {
+        Page<Object[]> page = this.getOrAddPage(id);
+        page.values[id & PAGE_MASK] = value;
+        this.setPresent(page, id & PAGE_MASK);
+    }
+
+    /**
+     * Returns the cached value, computing it first if it is neither cached nor being computed by another thread.
+     *
+     * @param id
+     * @param compute
+     * @return V
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int id, IntFunction<? extends V> compute) {
+        int slot = id & PAGE_MASK;
+        Page<Object[]> page = this.getPage(id);
+        if (page == null || !page.isPresent(slot)) {
+            page = this.computeOnce(id, computePage -> computePage.values[slot] = compute.apply(id));
+        }
+        return (V) page.values[slot];
+    }
+}
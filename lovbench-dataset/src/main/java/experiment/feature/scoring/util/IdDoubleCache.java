@@ -0,0 +1,54 @@
+package experiment.feature.scoring.util;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Cache of double values keyed by dense corpus dictionary IDs (see experiment.model.CorpusDictionary), which computes the value of each ID once,
+ * also when it is shared by threads (see AbstractIdCache). Neither keys nor values are boxed.
+ */
+public class IdDoubleCache extends AbstractIdCache<double[]> {
+
+    @Override
+    protected double[] newValues() {
+        return new double[PAGE_SIZE];
+    }
+
+    /**
+     * Returns the cached value, or 0.0 if no value is cached for the ID.
+     *
+     * @param id
+     * @return double
+     */
+    public double get(int id) {
+        Page<double[]> page = this.getPage(id);
+        return page != null && page.isPresent(id & PAGE_MASK) ? page.values[id & PAGE_MASK] : 0.0;
+    }
+
+    /**
+     * Caches a value that was computed elsewhere, e.g. read from a file.
+     *
+     * @param id
+     * @param value
+     */
+    public void put(int id, double value) {
+        Page<double[]> page = this.getOrAddPage(id);
+        page.values[id & PAGE_MASK] = value;
+        this.setPresent(page, id & PAGE_MASK);
+    }
+
+    /**
+     * Returns the cached value, computing it first if it is neither cached nor being computed by another thread.
+     *
+     * @param id
+     * @param compute
+     * @return double
+     */
+    public double computeIfAbsent(int id, IntToDoubleFunction compute) {
+        int slot = id & PAGE_MASK;
+        Page<double[]> page = this.getPage(id);
+        if (page == null || !page.isPresent(slot)) {
+            page = this.computeOnce(id, computePage -> computePage.values[slot] = compute.applyAsDouble(id));
+        }
+        return page.values[slot];
+    }
+}
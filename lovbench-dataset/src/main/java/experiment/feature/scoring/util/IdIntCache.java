@@ -0,0 +1,54 @@
+package experiment.feature.scoring.util;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Cache of int values keyed by dense corpus dictionary IDs (see experiment.model.CorpusDictionary), which computes the value of each ID once,
+ * also when it is shared by threads (see AbstractIdCache). Neither keys nor values are boxed.
+ */
+public class IdIntCache extends AbstractIdCache<int[]> {
+
+    @Override
+    protected int[] newValues() {
+        return new int[PAGE_SIZE];
+    }
+
+    /**
+     * Returns the cached value, or 0 if no value is cached for the ID.
+     *
+     * @param id
+     * @return int
+     */
+    public int get(int id) {
+        Page<int[]> page = this.getPage(id);
+        return page != null && page.isPresent(id & PAGE_MASK) ? page.values[id & PAGE_MASK] : 0;
+    }
+
+    /**
+     * Caches a value that was computed elsewhere, e.g. read from a file.
+     *
+     * @param id
+     * @param value
+     */
+    public void put(int id, int value) {
+        Page<int[]> page = this.getOrAddPage(id);
+        page.values[id & PAGE_MASK] = value;
+        this.setPresent(page, id & PAGE_MASK);
+    }
+
+    /**
+     * Returns the cached value, computing it first if it is neither cached nor being computed by another thread.
+     *
+     * @param id
+     * @param compute
+     * @return int
+     */
+    public int computeIfAbsent(int id, IntUnaryOperator compute) {
+        int slot = id & PAGE_MASK;
+        Page<int[]> page = this.getPage(id);
+        if (page == null || !page.isPresent(slot)) {
+            page = this.computeOnce(id, computePage -> computePage.values[slot] = compute.applyAsInt(id));
+        }
+        return page.values[slot];
+    }
+}
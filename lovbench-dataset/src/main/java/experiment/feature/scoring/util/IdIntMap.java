@@ -0,0 +1,61 @@
+package experiment.feature.scoring.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable map of int values keyed by corpus dictionary IDs (see experiment.model.CorpusDictionary) for a sparse subset of the IDs,
+ * e.g. the terms of one ontology. Keys and values are kept in two primitive arrays sorted by ID, so the memory grows with the number
+ * of entries instead of the largest ID, and lookups are binary searches.
+ */
+public class IdIntMap {
+
+    private final int[] ids;
+
+    private final int[] values;
+
+    /**
+     * Map of the IDs to the values at the same positions. An ID may only occur once.
+     *
+     * @param ids
+     * @param values
+     */
+    public IdIntMap(int[] ids, int[] values) {
+        if (ids.length != values.length) {
+            throw new IllegalArgumentException(String.format("%s IDs for %s values", ids.length, values.length));
+        }
+        // Sort the entries by ID, with the ID in the high and the value in the low bits of one long
+        long[] entries = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            entries[i] = ((long) ids[i] << 32) | (values[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(entries);
+        this.ids = new int[entries.length];
+        this.values = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            this.ids[i] = (int) (entries[i] >>> 32);
+            this.values[i] = (int) entries[i];
+            if (i > 0 && this.ids[i] == this.ids[i - 1]) {
+                throw new IllegalArgumentException("Duplicate ID " + this.ids[i]);
+            }
+        }
+    }
+
+    public boolean contains(int id) {
+        return Arrays.binarySearch(this.ids, id) >= 0;
+    }
+
+    /**
+     * Returns the value of the ID, or 0 if the map does not contain the ID.
+     *
+     * @param id
+     * @return int
+     */
+    public int get(int id) {
+        int index = Arrays.binarySearch(this.ids, id);
+        return index >= 0 ? this.values[index] : 0;
+    }
+
+    public int size() {
+        return this.ids.length;
+    }
+}
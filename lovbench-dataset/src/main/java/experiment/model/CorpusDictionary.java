@@ -0,0 +1,213 @@
+package experiment.model;
+
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary that encodes term URIs and ontology URIs as dense integer IDs, and interns Term and Ontology objects.
+ *
+ * The repositories and files create their terms and ontologies through getTerm() and getOntology(), so there is one canonical
+ * object per URI. Terms and ontologies compare and hash their IDs, and scorers use the IDs to index their caches. Canonical
+ * objects get their ID when they are interned, other objects when they are first compared or hashed.
+ * IDs are assigned in the order in which URIs are first seen. Registering the corpus before the extraction starts
+ * (see register()) assigns all IDs up front, so that they are stable across runs on the same corpus.
+ */
+public class CorpusDictionary {
+
+    /**
+     * Singleton object.
+     */
+    private static CorpusDictionary corpusDictionaryInstance = null;
+
+    /**
+     * Maps a term URI to its ID.
+     */
+    private final Map<String, Integer> termIds = new ConcurrentHashMap<>();
+
+    /**
+     * Term URIs by ID.
+     */
+    private final List<String> termUris = new ArrayList<>();
+
+    /**
+     * Maps an ontology URI to its ID.
+     */
+    private final Map<String, Integer> ontologyIds = new ConcurrentHashMap<>();
+
+    /**
+     * Ontology URIs by ID.
+     */
+    private final List<String> ontologyUris = new ArrayList<>();
+
+    /**
+     * Interned terms, keyed by their full URI and by the URIs they were requested with (e.g. prefix:term).
+     */
+    private final Map<String, Term> terms = new ConcurrentHashMap<>();
+
+    /**
+     * Interned ontologies, keyed by their URI.
+     */
+    private final Map<String, Ontology> ontologies = new ConcurrentHashMap<>();
+
+    private static final Logger log = LoggerFactory.getLogger( CorpusDictionary.class );
+
+    private CorpusDictionary() {
+    }
+
+    /**
+     * Gets singleton instance.
+     *
+     * @return CorpusDictionary
+     */
+    public static synchronized CorpusDictionary getInstance() {
+        if (corpusDictionaryInstance == null) {
+            corpusDictionaryInstance = new CorpusDictionary();
+        }
+        return corpusDictionaryInstance;
+    }
+
+    /**
+     * Assigns IDs to all ontologies and their terms when the corpus is loaded, in the order the repository returns them.
+     *
+     * @param repository
+     */
+    public void register(AbstractOntologyRepository repository) {
+        long start = System.currentTimeMillis();
+        Set<Ontology> allOntologies = repository.getAllOntologies();
+        for (Ontology ontology : allOntologies) {
+            this.ontologies.putIfAbsent(ontology.getOntologyUri(), ontology);
+            for (Term term : repository.getAllTerms(ontology)) {
+                this.terms.putIfAbsent(term.getTermUri(), term);
+                term.getId();
+            }
+        }
+        log.info(String.format("Corpus dictionary holds %s terms and %s ontologies after %s ms", this.countTerms(), this.countOntologies(), System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Returns the ID of a (full) term URI, assigning a new one if the URI has not been seen before.
+     *
+     * @param termUri
+     * @return int
+     */
+    public int getTermId(String termUri) {
+        if (termUri == null) {
+            termUri = "";
+        }
+        Integer id = this.termIds.get(termUri);
+        if (id == null) {
+            synchronized (this.termUris) {
+                id = this.termIds.get(termUri);
+                if (id == null) {
+                    id = this.termUris.size();
+                    this.termUris.add(termUri);
+                    this.termIds.put(termUri, id);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Returns the ID of an ontology URI, assigning a new one if the URI has not been seen before.
+     *
+     * @param ontologyUri
+     * @return int
+     */
+    public int getOntologyId(String ontologyUri) {
+        if (ontologyUri == null) {
+            ontologyUri = "";
+        }
+        Integer id = this.ontologyIds.get(ontologyUri);
+        if (id == null) {
+            synchronized (this.ontologyUris) {
+                id = this.ontologyIds.get(ontologyUri);
+                if (id == null) {
+                    id = this.ontologyUris.size();
+                    this.ontologyUris.add(ontologyUri);
+                    this.ontologyIds.put(ontologyUri, id);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Returns the term URI of an ID.
+     *
+     * @param id
+     * @return String
+     */
+    public String getTermUri(int id) {
+        synchronized (this.termUris) {
+            return this.termUris.get(id);
+        }
+    }
+
+    /**
+     * Returns the ontology URI of an ID.
+     *
+     * @param id
+     * @return String
+     */
+    public String getOntologyUri(int id) {
+        synchronized (this.ontologyUris) {
+            return this.ontologyUris.get(id);
+        }
+    }
+
+    /**
+     * Returns the interned term for a term URI, which might come in the form of prefix:term.
+     *
+     * @param termUri
+     * @return Term
+     */
+    public Term getTerm(String termUri) {
+        if (termUri == null) {
+            return new Term(termUri);
+        }
+        Term term = this.terms.get(termUri);
+        if (term == null) {
+            Term created = new Term(termUri);
+            term = this.terms.computeIfAbsent(created.getTermUri(), fullUri -> created);
+            term.getId();
+            if (!termUri.equals(term.getTermUri())) {
+                this.terms.putIfAbsent(termUri, term);
+            }
+        }
+        return term;
+    }
+
+    /**
+     * Returns the interned ontology for an ontology URI.
+     *
+     * @param ontologyUri
+     * @return Ontology
+     */
+    public Ontology getOntology(String ontologyUri) {
+        if (ontologyUri == null) {
+            return new Ontology(ontologyUri);
+        }
+        Ontology ontology = this.ontologies.get(ontologyUri);
+        if (ontology == null) {
+            ontology = this.ontologies.computeIfAbsent(ontologyUri, Ontology::new);
+            ontology.getId();
+        }
+        return ontology;
+    }
+
+    public int countTerms() {
+        return this.termIds.size();
+    }
+
+    public int countOntologies() {
+        return this.ontologyIds.size();
+    }
+}
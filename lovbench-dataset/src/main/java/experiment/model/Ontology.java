@@ -14,6 +14,11 @@ public class Ontology {
      */
     String ontologyUri;
 
+    /**
+     * ID of the ontology URI in the corpus dictionary, assigned on first use.
+     */
+    private int id = -1;
+
     private static final Logger log = LoggerFactory.getLogger( Ontology.class );
 
     public Ontology(String ontologyUri) {
@@ -42,23 +47,44 @@ public class Ontology {
         return LOVPrefixes.getInstance().getAlternativeTermPrefixForOntologyPrefix(this.getOntologyPrefix());
     }
 
+    /**
+     * Gets the ID of the ontology in the corpus dictionary.
+     *
+     * @return int
+     */
+    public int getId() {
+        if (this.id < 0) {
+            this.id = CorpusDictionary.getInstance().getOntologyId(this.ontologyUri);
+        }
+        return this.id;
+    }
+
     public String getOntologyUri() {
         return ontologyUri;
     }
 
+    /**
+     * Changes the URI of the ontology. Must not be called on ontologies of the corpus dictionary, which are shared.
+     *
+     * @param ontologyUri
+     */
     public void setOntologyUri(String ontologyUri) {
         this.ontologyUri = ontologyUri;
+        this.id = -1;
     }
 
     @Override
     public int hashCode() {
-        return this.ontologyUri.hashCode();
+        return this.getId();
     }
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
         if (obj instanceof Ontology) {
-            return this.ontologyUri.equals(((Ontology) obj).getOntologyUri());
+            return this.getId() == ((Ontology) obj).getId();
         }
         return false;
     }
@@ -4,8 +4,6 @@ import experiment.repository.file.LOVPrefixes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Objects;
-
 /**
  * Class that represents a term in the ontology collection.
  */
@@ -18,6 +16,16 @@ public class Term {
 
     String localName;
 
+    /**
+     * ID of the term URI in the corpus dictionary, assigned on first use.
+     */
+    private int id = -1;
+
+    /**
+     * The ontology that defines the term, resolved on first use.
+     */
+    private Ontology ontologyOfTerm;
+
     private static final Logger log = LoggerFactory.getLogger( Term.class );
 
     /**
@@ -44,6 +52,30 @@ public class Term {
         return LOVPrefixes.getInstance().getOntologyUriOfTermUri(this.termUri);
     }
 
+    /**
+     * Gets the (interned) ontology of the term.
+     *
+     * @return Ontology
+     */
+    public Ontology getOntologyOfTerm() {
+        if (this.ontologyOfTerm == null) {
+            this.ontologyOfTerm = CorpusDictionary.getInstance().getOntology(this.getOntologyUriOfTerm());
+        }
+        return this.ontologyOfTerm;
+    }
+
+    /**
+     * Gets the ID of the term in the corpus dictionary.
+     *
+     * @return int
+     */
+    public int getId() {
+        if (this.id < 0) {
+            this.id = CorpusDictionary.getInstance().getTermId(this.termUri);
+        }
+        return this.id;
+    }
+
     public String getTermUri() {
         return termUri;
     }
@@ -63,22 +95,28 @@ public class Term {
         return alternativeTermUri;
     }
 
+    /**
+     * Changes the URI of the term. Must not be called on terms of the corpus dictionary, which are shared.
+     *
+     * @param termUri
+     */
     public void setTermUri(String termUri) {
         this.termUri = termUri;
+        this.id = -1;
+        this.ontologyOfTerm = null;
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
-        Term term = (Term) o;
-        return Objects.equals(termUri, term.termUri);
+        // Terms with the same URI share their ID, whether they are interned or not
+        return this.getId() == ((Term) o).getId();
     }
 
     @Override
     public int hashCode() {
-
-        return Objects.hash(termUri);
+        return this.getId();
     }
 
     @Override
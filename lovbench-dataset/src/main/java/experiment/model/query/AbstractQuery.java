@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.regex.Pattern;
 
 /**
  * Abstract class for a query made for LOV term or ontology search.
@@ -65,6 +66,17 @@ public abstract class AbstractQuery {
         return stringBuilder.toString();
     }
 
+    /**
+     * Returns the search words as a case insensitive pattern that matches like the sparql filter expression of getSearchWordsFilterExpression().
+     *
+     * @return Pattern
+     */
+    public Pattern getSearchWordsPattern() {
+        String regex = "(" + String.join("|", this.getSearchWords()) + ")";
+        regex = regex.replace("+", "\\+");
+        return Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+    }
+
     public List<String> getSearchWords() {
         return searchWords;
     }
@@ -129,6 +129,21 @@ public class TermQuery extends AbstractQuery {
         return stringBuilder.toString();
     }
 
+    /**
+     * Returns a string that identifies the query with its filters, unlike toString() which only returns the search words.
+     * Queries that are equal have the same key. The format is the deprecated query string format: search words, type filter, tag filter and
+     * vocabulary filter separated by "//", with an empty string for a filter that is not set.
+     *
+     * @return String
+     */
+    public String getKey() {
+        String filterType = "";
+        if (this.filterTypes != null) {
+            filterType = this.filterTypes.name().toLowerCase();
+        }
+        return String.join("//", String.join(" ", this.searchWords), filterType, Objects.toString(this.filterTags, ""), Objects.toString(this.filterVocs, ""));
+    }
+
     @Override
     public String toString() {
         return String.join(" ", this.searchWords);
@@ -0,0 +1,19 @@
+package experiment.model.query.enums;
+
+/**
+ * Lists what the feature extraction does with a (query, element) pair whose score could not be computed because a query timed out.
+ */
+public enum QueryTimeoutPolicy {
+    /**
+     * The pair is left out of the results.
+     */
+    SKIP,
+    /**
+     * The pair gets the sentinel score of the configuration.
+     */
+    SENTINEL,
+    /**
+     * The score is computed again, the pair is left out if all retries time out.
+     */
+    RETRY
+}
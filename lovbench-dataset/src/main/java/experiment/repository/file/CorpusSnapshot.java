@@ -0,0 +1,335 @@
+package experiment.repository.file;
+
+import com.hp.hpl.jena.datatypes.TypeMapper;
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.NodeFactory;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.query.DatasetFactory;
+import com.hp.hpl.jena.rdf.model.AnonId;
+import com.hp.hpl.jena.sparql.core.DatasetGraph;
+import com.hp.hpl.jena.sparql.core.DatasetGraphFactory;
+import com.hp.hpl.jena.sparql.graph.GraphFactory;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact binary snapshot of the LOV corpus, compiled once from the N-Quads dump so that later runs do not have to parse it again.
+ *
+ * Layout (big endian):
+ * - magic number and format version
+ * - node dictionary: number of nodes, then per node its kind (URI, blank node, literal) and its length-prefixed UTF-8 strings
+ *   (literals additionally carry language tag and datatype URI)
+ * - graphs: number of graphs, then per graph the dictionary ID of its name (-1 for the default graph), whether it is the
+ *   LOV metadata graph, the number of triples, and the triples as three dictionary IDs each
+ *
+ * Every graph is a section of its own, so that the loader can skip graphs without decoding their triples (see load()).
+ * The loader memory-maps the file and decodes every distinct node only once, so snapshots are limited to 2 GB (see MAX_SIZE).
+ */
+public class CorpusSnapshot {
+
+    /**
+     * Marks a snapshot file ("LOVS").
+     */
+    public static final int MAGIC = 0x4C4F5653;
+
+    public static final int VERSION = 1;
+
+    private static final byte URI = 0;
+
+    private static final byte BLANK = 1;
+
+    private static final byte LITERAL = 2;
+
+    private static final int DEFAULT_GRAPH = -1;
+
+    /**
+     * Maximum size of a snapshot in bytes, the size of a memory-mapped buffer.
+     */
+    public static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    private static final Logger log = LoggerFactory.getLogger( CorpusSnapshot.class );
+
+    /**
+     * Parses an N-Quads dump and writes it as snapshot.
+     *
+     * @param nqFile
+     * @param snapshotFile
+     * @param metadataGraph name of the LOV metadata graph
+     * @throws IOException
+     */
+    public static void compile(String nqFile, String snapshotFile, String metadataGraph) throws IOException {
+        long start = System.currentTimeMillis();
+        Dataset dataset = new File(nqFile).isFile() ? new ParallelNQuadsLoader().load(nqFile) : RDFDataMgr.loadDataset(nqFile, Lang.NQUADS);
+        log.info(String.format("Parsed %s in %s ms", nqFile, System.currentTimeMillis() - start));
+        CorpusSnapshot.write(dataset, snapshotFile, metadataGraph);
+        log.info(String.format("Compiled corpus snapshot %s in %s ms", snapshotFile, System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Writes a dataset as snapshot.
+     *
+     * @param dataset
+     * @param snapshotFile
+     * @param metadataGraph name of the LOV metadata graph
+     * @throws IOException
+     */
+    public static void write(Dataset dataset, String snapshotFile, String metadataGraph) throws IOException {
+        DatasetGraph datasetGraph = dataset.asDatasetGraph();
+        Map<Node, Integer> nodeIds = new HashMap<>();
+        List<Node> nodes = new ArrayList<>();
+
+        // The metadata graph goes first, followed by the default graph and the ontology graphs
+        List<Node> graphNames = new ArrayList<>();
+        List<int[]> graphTriples = new ArrayList<>();
+        Node metadataGraphNode = NodeFactory.createURI(metadataGraph);
+        if (datasetGraph.containsGraph(metadataGraphNode)) {
+            graphNames.add(metadataGraphNode);
+        }
+        graphNames.add(null);
+        Iterator<Node> graphNodes = datasetGraph.listGraphNodes();
+        while (graphNodes.hasNext()) {
+            Node graphNode = graphNodes.next();
+            if (!graphNode.equals(metadataGraphNode)) {
+                graphNames.add(graphNode);
+            }
+        }
+
+        for (Node graphName : graphNames) {
+            Graph graph = graphName == null ? datasetGraph.getDefaultGraph() : datasetGraph.getGraph(graphName);
+            int[] triples = new int[graph.size() * 3];
+            int i = 0;
+            ExtendedIterator<Triple> it = graph.find(Node.ANY, Node.ANY, Node.ANY);
+            try {
+                while (it.hasNext()) {
+                    Triple triple = it.next();
+                    if (i == triples.length) {
+                        triples = Arrays.copyOf(triples, triples.length * 2 + 3);
+                    }
+                    triples[i++] = CorpusSnapshot.getNodeId(triple.getSubject(), nodeIds, nodes);
+                    triples[i++] = CorpusSnapshot.getNodeId(triple.getPredicate(), nodeIds, nodes);
+                    triples[i++] = CorpusSnapshot.getNodeId(triple.getObject(), nodeIds, nodes);
+                }
+            } finally {
+                it.close();
+            }
+            graphTriples.add(Arrays.copyOf(triples, i));
+            if (graphName != null) {
+                CorpusSnapshot.getNodeId(graphName, nodeIds, nodes);
+            }
+        }
+
+        File file = new File(snapshotFile);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(nodes.size());
+            for (Node node : nodes) {
+                if (node.isURI()) {
+                    out.writeByte(URI);
+                    CorpusSnapshot.writeString(out, node.getURI());
+                } else if (node.isBlank()) {
+                    out.writeByte(BLANK);
+                    CorpusSnapshot.writeString(out, node.getBlankNodeLabel());
+                } else {
+                    out.writeByte(LITERAL);
+                    CorpusSnapshot.writeString(out, node.getLiteralLexicalForm());
+                    CorpusSnapshot.writeString(out, node.getLiteralLanguage());
+                    CorpusSnapshot.writeString(out, node.getLiteralDatatypeURI() == null ? "" : node.getLiteralDatatypeURI());
+                }
+            }
+
+            out.writeInt(graphNames.size());
+            for (int g = 0; g < graphNames.size(); g++) {
+                Node graphName = graphNames.get(g);
+                int[] triples = graphTriples.get(g);
+                out.writeInt(graphName == null ? DEFAULT_GRAPH : nodeIds.get(graphName));
+                out.writeBoolean(graphName != null && graphName.equals(metadataGraphNode));
+                out.writeInt(triples.length / 3);
+                for (int id : triples) {
+                    out.writeInt(id);
+                }
+            }
+        }
+        if (file.length() > MAX_SIZE) {
+            file.delete();
+            throw new IOException(String.format("The corpus snapshot would have %s bytes, but snapshots are limited to %s bytes. Load the N-Quads dump instead.", file.length(), MAX_SIZE));
+        }
+    }
+
+    /**
+     * Loads a snapshot into an in-memory dataset.
+     *
+     * @param snapshotFile
+     * @return Dataset
+     * @throws IOException
+     */
+    public static Dataset load(String snapshotFile) throws IOException {
+        return CorpusSnapshot.load(snapshotFile, Collections.emptySet());
+    }
+
+    /**
+     * Loads a snapshot into an in-memory dataset without the given named graphs, whose triples are skipped.
+     *
+     * @param snapshotFile
+     * @param excludedGraphs names of the graphs that are not loaded
+     * @return Dataset
+     * @throws IOException
+     */
+    public static Dataset load(String snapshotFile, Set<String> excludedGraphs) throws IOException {
+        long start = System.currentTimeMillis();
+        try (RandomAccessFile file = new RandomAccessFile(snapshotFile, "r"); FileChannel channel = file.getChannel()) {
+            if (channel.size() > MAX_SIZE) {
+                throw new IOException(String.format("Snapshot %s has %s bytes, but snapshots are limited to %s bytes. Load the N-Quads dump instead.", snapshotFile, channel.size(), MAX_SIZE));
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(String.format("%s is not a corpus snapshot", snapshotFile));
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException(String.format("Snapshot %s has version %s, but version %s is required. Compile the corpus again.", snapshotFile, version, VERSION));
+            }
+
+            // Remember where each node starts, nodes are only decoded when a loaded triple refers to them
+            int nodeCount = buffer.getInt();
+            int[] nodeOffsets = new int[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                nodeOffsets[i] = buffer.position();
+                byte kind = buffer.get();
+                CorpusSnapshot.skipString(buffer);
+                if (kind == LITERAL) {
+                    CorpusSnapshot.skipString(buffer);
+                    CorpusSnapshot.skipString(buffer);
+                }
+            }
+            Node[] nodes = new Node[nodeCount];
+
+            DatasetGraph datasetGraph = DatasetGraphFactory.createMem();
+            int graphCount = buffer.getInt();
+            long tripleCount = 0;
+            for (int g = 0; g < graphCount; g++) {
+                int graphNameId = buffer.getInt();
+                // Marks the LOV metadata graph
+                buffer.get();
+                int size = buffer.getInt();
+                Node graphName = graphNameId == DEFAULT_GRAPH ? null : CorpusSnapshot.getNode(graphNameId, nodes, nodeOffsets, buffer);
+                if (graphName != null && graphName.isURI() && excludedGraphs.contains(graphName.getURI())) {
+                    buffer.position(buffer.position() + size * 3 * 4);
+                    continue;
+                }
+                Graph graph = graphName == null ? datasetGraph.getDefaultGraph() : GraphFactory.createDefaultGraph();
+                for (int t = 0; t < size; t++) {
+                    Node subject = CorpusSnapshot.getNode(buffer.getInt(), nodes, nodeOffsets, buffer);
+                    Node predicate = CorpusSnapshot.getNode(buffer.getInt(), nodes, nodeOffsets, buffer);
+                    Node object = CorpusSnapshot.getNode(buffer.getInt(), nodes, nodeOffsets, buffer);
+                    graph.add(Triple.create(subject, predicate, object));
+                }
+                if (graphName != null) {
+                    datasetGraph.addGraph(graphName, graph);
+                }
+                tripleCount += size;
+            }
+            log.info(String.format("Loaded %s triples from corpus snapshot %s in %s ms", tripleCount, snapshotFile, System.currentTimeMillis() - start));
+            return DatasetFactory.create(datasetGraph);
+        }
+    }
+
+    /**
+     * Evaluates whether a file is a corpus snapshot (and not e.g. an N-Quads dump).
+     *
+     * @param filename
+     * @return boolean
+     */
+    public static boolean isSnapshot(String filename) {
+        File file = new File(filename);
+        if (!file.isFile() || file.length() < 8) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int getNodeId(Node node, Map<Node, Integer> nodeIds, List<Node> nodes) {
+        Integer id = nodeIds.get(node);
+        if (id == null) {
+            id = nodes.size();
+            nodes.add(node);
+            nodeIds.put(node, id);
+        }
+        return id;
+    }
+
+    /**
+     * Decodes a node on first use, reading from its offset without moving the position of the buffer.
+     */
+    private static Node getNode(int id, Node[] nodes, int[] nodeOffsets, MappedByteBuffer buffer) {
+        Node node = nodes[id];
+        if (node == null) {
+            int position = buffer.position();
+            buffer.position(nodeOffsets[id]);
+            byte kind = buffer.get();
+            String value = CorpusSnapshot.readString(buffer);
+            if (kind == URI) {
+                node = NodeFactory.createURI(value);
+            } else if (kind == BLANK) {
+                node = NodeFactory.createAnon(new AnonId(value));
+            } else {
+                String language = CorpusSnapshot.readString(buffer);
+                String datatype = CorpusSnapshot.readString(buffer);
+                node = NodeFactory.createLiteral(value, language, datatype.isEmpty() ? null : TypeMapper.getInstance().getSafeTypeByName(datatype));
+            }
+            nodes[id] = node;
+            buffer.position(position);
+        }
+        return node;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(MappedByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipString(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        buffer.position(buffer.position() + length);
+    }
+}
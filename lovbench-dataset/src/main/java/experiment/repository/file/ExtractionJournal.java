@@ -0,0 +1,276 @@
+package experiment.repository.file;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import org.apache.commons.lang3.tuple.Triple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal of the scores computed during a feature extraction run, one CSV row (feature, query, ranking element, score) per score.
+ *
+ * The journal is appended to while the scores are computed, and a timer flushes and syncs new scores to the disk every FLUSH_INTERVAL ms, so a run that is
+ * interrupted, also by a crash of the machine, can be restarted and only computes the scores that are not in the journal yet.
+ * Scores are identified by the feature name, a key of the query that includes its filters (see TermQuery.getKey()) and the string representation of the
+ * ranking element.
+ *
+ * The journal belongs to one run: its first row holds the fingerprint of the run (e.g. of the features and the ground truth), and a journal with another
+ * fingerprint is not resumed. Delete it to extract all scores again.
+ */
+public class ExtractionJournal {
+
+    /**
+     * Maximum time in ms between writing a score and flushing it to the file.
+     */
+    public static final long FLUSH_INTERVAL = 1000;
+
+    private static final String[] HEADER = {"Feature", "Query", "RankingElement", "Score"};
+
+    /**
+     * First column of the row with the fingerprint of the run.
+     */
+    private static final String RUN = "Run";
+
+    private final File file;
+
+    private final String fingerprint;
+
+    /**
+     * The journaled scores by feature, query and ranking element.
+     */
+    private final Map<Triple<String, String, String>, Double> scores = new ConcurrentHashMap<>();
+
+    /**
+     * The stream of the file, synced by flush().
+     */
+    private FileOutputStream outputStream;
+
+    private CSVWriter csvWriter;
+
+    /**
+     * Indicates whether scores were written since the last flush.
+     */
+    private boolean dirty = false;
+
+    /**
+     * Flushes the journal every FLUSH_INTERVAL ms.
+     */
+    private final ScheduledExecutorService flushExecutor;
+
+    private static final Logger log = LoggerFactory.getLogger( ExtractionJournal.class );
+
+    /**
+     * Opens the journal, reading the scores of a previous run from the file if it exists.
+     *
+     * @param filename
+     * @param fingerprint identifies the run, the scores of a journal with another fingerprint are not resumed
+     * @throws IOException
+     * @throws IllegalStateException if the file is the journal of another run
+     */
+    public ExtractionJournal(String filename, String fingerprint) throws IOException {
+        this.file = new File(filename);
+        this.fingerprint = fingerprint;
+        if (this.file.length() > 0) {
+            this.truncateIncompleteRow();
+            this.read();
+        }
+        FileUtil.createFolderIfNotExists(this.file);
+        boolean newFile = this.file.length() == 0;
+        this.outputStream = new FileOutputStream(this.file, true);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(this.outputStream, StandardCharsets.UTF_8));
+        this.csvWriter = new CSVWriter(writer,
+                CSVWriter.DEFAULT_SEPARATOR,
+                CSVWriter.DEFAULT_QUOTE_CHARACTER,
+                CSVWriter.DEFAULT_ESCAPE_CHARACTER,
+                CSVWriter.DEFAULT_LINE_END);
+        if (newFile) {
+            this.csvWriter.writeNext(new String[]{RUN, this.fingerprint});
+            this.csvWriter.writeNext(HEADER);
+        }
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "extraction-journal-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushExecutor.scheduleWithFixedDelay(this::flushIfDirty, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+        if (!this.scores.isEmpty()) {
+            log.info(String.format("Resuming extraction with %s scores from the journal %s", this.scores.size(), this.file));
+        }
+    }
+
+    /**
+     * Reads the scores of the journal. Rows that cannot be parsed are ignored and their scores computed again.
+     *
+     * @throws IOException
+     * @throws IllegalStateException if the fingerprint of the journal is not the fingerprint of this run
+     */
+    private void read() throws IOException {
+        int ignored = 0;
+        try (
+                Reader reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
+                CSVReader csvReader = new CSVReader(reader)
+        ) {
+            String[] run = this.readRow(csvReader);
+            if (run == null) {
+                // Only an incomplete first row was written
+                return;
+            }
+            if (run.length != 2 || !run[0].equals(RUN) || !run[1].equals(this.fingerprint)) {
+                throw new IllegalStateException(String.format("The extraction journal %s belongs to another run (fingerprint %s instead of %s), delete it to extract all scores again",
+                        this.file, run.length == 2 && run[0].equals(RUN) ? run[1] : "missing", this.fingerprint));
+            }
+            String[] row;
+            while ((row = this.readRow(csvReader)) != null) {
+                if (row.length == HEADER.length && !row[0].equals(HEADER[0])) {
+                    try {
+                        this.scores.put(Triple.of(row[0], row[1], row[2]), Double.parseDouble(row[3]));
+                        continue;
+                    } catch (NumberFormatException e) {
+                        // incomplete score
+                    }
+                }
+                if (!(row.length == 1 && row[0].isEmpty()) && !row[0].equals(HEADER[0])) {
+                    ignored++;
+                }
+            }
+        }
+        if (ignored > 0) {
+            log.warn(String.format("Ignored %s incomplete rows of the journal %s", ignored, this.file));
+        }
+    }
+
+    /**
+     * Reads the next row, or returns null at the end of the file or at a row that cannot be parsed, i.e. a row with an unterminated quote
+     * written by an interrupted run.
+     *
+     * @param csvReader
+     * @return String[]
+     */
+    private String[] readRow(CSVReader csvReader) {
+        try {
+            return csvReader.readNext();
+        } catch (IOException e) {
+            log.warn(String.format("Stopped reading the journal %s at an incomplete row: %s", this.file, e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Removes the incomplete last row written by a run that was killed while writing it, i.e. everything after the last line break.
+     *
+     * @throws IOException
+     */
+    private void truncateIncompleteRow() throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "rw")) {
+            long length = randomAccessFile.length();
+            while (length > 0) {
+                randomAccessFile.seek(length - 1);
+                if (randomAccessFile.read() == '\n') {
+                    break;
+                }
+                length--;
+            }
+            if (length < randomAccessFile.length()) {
+                log.warn(String.format("Removed an incomplete row from the journal %s", this.file));
+                randomAccessFile.setLength(length);
+            }
+        }
+    }
+
+    /**
+     * Returns the journaled score of a feature for a query and ranking element, or null if it is not journaled.
+     *
+     * @param feature
+     * @param query
+     * @param rankingElement
+     * @return Double
+     */
+    public Double getScore(String feature, String query, String rankingElement) {
+        return this.scores.get(Triple.of(feature, query, rankingElement));
+    }
+
+    /**
+     * Journals the score of a feature for a query and ranking element.
+     *
+     * @param feature
+     * @param query
+     * @param rankingElement
+     * @param score
+     */
+    public synchronized void record(String feature, String query, String rankingElement, double score) {
+        if (this.scores.put(Triple.of(feature, query, rankingElement), score) != null) {
+            return;
+        }
+        this.csvWriter.writeNext(new String[]{feature, query, rankingElement, String.valueOf(score)});
+        this.dirty = true;
+    }
+
+    /**
+     * Flushes the journal if scores were written since the last flush.
+     */
+    private synchronized void flushIfDirty() {
+        if (this.dirty) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Writes the journaled scores to the file and syncs it to the disk.
+     */
+    public synchronized void flush() {
+        try {
+            this.csvWriter.flush();
+            this.outputStream.getFD().sync();
+        } catch (IOException e) {
+            log.error(String.format("Failed to write to the extraction journal %s: %s", this.file, e.getMessage()));
+        }
+        this.dirty = false;
+    }
+
+    /**
+     * Closes the journal, the file is kept for the next run.
+     */
+    public synchronized void close() {
+        this.flushExecutor.shutdownNow();
+        this.flush();
+        try {
+            this.csvWriter.close();
+        } catch (IOException e) {
+            log.error(String.format("Failed to close the extraction journal %s: %s", this.file, e.getMessage()));
+        }
+    }
+
+    /**
+     * Closes the journal and deletes the file, once its scores are written to the CSV files of the run.
+     */
+    public synchronized void delete() {
+        this.close();
+        if (!this.file.delete()) {
+            log.warn(String.format("Failed to delete the extraction journal %s", this.file));
+        }
+    }
+
+    public int size() {
+        return this.scores.size();
+    }
+
+    public File getFile() {
+        return file;
+    }
+}
@@ -10,6 +10,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
@@ -37,6 +38,11 @@ public class FeatureSetScores<Q,R> {
      */
     Map<Pair<Q,R>, Map<AbstractFeature,Double>> featureScores = new HashMap<>();
 
+    /**
+     * Pairs that are left out of the results, because one of their scores could not be computed.
+     */
+    Set<Pair<Q,R>> skippedPairs = new HashSet<>();
+
     public FeatureSetScores(ExtractionType extractionType) {
         this.extractionType = extractionType;
     }
@@ -49,6 +55,9 @@ public class FeatureSetScores<Q,R> {
      * @param score
      */
     public void addScore(Pair<Q,R> queryElementPair, AbstractFeature feature, double score) {
+        if (this.skippedPairs.contains(queryElementPair)) {
+            return;
+        }
         if (!this.featureScores.containsKey(queryElementPair)) {
             this.featureScores.put(queryElementPair, new HashMap<>());
         }
@@ -58,15 +67,39 @@ public class FeatureSetScores<Q,R> {
         this.featureScores.get(queryElementPair).put(feature,score);
     }
 
+    /**
+     * Leaves a query element pair out of the results, including the scores it already has.
+     *
+     * @param queryElementPair
+     */
+    public void skip(Pair<Q,R> queryElementPair) {
+        this.skippedPairs.add(queryElementPair);
+        this.featureScores.remove(queryElementPair);
+    }
+
+    public Set<Pair<Q, R>> getSkippedPairs() {
+        return skippedPairs;
+    }
+
     /**
      * Writes the feature scores to file.
      */
     public void writeCsv(AbstractFeature feature) {
+        this.writeCsv(feature, true);
+    }
+
+    /**
+     * Writes the feature scores to file, appending them to or replacing the content of the file.
+     *
+     * @param feature
+     * @param append
+     */
+    public void writeCsv(AbstractFeature feature, boolean append) {
         String filename = this.getFeatureFileName(feature);
         File file = new File(filename);
         FileUtil.createFolderIfNotExists(file);
         try (
-                Writer writer = Files.newBufferedWriter(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                Writer writer = Files.newBufferedWriter(Paths.get(filename), getOpenOptions(append));
                 CSVWriter csvWriter = new CSVWriter(writer,
                         CSVWriter.DEFAULT_SEPARATOR,
                         CSVWriter.DEFAULT_QUOTE_CHARACTER,
@@ -98,6 +131,15 @@ public class FeatureSetScores<Q,R> {
      * Write all scores to file.
      */
     public void writeCsv() {
+        this.writeCsv(true);
+    }
+
+    /**
+     * Write all scores to file, appending them to or replacing the content of the file.
+     *
+     * @param append
+     */
+    public void writeCsv(boolean append) {
         String filename = "";
         if (this.extractionType.equals(ExtractionType.TERM)) {
             filename = ExperimentConfiguration.getInstance().getAllScoresTermFile();
@@ -107,7 +149,7 @@ public class FeatureSetScores<Q,R> {
         File file = new File(filename);
         FileUtil.createFolderIfNotExists(file);
         try (
-                Writer writer = Files.newBufferedWriter(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                Writer writer = Files.newBufferedWriter(Paths.get(filename), getOpenOptions(append));
                 CSVWriter csvWriter = new CSVWriter(writer,
                         CSVWriter.DEFAULT_SEPARATOR,
                         CSVWriter.DEFAULT_QUOTE_CHARACTER,
@@ -147,6 +189,13 @@ public class FeatureSetScores<Q,R> {
         }
     }
 
+    private static OpenOption[] getOpenOptions(boolean append) {
+        if (append) {
+            return new OpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.APPEND};
+        }
+        return new OpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE};
+    }
+
     /**
      * Creates the filename for the feature scores.
      *
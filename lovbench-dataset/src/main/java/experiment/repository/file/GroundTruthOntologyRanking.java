@@ -3,6 +3,7 @@ package experiment.repository.file;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
 import com.opencsv.CSVReader;
+import experiment.model.CorpusDictionary;
 import experiment.model.Ontology;
 import experiment.model.Relevance;
 import experiment.model.Term;
@@ -58,7 +59,7 @@ public class GroundTruthOntologyRanking {
                 // If searchWords is empty, there is really not so much use of the query -> let's skip
                 if (!arrLine[0].split("//", -1)[0].isEmpty()) {
                     OntologyQuery query = new OntologyQuery(arrLine[0]);
-                    Ontology ontology = new Ontology(LOVPrefixes.getInstance().getOntologyUri(arrLine[1]));
+                    Ontology ontology = CorpusDictionary.getInstance().getOntology(LOVPrefixes.getInstance().getOntologyUri(arrLine[1]));
                     Relevance relevance = new Relevance(arrLine[2]);
                     groundTruthTable.groundTruthTable.put(query, ontology, relevance);
                     i++;
@@ -4,6 +4,7 @@ import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
 import com.opencsv.CSVParser;
 import com.opencsv.CSVReader;
+import experiment.model.CorpusDictionary;
 import experiment.model.Relevance;
 import experiment.model.query.TermQuery;
 import experiment.model.Term;
@@ -59,7 +60,7 @@ public class GroundTruthTermRanking {
                 if (!arrLine[0].isEmpty()) {
                     log.debug(String.format("%s - %s - %s", arrLine[0],arrLine[1],arrLine[2]));
                     TermQuery query = new TermQuery(arrLine[0]);
-                    Term term = new Term(arrLine[1]);
+                    Term term = CorpusDictionary.getInstance().getTerm(arrLine[1]);
                     Relevance relevance = new Relevance(arrLine[2]);
                     groundTruthTable.groundTruthTable.put(query, term, relevance);
                     i++;
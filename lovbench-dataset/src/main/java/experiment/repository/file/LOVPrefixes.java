@@ -41,6 +41,11 @@ public class LOVPrefixes {
 
     private Set<String> alternativePrefixes;
 
+    /**
+     * Trie over term prefixes and alternative term prefixes to resolve the ontology of a term URI.
+     */
+    private TermPrefixTrie termPrefixTrie;
+
     private String sparqlPrefixString;
 
     private static final Logger log = LoggerFactory.getLogger(LOVPrefixes.class);
@@ -86,6 +91,7 @@ public class LOVPrefixes {
         } catch (JSONException e) {
             e.printStackTrace();
         }
+        this.buildTermPrefixTrie();
     }
 
     private void initFromVoafGraph(String nqFile) {
@@ -103,6 +109,14 @@ public class LOVPrefixes {
                 this.alternativePrefixes.add(prefix.getAlternativeTermPrefix());
             }
         }
+        this.buildTermPrefixTrie();
+    }
+
+    private void buildTermPrefixTrie() {
+        this.termPrefixTrie = new TermPrefixTrie();
+        for (Prefix prefix : this.ontologyUri2prefixes.values()) {
+            this.termPrefixTrie.add(prefix);
+        }
     }
 
     /**
@@ -110,7 +124,7 @@ public class LOVPrefixes {
      *
      * @return LOVPrefixes
      */
-    public static LOVPrefixes getInstance() {
+    public static synchronized LOVPrefixes getInstance() {
         if (LOVPrefixesInstance == null) {
             try {
                 LOVPrefixesInstance = new LOVPrefixes();
@@ -130,8 +144,9 @@ public class LOVPrefixes {
     public String getFullUri(String termUri) {
         if (this.isFullUri(termUri)) {
             //Potentially match alternative term prefix to term prefix
-            if (this.alternativePrefixes.contains(this.getOntologyUriOfTermUri(termUri))) {
-                String preferredTermPrefix = this.getTermPrefixForOntologyPrefix(this.getOntologyPrefix(this.getOntologyUriOfTermUri(termUri)));
+            String ontologyUri = this.getOntologyUriOfTermUri(termUri);
+            if (this.alternativePrefixes.contains(ontologyUri)) {
+                String preferredTermPrefix = this.getTermPrefixForOntologyPrefix(this.getOntologyPrefix(ontologyUri));
                 String localname = this.getLocalName(termUri);
                 return preferredTermPrefix + localname;
             }
@@ -221,7 +236,7 @@ public class LOVPrefixes {
     }
 
     /**
-     * Returns the ontology URI of a given term URI
+     * Returns the ontology URI of a given term URI, i.e. the ontology whose (alternative) term prefix the term URI starts with.
      *
      * @param termUri
      * @return String
@@ -232,11 +247,9 @@ public class LOVPrefixes {
             termUri = this.getFullUri(termUri);
         }
         String ontologyUri = "";
-        for (Map.Entry<String, Prefix> ontologyUri2prefix : this.ontologyUri2prefixes.entrySet()) {
-            if ((termUri.startsWith(ontologyUri2prefix.getValue().getTermPrefix()) || (!ontologyUri2prefix.getValue().getAlternativeTermPrefix().isEmpty() && termUri.startsWith(ontologyUri2prefix.getValue().getAlternativeTermPrefix())))
-                    && (ontologyUri.equals("") || ontologyUri2prefix.getKey().length() > ontologyUri.length())) {
-                ontologyUri = ontologyUri2prefix.getKey();
-            }
+        TermPrefixTrie.Match match = this.termPrefixTrie.getMatch(termUri);
+        if (match != null) {
+            ontologyUri = match.getPrefix().getOntologyUri();
         }
         if (ontologyUri.isEmpty()) {
             log.debug(String.format("No LOV ontology uri found for term uri %s. Extracting ontology URI as external ontology", termUri));
@@ -248,6 +261,12 @@ public class LOVPrefixes {
         return ontologyUri;
     }
 
+    /**
+     * Returns the local name of a term URI, i.e. the part after the last slash or hash.
+     *
+     * @param termUri
+     * @return String
+     */
     public String getLocalName(String termUri) {
         int posSlash = termUri.lastIndexOf('/');
         int posHash = termUri.lastIndexOf('#');
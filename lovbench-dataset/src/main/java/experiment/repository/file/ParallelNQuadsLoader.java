@@ -0,0 +1,254 @@
+package experiment.repository.file;
+
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.GraphUtil;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.NodeFactory;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.query.DatasetFactory;
+import com.hp.hpl.jena.sparql.core.DatasetGraph;
+import com.hp.hpl.jena.sparql.core.DatasetGraphFactory;
+import com.hp.hpl.jena.sparql.core.Quad;
+import com.hp.hpl.jena.sparql.graph.GraphFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.lang.LangNQuads;
+import org.apache.jena.riot.system.ParserProfile;
+import org.apache.jena.riot.system.RiotLib;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.riot.tokens.TokenizerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads an N-Quads file on all cores.
+ *
+ * The file is memory-mapped and split into chunks on line boundaries. Every chunk is parsed into graphs of its own,
+ * which are then merged in file order into one dataset. Quads of excluded graphs are dropped while parsing.
+ * Blank node labels are kept as given, so that the same label in different chunks yields the same node.
+ */
+public class ParallelNQuadsLoader {
+
+    /**
+     * Target size of a chunk in bytes. Chunks end at the next line break after this size.
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 32L * 1024 * 1024;
+
+    private final int threads;
+
+    private final long chunkSize;
+
+    private static final Logger log = LoggerFactory.getLogger( ParallelNQuadsLoader.class );
+
+    public ParallelNQuadsLoader() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelNQuadsLoader(int threads, long chunkSize) {
+        if (threads < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException(String.format("Threads and chunk size have to be positive, but were %s and %s", threads, chunkSize));
+        }
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Loads all graphs of an N-Quads file.
+     *
+     * @param filename
+     * @return Dataset
+     */
+    public Dataset load(String filename) {
+        return this.load(filename, Collections.emptySet());
+    }
+
+    /**
+     * Loads an N-Quads file without the given named graphs.
+     *
+     * @param filename
+     * @param excludedGraphs URIs of the named graphs to drop
+     * @return Dataset
+     */
+    public Dataset load(String filename, Set<String> excludedGraphs) {
+        long start = System.currentTimeMillis();
+        Set<Node> excludedGraphNodes = new HashSet<>();
+        for (String excludedGraph : excludedGraphs) {
+            excludedGraphNodes.add(NodeFactory.createURI(excludedGraph));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        try (RandomAccessFile file = new RandomAccessFile(filename, "r"); FileChannel channel = file.getChannel()) {
+            List<long[]> chunks = this.splitIntoChunks(channel);
+            List<Future<ChunkGraphs>> parsedChunks = new ArrayList<>();
+            for (long[] chunk : chunks) {
+                parsedChunks.add(executor.submit(() -> ParallelNQuadsLoader.parseChunk(channel, chunk[0], chunk[1], excludedGraphNodes)));
+            }
+
+            DatasetGraph datasetGraph = DatasetGraphFactory.createMem();
+            Map<Node, Graph> graphs = new LinkedHashMap<>();
+            long quadCount = 0;
+            for (Future<ChunkGraphs> parsedChunk : parsedChunks) {
+                ChunkGraphs chunkGraphs = parsedChunk.get();
+                quadCount += chunkGraphs.quadCount;
+                GraphUtil.addInto(datasetGraph.getDefaultGraph(), chunkGraphs.defaultGraph);
+                for (Map.Entry<Node, Graph> chunkGraph : chunkGraphs.namedGraphs.entrySet()) {
+                    Graph graph = graphs.get(chunkGraph.getKey());
+                    if (graph == null) {
+                        // Graphs are mostly contiguous in the dump, so the graph of a chunk can usually be taken over as it is
+                        graphs.put(chunkGraph.getKey(), chunkGraph.getValue());
+                    } else {
+                        GraphUtil.addInto(graph, chunkGraph.getValue());
+                    }
+                }
+            }
+            for (Map.Entry<Node, Graph> graph : graphs.entrySet()) {
+                datasetGraph.addGraph(graph.getKey(), graph.getValue());
+            }
+            log.info(String.format("Loaded %s quads in %s graphs from %s in %s chunks on %s threads in %s ms", quadCount, graphs.size(), filename, chunks.size(), this.threads, System.currentTimeMillis() - start));
+            return DatasetFactory.create(datasetGraph);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading " + filename, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to parse " + filename, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits the file into chunks of about chunkSize bytes that end after a line break.
+     *
+     * @param channel
+     * @return List of chunks as start and end offsets
+     * @throws IOException
+     */
+    List<long[]> splitIntoChunks(FileChannel channel) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        long size = channel.size();
+        long start = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (start < size) {
+            long end = Math.min(start + this.chunkSize, size);
+            // Move the end behind the next line break
+            while (end < size) {
+                buffer.clear();
+                int read = channel.read(buffer, end);
+                if (read <= 0) {
+                    end = size;
+                    break;
+                }
+                int newline = -1;
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                if (newline >= 0) {
+                    end += newline + 1;
+                    break;
+                }
+                end += read;
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Parses the lines of one chunk into graphs.
+     */
+    private static ChunkGraphs parseChunk(FileChannel channel, long start, long end, Set<Node> excludedGraphNodes) throws IOException {
+        ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        ChunkGraphs chunkGraphs = new ChunkGraphs();
+
+        ParserProfile profile = RiotLib.profile(Lang.NQUADS, null);
+        profile.setLabelToNode(LabelToNode.createUseLabelAsGiven());
+        LangNQuads parser = new LangNQuads(TokenizerFactory.makeTokenizerUTF8(new ByteBufferInputStream(mapped)), profile, new StreamRDFBase() {
+            @Override
+            public void triple(Triple triple) {
+                chunkGraphs.defaultGraph.add(triple);
+                chunkGraphs.quadCount++;
+            }
+
+            @Override
+            public void quad(Quad quad) {
+                if (quad.isDefaultGraph()) {
+                    this.triple(quad.asTriple());
+                } else if (!excludedGraphNodes.contains(quad.getGraph())) {
+                    chunkGraphs.namedGraphs.computeIfAbsent(quad.getGraph(), graphNode -> GraphFactory.createDefaultGraph()).add(quad.asTriple());
+                    chunkGraphs.quadCount++;
+                }
+            }
+        });
+        parser.parse();
+        return chunkGraphs;
+    }
+
+    /**
+     * Graphs parsed from one chunk.
+     */
+    private static class ChunkGraphs {
+
+        final Graph defaultGraph = GraphFactory.createDefaultGraph();
+
+        final Map<Node, Graph> namedGraphs = new LinkedHashMap<>();
+
+        long quadCount = 0;
+    }
+
+    /**
+     * Reads a (memory-mapped) byte buffer as stream.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+}
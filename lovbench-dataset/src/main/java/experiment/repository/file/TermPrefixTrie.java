@@ -0,0 +1,105 @@
+package experiment.repository.file;
+
+import experiment.model.Prefix;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Character trie over the term prefixes and alternative term prefixes of the LOV ontologies.
+ *
+ * Resolves the ontology of a term URI in O(|uri|) instead of comparing the URI with the prefixes of all ontologies.
+ */
+public class TermPrefixTrie {
+
+    /**
+     * A node of the trie, keeping the prefixes that end at this node.
+     */
+    private static class Node {
+
+        final Map<Character, Node> children = new HashMap<>();
+
+        final List<Prefix> prefixes = new ArrayList<>(1);
+
+        final List<Prefix> alternativePrefixes = new ArrayList<>(1);
+    }
+
+    /**
+     * Result of a lookup: the matched prefix and whether the term URI matched its alternative term prefix.
+     */
+    public static class Match {
+
+        private final Prefix prefix;
+
+        private final boolean alternative;
+
+        Match(Prefix prefix, boolean alternative) {
+            this.prefix = prefix;
+            this.alternative = alternative;
+        }
+
+        public Prefix getPrefix() {
+            return prefix;
+        }
+
+        public boolean isAlternative() {
+            return alternative;
+        }
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Adds the term prefix and, if present, the alternative term prefix of an ontology.
+     *
+     * @param prefix
+     */
+    public void add(Prefix prefix) {
+        if (prefix.getTermPrefix() != null) {
+            this.getOrCreateNode(prefix.getTermPrefix()).prefixes.add(prefix);
+        }
+        if (prefix.getAlternativeTermPrefix() != null && !prefix.getAlternativeTermPrefix().isEmpty()) {
+            this.getOrCreateNode(prefix.getAlternativeTermPrefix()).alternativePrefixes.add(prefix);
+        }
+    }
+
+    /**
+     * Finds the ontology whose term prefix or alternative term prefix the term URI starts with.
+     * If several do, the ontology with the longest ontology URI wins, ties go to the longer term prefix.
+     *
+     * @param termUri
+     * @return Match or null if no prefix matches
+     */
+    public Match getMatch(String termUri) {
+        Match match = null;
+        Node node = this.root;
+        int i = 0;
+        while (node != null) {
+            for (Prefix prefix : node.prefixes) {
+                if (match == null || prefix.getOntologyUri().length() >= match.getPrefix().getOntologyUri().length()) {
+                    match = new Match(prefix, false);
+                }
+            }
+            for (Prefix prefix : node.alternativePrefixes) {
+                if (match == null || prefix.getOntologyUri().length() >= match.getPrefix().getOntologyUri().length()) {
+                    match = new Match(prefix, true);
+                }
+            }
+            if (i == termUri.length()) {
+                break;
+            }
+            node = node.children.get(termUri.charAt(i++));
+        }
+        return match;
+    }
+
+    private Node getOrCreateNode(String key) {
+        Node node = this.root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        return node;
+    }
+}
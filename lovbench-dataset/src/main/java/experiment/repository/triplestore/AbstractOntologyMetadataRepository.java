@@ -23,6 +23,10 @@ public abstract class AbstractOntologyMetadataRepository extends AbstractReposit
 
 
     public void setConnector(AbstractConnector connector) {
+        // The dataset of a replaced connector is dropped unless another connector still uses it
+        if (this.connector instanceof JenaConnector && this.connector != connector) {
+            ((JenaConnector) this.connector).close();
+        }
         this.connector = connector;
         // Make sure ONLY the VOAF graph is in the ontology metadata repository.
         if (connector instanceof JenaConnector) {
@@ -1,5 +1,6 @@
 package experiment.repository.triplestore;
 
+import com.hp.hpl.jena.graph.Node;
 import com.hp.hpl.jena.rdf.model.Resource;
 import experiment.model.Ontology;
 import experiment.model.Term;
@@ -7,14 +8,24 @@ import experiment.model.query.AbstractQuery;
 import experiment.model.query.TermQuery;
 import experiment.model.query.enums.TermType;
 import experiment.configuration.ExperimentConfiguration;
+import experiment.feature.scoring.util.BoundedComputeOnceCache;
+import experiment.repository.file.LOVPrefixes;
 import experiment.repository.triplestore.connector.AbstractConnector;
 import experiment.repository.triplestore.connector.JenaConnector;
+import experiment.repository.triplestore.graph.OntologyGraphCache;
+import experiment.repository.triplestore.index.HierarchyIndex;
+import experiment.repository.triplestore.metrics.QueryMetrics;
+import experiment.repository.triplestore.util.JenaGraphUtil;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 /**
  * The abstract repository defines all functions that query the underlying ontology collection required to compute the features.
@@ -101,6 +112,31 @@ public abstract class AbstractOntologyRepository extends AbstractRepository {
      */
     public static final String QUERY_MATCH_LOV = " rdfs:label|dce:title|dcterms:title|skos:prefLabel|rdfs:comment|rdfs:description|dce:description|dcterms:description|skos:altLabel ";
 
+    /**
+     * Namespaces that are never considered as implicit imports.
+     */
+    public static final List<String> IMPLICIT_IMPORT_EXCLUDED_NAMESPACES = Arrays.asList(
+            "http://www.w3.org/1999/02/22-rdf-syntax-ns",
+            "http://www.w3.org/2000/01/rdf-schema",
+            "http://www.w3.org/2002/07/owl",
+            "http://www.w3.org/2001/XMLSchema"
+    );
+
+    /**
+     * Cache of the ontology graphs, created on first use.
+     */
+    private OntologyGraphCache ontologyGraphCache;
+
+    /**
+     * Cache of the class and property hierarchy indexes per ontology, created on first use.
+     */
+    private BoundedComputeOnceCache<Pair<Ontology, HierarchyIndex.Hierarchy>, HierarchyIndex<Node>> hierarchyIndexCache;
+
+    /**
+     * Contexts of the queries whose features are currently extracted, see openQueryContext().
+     */
+    private final Map<AbstractQuery, QueryContext> queryContexts = new ConcurrentHashMap<>();
+
     private static final Logger log = LoggerFactory.getLogger( AbstractOntologyRepository.class );
 
     /**
@@ -114,17 +150,27 @@ public abstract class AbstractOntologyRepository extends AbstractRepository {
     public AbstractOntologyRepository(AbstractConnector connector) {
         super(connector);
         // Make sure the LOV graph is NOT in the ontology repository.
+        // The dataset may be shared with the metadata repository, so the LOV graph is left out instead of removed.
         if (connector instanceof JenaConnector) {
-            ((JenaConnector) this.getConnector()).getDataset().removeNamedModel(ExperimentConfiguration.getInstance().getLOVgraph());
+            JenaConnector jenaConnector = (JenaConnector) this.getConnector();
+            jenaConnector.setDataset(JenaGraphUtil.withoutNamedGraph(jenaConnector.getDataset(), ExperimentConfiguration.getInstance().getLOVgraph()));
         }
     }
 
     @Override
     public void setConnector(AbstractConnector connector) {
+        // The dataset of a replaced connector is dropped unless another connector still uses it
+        if (this.connector instanceof JenaConnector && this.connector != connector) {
+            ((JenaConnector) this.connector).close();
+        }
         this.connector = connector;
+        this.ontologyGraphCache = null;
+        this.hierarchyIndexCache = null;
         // Make sure the LOV graph is NOT in the ontology repository.
+        // The dataset may be shared with the metadata repository, so the LOV graph is left out instead of removed.
         if (connector instanceof JenaConnector) {
-            ((JenaConnector) this.getConnector()).getDataset().removeNamedModel(ExperimentConfiguration.getInstance().getLOVgraph());
+            JenaConnector jenaConnector = (JenaConnector) this.getConnector();
+            jenaConnector.setDataset(JenaGraphUtil.withoutNamedGraph(jenaConnector.getDataset(), ExperimentConfiguration.getInstance().getLOVgraph()));
         }
     }
 
@@ -172,6 +218,28 @@ public abstract class AbstractOntologyRepository extends AbstractRepository {
         return "";
     }
 
+    /**
+     * Returns the full URIs of the predicates of the query match constraint based on the experiment configuration.
+     *
+     * @return List<String>
+     */
+    public List<String> getQueryMatchPredicateUris() {
+        String constraint;
+        switch (ExperimentConfiguration.getInstance().getQueryMatch()) {
+            case AKTIVERANK: constraint = QUERY_MATCH_AKTIVERANK; break;
+            case DWRANK: constraint = QUERY_MATCH_DWRANK; break;
+            case LOV: constraint = QUERY_MATCH_LOV; break;
+            default:
+                log.error("Missing or false query match constraint configuration!!");
+                return new ArrayList<>();
+        }
+        List<String> predicateUris = new ArrayList<>();
+        for (String predicate : constraint.trim().split("\\|")) {
+            predicateUris.add(LOVPrefixes.getInstance().getFullUri(predicate));
+        }
+        return predicateUris;
+    }
+
     /**
      * Returns all owl:imports triples in the collection.
      *
@@ -200,6 +268,14 @@ public abstract class AbstractOntologyRepository extends AbstractRepository {
      */
     public abstract Set<Pair<Ontology, Ontology>> getOwlImports(AbstractQuery query, boolean bolImplicitImports);
 
+    /**
+     * Returns the implicit imports of the collection, i.e., the imports from every ontology to all other ontologies whose URIs it uses.
+     * They are extracted in one pass over the collection when first requested and shared by all callers.
+     *
+     * @return Set<Pair<Ontology, Ontology>>
+     */
+    public abstract Set<Pair<Ontology, Ontology>> getImplicitImports();
+
     /**
      * Counts the occuerences of a term in an ontology.
      *
@@ -209,6 +285,15 @@ public abstract class AbstractOntologyRepository extends AbstractRepository {
      */
     public abstract int termFrequency(Term term, Ontology ontology);
 
+    /**
+     * Counts the occurences of all terms of an ontology in one pass over the ontology graph.
+     * Terms that do not occur in the ontology are not contained in the result.
+     *
+     * @param ontology
+     * @return Map<Term, Integer>
+     */
+    public abstract Map<Term, Integer> termFrequencies(Ontology ontology);
+
     /**
      * Counts occurences of all terms of an ontology and returns the maximum.
      *
@@ -379,6 +464,15 @@ public abstract class AbstractOntologyRepository extends AbstractRepository {
      */
     public abstract int countRelations(Term term, Ontology ontology);
 
+    /**
+     * Counts the relations of all classes of an ontology at once (see countRelations(Term, Ontology)).
+     * Classes without relations are not contained in the result.
+     *
+     * @param ontology
+     * @return Map<Term, Integer>
+     */
+    public abstract Map<Term, Integer> countRelations(Ontology ontology);
+
     /**
      * Counts siblings of a term in an ontology.
      *
@@ -420,6 +514,131 @@ public abstract class AbstractOntologyRepository extends AbstractRepository {
      */
     public abstract List<Triple<Term, Term, Term>> getOntologyGraphTriples(Ontology ontology, boolean reversed);
 
+    /**
+     * Returns the cache of ontology graphs, which is shared by all features that work on ontology graphs.
+     *
+     * @return OntologyGraphCache
+     */
+    public synchronized OntologyGraphCache getOntologyGraphCache() {
+        if (this.ontologyGraphCache == null) {
+            this.ontologyGraphCache = new OntologyGraphCache(this, ExperimentConfiguration.getInstance().getOntologyGraphCacheSize());
+        }
+        return this.ontologyGraphCache;
+    }
+
+    /**
+     * Returns the index of the class or property hierarchy of an ontology, which is built once and then cached.
+     *
+     * @param ontology
+     * @param hierarchy
+     * @return HierarchyIndex<Node>
+     */
+    public HierarchyIndex<Node> getHierarchyIndex(Ontology ontology, HierarchyIndex.Hierarchy hierarchy) {
+        return this.measure("getHierarchyIndex", () -> this.getHierarchyIndexCache().get(Pair.of(ontology, hierarchy), key -> {
+            HierarchyIndex<Node> index = this.buildHierarchyIndex(ontology, hierarchy);
+            log.debug(String.format("Hierarchy index %s of %s built with %s nodes and %s edges", hierarchy, ontology.getOntologyUri(), index.countNodes(), index.countEdges()));
+            return index;
+        }), HierarchyIndex::countNodes);
+    }
+
+    /**
+     * Records a repository method that is answered without queries, e.g. from an index, in the query metrics (see QueryMetrics),
+     * as the queries that the connector issues are only attributed to the methods that issue them.
+     *
+     * @param method
+     * @param computation
+     * @param rows number of results of the method
+     * @param <T>
+     * @return T
+     */
+    protected <T> T measure(String method, Supplier<T> computation, ToIntFunction<T> rows) {
+        if (!ExperimentConfiguration.getInstance().isQueryMetrics()) {
+            return computation.get();
+        }
+        String name = this.getClass().getSimpleName() + "." + method;
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = computation.get();
+        } catch (RuntimeException e) {
+            QueryMetrics.getInstance().record(name, System.nanoTime() - start, 0, true);
+            throw e;
+        }
+        QueryMetrics.getInstance().record(name, System.nanoTime() - start, rows.applyAsInt(result), false);
+        return result;
+    }
+
+    /**
+     * Records a repository method that counts without queries in the query metrics, with one row as for a count query (see measure()).
+     *
+     * @param method
+     * @param computation
+     * @return int
+     */
+    protected int measureInt(String method, IntSupplier computation) {
+        if (!ExperimentConfiguration.getInstance().isQueryMetrics()) {
+            return computation.getAsInt();
+        }
+        return this.measure(method, computation::getAsInt, count -> 1);
+    }
+
+    /**
+     * Opens the context of a query: until the context is closed, the query-dependent methods of the repository compute their results for the query
+     * once and return them again on the following calls (see QueryContext).
+     *
+     * @param query
+     * @return QueryContext
+     */
+    public QueryContext openQueryContext(AbstractQuery query) {
+        return this.queryContexts.computeIfAbsent(query, QueryContext::new);
+    }
+
+    /**
+     * Closes the context of a query and releases its results.
+     *
+     * @param query
+     */
+    public void closeQueryContext(AbstractQuery query) {
+        this.queryContexts.remove(query);
+    }
+
+    /**
+     * Returns the result of a query-dependent method from the context of the query, or computes it if no context is open for the query.
+     *
+     * @param query
+     * @param method
+     * @param arguments further arguments of the method, or null
+     * @param computation
+     * @param <T>
+     * @return T
+     */
+    protected <T> T fromQueryContext(AbstractQuery query, String method, Object arguments, Supplier<T> computation) {
+        QueryContext context = query != null ? this.queryContexts.get(query) : null;
+        return context != null ? context.get(method, arguments, computation) : computation.get();
+    }
+
+    /**
+     * Returns the cache of hierarchy indexes.
+     *
+     * @return BoundedComputeOnceCache<Pair<Ontology, HierarchyIndex.Hierarchy>, HierarchyIndex<Node>>
+     */
+    public synchronized BoundedComputeOnceCache<Pair<Ontology, HierarchyIndex.Hierarchy>, HierarchyIndex<Node>> getHierarchyIndexCache() {
+        if (this.hierarchyIndexCache == null) {
+            this.hierarchyIndexCache = new BoundedComputeOnceCache<>(ExperimentConfiguration.getInstance().getHierarchyIndexCacheSize());
+        }
+        return this.hierarchyIndexCache;
+    }
+
+    /**
+     * Builds the index of the class (rdfs:subClassOf) or property (rdfs:subPropertyOf) hierarchy of an ontology,
+     * with the nodes typed as class or property respectively.
+     *
+     * @param ontology
+     * @param hierarchy
+     * @return HierarchyIndex<Node>
+     */
+    protected abstract HierarchyIndex<Node> buildHierarchyIndex(Ontology ontology, HierarchyIndex.Hierarchy hierarchy);
+
     /**
      * Gets all ontologies contained in the repository.
      *
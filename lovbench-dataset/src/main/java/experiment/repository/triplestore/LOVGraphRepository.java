@@ -0,0 +1,1026 @@
+package experiment.repository.triplestore;
+
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.NodeFactory;
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.rdf.model.ResourceFactory;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import com.hp.hpl.jena.vocabulary.OWL;
+import com.hp.hpl.jena.vocabulary.RDF;
+import com.hp.hpl.jena.vocabulary.RDFS;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.model.CorpusDictionary;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import experiment.model.query.AbstractQuery;
+import experiment.model.query.TermQuery;
+import experiment.model.query.enums.QueryMatch;
+import experiment.model.query.enums.TermType;
+import experiment.model.query.enums.TypeFilter;
+import experiment.repository.triplestore.connector.AbstractConnector;
+import experiment.repository.triplestore.connector.JenaConnector;
+import experiment.repository.triplestore.index.HierarchyIndex;
+import experiment.repository.triplestore.index.ImplicitImportIndex;
+import experiment.repository.triplestore.index.QueryMatchIndex;
+import experiment.repository.triplestore.index.TermOntologyIndex;
+import experiment.repository.triplestore.partition.OntologyPartitions;
+import experiment.repository.triplestore.util.JenaGraphUtil;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of a repository for the LOV collection that is loaded into an in-memory Jena dataset.
+ *
+ * All requests are answered directly on the graphs of the dataset with Graph.find() lookups and traversals, so no sparql queries
+ * have to be parsed, planned and converted into BindingSets. The results are the same as the ones of LOVRepository with a JenaConnector.
+ * Type filters of term queries are applied to the matched term.
+ *
+ * Requests about one ontology are answered on the graph of that ontology only (see OntologyPartitions),
+ * and requests about the whole collection are fanned out over the ontology graphs in parallel.
+ */
+public class LOVGraphRepository extends AbstractOntologyRepository {
+
+    private static final Node RDF_TYPE = RDF.type.asNode();
+
+    private static final Node RDF_DOMAIN = NodeFactory.createURI("http://www.w3.org/1999/02/22-rdf-syntax-ns#domain");
+
+    private static final Node RDFS_LABEL = RDFS.label.asNode();
+
+    private static final Node RDFS_SUBCLASSOF = RDFS.subClassOf.asNode();
+
+    private static final Node RDFS_SUBPROPERTYOF = RDFS.subPropertyOf.asNode();
+
+    private static final Node RDFS_DOMAIN = RDFS.domain.asNode();
+
+    private static final Node RDFS_RANGE = RDFS.range.asNode();
+
+    private static final Node SCHEMA_DOMAIN_INCLUDES = NodeFactory.createURI("http://schema.org/domainIncludes");
+
+    private static final Node SCHEMA_RANGE_INCLUDES = NodeFactory.createURI("http://schema.org/rangeIncludes");
+
+    private static final Node OWL_IMPORTS = OWL.imports.asNode();
+
+    private static final Node OWL_THING = OWL.Thing.asNode();
+
+    private static final Node PLACEHOLDER_SOURCE = NodeFactory.createURI("http://lovbench.com/placeholder#source");
+
+    private static final Node PLACEHOLDER_SINK = NodeFactory.createURI("http://lovbench.com/placeholder#sink");
+
+    /**
+     * Types that describe a class in the vocabulary, see TYPE_CLASS_VALUES.
+     */
+    private static final Set<Node> CLASS_TYPES = JenaGraphUtil.parseTypeValues(TYPE_CLASS_VALUES);
+
+    /**
+     * Types that describe a property in the vocabulary, see TYPE_PROPERTY_VALUES.
+     */
+    private static final Set<Node> PROPERTY_TYPES = JenaGraphUtil.parseTypeValues(TYPE_PROPERTY_VALUES);
+
+    /**
+     * Types that describe a class or a property in the vocabulary.
+     */
+    private static final Set<Node> ALL_TYPES = JenaGraphUtil.parseTypeValues(TYPE_PROPERTY_VALUES + TYPE_CLASS_VALUES);
+
+    /**
+     * Inverted index from term URIs to the ontologies that contain them, built on first use.
+     */
+    private TermOntologyIndex termOntologyIndex;
+
+    /**
+     * Index of the local names and query match values of all terms, built on first use.
+     */
+    private QueryMatchIndex queryMatchIndex;
+
+    /**
+     * Implicit imports of the collection, extracted on first use.
+     */
+    private Set<Pair<Ontology, Ontology>> implicitImports;
+
+    /**
+     * One graph per ontology, built on first use.
+     */
+    private OntologyPartitions partitions;
+
+    /**
+     * Average size of the ontologies, computed once from the partitions.
+     */
+    private Double averageOntologySize;
+
+    private static final Logger log = LoggerFactory.getLogger(LOVGraphRepository.class);
+
+    /**
+     * Repository on the lovNqFile of the configuration, which is loaded when the repository is first used (see graphRepository of the configuration).
+     */
+    public LOVGraphRepository() {
+        super((AbstractConnector) null);
+    }
+
+    public LOVGraphRepository(JenaConnector connector) {
+        super(connector);
+    }
+
+    @Override
+    public AbstractConnector getConnector() {
+        if (this.connector == null) {
+            this.connectToLovNqFile();
+        }
+        return this.connector;
+    }
+
+    private synchronized void connectToLovNqFile() {
+        if (this.connector == null) {
+            // The metadata repository has its own connector, so the LOV graph is dropped while the file is parsed
+            this.setConnector(new JenaConnector(ExperimentConfiguration.getInstance().getLovNqFile(), Collections.singleton(ExperimentConfiguration.getInstance().getLOVgraph())));
+        }
+    }
+
+    @Override
+    public void setConnector(AbstractConnector connector) {
+        if (!(connector instanceof JenaConnector)) {
+            throw new IllegalArgumentException("The graph repository can only work on the in-memory dataset of a JenaConnector.");
+        }
+        super.setConnector(connector);
+        // Indexes built from the previous connector are no longer valid
+        this.termOntologyIndex = null;
+        this.queryMatchIndex = null;
+        this.implicitImports = null;
+        if (this.partitions != null) {
+            this.partitions.close();
+            this.partitions = null;
+        }
+        this.averageOntologySize = null;
+    }
+
+    /**
+     * Releases the partitions and the dataset of the repository (see JenaConnector.close()).
+     */
+    public synchronized void close() {
+        if (this.partitions != null) {
+            this.partitions.close();
+            this.partitions = null;
+        }
+        this.averageOntologySize = null;
+        if (this.connector != null) {
+            ((JenaConnector) this.connector).close();
+            this.connector = null;
+        }
+    }
+
+    /**
+     * Returns the ontology partitions of the dataset, which are built when they are first requested.
+     *
+     * @return OntologyPartitions
+     */
+    public synchronized OntologyPartitions getPartitions() {
+        if (this.partitions == null) {
+            this.partitions = new OntologyPartitions(this.getDataset(), ExperimentConfiguration.getInstance().getRepositoryThreads());
+        }
+        return this.partitions;
+    }
+
+    /**
+     * Returns the term to ontology index, which is built in one pass over the dataset when it is first requested.
+     *
+     * @return TermOntologyIndex
+     */
+    public synchronized TermOntologyIndex getTermOntologyIndex() {
+        if (this.termOntologyIndex == null) {
+            long start = System.currentTimeMillis();
+            TermOntologyIndex index = new TermOntologyIndex();
+            JenaGraphUtil.addToIndex(this.getDataset(), index);
+            log.info(String.format("Term ontology index built for %s URIs in %s ontologies in %s ms", index.size(), index.countOntologies(), System.currentTimeMillis() - start));
+            this.termOntologyIndex = index;
+        }
+        return this.termOntologyIndex;
+    }
+
+    /**
+     * Returns the query match index, which is built when it is first requested and rebuilt when the query match configuration changes.
+     *
+     * @return QueryMatchIndex
+     */
+    public synchronized QueryMatchIndex getQueryMatchIndex() {
+        QueryMatch queryMatch = ExperimentConfiguration.getInstance().getQueryMatch();
+        if (this.queryMatchIndex == null || this.queryMatchIndex.getQueryMatch() != queryMatch) {
+            long start = System.currentTimeMillis();
+            List<String> predicateUris = this.getQueryMatchPredicateUris();
+            QueryMatchIndex index = new QueryMatchIndex(queryMatch, predicateUris);
+            Node[] matchPredicates = this.getQueryMatchPredicates();
+            OntologyPartitions partitions = this.getPartitions();
+            for (Ontology ontology : partitions.getOntologies()) {
+                JenaGraphUtil.addToIndex(ontology, partitions.getPartition(ontology), index, matchPredicates, CLASS_TYPES, PROPERTY_TYPES);
+            }
+            log.info(String.format("Query match index built for %s terms with %s distinct texts in %s ms", index.countTerms(), index.countTexts(), System.currentTimeMillis() - start));
+            this.queryMatchIndex = index;
+        }
+        return this.queryMatchIndex;
+    }
+
+    @Override
+    public Map<Ontology, Set<Term>> getQueryMatch(AbstractQuery query) {
+        return this.measure("getQueryMatch", () -> this.fromQueryContext(query, "getQueryMatch", null, () -> this.getQueryMatchIndex().getQueryMatch(query, QueryMatchIndex.getTypeFlags(TermType.ANY), false)), Map::size);
+    }
+
+    @Override
+    public Set<Term> getTermQueryMatch(AbstractQuery query, Ontology ontology) {
+        return this.getTermQueryMatch(query, ontology, TermType.ANY);
+    }
+
+    @Override
+    public Set<Term> getTermQueryMatch(AbstractQuery query, Ontology ontology, TermType termType) {
+        return this.measure("getTermQueryMatch", () -> this.fromQueryContext(query, "getTermQueryMatch", Pair.of(ontology, termType), () -> this.getQueryMatchIndex().getTermQueryMatch(query, ontology, QueryMatchIndex.getTypeFlags(termType), false)), Set::size);
+    }
+
+    @Override
+    public Set<Ontology> getOntologyQueryMatch(AbstractQuery query) {
+        return this.measure("getOntologyQueryMatch", () -> new HashSet<>(this.getQueryMatch(query).keySet()), Set::size);
+    }
+
+    @Override
+    public Set<String> getTermQueryMatchLabels(TermQuery query, Term term) {
+        return this.measure("getTermQueryMatchLabels", () -> this.fromQueryContext(query, "getTermQueryMatchLabels", term, () -> this.computeTermQueryMatchLabels(query, term)), Set::size);
+    }
+
+    private Set<String> computeTermQueryMatchLabels(TermQuery query, Term term) {
+        Set<String> matchingLabels = new HashSet<>();
+        Graph graph = this.getGraph(term.getOntologyOfTerm());
+        if (graph.isEmpty()) {
+            return matchingLabels;
+        }
+        Pattern searchWords = query.getSearchWordsPattern();
+        Node termNode = NodeFactory.createURI(term.getTermUri());
+
+        List<String> labels = new ArrayList<>();
+        labels.add(termNode.getLocalName());
+        for (Node label : JenaGraphUtil.getObjects(graph, termNode, this.getQueryMatchPredicates())) {
+            labels.add(JenaGraphUtil.getLexicalForm(label));
+        }
+        for (String label : labels) {
+            if (label != null && searchWords.matcher(label).find()) {
+                matchingLabels.add(label);
+            }
+        }
+        return matchingLabels;
+    }
+
+    @Override
+    public Map<Term, Set<String>> getClassQueryMatchRDFSLabels(AbstractQuery query, Ontology ontology) {
+        return this.measure("getClassQueryMatchRDFSLabels", () -> this.fromQueryContext(query, "getClassQueryMatchRDFSLabels", ontology, () -> this.getQueryMatchRDFSLabels(query, ontology, CLASS_TYPES)), Map::size);
+    }
+
+    @Override
+    public Map<Term, Set<String>> getPropertyQueryMatchRDFSLabels(AbstractQuery query, Ontology ontology) {
+        return this.measure("getPropertyQueryMatchRDFSLabels", () -> this.fromQueryContext(query, "getPropertyQueryMatchRDFSLabels", ontology, () -> this.getQueryMatchRDFSLabels(query, ontology, PROPERTY_TYPES)), Map::size);
+    }
+
+    /**
+     * Returns the lower cased rdfs:labels that match the query for all terms of the given types.
+     *
+     * @param query
+     * @param ontology
+     * @param types
+     * @return Map<Term, Set<String>>
+     */
+    private Map<Term, Set<String>> getQueryMatchRDFSLabels(AbstractQuery query, Ontology ontology, Set<Node> types) {
+        Map<Term, Set<String>> matchingLabels = new HashMap<>();
+        Graph graph = this.getGraph(ontology);
+        Pattern searchWords = query.getSearchWordsPattern();
+        for (Node uri : this.getTypedNodes(graph, types)) {
+            if (!uri.isURI() || !this.passesTypeFilter(query, graph, uri)) {
+                continue;
+            }
+            for (Node label : JenaGraphUtil.getObjects(graph, uri, RDFS_LABEL)) {
+                String strLabel = JenaGraphUtil.getLexicalForm(label);
+                if (strLabel != null && searchWords.matcher(strLabel).find()) {
+                    matchingLabels.computeIfAbsent(CorpusDictionary.getInstance().getTerm(uri.getURI()), k -> new HashSet<>()).add(strLabel.toLowerCase());
+                }
+            }
+        }
+        return matchingLabels;
+    }
+
+    @Override
+    public Set<Pair<Ontology, Ontology>> getOwlImports(AbstractQuery query, boolean bolImplicitImports) {
+        return this.measure("getOwlImports", () -> this.computeOwlImports(query, bolImplicitImports), Set::size);
+    }
+
+    private Set<Pair<Ontology, Ontology>> computeOwlImports(AbstractQuery query, boolean bolImplicitImports) {
+        Set<Pair<Ontology, Ontology>> importTriples = new HashSet<>();
+        OntologyPartitions partitions = this.getPartitions();
+
+        Set<String> matchingOntologies = null;
+        if (query != null) {
+            matchingOntologies = new HashSet<>();
+            Pattern searchWords = query.getSearchWordsPattern();
+            for (Ontology matchingOntology : partitions.filterPartitions((ontology, graph) -> this.containsQueryMatchingTriple(graph, query, searchWords))) {
+                matchingOntologies.add(matchingOntology.getOntologyUri());
+            }
+        }
+
+        Set<String> importedOntologies = matchingOntologies;
+        for (Set<Pair<Ontology, Ontology>> partitionImports : partitions.mapPartitions((ontology, graph) -> {
+            Set<Pair<Ontology, Ontology>> explicitImports = new HashSet<>();
+            ExtendedIterator<com.hp.hpl.jena.graph.Triple> imports = graph.find(Node.ANY, OWL_IMPORTS, Node.ANY);
+            try {
+                while (imports.hasNext()) {
+                    com.hp.hpl.jena.graph.Triple importTriple = imports.next();
+                    String toOntology = JenaGraphUtil.getStringValue(importTriple.getObject());
+                    if (importedOntologies == null || (importTriple.getObject().isURI() && importedOntologies.contains(toOntology))) {
+                        explicitImports.add(Pair.of(CorpusDictionary.getInstance().getOntology(JenaGraphUtil.getStringValue(importTriple.getSubject())), CorpusDictionary.getInstance().getOntology(toOntology)));
+                    }
+                }
+            } finally {
+                imports.close();
+            }
+            return explicitImports;
+        }).values()) {
+            importTriples.addAll(partitionImports);
+        }
+
+        int countExplicit = importTriples.size();
+        log.debug(String.format("Count of explicit import statements: %s", importTriples.size()));
+
+        if (bolImplicitImports) {
+            importTriples.addAll(this.getImplicitImports());
+            log.debug(String.format("Count of implicit import statements: %s", importTriples.size() - countExplicit));
+        }
+
+        return importTriples;
+    }
+
+    @Override
+    protected HierarchyIndex<Node> buildHierarchyIndex(Ontology ontology, HierarchyIndex.Hierarchy hierarchy) {
+        HierarchyIndex<Node> index = new HierarchyIndex<>();
+        if (hierarchy == HierarchyIndex.Hierarchy.CLASSES) {
+            JenaGraphUtil.addToIndex(this.getGraph(ontology), RDFS_SUBCLASSOF, CLASS_TYPES, index, Function.identity());
+        } else {
+            JenaGraphUtil.addToIndex(this.getGraph(ontology), RDFS_SUBPROPERTYOF, PROPERTY_TYPES, index, Function.identity());
+        }
+        return index.build();
+    }
+
+    @Override
+    public Set<Pair<Ontology, Ontology>> getImplicitImports() {
+        return this.measure("getImplicitImports", () -> this.computeImplicitImports(), Set::size);
+    }
+
+    private synchronized Set<Pair<Ontology, Ontology>> computeImplicitImports() {
+        if (this.implicitImports == null) {
+            long start = System.currentTimeMillis();
+            ImplicitImportIndex index = new ImplicitImportIndex();
+            this.getPartitions().mapPartitions((ontology, graph) -> {
+                JenaGraphUtil.addToIndex(ontology, graph, index);
+                return graph.size();
+            });
+            log.info(String.format("Implicit imports extracted (%s imports) in %s ms", index.size(), System.currentTimeMillis() - start));
+            this.implicitImports = Collections.unmodifiableSet(index.getImports());
+        }
+        return this.implicitImports;
+    }
+
+    @Override
+    public int termFrequency(Term term, Ontology ontology) {
+        return this.measureInt("termFrequency", () -> this.computeTermFrequency(term, ontology));
+    }
+
+    private int computeTermFrequency(Term term, Ontology ontology) {
+        List<Node> termNodes = new ArrayList<>();
+        termNodes.add(NodeFactory.createURI(term.getTermUri()));
+        if (!term.getAlternativeUri().isEmpty()) {
+            termNodes.add(NodeFactory.createURI(term.getAlternativeUri()));
+        }
+        return JenaGraphUtil.countTriplesContaining(this.getGraph(ontology), termNodes);
+    }
+
+    @Override
+    public Map<Term, Integer> termFrequencies(Ontology ontology) {
+        return this.measure("termFrequencies", () -> JenaGraphUtil.countTermFrequencies(this.getGraph(ontology), this.getAllTerms(ontology)), Map::size);
+    }
+
+    @Override
+    public int maximumFrequency(Ontology ontology) {
+        return this.measureInt("maximumFrequency", () -> this.computeMaximumFrequency(ontology));
+    }
+
+    private int computeMaximumFrequency(Ontology ontology) {
+        Graph graph = this.getGraph(ontology);
+        int maximumFrequency = 0;
+        for (Node uri : this.getTypedNodes(graph, ALL_TYPES)) {
+            maximumFrequency = Math.max(maximumFrequency, JenaGraphUtil.countTriplesContaining(graph, Collections.singletonList(uri)));
+        }
+        return maximumFrequency;
+    }
+
+    @Override
+    public int countOntologies() {
+        return this.measureInt("countOntologies", () -> this.getPartitions().countPartitions());
+    }
+
+    @Override
+    public int countOntologiesContainingTerm(Term term) {
+        return this.measureInt("countOntologiesContainingTerm", () -> this.getTermOntologyIndex().countOntologiesContaining(term.getTermUri(), term.getAlternativeUri()));
+    }
+
+    @Override
+    public int ontologySize(Ontology ontology) {
+        return this.measureInt("ontologySize", () -> this.getGraph(ontology).size() * 3);
+    }
+
+    @Override
+    public double averageOntologySize() {
+        return this.measure("averageOntologySize", this::getAverageOntologySize, averageSize -> 1);
+    }
+
+    private synchronized double getAverageOntologySize() {
+        if (this.averageOntologySize == null) {
+            this.averageOntologySize = this.computeAverageOntologySize();
+        }
+        return this.averageOntologySize;
+    }
+
+    private double computeAverageOntologySize() {
+        int countOntologies = this.countOntologies();
+        if (countOntologies == 0) {
+            return 0;
+        }
+        long corpusSize = this.getPartitions().size() * 3;
+        // Integer division as in the sparql based implementation
+        return corpusSize / countOntologies;
+    }
+
+    @Override
+    public int countExactClassLabelMatches(AbstractQuery query, Ontology ontology) {
+        return this.measureInt("countExactClassLabelMatches", () -> this.computeCountExactClassLabelMatches(query, ontology));
+    }
+
+    private int computeCountExactClassLabelMatches(AbstractQuery query, Ontology ontology) {
+        int exactClassLabelMatches = 0;
+        // If it is a term query with a filter that does not correspond to a class, then there are no matches! => skip query
+        if (this.isClassQuery(query)) {
+            Graph graph = this.getGraph(ontology);
+            for (String searchWord : query.getSearchWords()) {
+                String lowerCaseSearchWord = searchWord.toLowerCase();
+                int exactClassLabelMatchesForSearchWord = 0;
+                for (Node classNode : this.getTypedNodes(graph, CLASS_TYPES)) {
+                    for (Node label : JenaGraphUtil.getObjects(graph, classNode, this.getQueryMatchPredicates())) {
+                        String strLabel = JenaGraphUtil.getLexicalForm(label);
+                        if (strLabel != null && strLabel.toLowerCase().equals(lowerCaseSearchWord)) {
+                            exactClassLabelMatchesForSearchWord++;
+                            break;
+                        }
+                    }
+                }
+                log.debug(String.format("EMM score for searchWord %s in ontology %s: %s", searchWord, ontology.getOntologyUri(), exactClassLabelMatchesForSearchWord));
+                exactClassLabelMatches += exactClassLabelMatchesForSearchWord;
+            }
+        }
+        log.debug(String.format("Total EMM score for query %s in ontology %s: %s", query.toString(), ontology.getOntologyUri(), exactClassLabelMatches));
+        return exactClassLabelMatches;
+    }
+
+    @Override
+    public int countPartialClassLabelMatches(AbstractQuery query, Ontology ontology) {
+        return this.measureInt("countPartialClassLabelMatches", () -> this.computeCountPartialClassLabelMatches(query, ontology));
+    }
+
+    private int computeCountPartialClassLabelMatches(AbstractQuery query, Ontology ontology) {
+        int partialClassLabelMatches = 0;
+        // If it is a term query with a filter that does not correspond to a class, then there are no class matches! => skip query
+        if (this.isClassQuery(query)) {
+            Graph graph = this.getGraph(ontology);
+            // If multiple searchWords match a class the count goes up!
+            for (String searchWord : query.getSearchWords()) {
+                String lowerCaseSearchWord = searchWord.toLowerCase();
+                int partialClassLabelMatchesForSearchWord = 0;
+                for (Node classNode : this.getTypedNodes(graph, CLASS_TYPES)) {
+                    for (Node label : JenaGraphUtil.getObjects(graph, classNode, this.getQueryMatchPredicates())) {
+                        String strLabel = JenaGraphUtil.getLexicalForm(label);
+                        if (strLabel != null && strLabel.toLowerCase().contains(lowerCaseSearchWord)) {
+                            partialClassLabelMatchesForSearchWord++;
+                            break;
+                        }
+                    }
+                }
+                log.debug(String.format("PMM score for searchWord %s in ontology %s: %s", searchWord, ontology.getOntologyUri(), partialClassLabelMatchesForSearchWord));
+                partialClassLabelMatches += partialClassLabelMatchesForSearchWord;
+            }
+        }
+        log.debug(String.format("Total PMM score for query %s in ontology %s: %s", query.toString(), ontology.getOntologyUri(), partialClassLabelMatches));
+        return partialClassLabelMatches;
+    }
+
+    @Override
+    public int countClassMatches(AbstractQuery query, Ontology ontology) {
+        return this.measureInt("countClassMatches", () -> this.computeCountClassMatches(query, ontology));
+    }
+
+    private int computeCountClassMatches(AbstractQuery query, Ontology ontology) {
+        int countClassMatches = 0;
+        // If it is a term query with a filter that does not correspond to a class, then there are no class matches! => skip query
+        if (this.isClassQuery(query)) {
+            countClassMatches = this.getClassQueryMatches(query, ontology).size();
+        }
+        log.debug(String.format("Count of class matches for query %s in ontology %s: %s", query, ontology.getOntologyUri(), countClassMatches));
+        return countClassMatches;
+    }
+
+    @Override
+    public int countSubClasses(Term term, Ontology ontology) {
+        return this.measureInt("countSubClasses", () -> this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.CLASSES).countDescendants(NodeFactory.createURI(term.getTermUri()), true));
+    }
+
+    @Override
+    public int countSubClassesOfQueryMatches(AbstractQuery query, Ontology ontology) {
+        return this.measureInt("countSubClassesOfQueryMatches", () -> this.computeCountSubClassesOfQueryMatches(query, ontology));
+    }
+
+    private int computeCountSubClassesOfQueryMatches(AbstractQuery query, Ontology ontology) {
+        int countSubClasses = 0;
+        // If it is a term query with a filter that does not correspond to a class, then there are no class matches! => skip query
+        if (this.isClassQuery(query)) {
+            HierarchyIndex<Node> classHierarchy = this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.CLASSES);
+            for (Node classNode : this.getClassQueryMatches(query, ontology)) {
+                countSubClasses += classHierarchy.countDescendants(classNode, false);
+            }
+        }
+        log.debug(String.format("Total count of sub classes for query %s in ontology %s: %s", query.toString(), ontology.getOntologyUri(), countSubClasses));
+        return countSubClasses;
+    }
+
+    @Override
+    public int countSuperClasses(Term term, Ontology ontology) {
+        return this.measureInt("countSuperClasses", () -> this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.CLASSES).countAncestors(NodeFactory.createURI(term.getTermUri()), true));
+    }
+
+    @Override
+    public int countSuperClassesOfQueryMatches(AbstractQuery query, Ontology ontology) {
+        return this.measureInt("countSuperClassesOfQueryMatches", () -> this.computeCountSuperClassesOfQueryMatches(query, ontology));
+    }
+
+    private int computeCountSuperClassesOfQueryMatches(AbstractQuery query, Ontology ontology) {
+        int countSuperClasses = 0;
+        // If it is a term query with a filter that does not correspond to a class, then there are no class matches! => skip query
+        if (this.isClassQuery(query)) {
+            HierarchyIndex<Node> classHierarchy = this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.CLASSES);
+            for (Node classNode : this.getClassQueryMatches(query, ontology)) {
+                countSuperClasses += classHierarchy.countAncestors(classNode, false);
+            }
+        }
+        log.debug(String.format("Total count of super classes for query %s in ontology %s: %s", query.toString(), ontology.getOntologyUri(), countSuperClasses));
+        return countSuperClasses;
+    }
+
+    @Override
+    public int countRelations(Term term, Ontology ontology) {
+        return this.measureInt("countRelations", () -> this.computeCountRelations(term, ontology));
+    }
+
+    private int computeCountRelations(Term term, Ontology ontology) {
+        Graph graph = this.getGraph(ontology);
+        return this.countTyped(graph, this.getRelations(graph, Collections.singleton(NodeFactory.createURI(term.getTermUri()))), PROPERTY_TYPES);
+    }
+
+    @Override
+    public Map<Term, Integer> countRelations(Ontology ontology) {
+        return this.measure("countRelations", () -> this.computeCountRelations(ontology), Map::size);
+    }
+
+    private Map<Term, Integer> computeCountRelations(Ontology ontology) {
+        Graph graph = this.getGraph(ontology);
+        Map<Node, Set<Node>> relations = new HashMap<>();
+        for (Node domainPredicate : Arrays.asList(RDF_DOMAIN, RDFS_DOMAIN, SCHEMA_DOMAIN_INCLUDES)) {
+            ExtendedIterator<com.hp.hpl.jena.graph.Triple> triples = graph.find(Node.ANY, domainPredicate, Node.ANY);
+            try {
+                while (triples.hasNext()) {
+                    com.hp.hpl.jena.graph.Triple triple = triples.next();
+                    if (triple.getObject().isURI()) {
+                        relations.computeIfAbsent(triple.getObject(), classNode -> new HashSet<>()).add(triple.getSubject());
+                    }
+                }
+            } finally {
+                triples.close();
+            }
+        }
+        Map<Term, Integer> countRelations = new HashMap<>();
+        for (Map.Entry<Node, Set<Node>> classRelations : relations.entrySet()) {
+            int count = this.countTyped(graph, classRelations.getValue(), PROPERTY_TYPES);
+            if (count > 0) {
+                countRelations.put(CorpusDictionary.getInstance().getTerm(classRelations.getKey().getURI()), count);
+            }
+        }
+        return countRelations;
+    }
+
+    @Override
+    public int countRelationsOfQueryMatches(AbstractQuery query, Ontology ontology) {
+        return this.measureInt("countRelationsOfQueryMatches", () -> this.computeCountRelationsOfQueryMatches(query, ontology));
+    }
+
+    private int computeCountRelationsOfQueryMatches(AbstractQuery query, Ontology ontology) {
+        int countRelations = 0;
+        // If it is a term query with a filter that does not correspond to a class, then there are no class matches! => skip query
+        if (this.isClassQuery(query)) {
+            Graph graph = this.getGraph(ontology);
+            HierarchyIndex<Node> classHierarchy = this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.CLASSES);
+            for (Node classNode : this.getClassQueryMatches(query, ontology)) {
+                // rdfs:subClassOf* includes the class itself
+                Set<Node> superClasses = classHierarchy.getAncestors(classNode);
+                superClasses.add(classNode);
+                countRelations += this.countTyped(graph, this.getRelations(graph, superClasses), PROPERTY_TYPES);
+            }
+        }
+        log.debug(String.format("Count of class relations for query %s in ontology %s: %s", query, ontology.getOntologyUri(), countRelations));
+        return countRelations;
+    }
+
+    @Override
+    public int countSiblings(Term term, Ontology ontology) {
+        return this.measureInt("countSiblings", () -> this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.CLASSES).countSiblings(NodeFactory.createURI(term.getTermUri()), OWL_THING, true));
+    }
+
+    @Override
+    public int countSiblingsOfQueryMatches(AbstractQuery query, Ontology ontology) {
+        return this.measureInt("countSiblingsOfQueryMatches", () -> this.computeCountSiblingsOfQueryMatches(query, ontology));
+    }
+
+    private int computeCountSiblingsOfQueryMatches(AbstractQuery query, Ontology ontology) {
+        int countSiblings = 0;
+        // If it is a term query with a filter that does not correspond to a class, then there are no class matches! => skip query
+        if (this.isClassQuery(query)) {
+            HierarchyIndex<Node> classHierarchy = this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.CLASSES);
+            for (Node classNode : this.getClassQueryMatches(query, ontology)) {
+                countSiblings += classHierarchy.countSiblings(classNode, OWL_THING, false);
+            }
+        }
+        log.debug(String.format("Count of class siblings for query %s in ontology %s: %s", query, ontology.getOntologyUri(), countSiblings));
+        return countSiblings;
+    }
+
+    @Override
+    public int countSubProperties(Term term, Ontology ontology) {
+        return this.measureInt("countSubProperties", () -> this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.PROPERTIES).countDescendants(NodeFactory.createURI(term.getTermUri()), true));
+    }
+
+    @Override
+    public int countSuperProperties(Term term, Ontology ontology) {
+        return this.measureInt("countSuperProperties", () -> this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.PROPERTIES).countAncestors(NodeFactory.createURI(term.getTermUri()), true));
+    }
+
+    /**
+     * Computes the length of the shortest undirected path between two terms in the ontology of the start term.
+     * The class types rdfs:Class and owl:Class are not used as path nodes, as in the Stardog path query of LOVRepository.
+     *
+     * @param classQueryMatchStart
+     * @param classQueryMatchEnd
+     * @return int
+     */
+    @Override
+    public int getShortestPathLength(Term classQueryMatchStart, Term classQueryMatchEnd) {
+        return this.measureInt("getShortestPathLength", () -> this.computeShortestPathLength(classQueryMatchStart, classQueryMatchEnd));
+    }
+
+    private int computeShortestPathLength(Term classQueryMatchStart, Term classQueryMatchEnd) {
+        Graph graph = this.getGraph(classQueryMatchStart.getOntologyOfTerm());
+        Node start = NodeFactory.createURI(classQueryMatchStart.getTermUri());
+        Node end = NodeFactory.createURI(classQueryMatchEnd.getTermUri());
+
+        int shortestPathLength = 0;
+        Map<Node, Integer> distances = new HashMap<>();
+        Deque<Node> queue = new ArrayDeque<>();
+        distances.put(start, 0);
+        queue.add(start);
+        while (!queue.isEmpty() && !start.equals(end)) {
+            Node current = queue.poll();
+            List<Node> neighbours = new ArrayList<>();
+            this.addNeighbours(graph.find(current, Node.ANY, Node.ANY), false, neighbours);
+            this.addNeighbours(graph.find(Node.ANY, Node.ANY, current), true, neighbours);
+            for (Node neighbour : neighbours) {
+                if (CLASS_TYPES.contains(neighbour) || distances.containsKey(neighbour)) {
+                    continue;
+                }
+                distances.put(neighbour, distances.get(current) + 1);
+                if (neighbour.equals(end)) {
+                    shortestPathLength = distances.get(neighbour);
+                    queue.clear();
+                    break;
+                }
+                queue.add(neighbour);
+            }
+        }
+        log.debug(String.format("Shortest path for start term: %s and end term %s: %s", classQueryMatchStart.getTermUri(), classQueryMatchEnd.getTermUri(), shortestPathLength));
+        return shortestPathLength;
+    }
+
+    @Override
+    public List<Triple<Term, Term, Term>> getOntologyGraphTriples(Ontology ontology, boolean reversed) {
+        return this.measure("getOntologyGraphTriples", () -> this.computeOntologyGraphTriples(ontology, reversed), List::size);
+    }
+
+    private List<Triple<Term, Term, Term>> computeOntologyGraphTriples(Ontology ontology, boolean reversed) {
+        Set<Triple<Term, Term, Term>> tripleSet = new LinkedHashSet<>();
+        Graph graph = this.getGraph(ontology);
+        for (Node predicate : this.getTypedNodes(graph, PROPERTY_TYPES)) {
+            List<Node> subjects = JenaGraphUtil.getObjects(graph, predicate, RDFS_DOMAIN, SCHEMA_DOMAIN_INCLUDES);
+            if (subjects.isEmpty()) {
+                subjects.add(PLACEHOLDER_SOURCE);
+            }
+            List<Node> objects = JenaGraphUtil.getObjects(graph, predicate, RDFS_RANGE, SCHEMA_RANGE_INCLUDES);
+            if (objects.isEmpty()) {
+                objects.add(PLACEHOLDER_SINK);
+            }
+            Term predicateTerm = CorpusDictionary.getInstance().getTerm(JenaGraphUtil.getStringValue(predicate));
+            for (Node subject : subjects) {
+                for (Node object : objects) {
+                    Term subjectTerm = CorpusDictionary.getInstance().getTerm(JenaGraphUtil.getStringValue(reversed ? object : subject));
+                    Term objectTerm = CorpusDictionary.getInstance().getTerm(JenaGraphUtil.getStringValue(reversed ? subject : object));
+                    tripleSet.add(Triple.of(subjectTerm, predicateTerm, objectTerm));
+                }
+            }
+        }
+        return new ArrayList<>(tripleSet);
+    }
+
+    @Override
+    public Set<Ontology> getAllOntologies() {
+        return this.measure("getAllOntologies", () -> new HashSet<>(this.getPartitions().getOntologies()), Set::size);
+    }
+
+    @Override
+    public Set<Term> getAllTerms(Ontology ontology, TermType termType) {
+        return this.measure("getAllTerms", () -> this.computeAllTerms(ontology, termType), Set::size);
+    }
+
+    private Set<Term> computeAllTerms(Ontology ontology, TermType termType) {
+        Set<Term> allTerms = new HashSet<>();
+        for (Node termNode : this.getTypedNodes(this.getGraph(ontology), this.getTypesForTermType(termType))) {
+            if (this.hasOntologyTermPrefix(ontology, termNode)) {
+                allTerms.add(CorpusDictionary.getInstance().getTerm(termNode.getURI()));
+            }
+        }
+        if (allTerms.isEmpty()) {
+            log.warn("We found an empty ontology: " + ontology.getOntologyUri() + " - potential reasons: wrong prefix defined, contains no URIs, only contains instances but no classes/properties, only contains constraints, alignments, or it's simply empty.");
+        }
+        return allTerms;
+    }
+
+    @Override
+    public int getPropertyCount(Ontology ontology) {
+        return this.measureInt("getPropertyCount", () -> this.countWithOntologyTermPrefix(ontology, PROPERTY_TYPES));
+    }
+
+    @Override
+    public int getClassCount(Ontology ontology) {
+        return this.measureInt("getClassCount", () -> this.countWithOntologyTermPrefix(ontology, CLASS_TYPES));
+    }
+
+    @Override
+    public int countAppearanceOfTermPrefix(String vocabURI, String termPrefix) {
+        return this.measureInt("countAppearanceOfTermPrefix", () -> this.computeCountAppearanceOfTermPrefix(vocabURI, termPrefix));
+    }
+
+    private int computeCountAppearanceOfTermPrefix(String vocabURI, String termPrefix) {
+        int count = 0;
+        for (Node termNode : this.getTypedNodes(JenaGraphUtil.getNamedGraph(this.getDataset(), vocabURI), ALL_TYPES)) {
+            if (termNode.isURI() && termNode.getURI().startsWith(termPrefix)) {
+                String localName = termNode.getURI().substring(termPrefix.length());
+                if (!localName.contains("/") && !localName.contains("#")) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Set<Resource> getAllURIs(String vocabURI) {
+        return this.measure("getAllURIs", () -> this.computeAllURIs(vocabURI), Set::size);
+    }
+
+    private Set<Resource> computeAllURIs(String vocabURI) {
+        Set<Resource> allTerms = new HashSet<>();
+        Graph graph = JenaGraphUtil.getNamedGraph(this.getDataset(), vocabURI);
+        ExtendedIterator<com.hp.hpl.jena.graph.Triple> typeTriples = graph.find(Node.ANY, RDF_TYPE, Node.ANY);
+        try {
+            while (typeTriples.hasNext()) {
+                Node termNode = typeTriples.next().getSubject();
+                if (termNode.isURI()) {
+                    allTerms.add(ResourceFactory.createResource(termNode.getURI()));
+                }
+            }
+        } finally {
+            typeTriples.close();
+        }
+        return allTerms;
+    }
+
+    private Dataset getDataset() {
+        return ((JenaConnector) this.getConnector()).getDataset();
+    }
+
+    private Graph getGraph(Ontology ontology) {
+        return this.getPartitions().getPartition(ontology);
+    }
+
+    private Node[] getQueryMatchPredicates() {
+        List<String> predicateUris = this.getQueryMatchPredicateUris();
+        Node[] predicates = new Node[predicateUris.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = NodeFactory.createURI(predicateUris.get(i));
+        }
+        return predicates;
+    }
+
+    private Set<Node> getTypesForTermType(TermType termType) {
+        switch (termType) {
+            case CLASS:
+                return CLASS_TYPES;
+            case PROPERTY:
+                return PROPERTY_TYPES;
+            default:
+                return ALL_TYPES;
+        }
+    }
+
+    /**
+     * Returns all nodes of a graph that are typed with one of the given types, in the order of first appearance.
+     *
+     * @param graph
+     * @param types
+     * @return Set<Node>
+     */
+    private Set<Node> getTypedNodes(Graph graph, Set<Node> types) {
+        Set<Node> typedNodes = new LinkedHashSet<>();
+        for (Node type : types) {
+            typedNodes.addAll(JenaGraphUtil.getSubjects(graph, type, RDF_TYPE));
+        }
+        return typedNodes;
+    }
+
+    private boolean hasType(Graph graph, Node node, Set<Node> types) {
+        for (Node type : types) {
+            if (graph.contains(node, RDF_TYPE, type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int countTyped(Graph graph, Collection<Node> nodes, Set<Node> types) {
+        int count = 0;
+        for (Node node : nodes) {
+            if (this.hasType(graph, node, types)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Evaluates whether a query can match classes, i.e. it is not a term query that is filtered for properties.
+     *
+     * @param query
+     * @return boolean
+     */
+    private boolean isClassQuery(AbstractQuery query) {
+        return !(query instanceof TermQuery && (((TermQuery) query).getFilterTypes() != null && !((TermQuery) query).getFilterTypes().equals(TypeFilter.CLASS)));
+    }
+
+    /**
+     * Evaluates the type filter of a term query for a node.
+     *
+     * @param query
+     * @param graph
+     * @param node
+     * @return boolean
+     */
+    private boolean passesTypeFilter(AbstractQuery query, Graph graph, Node node) {
+        if (!(query instanceof TermQuery) || ((TermQuery) query).getFilterTypes() == null) {
+            return true;
+        }
+        switch (((TermQuery) query).getFilterTypes()) {
+            case CLASS:
+                return this.hasType(graph, node, CLASS_TYPES);
+            case PROPERTY:
+                return this.hasType(graph, node, PROPERTY_TYPES);
+            default:
+                return this.hasType(graph, node, ALL_TYPES);
+        }
+    }
+
+    /**
+     * Returns all classes of an ontology that have a value for the query match constraint and match the query.
+     *
+     * @param query
+     * @param ontology
+     * @return Set<Node>
+     */
+    private Set<Node> getClassQueryMatches(AbstractQuery query, Ontology ontology) {
+        Set<Node> classMatches = new LinkedHashSet<>();
+        for (Term classMatch : this.getQueryMatchIndex().getTermQueryMatch(query, ontology, QueryMatchIndex.CLASS, true)) {
+            classMatches.add(NodeFactory.createURI(classMatch.getTermUri()));
+        }
+        // Anonymous classes are not in the index, but can match by their values
+        Graph graph = this.getGraph(ontology);
+        Pattern searchWords = null;
+        Node[] matchPredicates = null;
+        for (Node classNode : this.getTypedNodes(graph, CLASS_TYPES)) {
+            if (classNode.isBlank() && this.passesTypeFilter(query, graph, classNode)) {
+                if (searchWords == null) {
+                    searchWords = query.getSearchWordsPattern();
+                    matchPredicates = this.getQueryMatchPredicates();
+                }
+                for (Node value : JenaGraphUtil.getObjects(graph, classNode, matchPredicates)) {
+                    String strValue = JenaGraphUtil.getLexicalForm(value);
+                    if (strValue != null && searchWords.matcher(strValue).find()) {
+                        classMatches.add(classNode);
+                        break;
+                    }
+                }
+            }
+        }
+        return classMatches;
+    }
+
+    private boolean containsQueryMatchingTriple(Graph graph, AbstractQuery query, Pattern searchWords) {
+        ExtendedIterator<com.hp.hpl.jena.graph.Triple> triples = graph.find(Node.ANY, Node.ANY, Node.ANY);
+        try {
+            while (triples.hasNext()) {
+                com.hp.hpl.jena.graph.Triple triple = triples.next();
+                if (this.passesTypeFilter(query, graph, triple.getSubject())) {
+                    for (Node node : Arrays.asList(triple.getSubject(), triple.getPredicate(), triple.getObject())) {
+                        String strNode = JenaGraphUtil.getLexicalForm(node);
+                        if (strNode != null && searchWords.matcher(strNode).find()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        } finally {
+            triples.close();
+        }
+        return false;
+    }
+
+    /**
+     * Returns all properties that have one of the classes as domain.
+     *
+     * @param graph
+     * @param classes
+     * @return Set<Node>
+     */
+    private Set<Node> getRelations(Graph graph, Collection<Node> classes) {
+        Set<Node> relations = new HashSet<>();
+        for (Node classNode : classes) {
+            relations.addAll(JenaGraphUtil.getSubjects(graph, classNode, RDF_DOMAIN, RDFS_DOMAIN, SCHEMA_DOMAIN_INCLUDES));
+        }
+        return relations;
+    }
+
+    private void addNeighbours(ExtendedIterator<com.hp.hpl.jena.graph.Triple> triples, boolean subjects, List<Node> neighbours) {
+        try {
+            while (triples.hasNext()) {
+                com.hp.hpl.jena.graph.Triple triple = triples.next();
+                neighbours.add(subjects ? triple.getSubject() : triple.getObject());
+            }
+        } finally {
+            triples.close();
+        }
+    }
+
+    /**
+     * Evaluates whether a node is a URI that starts with the term prefix or the alternative term prefix of an ontology.
+     *
+     * @param ontology
+     * @param node
+     * @return boolean
+     */
+    private boolean hasOntologyTermPrefix(Ontology ontology, Node node) {
+        if (!node.isURI()) {
+            return false;
+        }
+        String termPrefix = ontology.getOntologyTermPrefix();
+        if (termPrefix == null || termPrefix.isEmpty()) {
+            return true;
+        }
+        String alternativeTermPrefix = ontology.getOntologyAlternativeTermPrefix();
+        return node.getURI().startsWith(termPrefix) || (alternativeTermPrefix != null && !alternativeTermPrefix.isEmpty() && node.getURI().startsWith(alternativeTermPrefix));
+    }
+
+    private int countWithOntologyTermPrefix(Ontology ontology, Set<Node> types) {
+        int count = 0;
+        for (Node termNode : this.getTypedNodes(this.getGraph(ontology), types)) {
+            if (this.hasOntologyTermPrefix(ontology, termNode)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -3,6 +3,7 @@ package experiment.repository.triplestore;
 import com.hp.hpl.jena.rdf.model.Resource;
 import com.hp.hpl.jena.rdf.model.ResourceFactory;
 import com.hp.hpl.jena.vocabulary.XSD;
+import experiment.model.CorpusDictionary;
 import experiment.model.Ontology;
 import experiment.configuration.ExperimentConfiguration;
 import experiment.model.Prefix;
@@ -77,8 +78,8 @@ public class LOVMetadataRepository extends AbstractOntologyMetadataRepository {
         for (BindingSet relationResult : relationResults) {
 //            String fromOntology = relationResult.getValue("vocabPrefix").stringValue();
 //            String toOntology = relationResult.getValue("hasVoafRelationToPrefix").stringValue();
-            Ontology fromOntology = new Ontology(relationResult.getValue("vocabURI").stringValue());
-            Ontology toOntology = new Ontology(relationResult.getValue("hasVoafRelationTo").stringValue());
+            Ontology fromOntology = CorpusDictionary.getInstance().getOntology(relationResult.getValue("vocabURI").stringValue());
+            Ontology toOntology = CorpusDictionary.getInstance().getOntology(relationResult.getValue("hasVoafRelationTo").stringValue());
 //            log.info(relationResult.getValue("vocabURI").stringValue());
 //            log.info(relationResult.getValue("vocabPrefix").stringValue());
 //            log.info(relationResult.getValue("hasVoafRelationTo").stringValue());
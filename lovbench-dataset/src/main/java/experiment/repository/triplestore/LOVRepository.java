@@ -1,26 +1,44 @@
 package experiment.repository.triplestore;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.NodeFactory;
+import com.hp.hpl.jena.rdf.model.AnonId;
 import com.hp.hpl.jena.rdf.model.Resource;
 import com.hp.hpl.jena.rdf.model.ResourceFactory;
+import com.hp.hpl.jena.vocabulary.OWL;
+import com.hp.hpl.jena.vocabulary.RDFS;
+import experiment.feature.scoring.util.IdIntCache;
+import experiment.model.CorpusDictionary;
 import experiment.model.Ontology;
 import experiment.model.Term;
 import experiment.model.query.AbstractQuery;
 import experiment.model.query.TermQuery;
+import experiment.model.query.enums.QueryMatch;
 import experiment.model.query.enums.TermType;
 import experiment.model.query.enums.TypeFilter;
 import experiment.configuration.ExperimentConfiguration;
-import experiment.repository.file.LOVPrefixes;
 import experiment.repository.triplestore.connector.AbstractConnector;
+import experiment.repository.triplestore.connector.JenaConnector;
+import experiment.repository.triplestore.connector.QueryExecutor;
 import experiment.repository.triplestore.connector.StardogConnector;
+import experiment.repository.triplestore.index.HierarchyIndex;
+import experiment.repository.triplestore.index.ImplicitImportIndex;
+import experiment.repository.triplestore.index.QueryMatchIndex;
+import experiment.repository.triplestore.index.TermOntologyIndex;
+import experiment.repository.triplestore.util.JenaGraphUtil;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
+import org.openrdf.model.BNode;
+import org.openrdf.model.Literal;
+import org.openrdf.model.Value;
 import org.openrdf.query.BindingSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Implementation of a repository for the LOV collection in a Stardog triple store.
@@ -38,19 +56,24 @@ public class LOVRepository extends AbstractOntologyRepository {
     int countOntologiesCache = 0;
 
     /**
-     * Caches the count of ontologies that contain a term.
+     * Inverted index from term URIs to the ontologies that contain them, built on first use.
      */
-    Map<Term, Integer> countOntologiesContainingTermCache = new HashMap<>();
+    private TermOntologyIndex termOntologyIndex;
 
     /**
-     * Caches term matches for a query.
+     * Index of the local names and query match values of all terms, built on first use.
      */
-    private Table<AbstractQuery, Ontology, List<Term>> termMatchesCache = HashBasedTable.create();
+    private QueryMatchIndex queryMatchIndex;
 
     /**
-     * Caches the size of ontologies.
+     * Implicit imports of the collection, extracted on first use.
      */
-    private Map<Ontology, Integer> ontologySizeCache = new HashMap<>();
+    private Set<Pair<Ontology, Ontology>> implicitImports;
+
+    /**
+     * Caches the size of ontologies, keyed by the corpus dictionary ID of the ontology.
+     */
+    private IdIntCache ontologySizeCache = new IdIntCache();
 
     /**
      * Cahces the average size of ontologies in the repository.
@@ -93,48 +116,88 @@ public class LOVRepository extends AbstractOntologyRepository {
         return lovRepository;
     }
 
+    @Override
+    public AbstractConnector getConnector() {
+        if (this.connector == null) {
+            this.connector = new StardogConnector(this.dbName, ExperimentConfiguration.getInstance().getDbServer(), ExperimentConfiguration.getInstance().getDbUser(), ExperimentConfiguration.getInstance().getDbPassword());
+        }
+        return connector;
+    }
+
+    @Override
+    public void setConnector(AbstractConnector connector) {
+        super.setConnector(connector);
+        // Indexes built from the previous connector are no longer valid
+        this.termOntologyIndex = null;
+        this.queryMatchIndex = null;
+        this.implicitImports = null;
+    }
+
     /**
-     * Finds query matches and inserts them in to the cache table.
+     * Returns the term to ontology index, which is built in one pass over the collection when it is first requested.
      *
-     * @param query  query
-     * @param sparql sparql formulation for match
+     * @return TermOntologyIndex
      */
-    private void addQueryMatchesToCache(AbstractQuery query, String sparql) {
-        List<BindingSet> uriMatches = this.getConnector().selectQuery(sparql);
-
-        // No match found at all
-        if (uriMatches.isEmpty()) {
-            log.info(String.format("Zero matches for query %s. Adding empty result to cache", query.toString()));
-            this.termMatchesCache.put(query, new Ontology(""), new ArrayList<>());
-        } else {
-            // Adding term matches per ontology to cache
-            for (BindingSet uriMatch : uriMatches) {
-                Ontology matchedOntology = new Ontology(uriMatch.getBinding("g").getValue().stringValue());
-                Term matchedTerm = new Term(uriMatch.getBinding("uri").getValue().stringValue());
-
-                List<Term> termList = new ArrayList<>();
-                termList.add(matchedTerm);
-
-                // Insert to cache table
-                if (!this.termMatchesCache.containsRow(query)) {
-                    this.termMatchesCache.put(query, matchedOntology, termList);
-                } else {
-                    if (!this.termMatchesCache.contains(query, matchedOntology)) {
-                        this.termMatchesCache.put(query, matchedOntology, termList);
-                    } else {
-                        this.termMatchesCache.get(query, matchedOntology).add(matchedTerm);
-                    }
+    public synchronized TermOntologyIndex getTermOntologyIndex() {
+        if (this.termOntologyIndex == null) {
+            long start = System.currentTimeMillis();
+            TermOntologyIndex index = new TermOntologyIndex();
+            if (this.getConnector() instanceof JenaConnector) {
+                JenaGraphUtil.addToIndex(((JenaConnector) this.getConnector()).getDataset(), index);
+            } else {
+                String sparql = "SELECT ?g ?uri (COUNT(*) AS ?uriFrequency) WHERE { GRAPH ?g { { ?a ?b ?c . BIND(?a AS ?uri) } UNION { ?a ?b ?c . BIND(?b AS ?uri) FILTER (!sameTerm(?b, ?a)) } UNION { ?a ?b ?c . BIND(?c AS ?uri) FILTER (!sameTerm(?c, ?a) && !sameTerm(?c, ?b)) } } FILTER (isURI(?uri)) } GROUP BY ?g ?uri";
+                for (BindingSet uriFrequency : this.getConnector().selectQuery(sparql)) {
+                    index.addOccurrences(CorpusDictionary.getInstance().getOntology(uriFrequency.getBinding("g").getValue().stringValue()), uriFrequency.getBinding("uri").getValue().stringValue(), Integer.parseInt(uriFrequency.getBinding("uriFrequency").getValue().stringValue()));
                 }
             }
+            log.info(String.format("Term ontology index built for %s URIs in %s ontologies in %s ms", index.size(), index.countOntologies(), System.currentTimeMillis() - start));
+            this.termOntologyIndex = index;
         }
+        return this.termOntologyIndex;
     }
 
-    @Override
-    public AbstractConnector getConnector() {
-        if (this.connector == null) {
-            this.connector = new StardogConnector(this.dbName, ExperimentConfiguration.getInstance().getDbServer(), ExperimentConfiguration.getInstance().getDbUser(), ExperimentConfiguration.getInstance().getDbPassword());
+    /**
+     * Returns the query match index, which is built in one pass over the collection when it is first requested
+     * and rebuilt when the query match configuration changes.
+     *
+     * @return QueryMatchIndex
+     */
+    public synchronized QueryMatchIndex getQueryMatchIndex() {
+        QueryMatch queryMatch = ExperimentConfiguration.getInstance().getQueryMatch();
+        if (this.queryMatchIndex == null || this.queryMatchIndex.getQueryMatch() != queryMatch) {
+            long start = System.currentTimeMillis();
+            List<String> predicateUris = this.getQueryMatchPredicateUris();
+            QueryMatchIndex index = new QueryMatchIndex(queryMatch, predicateUris);
+            if (this.getConnector() instanceof JenaConnector) {
+                Node[] matchPredicates = new Node[predicateUris.size()];
+                for (int i = 0; i < matchPredicates.length; i++) {
+                    matchPredicates[i] = NodeFactory.createURI(predicateUris.get(i));
+                }
+                JenaGraphUtil.addToIndex(((JenaConnector) this.getConnector()).getDataset(), index, matchPredicates, JenaGraphUtil.parseTypeValues(TYPE_CLASS_VALUES), JenaGraphUtil.parseTypeValues(TYPE_PROPERTY_VALUES));
+            } else {
+                this.addToQueryMatchIndex(index, AbstractOntologyRepository.getTypeClassValuesString(), QueryMatchIndex.CLASS);
+                this.addToQueryMatchIndex(index, AbstractOntologyRepository.getTypePropertyValuesString(), QueryMatchIndex.PROPERTY);
+            }
+            log.info(String.format("Query match index built for %s terms with %s distinct texts in %s ms", index.countTerms(), index.countTexts(), System.currentTimeMillis() - start));
+            this.queryMatchIndex = index;
         }
-        return connector;
+        return this.queryMatchIndex;
+    }
+
+    /**
+     * Adds all terms of the given types with their query match values to the index.
+     *
+     * @param index
+     * @param typeValues
+     * @param typeFlags
+     */
+    private void addToQueryMatchIndex(QueryMatchIndex index, String typeValues, int typeFlags) {
+        String sparql = "SELECT DISTINCT ?g ?uri ?value (str(?value) AS ?str_value) WHERE { GRAPH ?g { ?uri a ?termType . OPTIONAL { " + this.getQueryMatchConstraint("?uri", "?value") + " } FILTER (isuri(?uri)) . VALUES ?termType " + typeValues + " . } }";
+        this.getConnector().selectQuery(sparql, true, termValue -> {
+            String uri = termValue.getString("uri");
+            List<String> values = termValue.isBound("value") ? Collections.singletonList(termValue.getString("str_value")) : Collections.emptyList();
+            index.addTerm(CorpusDictionary.getInstance().getOntology(termValue.getString("g")), uri, JenaGraphUtil.getLocalName(uri), typeFlags, values);
+        });
     }
 
 //    @Override
@@ -149,21 +212,8 @@ public class LOVRepository extends AbstractOntologyRepository {
 
     @Override
     public Map<Ontology, Set<Term>> getQueryMatch(AbstractQuery query) {
-        Map<Ontology, Set<Term>> queryMatch = new HashMap<>();
-        String sparql = "SELECT DISTINCT ?g ?uri WHERE { GRAPH ?g { ?uri a ?valueType . OPTIONAL { " + this.getQueryMatchConstraint("?uri", "?value") + " } " + query.getQueryFilterString("<http://jena.hpl.hp.com/ARQ/function#localname>(?uri)", "?value") + "  FILTER (isuri(?uri)) . VALUES ?valueType " + AbstractOntologyRepository.getAllTypesValuesString() + " . } }";
-        List<BindingSet> uriMatches = this.getConnector().selectQuery(sparql, true);
-        for (BindingSet uriMatch : uriMatches) {
-            Ontology matchedOntology = new Ontology(uriMatch.getBinding("g").getValue().stringValue());
-            Term matchedTerm = new Term(uriMatch.getBinding("uri").getValue().stringValue());
-            if (queryMatch.containsKey(matchedOntology)) {
-                queryMatch.get(matchedOntology).add(matchedTerm);
-            } else {
-                Set<Term> termSet = new HashSet<>();
-                termSet.add(matchedTerm);
-                queryMatch.put(matchedOntology, termSet);
-            }
-        }
-        return queryMatch;
+//        String sparql = "SELECT DISTINCT ?g ?uri WHERE { GRAPH ?g { ?uri a ?valueType . OPTIONAL { " + this.getQueryMatchConstraint("?uri", "?value") + " } " + query.getQueryFilterString("<http://jena.hpl.hp.com/ARQ/function#localname>(?uri)", "?value") + "  FILTER (isuri(?uri)) . VALUES ?valueType " + AbstractOntologyRepository.getAllTypesValuesString() + " . } }";
+        return this.measure("getQueryMatch", () -> this.fromQueryContext(query, "getQueryMatch", null, () -> this.getQueryMatchIndex().getQueryMatch(query, QueryMatchIndex.getTypeFlags(TermType.ANY), false)), Map::size);
     }
 
 //    @Override
@@ -187,30 +237,22 @@ public class LOVRepository extends AbstractOntologyRepository {
 
     @Override
     public Set<Term> getTermQueryMatch(AbstractQuery query, Ontology ontology, TermType termType) {
-        Set<Term> queryMatch = new HashSet<>();
-        String sparql = "SELECT DISTINCT ?uri WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?uri a ?termType . OPTIONAL { " + this.getQueryMatchConstraint("?uri", "?value") + " } " + query.getQueryFilterString("<http://jena.hpl.hp.com/ARQ/function#localname>(?uri)", "?value") + "  FILTER (isuri(?uri)) . VALUES ?termType " + this.getValueTypesForTermType(termType) + " . } }";
-        List<BindingSet> uriMatches = this.getConnector().selectQuery(sparql, true);
-        for (BindingSet uriMatch : uriMatches) {
-            Term matchedTerm = new Term(uriMatch.getBinding("uri").getValue().stringValue());
-            queryMatch.add(matchedTerm);
-        }
-        return queryMatch;
+//        String sparql = "SELECT DISTINCT ?uri WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?uri a ?termType . OPTIONAL { " + this.getQueryMatchConstraint("?uri", "?value") + " } " + query.getQueryFilterString("<http://jena.hpl.hp.com/ARQ/function#localname>(?uri)", "?value") + "  FILTER (isuri(?uri)) . VALUES ?termType " + this.getValueTypesForTermType(termType) + " . } }";
+        return this.measure("getTermQueryMatch", () -> this.fromQueryContext(query, "getTermQueryMatch", Pair.of(ontology, termType), () -> this.getQueryMatchIndex().getTermQueryMatch(query, ontology, QueryMatchIndex.getTypeFlags(termType), false)), Set::size);
     }
 
     @Override
     public Set<Ontology> getOntologyQueryMatch(AbstractQuery query) {
-        Set<Ontology> queryMatch = new HashSet<>();
-        String sparql = "SELECT DISTINCT ?g WHERE { GRAPH ?g { ?uri a ?termType . OPTIONAL { " + this.getQueryMatchConstraint("?uri", "?value") + " } " + query.getQueryFilterString("<http://jena.hpl.hp.com/ARQ/function#localname>(?uri)", "?value") + "  FILTER (isuri(?uri)) . VALUES ?termType " + AbstractOntologyRepository.getAllTypesValuesString() + " . } }";
-        List<BindingSet> uriMatches = this.getConnector().selectQuery(sparql, true);
-        for (BindingSet uriMatch : uriMatches) {
-            Ontology matchedOntology = new Ontology(uriMatch.getBinding("g").getValue().stringValue());
-            queryMatch.add(matchedOntology);
-        }
-        return queryMatch;
+//        String sparql = "SELECT DISTINCT ?g WHERE { GRAPH ?g { ?uri a ?termType . OPTIONAL { " + this.getQueryMatchConstraint("?uri", "?value") + " } " + query.getQueryFilterString("<http://jena.hpl.hp.com/ARQ/function#localname>(?uri)", "?value") + "  FILTER (isuri(?uri)) . VALUES ?termType " + AbstractOntologyRepository.getAllTypesValuesString() + " . } }";
+        return new HashSet<>(this.getQueryMatch(query).keySet());
     }
 
     @Override
     public Set<String> getTermQueryMatchLabels(TermQuery query, Term term) {
+        return this.fromQueryContext(query, "getTermQueryMatchLabels", term, () -> this.computeTermQueryMatchLabels(query, term));
+    }
+
+    private Set<String> computeTermQueryMatchLabels(TermQuery query, Term term) {
         Set<String> matchingLabels = new HashSet<>();
 //        String sparql = "SELECT DISTINCT ?label WHERE { GRAPH <" + term.getOntologyUriOfTerm() + "> { " + getQueryMatchConstraint("<" + term.getTermUri() + ">",  "?label") + " } " + query.getQueryFilterString("?label") + " }";
         String sparql = "SELECT DISTINCT (str(?label) as ?str_label) WHERE { GRAPH <" + term.getOntologyUriOfTerm() + "> { { BIND(<http://jena.hpl.hp.com/ARQ/function#localname>(<" + term.getTermUri() + ">) AS ?label) . } UNION { " + getQueryMatchConstraint("<" + term.getTermUri() + ">", "?label") + " } } " + query.getQueryFilterString("?label") + " }";
@@ -246,11 +288,15 @@ public class LOVRepository extends AbstractOntologyRepository {
 
     @Override
     public Map<Term, Set<String>> getClassQueryMatchRDFSLabels(AbstractQuery query, Ontology ontology) {
+        return this.fromQueryContext(query, "getClassQueryMatchRDFSLabels", ontology, () -> this.computeClassQueryMatchRDFSLabels(query, ontology));
+    }
+
+    private Map<Term, Set<String>> computeClassQueryMatchRDFSLabels(AbstractQuery query, Ontology ontology) {
         Map<Term, Set<String>> matchingClassLabels = new HashMap<>();
         String sparql = "SELECT DISTINCT ?uri (str(?classLabel) as ?str_classLabel) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?uri a ?classType . ?uri rdfs:label ?classLabel . " + query.getQueryFilterString("?classLabel") + " FILTER (isuri(?uri)) . VALUES ?classType " + AbstractOntologyRepository.getTypeClassValuesString() + " . } }";
         List<BindingSet> uriMatches = this.getConnector().selectQuery(sparql, true);
         for (BindingSet uriMatch : uriMatches) {
-            Term matchedClass = new Term(uriMatch.getBinding("uri").getValue().stringValue());
+            Term matchedClass = CorpusDictionary.getInstance().getTerm(uriMatch.getBinding("uri").getValue().stringValue());
             String matchedLabel = uriMatch.getBinding("str_classLabel").getValue().stringValue().toLowerCase();
             if (!matchingClassLabels.containsKey(matchedClass)) {
                 matchingClassLabels.put(matchedClass, new HashSet<>());
@@ -262,11 +308,15 @@ public class LOVRepository extends AbstractOntologyRepository {
 
     @Override
     public Map<Term, Set<String>> getPropertyQueryMatchRDFSLabels(AbstractQuery query, Ontology ontology) {
+        return this.fromQueryContext(query, "getPropertyQueryMatchRDFSLabels", ontology, () -> this.computePropertyQueryMatchRDFSLabels(query, ontology));
+    }
+
+    private Map<Term, Set<String>> computePropertyQueryMatchRDFSLabels(AbstractQuery query, Ontology ontology) {
         Map<Term, Set<String>> matchingPropertyLabels = new HashMap<>();
         String sparql = "SELECT DISTINCT ?uri (str(?propertyLabel) as ?str_propertyLabel) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?uri a ?propertyType . ?uri rdfs:label ?propertyLabel . " + query.getQueryFilterString("?propertyLabel") + " FILTER (isuri(?uri)) . VALUES ?propertyType " + AbstractOntologyRepository.getTypePropertyValuesString() + " . } }";
         List<BindingSet> uriMatches = this.getConnector().selectQuery(sparql, true);
         for (BindingSet uriMatch : uriMatches) {
-            Term matchedProperty = new Term(uriMatch.getBinding("uri").getValue().stringValue());
+            Term matchedProperty = CorpusDictionary.getInstance().getTerm(uriMatch.getBinding("uri").getValue().stringValue());
             String matchedLabel = uriMatch.getBinding("str_propertyLabel").getValue().stringValue().toLowerCase();
             if (!matchingPropertyLabels.containsKey(matchedProperty)) {
                 matchingPropertyLabels.put(matchedProperty, new HashSet<>());
@@ -289,54 +339,47 @@ public class LOVRepository extends AbstractOntologyRepository {
 
 //        String sparql = "SELECT DISTINCT ?importingOntology ?importedOntology WHERE { ?importingOntology owl:imports ?importedOntology . { SELECT DISTINCT ?importedOntology WHERE { GRAPH ?importedOntology { ?a ?b ?c . " + queryFilter + " } } } } ";
 
-        List<BindingSet> importResults = this.getConnector().selectQuery(sparql, true);
-
-        for (BindingSet importResult : importResults) {
-            String fromOntology = importResult.getValue("importingOntology").stringValue();
-            String toOntology = importResult.getValue("importedOntology").stringValue();
-            importTriples.add(Pair.of(new Ontology(fromOntology), new Ontology(toOntology)));
-        }
+        this.getConnector().selectQuery(sparql, true, importResult -> {
+            String fromOntology = importResult.getString("importingOntology");
+            String toOntology = importResult.getString("importedOntology");
+            importTriples.add(Pair.of(CorpusDictionary.getInstance().getOntology(fromOntology), CorpusDictionary.getInstance().getOntology(toOntology)));
+        });
 
         int countExplicit = importTriples.size();
         log.debug(String.format("Count of explicit import statements: %s", importTriples.size()));
 
         if (bolImplicitImports) {
-            for (Ontology ontology : this.getAllOntologies()) {
-                String ontologyTermPrefix = LOVPrefixes.getInstance().getTermPrefixForOntologyPrefix(ontology.getOntologyPrefix());
-                String implicitImportsSparql = "SELECT DISTINCT ?a ?b ?c WHERE { Graph <" + ontology.getOntologyUri() + "> { ?a ?b ?c . filter( isURI(?a) && isURI(?b) && isURI(?c) ) . filter( (!strstarts(str(?a), \"" + ontologyTermPrefix + "\") && !strstarts(str(?a), \"" + ontology.getOntologyUri() + "\") && !strstarts(str(?a), \"http://www.w3.org/1999/02/22-rdf-syntax-ns\") && !strstarts(str(?a), \"http://www.w3.org/2000/01/rdf-schema\") && !strstarts(str(?a), \"http://www.w3.org/2002/07/owl\") && !strstarts(str(?a), \"http://www.w3.org/2001/XMLSchema\") ) || ( !strstarts(str(?b), \"" + ontologyTermPrefix + "\") && !strstarts(str(?b), \"" + ontology.getOntologyUri() + "\") && !strstarts(str(?b), \"http://www.w3.org/1999/02/22-rdf-syntax-ns\") && !strstarts(str(?b), \"http://www.w3.org/2000/01/rdf-schema\") && !strstarts(str(?b), \"http://www.w3.org/2002/07/owl\")  && !strstarts(str(?b), \"http://www.w3.org/2001/XMLSchema\") ) || ( !strstarts(str(?c), \"" + ontologyTermPrefix + "\") && !strstarts(str(?c), \"" + ontology.getOntologyUri() + "\") && !strstarts(str(?c), \"http://www.w3.org/1999/02/22-rdf-syntax-ns\") && !strstarts(str(?c), \"http://www.w3.org/2000/01/rdf-schema\") && !strstarts(str(?c), \"http://www.w3.org/2002/07/owl\") && !strstarts(str(?c), \"http://www.w3.org/2001/XMLSchema\") ) ) . } }";
-                List<BindingSet> implicitImports = this.getConnector().selectQuery(implicitImportsSparql);
-                if (implicitImports != null && !implicitImports.isEmpty()) {
-                    for (BindingSet implicitImport : implicitImports) {
-                        Term subject = new Term(implicitImport.getValue("a").stringValue());
-                        Term predicate = new Term(implicitImport.getValue("b").stringValue());
-                        Term object = new Term(implicitImport.getValue("c").stringValue());
-                        if (LOVPrefixes.getInstance().isFullUri(subject.getTermUri()) && !subject.getOntologyUriOfTerm().equals(ontology.getOntologyUri()) && !subject.getTermUri().equals(ontology.getOntologyUri())) {
-                            Pair<Ontology, Ontology> newImplicitImport = Pair.of(ontology, new Ontology(subject.getOntologyUriOfTerm()));
-                            if (!importTriples.contains(newImplicitImport)) {
-                                importTriples.add(newImplicitImport);
-                            }
-                        }
-                        if (LOVPrefixes.getInstance().isFullUri(predicate.getTermUri()) && !predicate.getOntologyUriOfTerm().equals(ontology.getOntologyUri()) && !predicate.getTermUri().equals(ontology.getOntologyUri())) {
-                            Pair<Ontology, Ontology> newImplicitImport = Pair.of(ontology, new Ontology(predicate.getOntologyUriOfTerm()));
-                            if (!importTriples.contains(newImplicitImport)) {
-                                importTriples.add(newImplicitImport);
-                            }
-                        }
-                        if (LOVPrefixes.getInstance().isFullUri(object.getTermUri()) && !object.getOntologyUriOfTerm().equals(ontology.getOntologyUri()) && !object.getTermUri().equals(ontology.getOntologyUri())) {
-                            Pair<Ontology, Ontology> newImplicitImport = Pair.of(ontology, new Ontology(object.getOntologyUriOfTerm()));
-                            if (!importTriples.contains(newImplicitImport)) {
-                                importTriples.add(newImplicitImport);
-                            }
-                        }
-                    }
-                }
-            }
+            importTriples.addAll(this.getImplicitImports());
             log.debug(String.format("Count of implicit import statements: %s", importTriples.size() - countExplicit));
         }
 
         return importTriples;
     }
 
+    @Override
+    public synchronized Set<Pair<Ontology, Ontology>> getImplicitImports() {
+        if (this.implicitImports == null) {
+            long start = System.currentTimeMillis();
+            ImplicitImportIndex index = new ImplicitImportIndex();
+            if (this.getConnector() instanceof JenaConnector) {
+                JenaGraphUtil.addToIndex(((JenaConnector) this.getConnector()).getDataset(), index);
+            } else {
+                // One streamed scan over all graphs instead of one filtered query per ontology
+                Set<Ontology> ontologies = this.getAllOntologies();
+                String sparql = "SELECT ?g ?a ?b ?c WHERE { GRAPH ?g { ?a ?b ?c . FILTER (isURI(?a) && isURI(?b) && isURI(?c)) } }";
+                this.getConnector().selectQuery(sparql, implicitImport -> {
+                    Ontology ontology = CorpusDictionary.getInstance().getOntology(implicitImport.getString("g"));
+                    if (ontologies.contains(ontology)) {
+                        index.addTriple(ontology, implicitImport.getString("a"), implicitImport.getString("b"), implicitImport.getString("c"));
+                    }
+                });
+            }
+            log.info(String.format("Implicit imports extracted (%s imports) in %s ms", index.size(), System.currentTimeMillis() - start));
+            this.implicitImports = Collections.unmodifiableSet(index.getImports());
+        }
+        return this.implicitImports;
+    }
+
     @Override
     public int termFrequency(Term term, Ontology ontology) {
         String sparql = "SELECT (COUNT(*) AS ?termFrequency) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?a ?b ?c . FILTER (?a=<" + term.getTermUri() + "> || ?b=<" + term.getTermUri() + "> || ?c=<" + term.getTermUri() + ">) . } } ";
@@ -347,6 +390,52 @@ public class LOVRepository extends AbstractOntologyRepository {
         return termFrequency;
     }
 
+    @Override
+    public Map<Term, Integer> termFrequencies(Ontology ontology) {
+        Set<Term> terms = this.getAllTerms(ontology);
+        if (this.getConnector() instanceof JenaConnector) {
+            // In memory we can walk the graph directly and count each triple at most once per term
+            return JenaGraphUtil.countTermFrequencies(JenaGraphUtil.getNamedGraph(((JenaConnector) this.getConnector()).getDataset(), ontology.getOntologyUri()), terms);
+        }
+        return LOVRepository.queryTermFrequencies(this.getConnector(), ontology, terms);
+    }
+
+    /**
+     * Counts the occurences of the given terms in the graph of an ontology with one query. The term URI and the alternative term URI both count for a term,
+     * but each triple is counted at most once per term, as in JenaGraphUtil.countTermFrequencies(). Terms that do not occur are not contained in the result.
+     *
+     * @param connector
+     * @param ontology
+     * @param terms
+     * @return Map<Term, Integer>
+     */
+    static Map<Term, Integer> queryTermFrequencies(AbstractConnector connector, Ontology ontology, Set<Term> terms) {
+        Map<String, Term> uriToTerm = new HashMap<>();
+        StringBuilder termValues = new StringBuilder();
+        for (Term term : terms) {
+            uriToTerm.put(term.getTermUri(), term);
+            termValues.append("(<").append(term.getTermUri()).append("> <").append(term.getTermUri()).append(">) ");
+            if (!term.getAlternativeUri().isEmpty()) {
+                termValues.append("(<").append(term.getAlternativeUri()).append("> <").append(term.getTermUri()).append(">) ");
+            }
+        }
+
+        Map<Term, Integer> frequencies = new HashMap<>();
+        if (terms.isEmpty()) {
+            return frequencies;
+        }
+        // Each URI is mapped to its term, the distinct triples per term count a triple with both URIs of a term once
+        String sparql = "SELECT ?term (COUNT(*) AS ?termFrequency) WHERE { { SELECT DISTINCT ?term ?a ?b ?c WHERE { GRAPH <" + ontology.getOntologyUri() + "> { { ?a ?b ?c . BIND(?a AS ?uri) } UNION { ?a ?b ?c . BIND(?b AS ?uri) } UNION { ?a ?b ?c . BIND(?c AS ?uri) } } VALUES (?uri ?term) { " + termValues + "} } } } GROUP BY ?term";
+        List<BindingSet> termFrequencies = connector.selectQuery(sparql);
+        for (BindingSet termFrequency : termFrequencies) {
+            Term term = uriToTerm.get(termFrequency.getBinding("term").getValue().stringValue());
+            if (term != null) {
+                frequencies.put(term, Integer.parseInt(termFrequency.getBinding("termFrequency").getValue().stringValue()));
+            }
+        }
+        return frequencies;
+    }
+
     @Override
     public int maximumFrequency(Ontology ontology) {
 //        String sparql = "SELECT (max(?termFrequencies) as ?maximumFrequency) WHERE { SELECT ?uri (COUNT(*) as ?termFrequencies) WHERE { GRAPH <"+ontology.getOntologyUri()+"> { ?a ?b ?c . { SELECT DISTINCT ?uri WHERE { GRAPH <"+ontology.getOntologyUri() +"> { ?uri a ?type . } VALUES ?type { rdf:Property rdfs:Property owl:DatatypeProperty owl:ObjectProperty rdfs:Class owl:Class } } } filter(regex(str(?a), CONCAT(\"^\",str(?uri),\"$\")) || regex(str(?b), CONCAT(\"^\",str(?uri),\"$\")) || regex(str(?c), CONCAT(\"^\",str(?uri),\"$\"))) . } } group by ?uri }";
@@ -355,7 +444,7 @@ public class LOVRepository extends AbstractOntologyRepository {
     }
 
     @Override
-    public int countOntologies() {
+    public synchronized int countOntologies() {
         if (this.countOntologiesCache == 0) {
             String sparql = "SELECT (count(distinct ?g) as ?ontologyCount) WHERE { GRAPH ?g { ?a ?b ?c } } ";
             this.countOntologiesCache = Integer.parseInt(this.getConnector().selectQuery(sparql).get(0).getBinding("ontologyCount").getValue().stringValue());
@@ -365,29 +454,19 @@ public class LOVRepository extends AbstractOntologyRepository {
 
     @Override
     public int countOntologiesContainingTerm(Term term) {
-        if (!this.countOntologiesContainingTermCache.containsKey(term)) {
-            String sparql = "SELECT (count(distinct ?g) as ?ontologyCount) WHERE { GRAPH ?g { ?a ?b ?c . FILTER (?a=<" + term.getTermUri() + "> || ?b=<" + term.getTermUri() + "> || ?c=<" + term.getTermUri() + ">) . } } ";
-            if (!term.getAlternativeUri().isEmpty()) {
-                sparql = "SELECT (count(distinct ?g) as ?ontologyCount) WHERE { GRAPH ?g { ?a ?b ?c . FILTER (?a=<" + term.getTermUri() + "> || ?b=<" + term.getTermUri() + "> || ?c=<" + term.getTermUri() + "> || ?a=<" + term.getAlternativeUri() + "> || ?b=<" + term.getAlternativeUri() + "> || ?c=<" + term.getAlternativeUri() + ">) . } } ";
-            }
-            int count = Integer.parseInt(this.getConnector().selectQuery(sparql).get(0).getBinding("ontologyCount").getValue().stringValue());
-            this.countOntologiesContainingTermCache.put(term, count);
-        }
-        return this.countOntologiesContainingTermCache.get(term);
+        return this.measureInt("countOntologiesContainingTerm", () -> this.getTermOntologyIndex().countOntologiesContaining(term.getTermUri(), term.getAlternativeUri()));
     }
 
     @Override
     public int ontologySize(Ontology ontology) {
-        if (!this.ontologySizeCache.containsKey(ontology)) {
+        return this.ontologySizeCache.computeIfAbsent(ontology.getId(), id -> {
             String sparql = "SELECT (COUNT(?s)*3 AS ?ontologySize) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?s ?p ?o } }";
-            int size = Integer.parseInt(this.getConnector().selectQuery(sparql).get(0).getBinding("ontologySize").getValue().stringValue());
-            this.ontologySizeCache.put(ontology, size);
-        }
-        return this.ontologySizeCache.get(ontology);
+            return Integer.parseInt(this.getConnector().selectQuery(sparql).get(0).getBinding("ontologySize").getValue().stringValue());
+        });
     }
 
     @Override
-    public double averageOntologySize() {
+    public synchronized double averageOntologySize() {
         if (this.averageOntologySizeCache == 0) {
             String sparql = "SELECT (COUNT(?s)*3 AS ?corpusSize) WHERE { GRAPH ?g { ?s ?p ?o } } ";
             int corpusSize = Integer.parseInt(this.getConnector().selectQuery(sparql).get(0).getBinding("corpusSize").getValue().stringValue());
@@ -401,9 +480,14 @@ public class LOVRepository extends AbstractOntologyRepository {
         int exactClassLabelMatches = 0;
         // If it is a term query with a filter that does not correspond to a class, then there are no matches! => skip query
         if (!(query instanceof TermQuery && (((TermQuery) query).getFilterTypes() != null && !((TermQuery) query).getFilterTypes().equals(TypeFilter.CLASS)))) {
+            // The search words are counted independently, so their queries run at the same time
+            Map<String, CompletableFuture<List<BindingSet>>> searchWordResults = new LinkedHashMap<>();
             for (String searchWord : query.getSearchWords()) {
                 String sparql = "SELECT (COUNT(DISTINCT ?class) as ?exactClassLabelMatches) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?class a ?classType . " + this.getQueryMatchConstraint("?class", "?label") + " } VALUES ?classType " + AbstractOntologyRepository.getTypeClassValuesString() + " . filter(lcase(str(?label))=lcase(\"" + searchWord + "\")) }";
-                int exactClassLabelMatchesForSearchWord = Integer.parseInt(this.getConnector().selectQuery(sparql).get(0).getBinding("exactClassLabelMatches").getValue().stringValue());
+                searchWordResults.putIfAbsent(searchWord, this.getConnector().selectQueryAsync(sparql));
+            }
+            for (String searchWord : query.getSearchWords()) {
+                int exactClassLabelMatchesForSearchWord = Integer.parseInt(QueryExecutor.join(searchWordResults.get(searchWord)).get(0).getBinding("exactClassLabelMatches").getValue().stringValue());
                 log.debug(String.format("EMM score for searchWord %s in ontology %s: %s", searchWord, ontology.getOntologyUri(), exactClassLabelMatchesForSearchWord));
                 exactClassLabelMatches += exactClassLabelMatchesForSearchWord;
             }
@@ -420,9 +504,13 @@ public class LOVRepository extends AbstractOntologyRepository {
         // If it is a term query with a filter that does not correspond to a class, then there are no class matches! => skip query
         if (!(query instanceof TermQuery && (((TermQuery) query).getFilterTypes() != null && !((TermQuery) query).getFilterTypes().equals(TypeFilter.CLASS)))) {
             // If multiple searchWords match a class the count goes up!
+            Map<String, CompletableFuture<List<BindingSet>>> searchWordResults = new LinkedHashMap<>();
             for (String searchWord : query.getSearchWords()) {
                 String sparql = "SELECT (COUNT(DISTINCT ?class) as ?partialClassLabelMatches) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?class a ?classType . " + this.getQueryMatchConstraint("?class", "?label") + " } VALUES ?classType " + AbstractOntologyRepository.getTypeClassValuesString() + " . filter(contains(lcase(str(?label)),lcase(\"" + searchWord + "\"))) }";
-                int exactClassLabelMatchesForSearchWord = Integer.parseInt(this.getConnector().selectQuery(sparql).get(0).getBinding("partialClassLabelMatches").getValue().stringValue());
+                searchWordResults.putIfAbsent(searchWord, this.getConnector().selectQueryAsync(sparql));
+            }
+            for (String searchWord : query.getSearchWords()) {
+                int exactClassLabelMatchesForSearchWord = Integer.parseInt(QueryExecutor.join(searchWordResults.get(searchWord)).get(0).getBinding("partialClassLabelMatches").getValue().stringValue());
                 log.debug(String.format("PMM score for searchWord %s in ontology %s: %s", searchWord, ontology.getOntologyUri(), exactClassLabelMatchesForSearchWord));
                 partialClassLabelMatches += exactClassLabelMatchesForSearchWord;
             }
@@ -446,8 +534,7 @@ public class LOVRepository extends AbstractOntologyRepository {
 
     @Override
     public int countSubClasses(Term term, Ontology ontology) {
-        String sparql = "SELECT (count(distinct ?subClass) as ?countSubClass) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?subClass a ?classType . ?subClass rdfs:subClassOf+ <" + term.getTermUri() + ">  . } VALUES ?classType " + AbstractOntologyRepository.getTypeClassValuesString() + " . }";
-        return Integer.parseInt(this.getConnector().selectQuery(sparql, true).get(0).getBinding("countSubClass").getValue().stringValue());
+        return this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.CLASSES).countDescendants(NodeFactory.createURI(term.getTermUri()), true);
     }
 
     @Override
@@ -466,8 +553,7 @@ public class LOVRepository extends AbstractOntologyRepository {
 
     @Override
     public int countSuperClasses(Term term, Ontology ontology) {
-        String sparql = "SELECT (count(distinct ?superClass) as ?countSuperClass) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?superClass a ?classType . <" + term.getTermUri() + "> rdfs:subClassOf+ ?superClass . } VALUES ?classType " + AbstractOntologyRepository.getTypeClassValuesString() + " . }";
-        return Integer.parseInt(this.getConnector().selectQuery(sparql, true).get(0).getBinding("countSuperClass").getValue().stringValue());
+        return this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.CLASSES).countAncestors(NodeFactory.createURI(term.getTermUri()), true);
     }
 
     @Override
@@ -490,6 +576,16 @@ public class LOVRepository extends AbstractOntologyRepository {
         return Integer.parseInt(this.getConnector().selectQuery(sparql, true).get(0).getBinding("countClassRelations").getValue().stringValue());
     }
 
+    @Override
+    public Map<Term, Integer> countRelations(Ontology ontology) {
+        Map<Term, Integer> countRelations = new HashMap<>();
+        String sparql = "SELECT ?class (count(distinct ?classRelation) as ?countClassRelations) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?classRelation a ?propertyType . ?classRelation rdf:domain|rdfs:domain|<http://schema.org/domainIncludes> ?class . FILTER (isURI(?class)) } VALUES ?propertyType " + AbstractOntologyRepository.getTypePropertyValuesString() + " . } GROUP BY ?class";
+        for (BindingSet classRelations : this.getConnector().selectQuery(sparql, true)) {
+            countRelations.put(CorpusDictionary.getInstance().getTerm(classRelations.getBinding("class").getValue().stringValue()), Integer.parseInt(classRelations.getBinding("countClassRelations").getValue().stringValue()));
+        }
+        return countRelations;
+    }
+
     @Override
     public int countRelationsOfQueryMatches(AbstractQuery query, Ontology ontology) {
         int countRelations = 0;
@@ -506,8 +602,7 @@ public class LOVRepository extends AbstractOntologyRepository {
 
     @Override
     public int countSiblings(Term term, Ontology ontology) {
-        String sparql = "SELECT (count(distinct ?siblingClasses) as ?countClassSiblings) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { <" + term.getTermUri() + "> rdfs:subClassOf ?superClass . ?siblingClasses rdfs:subClassOf ?superClass . ?siblingClasses a ?classType . } VALUES ?classType " + AbstractOntologyRepository.getTypeClassValuesString() + " . FILTER ( ?superClass not in ( owl:Thing )) }";
-        return Integer.parseInt(this.getConnector().selectQuery(sparql, true).get(0).getBinding("countClassSiblings").getValue().stringValue());
+        return this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.CLASSES).countSiblings(NodeFactory.createURI(term.getTermUri()), OWL.Thing.asNode(), true);
     }
 
     @Override
@@ -524,14 +619,34 @@ public class LOVRepository extends AbstractOntologyRepository {
 
     @Override
     public int countSubProperties(Term term, Ontology ontology) {
-        String sparql = "SELECT (count(distinct ?subproperty) as ?count_subproperties) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?subproperty rdfs:subPropertyOf+ <" + term.getTermUri() + ">  . ?subproperty a ?propertyType . } VALUES ?propertyType " + AbstractOntologyRepository.getTypePropertyValuesString() + " . }";
-        return Integer.parseInt(this.getConnector().selectQuery(sparql, true).get(0).getBinding("count_subproperties").getValue().stringValue());
+        return this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.PROPERTIES).countDescendants(NodeFactory.createURI(term.getTermUri()), true);
     }
 
     @Override
     public int countSuperProperties(Term term, Ontology ontology) {
-        String sparql = "SELECT (count(distinct ?superproperty) as ?count_superproperties) WHERE { GRAPH <" + ontology.getOntologyUri() + "> { <" + term.getTermUri() + "> rdfs:subPropertyOf+ ?superproperty  . ?superproperty a ?propertyType . } VALUES ?propertyType " + AbstractOntologyRepository.getTypePropertyValuesString() + " . }";
-        return Integer.parseInt(this.getConnector().selectQuery(sparql, true).get(0).getBinding("count_superproperties").getValue().stringValue());
+        return this.getHierarchyIndex(ontology, HierarchyIndex.Hierarchy.PROPERTIES).countAncestors(NodeFactory.createURI(term.getTermUri()), true);
+    }
+
+    @Override
+    protected HierarchyIndex<Node> buildHierarchyIndex(Ontology ontology, HierarchyIndex.Hierarchy hierarchy) {
+        Node predicate = hierarchy == HierarchyIndex.Hierarchy.CLASSES ? RDFS.subClassOf.asNode() : RDFS.subPropertyOf.asNode();
+        String typeValues = hierarchy == HierarchyIndex.Hierarchy.CLASSES ? TYPE_CLASS_VALUES : TYPE_PROPERTY_VALUES;
+        HierarchyIndex<Node> index = new HierarchyIndex<>();
+        if (this.getConnector() instanceof JenaConnector) {
+            Graph graph = JenaGraphUtil.getNamedGraph(((JenaConnector) this.getConnector()).getDataset(), ontology.getOntologyUri());
+            JenaGraphUtil.addToIndex(graph, predicate, JenaGraphUtil.parseTypeValues(typeValues), index, Function.identity());
+        } else {
+            // The direct edges and the typed nodes of the hierarchy, instead of one property path query per term
+            String sparqlEdges = "SELECT ?sub ?super WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?sub <" + predicate.getURI() + "> ?super . } }";
+            for (BindingSet edge : this.getConnector().selectQuery(sparqlEdges, true)) {
+                index.addEdge(this.getNodeOfValue(edge.getBinding("sub").getValue()), this.getNodeOfValue(edge.getBinding("super").getValue()));
+            }
+            String sparqlTyped = "SELECT DISTINCT ?node WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?node a ?type . } VALUES ?type {" + typeValues + "} . }";
+            for (BindingSet typed : this.getConnector().selectQuery(sparqlTyped, true)) {
+                index.addTyped(this.getNodeOfValue(typed.getBinding("node").getValue()));
+            }
+        }
+        return index.build();
     }
 
     @Override
@@ -559,20 +674,14 @@ public class LOVRepository extends AbstractOntologyRepository {
 //        String sparql = "Select distinct ?subject ?predicate ?object where { graph <" + ontology.getOntologyUri() + "> { ?subject ?predicate ?object } } ";
         String sparql = "SELECT distinct ?subject_all ?predicate ?object_all WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?predicate a ?propertyType . OPTIONAL { ?predicate rdfs:domain|<http://schema.org/domainIncludes> ?subject } . bind(if(bound(?subject), ?subject, <http://lovbench.com/placeholder#source>) as ?subject_all ) . OPTIONAL { ?predicate rdfs:range|<http://schema.org/rangeIncludes> ?object } . bind(if(bound(?object), ?object, <http://lovbench.com/placeholder#sink>) as ?object_all ) . } VALUES ?propertyType " + AbstractOntologyRepository.getTypePropertyValuesString() + " . }";// FILTER (isURI(?subject_all) && isURI(?object_all) && isURI(?predicate)). }";
 
-        List<BindingSet> triples = this.getConnector().selectQuery(sparql, true);
-
-        for (BindingSet triple : triples) {
-            String bindingSubject = "subject_all";
-            String bindingObject = "object_all";
-            if (reversed) {
-                bindingSubject = "object_all";
-                bindingObject = "subject_all";
-            }
-            Term subject = new Term(triple.getBinding(bindingSubject).getValue().stringValue());
-            Term predicate = new Term(triple.getBinding("predicate").getValue().stringValue());
-            Term object = new Term(triple.getBinding(bindingObject).getValue().stringValue());
+        String bindingSubject = reversed ? "object_all" : "subject_all";
+        String bindingObject = reversed ? "subject_all" : "object_all";
+        this.getConnector().selectQuery(sparql, true, triple -> {
+            Term subject = CorpusDictionary.getInstance().getTerm(triple.getString(bindingSubject));
+            Term predicate = CorpusDictionary.getInstance().getTerm(triple.getString("predicate"));
+            Term object = CorpusDictionary.getInstance().getTerm(triple.getString(bindingObject));
             tripleList.add(Triple.of(subject, predicate, object));
-        }
+        });
         return tripleList;
     }
 
@@ -584,7 +693,7 @@ public class LOVRepository extends AbstractOntologyRepository {
         List<BindingSet> graphs = this.getConnector().selectQuery(sparql);
 
         for (BindingSet graph : graphs) {
-            ontologies.add(new Ontology(graph.getBinding("g").getValue().stringValue()));
+            ontologies.add(CorpusDictionary.getInstance().getOntology(graph.getBinding("g").getValue().stringValue()));
         }
 
         return ontologies;
@@ -602,20 +711,13 @@ public class LOVRepository extends AbstractOntologyRepository {
 
         String sparql = "SELECT distinct ?term WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?term a ?termType . } VALUES ?termType " + this.getValueTypesForTermType(termType) + " . " + this.getOntologyTermPrefixURIFilter(ontology, "term") + " }";
 
-        List<BindingSet> termResults = this.getConnector().selectQuery(sparql);
+        this.getConnector().selectQuery(sparql, termResult -> allTerms.add(CorpusDictionary.getInstance().getTerm(termResult.getString("term"))));
 
-        if (termResults.isEmpty()) {
+        if (allTerms.isEmpty()) {
             log.warn("We found an empty ontology: " + ontology.getOntologyUri() + " - potential reasons: wrong prefix defined, contains no URIs, only contains instances but no classes/properties, only contains constraints, alignments, or it's simply empty.");
             log.warn("The corresponding query: " + sparql);
         }
 
-        for (BindingSet termResult : termResults) {
-            Term term = new Term(termResult.getBinding("term").getValue().stringValue());
-            if (!allTerms.contains(term)) {
-                allTerms.add(term);
-            }
-        }
-
         return allTerms;
     }
 
@@ -681,4 +783,19 @@ public class LOVRepository extends AbstractOntologyRepository {
         }
         return typeValues;
     }
+
+    /**
+     * Converts a value of a BindingSet into a Jena node.
+     *
+     * @param value
+     * @return Node
+     */
+    private Node getNodeOfValue(Value value) {
+        if (value instanceof BNode) {
+            return NodeFactory.createAnon(new AnonId(((BNode) value).getID()));
+        } else if (value instanceof Literal) {
+            return NodeFactory.createLiteral(value.stringValue());
+        }
+        return NodeFactory.createURI(value.stringValue());
+    }
 }
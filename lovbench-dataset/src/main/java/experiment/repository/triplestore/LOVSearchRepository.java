@@ -1,5 +1,6 @@
 package experiment.repository.triplestore;
 
+import experiment.model.CorpusDictionary;
 import experiment.model.Term;
 import experiment.model.query.AbstractQuery;
 import experiment.configuration.ExperimentConfiguration;
@@ -50,7 +51,7 @@ public class LOVSearchRepository extends AbstractOntologySearchRepository {
         String sparql = "SELECT DISTINCT ?term ?score WHERE { ?term ?p ?l. (?l ?score) <tag:stardog:api:property:textMatch> \""+querySearch+"\". }";
         List<BindingSet> termScores = this.getConnector().selectQuery(sparql);
         for (BindingSet termScore : termScores) {
-            Term term = new Term(termScore.getBinding("term").getValue().stringValue());
+            Term term = CorpusDictionary.getInstance().getTerm(termScore.getBinding("term").getValue().stringValue());
             Double score = Double.parseDouble(termScore.getBinding("score").getValue().stringValue());
             result.put(term, score);
         }
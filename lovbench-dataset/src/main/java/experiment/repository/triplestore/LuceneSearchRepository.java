@@ -0,0 +1,333 @@
+package experiment.repository.triplestore;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.sparql.core.DatasetGraph;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.model.CorpusDictionary;
+import experiment.model.Term;
+import experiment.model.query.AbstractQuery;
+import experiment.repository.triplestore.connector.AbstractConnector;
+import experiment.repository.triplestore.connector.JenaConnector;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Embedded full-text search over the literals of the LOV collection, as replacement of the Stardog textMatch search of LOVSearchRepository.
+ *
+ * Every string literal of a URI subject becomes a document with the subject as term. The literal is indexed in the field of its
+ * predicate (labels, descriptions, or other), so that fields can be boosted independently. Documents are scored with BM25, and a
+ * term gets the best score of its documents. The index is written to disk and is built from the N-Quads dump on first use if it does not exist.
+ */
+public class LuceneSearchRepository extends AbstractOntologySearchRepository {
+
+    public static final String FIELD_TERM = "term";
+
+    public static final String FIELD_LABEL = "label";
+
+    public static final String FIELD_DESCRIPTION = "description";
+
+    public static final String FIELD_OTHER = "other";
+
+    /**
+     * Predicates whose values are indexed as labels.
+     */
+    private static final Set<String> LABEL_PREDICATES = new HashSet<>(Arrays.asList(
+            "http://www.w3.org/2000/01/rdf-schema#label",
+            "http://www.w3.org/2004/02/skos/core#prefLabel",
+            "http://www.w3.org/2004/02/skos/core#altLabel",
+            "http://purl.org/dc/elements/1.1/title",
+            "http://purl.org/dc/terms/title"
+    ));
+
+    /**
+     * Predicates whose values are indexed as descriptions.
+     */
+    private static final Set<String> DESCRIPTION_PREDICATES = new HashSet<>(Arrays.asList(
+            "http://www.w3.org/2000/01/rdf-schema#comment",
+            "http://www.w3.org/2000/01/rdf-schema#description",
+            "http://www.w3.org/2004/02/skos/core#definition",
+            "http://purl.org/dc/elements/1.1/description",
+            "http://purl.org/dc/terms/description"
+    ));
+
+    /**
+     * Boost per field. All fields have the same weight by default, as in the Stardog index, which does not distinguish predicates.
+     */
+    private final Map<String, Float> fieldBoosts = new LinkedHashMap<>();
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private Directory directory;
+
+    private DirectoryReader reader;
+
+    private IndexSearcher searcher;
+
+    private static final Logger log = LoggerFactory.getLogger( LuceneSearchRepository.class );
+
+    /**
+     * Search repository on the index in the given directory.
+     *
+     * @param indexDir
+     */
+    public LuceneSearchRepository(String indexDir) {
+        super(indexDir);
+        this.fieldBoosts.put(FIELD_LABEL, 1.0f);
+        this.fieldBoosts.put(FIELD_DESCRIPTION, 1.0f);
+        this.fieldBoosts.put(FIELD_OTHER, 1.0f);
+    }
+
+    /**
+     * Sets the boost of a field, a boost of 0 leaves the field out of the search.
+     *
+     * @param field
+     * @param boost
+     */
+    public void setFieldBoost(String field, float boost) {
+        if (!this.fieldBoosts.containsKey(field)) {
+            throw new IllegalArgumentException("Unknown search field " + field);
+        }
+        this.fieldBoosts.put(field, boost);
+    }
+
+    public Map<String, Float> getFieldBoosts() {
+        return this.fieldBoosts;
+    }
+
+    @Override
+    public Map<Term, Double> search(AbstractQuery query) {
+        Map<Term, Double> result = new HashMap<>();
+        Query luceneQuery = this.getLuceneQuery(query);
+        if (luceneQuery == null) {
+            return result;
+        }
+        try {
+            IndexSearcher searcher = this.getSearcher();
+            Map<Integer, Float> docScores = new HashMap<>();
+            searcher.search(luceneQuery, new SimpleCollector() {
+
+                private Scorer scorer;
+
+                private int docBase;
+
+                @Override
+                public void setScorer(Scorer scorer) {
+                    this.scorer = scorer;
+                }
+
+                @Override
+                protected void doSetNextReader(LeafReaderContext context) {
+                    this.docBase = context.docBase;
+                }
+
+                @Override
+                public void collect(int doc) throws IOException {
+                    docScores.put(this.docBase + doc, this.scorer.score());
+                }
+
+                @Override
+                public boolean needsScores() {
+                    return true;
+                }
+            });
+            for (Map.Entry<Integer, Float> docScore : docScores.entrySet()) {
+                Term term = CorpusDictionary.getInstance().getTerm(searcher.doc(docScore.getKey()).get(FIELD_TERM));
+                result.merge(term, (double) docScore.getValue(), Math::max);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        log.debug(String.format("Search for %s found %s terms", query, result.size()));
+        return result;
+    }
+
+    /**
+     * Writes the index for all string literals of a dataset, replacing an existing index.
+     *
+     * @param dataset
+     * @throws IOException
+     */
+    public synchronized void buildIndex(Dataset dataset) throws IOException {
+        long start = System.currentTimeMillis();
+        this.close();
+        IndexWriterConfig config = new IndexWriterConfig(this.analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+        config.setSimilarity(new BM25Similarity());
+        int countDocuments = 0;
+        try (IndexWriter writer = new IndexWriter(this.getDirectory(), config)) {
+            DatasetGraph datasetGraph = dataset.asDatasetGraph();
+            List<Graph> graphs = new ArrayList<>();
+            graphs.add(datasetGraph.getDefaultGraph());
+            datasetGraph.listGraphNodes().forEachRemaining(graphNode -> graphs.add(datasetGraph.getGraph(graphNode)));
+            for (Graph graph : graphs) {
+                Set<List<String>> indexed = new HashSet<>();
+                ExtendedIterator<com.hp.hpl.jena.graph.Triple> triples = graph.find(Node.ANY, Node.ANY, Node.ANY);
+                try {
+                    while (triples.hasNext()) {
+                        com.hp.hpl.jena.graph.Triple triple = triples.next();
+                        if (!triple.getSubject().isURI() || !isStringLiteral(triple.getObject())) {
+                            continue;
+                        }
+                        String field = getField(triple.getPredicate().getURI());
+                        String text = triple.getObject().getLiteralLexicalForm();
+                        // A literal is indexed once per term and field, even if several predicates of the field have it
+                        if (indexed.add(Arrays.asList(triple.getSubject().getURI(), field, text))) {
+                            Document document = new Document();
+                            document.add(new StringField(FIELD_TERM, triple.getSubject().getURI(), Field.Store.YES));
+                            document.add(new TextField(field, text, Field.Store.NO));
+                            writer.addDocument(document);
+                            countDocuments++;
+                        }
+                    }
+                } finally {
+                    triples.close();
+                }
+            }
+            writer.commit();
+        }
+        log.info(String.format("Search index with %s documents written to %s in %s ms", countDocuments, this.dbName, System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Closes the index reader.
+     */
+    public synchronized void close() {
+        if (this.reader != null) {
+            try {
+                this.reader.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            this.reader = null;
+            this.searcher = null;
+        }
+    }
+
+    @Override
+    public AbstractConnector getConnector() {
+        if (this.connector == null) {
+            this.connector = new JenaConnector(ExperimentConfiguration.getInstance().getLovNqFile());
+        }
+        return this.connector;
+    }
+
+    /**
+     * Returns the searcher, building the index from the dataset of the connector if there is none yet.
+     *
+     * @return IndexSearcher
+     * @throws IOException
+     */
+    private synchronized IndexSearcher getSearcher() throws IOException {
+        if (this.searcher == null) {
+            if (!DirectoryReader.indexExists(this.getDirectory())) {
+                if (!(this.getConnector() instanceof JenaConnector)) {
+                    throw new IllegalStateException("The search index can only be built from the dataset of a JenaConnector.");
+                }
+                this.buildIndex(((JenaConnector) this.getConnector()).getDataset());
+            }
+            this.reader = DirectoryReader.open(this.getDirectory());
+            this.searcher = new IndexSearcher(this.reader);
+            this.searcher.setSimilarity(new BM25Similarity());
+        }
+        return this.searcher;
+    }
+
+    private Directory getDirectory() throws IOException {
+        if (this.directory == null) {
+            this.directory = FSDirectory.open(Paths.get(this.dbName));
+        }
+        return this.directory;
+    }
+
+    /**
+     * Builds a query that matches any of the search words in any boosted field. The search words are escaped,
+     * so they are always searched as text.
+     *
+     * @param query
+     * @return Query, or null if no search word remains after analysis
+     */
+    private Query getLuceneQuery(AbstractQuery query) {
+        List<String> escapedSearchWords = new ArrayList<>();
+        for (String searchWord : query.getSearchWords()) {
+            if (!searchWord.trim().isEmpty()) {
+                escapedSearchWords.add(QueryParser.escape(searchWord));
+            }
+        }
+        if (escapedSearchWords.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        int clauses = 0;
+        for (Map.Entry<String, Float> fieldBoost : this.fieldBoosts.entrySet()) {
+            if (fieldBoost.getValue() <= 0) {
+                continue;
+            }
+            try {
+                Query fieldQuery = new QueryParser(fieldBoost.getKey(), this.analyzer).parse(String.join(" ", escapedSearchWords));
+                if (fieldQuery != null) {
+                    builder.add(fieldBoost.getValue() == 1.0f ? fieldQuery : new BoostQuery(fieldQuery, fieldBoost.getValue()), BooleanClause.Occur.SHOULD);
+                    clauses++;
+                }
+            } catch (ParseException e) {
+                log.error(String.format("Could not parse search query %s: %s", query, e.getMessage()));
+                return null;
+            }
+        }
+        return clauses == 0 ? null : builder.build();
+    }
+
+    private static String getField(String predicateUri) {
+        if (LABEL_PREDICATES.contains(predicateUri)) {
+            return FIELD_LABEL;
+        } else if (DESCRIPTION_PREDICATES.contains(predicateUri)) {
+            return FIELD_DESCRIPTION;
+        }
+        return FIELD_OTHER;
+    }
+
+    private static boolean isStringLiteral(Node node) {
+        if (!node.isLiteral()) {
+            return false;
+        }
+        String datatypeUri = node.getLiteralDatatypeURI();
+        return datatypeUri == null || datatypeUri.equals(XSDDatatype.XSDstring.getURI()) || datatypeUri.equals("http://www.w3.org/1999/02/22-rdf-syntax-ns#langString");
+    }
+}
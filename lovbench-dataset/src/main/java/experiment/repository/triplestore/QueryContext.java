@@ -0,0 +1,50 @@
+package experiment.repository.triplestore;
+
+import experiment.feature.scoring.util.ComputeOnceCache;
+import experiment.model.query.AbstractQuery;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.function.Supplier;
+
+/**
+ * Results of the query-dependent repository methods for one query, e.g. the matched terms per ontology, the matched labels of terms and the
+ * candidate ontologies, which are computed once and then shared by all features that are extracted for the query.
+ *
+ * A context is opened for a query with AbstractOntologyRepository.openQueryContext() and must be closed after the features of the query are extracted.
+ * The results are shared between features and must not be modified.
+ */
+public class QueryContext {
+
+    private final AbstractQuery query;
+
+    /**
+     * Results per repository method and method arguments other than the query.
+     */
+    private final ComputeOnceCache<Pair<String, Object>, Object> results = new ComputeOnceCache<>();
+
+    public QueryContext(AbstractQuery query) {
+        this.query = query;
+    }
+
+    /**
+     * Returns the result of a repository method for the query and further arguments, computing it on first request.
+     *
+     * @param method name of the repository method
+     * @param arguments further arguments of the method, or null
+     * @param computation
+     * @param <V>
+     * @return V
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(String method, Object arguments, Supplier<V> computation) {
+        return (V) this.results.get(Pair.of(method, arguments), key -> computation.get());
+    }
+
+    public AbstractQuery getQuery() {
+        return query;
+    }
+
+    public int size() {
+        return this.results.size();
+    }
+}
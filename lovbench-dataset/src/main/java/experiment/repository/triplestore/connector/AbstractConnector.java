@@ -1,8 +1,14 @@
 package experiment.repository.triplestore.connector;
 
+import experiment.configuration.ExperimentConfiguration;
+import experiment.repository.triplestore.metrics.QueryMetrics;
 import org.openrdf.query.BindingSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Abstract class for connectors to different triple stores.
@@ -12,6 +18,18 @@ import java.util.List;
  */
 public abstract class AbstractConnector {
 
+    /**
+     * Executor for asynchronous queries, created on first use.
+     */
+    private QueryExecutor queryExecutor;
+
+    /**
+     * Repository method that issued the asynchronous query that is run by the current thread, for the slow query journal.
+     */
+    private static final ThreadLocal<String> asyncCaller = new ThreadLocal<>();
+
+    private static final Logger log = LoggerFactory.getLogger( AbstractConnector.class );
+
     /**
      * Runs a select query on the database and returns the result as a list of BindingSet.
      *
@@ -25,4 +43,163 @@ public abstract class AbstractConnector {
 
     abstract public List<BindingSet> selectQuery(String sparql, boolean appendPrefix);
 
+    /**
+     * Runs a select query on the database and returns an iterator that streams the solutions instead of materialising them.
+     * The iterator has to be closed after use.
+     *
+     * @param sparql
+     * @param appendPrefix
+     * @return QueryResultIterator
+     */
+    abstract public QueryResultIterator selectQueryIterator(String sparql, boolean appendPrefix);
+
+    /**
+     * Runs a select query asynchronously on the query executor of the connector (see getQueryExecutor()).
+     *
+     * @param sparql
+     * @return CompletableFuture<List<BindingSet>>
+     */
+    public CompletableFuture<List<BindingSet>> selectQueryAsync(String sparql) {
+        return this.selectQueryAsync(sparql, false);
+    }
+
+    /**
+     * Runs a select query asynchronously on the query executor of the connector (see getQueryExecutor()).
+     *
+     * @param sparql
+     * @param appendPrefix
+     * @return CompletableFuture<List<BindingSet>>
+     */
+    public CompletableFuture<List<BindingSet>> selectQueryAsync(String sparql, boolean appendPrefix) {
+        if (!ExperimentConfiguration.getInstance().isQueryMetrics()) {
+            // Without query metrics the caller is only needed for slow queries, which are journaled with the caller found on the query thread
+            return this.getQueryExecutor().submit(() -> this.selectQuery(sparql, appendPrefix));
+        }
+        String caller = QueryJournal.findCaller();
+        return this.getQueryExecutor().submit(() -> {
+            String outerCaller = asyncCaller.get();
+            asyncCaller.set(caller);
+            try {
+                return this.selectQuery(sparql, appendPrefix);
+            } finally {
+                asyncCaller.set(outerCaller);
+            }
+        });
+    }
+
+    /**
+     * Returns the time in ms after which queries are cancelled, 0 for no timeout.
+     *
+     * @return long
+     */
+    protected long getQueryTimeout() {
+        return ExperimentConfiguration.getInstance().getQueryTimeout();
+    }
+
+    /**
+     * Records a query in the query metrics (see QueryMetrics) and, if it took at least slowQueryThreshold of the configuration or timed out,
+     * in the slow query journal.
+     *
+     * @param sparql
+     * @param start System.nanoTime() at which the query was issued
+     * @param resultSize number of results, -1 if the query timed out
+     */
+    protected void recordQuery(String sparql, long start, int resultSize) {
+        long durationNanos = System.nanoTime() - start;
+        long duration = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        boolean slow = resultSize < 0 || duration >= ExperimentConfiguration.getInstance().getSlowQueryThreshold();
+        if (!slow && !ExperimentConfiguration.getInstance().isQueryMetrics()) {
+            return;
+        }
+        String caller = this.getCaller();
+        if (ExperimentConfiguration.getInstance().isQueryMetrics()) {
+            QueryMetrics.getInstance().record(caller, durationNanos, resultSize, resultSize < 0);
+        }
+        if (!slow) {
+            return;
+        }
+        if (resultSize < 0) {
+            log.warn(String.format("Query of %s cancelled after %s ms", caller, duration));
+        } else {
+            log.info(String.format("Slow query of %s took %s ms for %s results", caller, duration, resultSize));
+        }
+        QueryJournal.getInstance().record(caller, sparql, duration, resultSize);
+    }
+
+    /**
+     * Records a query that failed in the query metrics.
+     *
+     * @param start System.nanoTime() at which the query was issued
+     */
+    protected void recordFailedQuery(long start) {
+        if (ExperimentConfiguration.getInstance().isQueryMetrics()) {
+            QueryMetrics.getInstance().record(this.getCaller(), System.nanoTime() - start, 0, true);
+        }
+    }
+
+    /**
+     * Returns the repository method that issued the query that is run by the current thread.
+     *
+     * @return String
+     */
+    private String getCaller() {
+        return asyncCaller.get() != null ? asyncCaller.get() : QueryJournal.findCaller();
+    }
+
+    /**
+     * Returns the executor for asynchronous queries. Its concurrency is asyncQueryThreads of the configuration or, if that is not set,
+     * the number of queries the backend can answer at the same time.
+     *
+     * @return QueryExecutor
+     */
+    public synchronized QueryExecutor getQueryExecutor() {
+        if (this.queryExecutor == null) {
+            int concurrency = ExperimentConfiguration.getInstance().getAsyncQueryThreads() > 0 ? ExperimentConfiguration.getInstance().getAsyncQueryThreads() : this.getQueryConcurrency();
+            this.queryExecutor = new QueryExecutor(this.getClass().getSimpleName(), concurrency, ExperimentConfiguration.getInstance().getAsyncQueryQueueSize());
+        }
+        return this.queryExecutor;
+    }
+
+    /**
+     * Stops the threads of the query executor, a new one is created when queries are issued again.
+     */
+    public synchronized void closeQueryExecutor() {
+        if (this.queryExecutor != null) {
+            this.queryExecutor.shutdown();
+            this.queryExecutor = null;
+        }
+    }
+
+    /**
+     * Returns the number of queries the backend can answer at the same time.
+     *
+     * @return int
+     */
+    protected abstract int getQueryConcurrency();
+
+    /**
+     * Runs a select query on the database and passes each solution to the handler as it is read.
+     *
+     * @param sparql
+     * @param handler
+     */
+    public void selectQuery(String sparql, QueryResultHandler handler) {
+        this.selectQuery(sparql, false, handler);
+    }
+
+    /**
+     * Runs a select query on the database and passes each solution to the handler as it is read.
+     *
+     * @param sparql
+     * @param appendPrefix
+     * @param handler
+     */
+    public void selectQuery(String sparql, boolean appendPrefix, QueryResultHandler handler) {
+        try (QueryResultIterator rows = this.selectQueryIterator(sparql, appendPrefix)) {
+            while (rows.hasNext()) {
+                handler.handleRow(rows.next());
+            }
+        }
+    }
+
 }
@@ -0,0 +1,277 @@
+package experiment.repository.triplestore.connector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe pool of database connections.
+ *
+ * At most poolSize connections are handed out at the same time, further requests wait until a connection is released.
+ * Idle connections are reused most recently used first, checked for health before they are handed out,
+ * and closed once they have been idle for longer than the idle timeout, also when the pool is not used any more (see evictIdle()).
+ *
+ * @param <C> connection type
+ */
+public class ConnectionPool<C> {
+
+    /**
+     * Creates, checks and closes the pooled connections.
+     *
+     * @param <C> connection type
+     */
+    public interface ConnectionFactory<C> {
+
+        /**
+         * Opens a new connection.
+         *
+         * @return C
+         */
+        C create();
+
+        /**
+         * Health check of a connection before it is handed out again.
+         *
+         * @param connection
+         * @return boolean
+         */
+        boolean isValid(C connection);
+
+        /**
+         * Closes a connection.
+         *
+         * @param connection
+         */
+        void close(C connection);
+    }
+
+    /**
+     * An idle connection with the time it was released.
+     */
+    private static class IdleConnection<C> {
+
+        final C connection;
+
+        final long releasedAt;
+
+        IdleConnection(C connection, long releasedAt) {
+            this.connection = connection;
+            this.releasedAt = releasedAt;
+        }
+    }
+
+    private final ConnectionFactory<C> factory;
+
+    /**
+     * Maximum number of connections in use at the same time.
+     */
+    private final int poolSize;
+
+    /**
+     * Time in ms after which an idle connection is closed.
+     */
+    private final long idleTimeout;
+
+    /**
+     * Time in ms a request waits for a free connection before it fails.
+     */
+    private final long borrowTimeout;
+
+    /**
+     * One permit per connection that may be handed out.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Idle connections, most recently released first.
+     */
+    private final Deque<IdleConnection<C>> idleConnections = new ArrayDeque<>();
+
+    /**
+     * Number of connections opened over the lifetime of the pool.
+     */
+    private final AtomicInteger createdCount = new AtomicInteger();
+
+    /**
+     * Number of connections closed because they were idle too long or failed the health check.
+     */
+    private final AtomicInteger evictedCount = new AtomicInteger();
+
+    private volatile boolean closed = false;
+
+    /**
+     * Daemon thread that evicts the idle connections of all pools.
+     */
+    private static final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "connection-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Periodic eviction of the idle connections of this pool, cancelled when the pool is closed.
+     */
+    private final ScheduledFuture<?> evictionSweep;
+
+    private static final Logger log = LoggerFactory.getLogger( ConnectionPool.class );
+
+    public ConnectionPool(ConnectionFactory<C> factory, int poolSize, long idleTimeout) {
+        this(factory, poolSize, idleTimeout, TimeUnit.MINUTES.toMillis(10));
+    }
+
+    public ConnectionPool(ConnectionFactory<C> factory, int poolSize, long idleTimeout, long borrowTimeout) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("The pool size has to be at least 1, but was " + poolSize);
+        }
+        this.factory = factory;
+        this.poolSize = poolSize;
+        this.idleTimeout = idleTimeout;
+        this.borrowTimeout = borrowTimeout;
+        this.permits = new Semaphore(poolSize, true);
+        // An idle connection is closed at most half an idle timeout after it expired
+        long sweepInterval = Math.max(1, idleTimeout / 2);
+        this.evictionSweep = evictor.scheduleWithFixedDelay(this::evictIdle, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hands out a healthy connection, reusing an idle one if possible. Waits if all connections are in use.
+     * The connection has to be given back with release() or, if it failed, with invalidate().
+     *
+     * @return C
+     */
+    public C borrow() {
+        if (this.closed) {
+            throw new IllegalStateException("Connection pool is closed");
+        }
+        try {
+            if (!this.permits.tryAcquire(this.borrowTimeout, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException(String.format("No connection became available within %s ms, all %s connections are in use", this.borrowTimeout, this.poolSize));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a connection", e);
+        }
+
+        try {
+            this.evictIdle();
+            IdleConnection<C> idle;
+            while ((idle = this.pollIdle()) != null) {
+                if (this.factory.isValid(idle.connection)) {
+                    return idle.connection;
+                }
+                log.debug("Discarding pooled connection that failed the health check");
+                this.evictedCount.incrementAndGet();
+                this.closeQuietly(idle.connection);
+            }
+            C connection = this.factory.create();
+            this.createdCount.incrementAndGet();
+            return connection;
+        } catch (RuntimeException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gives a connection back to the pool.
+     *
+     * @param connection
+     */
+    public void release(C connection) {
+        if (this.closed) {
+            this.closeQuietly(connection);
+        } else {
+            synchronized (this.idleConnections) {
+                this.idleConnections.addFirst(new IdleConnection<>(connection, System.currentTimeMillis()));
+            }
+        }
+        this.permits.release();
+    }
+
+    /**
+     * Closes a connection that failed during use instead of giving it back to the pool.
+     *
+     * @param connection
+     */
+    public void invalidate(C connection) {
+        this.closeQuietly(connection);
+        this.permits.release();
+    }
+
+    /**
+     * Closes all connections that have been idle for longer than the idle timeout. Runs periodically and before a connection is handed out.
+     */
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        synchronized (this.idleConnections) {
+            Iterator<IdleConnection<C>> iterator = this.idleConnections.iterator();
+            while (iterator.hasNext()) {
+                IdleConnection<C> idle = iterator.next();
+                if (now - idle.releasedAt > this.idleTimeout) {
+                    iterator.remove();
+                    this.evictedCount.incrementAndGet();
+                    this.closeQuietly(idle.connection);
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes all idle connections and rejects further requests. Connections in use are closed when they are released.
+     */
+    public void close() {
+        this.closed = true;
+        this.evictionSweep.cancel(false);
+        synchronized (this.idleConnections) {
+            for (IdleConnection<C> idle : this.idleConnections) {
+                this.closeQuietly(idle.connection);
+            }
+            this.idleConnections.clear();
+        }
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getIdleCount() {
+        synchronized (this.idleConnections) {
+            return this.idleConnections.size();
+        }
+    }
+
+    public int getActiveCount() {
+        return this.poolSize - this.permits.availablePermits();
+    }
+
+    public int getCreatedCount() {
+        return this.createdCount.get();
+    }
+
+    public int getEvictedCount() {
+        return this.evictedCount.get();
+    }
+
+    private IdleConnection<C> pollIdle() {
+        synchronized (this.idleConnections) {
+            return this.idleConnections.pollFirst();
+        }
+    }
+
+    private void closeQuietly(C connection) {
+        try {
+            this.factory.close(connection);
+        } catch (RuntimeException e) {
+            log.warn("Failed to close pooled connection: " + e.getMessage());
+        }
+    }
+}
@@ -2,7 +2,11 @@ package experiment.repository.triplestore.connector;
 
 import com.hp.hpl.jena.query.*;
 import com.hp.hpl.jena.rdf.model.*;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.repository.file.CorpusSnapshot;
 import experiment.repository.file.LOVPrefixes;
+import experiment.repository.file.ParallelNQuadsLoader;
+import experiment.repository.triplestore.util.JenaGraphUtil;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.openrdf.model.Value;
@@ -12,19 +16,147 @@ import org.openrdf.query.impl.MapBindingSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 
 public class JenaConnector extends AbstractFileConnector {
 
     private Dataset dataset;
-    
+
+    /**
+     * Key of the shared dataset in loadedDatasets.
+     */
+    private final String datasetKey;
+
+    /**
+     * The shared dataset this connector holds, or null once the connector has been closed.
+     */
+    private SharedDataset sharedDataset;
+
+    /**
+     * Datasets that have been loaded, by file. Connectors on the same file (e.g. for the ontology and the metadata repository) share one in-memory dataset,
+     * which is dropped when the last of them is closed.
+     */
+    private static final Map<String, SharedDataset> loadedDatasets = new HashMap<>();
+
     private static final Logger log = LoggerFactory.getLogger( JenaConnector.class );
 
+    /**
+     * Connector on an N-Quads dump or on a corpus snapshot compiled from it (see CorpusSnapshot).
+     *
+     * @param filename
+     */
     public JenaConnector(String filename) {
+        this(filename, Collections.emptySet());
+    }
+
+    /**
+     * Connector on an N-Quads dump without some of its named graphs, which are dropped while the dump is parsed.
+     *
+     * @param filename
+     * @param excludedGraphs
+     */
+    public JenaConnector(String filename, Set<String> excludedGraphs) {
         super(filename);
-        this.dataset = RDFDataMgr.loadDataset(filename, Lang.NQUADS);
+        this.datasetKey = excludedGraphs.isEmpty() ? filename : filename + " without " + new TreeSet<>(excludedGraphs);
+        this.sharedDataset = JenaConnector.acquireDataset(this.datasetKey, filename, excludedGraphs);
+        this.dataset = this.sharedDataset.dataset;
+    }
+
+    /**
+     * A loaded dataset with the number of open connectors on it.
+     */
+    private static class SharedDataset {
+
+        final Dataset dataset;
+
+        int connectors = 0;
+
+        SharedDataset(Dataset dataset) {
+            this.dataset = dataset;
+        }
+    }
+
+    /**
+     * Loads the dataset of a file, or returns it if it has already been loaded, and counts the connector as one of its users.
+     * Local N-Quads files are parsed in parallel (see ParallelNQuadsLoader), URLs are read through RIOT.
+     *
+     * @param key
+     * @param filename
+     * @param excludedGraphs
+     * @return SharedDataset
+     */
+    private static synchronized SharedDataset acquireDataset(String key, String filename, Set<String> excludedGraphs) {
+        SharedDataset shared = loadedDatasets.get(key);
+        if (shared == null) {
+            Dataset dataset;
+            long start = System.currentTimeMillis();
+            if (CorpusSnapshot.isSnapshot(filename)) {
+                try {
+                    dataset = CorpusSnapshot.load(filename, excludedGraphs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else if (new File(filename).isFile()) {
+                dataset = new ParallelNQuadsLoader().load(filename, excludedGraphs);
+            } else {
+                dataset = RDFDataMgr.loadDataset(filename, Lang.NQUADS);
+                for (String excludedGraph : excludedGraphs) {
+                    dataset = JenaGraphUtil.withoutNamedGraph(dataset, excludedGraph);
+                }
+            }
+            log.info(String.format("Loaded dataset %s in %s ms", key, System.currentTimeMillis() - start));
+            shared = new SharedDataset(dataset);
+            loadedDatasets.put(key, shared);
+        }
+        shared.connectors++;
+        return shared;
+    }
+
+    /**
+     * Drops a loaded dataset, so that the next connector on the file loads it again, regardless of the connectors still open on it.
+     *
+     * @param filename
+     */
+    public static synchronized void releaseDataset(String filename) {
+        loadedDatasets.keySet().removeIf(key -> key.equals(filename) || key.startsWith(filename + " without "));
+    }
+
+    /**
+     * Number of datasets that are currently held in memory.
+     *
+     * @return int
+     */
+    public static synchronized int countLoadedDatasets() {
+        return loadedDatasets.size();
+    }
+
+    /**
+     * Closes the connector. The shared dataset is dropped when no other connector on the same file is open,
+     * the connector itself keeps its dataset until it is garbage collected.
+     */
+    public void close() {
+        this.closeQueryExecutor();
+        synchronized (JenaConnector.class) {
+            if (this.sharedDataset != null) {
+                // The dataset may have been dropped or reloaded with releaseDataset() in the meantime
+                if (--this.sharedDataset.connectors == 0 && loadedDatasets.get(this.datasetKey) == this.sharedDataset) {
+                    loadedDatasets.remove(this.datasetKey);
+                    log.info(String.format("Released dataset %s", this.datasetKey));
+                }
+                this.sharedDataset = null;
+            }
+        }
     }
 
     @Override
@@ -34,9 +166,106 @@ public class JenaConnector extends AbstractFileConnector {
             sparql = this.prepandPrefixStatements(sparql);
         }
         Query query = QueryFactory.create(sparql);
+        long start = System.nanoTime();
+        List<BindingSet> result;
+        QueryExecution qe = this.createQueryExecution(query);
+        try {
+            result = this.resultSetToBindingSetList(qe.execSelect());
+        } catch (QueryCancelledException e) {
+            this.recordQuery(sparql, start, -1);
+            throw new QueryTimeoutException(sparql, this.getQueryTimeout(), e);
+        } catch (RuntimeException e) {
+            this.recordFailedQuery(start);
+            throw e;
+        } finally {
+            qe.close();
+        }
+        this.recordQuery(sparql, start, result.size());
+        return result;
+    }
+
+    /**
+     * Creates the execution of a query on the dataset, which ARQ aborts when it exceeds the query timeout.
+     *
+     * @param query
+     * @return QueryExecution
+     */
+    private QueryExecution createQueryExecution(Query query) {
         QueryExecution qe = QueryExecutionFactory.create(query, dataset);
-        ResultSet rs = qe.execSelect();
-        return this.resultSetToBindingSetList(rs);
+        if (this.getQueryTimeout() > 0) {
+            qe.setTimeout(this.getQueryTimeout(), TimeUnit.MILLISECONDS);
+        }
+        return qe;
+    }
+
+    /**
+     * Queries on the in-memory dataset are bound by the processors, see repositoryThreads of the configuration.
+     *
+     * @return int
+     */
+    @Override
+    protected int getQueryConcurrency() {
+        return ExperimentConfiguration.getInstance().getRepositoryThreads();
+    }
+
+    @Override
+    public QueryResultIterator selectQueryIterator(String sparql, boolean appendPrefix) {
+        log.debug(sparql);
+        if (appendPrefix) {
+            sparql = this.prepandPrefixStatements(sparql);
+        }
+        String query = sparql;
+        long start = System.nanoTime();
+        QueryExecution qe = this.createQueryExecution(QueryFactory.create(sparql));
+        ResultSet rs;
+        try {
+            rs = qe.execSelect();
+        } catch (QueryCancelledException e) {
+            qe.close();
+            this.recordQuery(sparql, start, -1);
+            throw new QueryTimeoutException(sparql, this.getQueryTimeout(), e);
+        } catch (RuntimeException e) {
+            // The iterator is not handed out, so nobody else closes the execution
+            qe.close();
+            this.recordFailedQuery(start);
+            throw e;
+        }
+        return new QueryResultIterator() {
+            int rows = 0;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return rs.hasNext();
+                } catch (QueryCancelledException e) {
+                    this.cancelled(e);
+                    return false;
+                }
+            }
+
+            @Override
+            public QueryResultRow next() {
+                try {
+                    QueryResultRow row = new JenaQueryResultRow(rs.next());
+                    this.rows++;
+                    return row;
+                } catch (QueryCancelledException e) {
+                    this.cancelled(e);
+                    return null;
+                }
+            }
+
+            private void cancelled(QueryCancelledException e) {
+                this.rows = -1;
+                throw new QueryTimeoutException(query, getQueryTimeout(), e);
+            }
+
+            @Override
+            public void close() {
+                qe.close();
+                recordQuery(query, start, this.rows);
+            }
+        };
     }
 
     public List<BindingSet> resultSetToBindingSetList(ResultSet rs) {
@@ -85,6 +314,44 @@ public class JenaConnector extends AbstractFileConnector {
 //        }
 //    }
 
+    /**
+     * Returns the string value of a node as the BindingSet value created by getValueForRDFNode() would, without creating it.
+     *
+     * @param node
+     * @return String
+     */
+    public String getStringValueForRDFNode(RDFNode node) {
+        if (node.isAnon()) {
+            return node.asResource().getId().getLabelString();
+        } else if (node.isURIResource()) {
+            return node.asResource().getURI();
+        }
+        return node.asLiteral().getValue().toString();
+    }
+
+    /**
+     * Row of a streamed query result that reads directly from the Jena solution.
+     */
+    private class JenaQueryResultRow implements QueryResultRow {
+
+        private final QuerySolution solution;
+
+        JenaQueryResultRow(QuerySolution solution) {
+            this.solution = solution;
+        }
+
+        @Override
+        public boolean isBound(String binding) {
+            return this.solution.contains(binding);
+        }
+
+        @Override
+        public String getString(String binding) {
+            RDFNode node = this.solution.get(binding);
+            return node == null ? null : getStringValueForRDFNode(node);
+        }
+    }
+
     public String prepandPrefixStatements(String query) {
         return LOVPrefixes.getInstance().getSparqlPrefixString() + query;
     }
@@ -0,0 +1,137 @@
+package experiment.repository.triplestore.connector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executor for the asynchronous queries of a connector (see AbstractConnector.selectQueryAsync()).
+ *
+ * At most concurrency queries run at the same time and at most queueSize queries wait for a thread. When the queue is full,
+ * the submitting thread runs the query itself, which slows down callers that issue queries faster than the backend answers them.
+ * Queries that are submitted from a query thread are run directly, so a query task can wait for other queries without deadlocking the pool.
+ */
+public class QueryExecutor implements Executor {
+
+    private final ThreadPoolExecutor executor;
+
+    private final int concurrency;
+
+    private final int queueSize;
+
+    private static final ThreadLocal<Boolean> isQueryThread = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private static final Logger log = LoggerFactory.getLogger( QueryExecutor.class );
+
+    /**
+     * Executor with concurrency threads named after the backend and a queue for queueSize waiting queries.
+     *
+     * @param name
+     * @param concurrency
+     * @param queueSize
+     */
+    public QueryExecutor(String name, int concurrency, int queueSize) {
+        this.concurrency = concurrency;
+        this.queueSize = queueSize;
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(queueSize, 1)), runnable -> {
+            Thread thread = new Thread(() -> {
+                isQueryThread.set(true);
+                runnable.run();
+            }, name + "-query-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, (query, pool) -> query.run());
+        this.executor.allowCoreThreadTimeOut(true);
+        log.debug(String.format("Query executor %s with %s threads and a queue of %s queries", name, concurrency, queueSize));
+    }
+
+    /**
+     * Runs a query on a query thread, or on the calling thread if the queue is full, the executor is shut down or the caller is a query thread itself.
+     *
+     * @param query
+     */
+    @Override
+    public void execute(Runnable query) {
+        if (isQueryThread.get() || this.executor.isShutdown()) {
+            query.run();
+        } else {
+            this.executor.execute(query);
+        }
+    }
+
+    /**
+     * Runs a query on the executor.
+     *
+     * @param query
+     * @param <T>
+     * @return CompletableFuture<T>
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, this);
+    }
+
+    /**
+     * Waits for the result of an asynchronous query and rethrows its failure as it was thrown by the query.
+     *
+     * @param result
+     * @param <T>
+     * @return T
+     */
+    public static <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public int getConcurrency() {
+        return this.concurrency;
+    }
+
+    public int getQueueSize() {
+        return this.queueSize;
+    }
+
+    /**
+     * Returns the number of queries that are running or waiting.
+     *
+     * @return int
+     */
+    public int countPending() {
+        return this.executor.getActiveCount() + this.executor.getQueue().size();
+    }
+
+    /**
+     * Stops the query threads once the running and waiting queries are done, so that every submitted query completes.
+     * Queries that are submitted afterwards run on the calling thread.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * Waits until the queries submitted before shutdown() are done.
+     *
+     * @param timeout
+     * @param unit
+     * @return boolean false if the timeout elapsed before
+     * @throws InterruptedException
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.executor.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,136 @@
+package experiment.repository.triplestore.connector;
+
+import experiment.configuration.ExperimentConfiguration;
+import experiment.repository.file.FileUtil;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+
+/**
+ * Journal of slow and timed out queries, one JSON object per line with the SPARQL text, the repository method that issued the query,
+ * the duration in ms and the number of results (-1 if the query timed out).
+ *
+ * The journal rolls over when the file exceeds maxBytes: the file is renamed to file.1, file.1 to file.2 and so on, keeping at most maxFiles old files.
+ */
+public class QueryJournal {
+
+    private final File file;
+
+    private final long maxBytes;
+
+    private final int maxFiles;
+
+    /**
+     * Journal of the configuration, see getInstance().
+     */
+    private static QueryJournal journal;
+
+    private static final Logger log = LoggerFactory.getLogger( QueryJournal.class );
+
+    public QueryJournal(String filename, long maxBytes, int maxFiles) {
+        this.file = new File(filename);
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Returns the journal for the slowQueryJournalFile of the configuration.
+     *
+     * @return QueryJournal
+     */
+    public static synchronized QueryJournal getInstance() {
+        ExperimentConfiguration configuration = ExperimentConfiguration.getInstance();
+        if (journal == null || !journal.file.getPath().equals(new File(configuration.getSlowQueryJournalFile()).getPath())) {
+            journal = new QueryJournal(configuration.getSlowQueryJournalFile(), configuration.getSlowQueryJournalMaxBytes(), configuration.getSlowQueryJournalFiles());
+        }
+        return journal;
+    }
+
+    /**
+     * Appends a query to the journal.
+     *
+     * @param caller
+     * @param sparql
+     * @param duration
+     * @param resultSize
+     */
+    public synchronized void record(String caller, String sparql, long duration, int resultSize) {
+        JSONObject entry = new JSONObject();
+        entry.put("time", new Timestamp(System.currentTimeMillis()).toString());
+        entry.put("caller", caller);
+        entry.put("duration", duration);
+        entry.put("results", resultSize);
+        entry.put("sparql", sparql);
+        FileUtil.createFolderIfNotExists(this.file);
+        try {
+            if (this.file.length() > this.maxBytes) {
+                this.roll();
+            }
+            try (Writer writer = Files.newBufferedWriter(this.file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(entry.toString());
+                writer.write(System.lineSeparator());
+            }
+        } catch (IOException e) {
+            log.error(String.format("Failed to write to the query journal %s: %s", this.file, e.getMessage()));
+        }
+    }
+
+    /**
+     * Moves the journal to file.1 and the older files one number up, dropping the oldest.
+     *
+     * @throws IOException
+     */
+    private void roll() throws IOException {
+        Files.deleteIfExists(this.getRolledFile(this.maxFiles).toPath());
+        for (int i = this.maxFiles - 1; i >= 1; i--) {
+            File rolledFile = this.getRolledFile(i);
+            if (rolledFile.exists()) {
+                Files.move(rolledFile.toPath(), this.getRolledFile(i + 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (this.maxFiles > 0) {
+            Files.move(this.file.toPath(), this.getRolledFile(1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(this.file.toPath());
+        }
+    }
+
+    private File getRolledFile(int i) {
+        return new File(this.file.getPath() + "." + i);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the first method on the stack of the current thread that is not part of a connector or the JDK, i.e. the repository method that issued the query.
+     * Lambdas are attributed to the method that defines them.
+     *
+     * @return String class and method name
+     */
+    public static String findCaller() {
+        String connectorPackage = QueryJournal.class.getPackage().getName() + ".";
+        for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+            String className = element.getClassName();
+            if (className.startsWith("experiment.") && !className.startsWith(connectorPackage)) {
+                String methodName = element.getMethodName();
+                if (methodName.startsWith("lambda$")) {
+                    // lambda$method$0 for a lambda in method
+                    methodName = methodName.substring("lambda$".length(), Math.max("lambda$".length(), methodName.lastIndexOf('$')));
+                }
+                return className.substring(className.lastIndexOf('.') + 1) + "." + methodName;
+            }
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,17 @@
+package experiment.repository.triplestore.connector;
+
+/**
+ * Callback that receives the solutions of a streamed select query one at a time.
+ *
+ */
+@FunctionalInterface
+public interface QueryResultHandler {
+
+    /**
+     * Handles one solution of the query.
+     *
+     * @param row
+     */
+    void handleRow(QueryResultRow row);
+
+}
@@ -0,0 +1,15 @@
+package experiment.repository.triplestore.connector;
+
+import java.util.Iterator;
+
+/**
+ * Iterator over the solutions of a select query that are read from the triple store while iterating, without materialising the result.
+ * It has to be closed to release the underlying query execution and connection, preferably with try-with-resources.
+ *
+ */
+public interface QueryResultIterator extends Iterator<QueryResultRow>, AutoCloseable {
+
+    @Override
+    void close();
+
+}
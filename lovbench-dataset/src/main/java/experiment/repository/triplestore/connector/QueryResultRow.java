@@ -0,0 +1,45 @@
+package experiment.repository.triplestore.connector;
+
+/**
+ * A single solution of a streamed select query. Rows are only valid while the iterator or handler that produced them is positioned on them.
+ *
+ */
+public interface QueryResultRow {
+
+    /**
+     * Evaluates whether the binding has a value in this solution.
+     *
+     * @param binding
+     * @return boolean
+     */
+    boolean isBound(String binding);
+
+    /**
+     * Returns the string value of a binding, as BindingSet.getValue(binding).stringValue() would, or null if it is unbound.
+     *
+     * @param binding
+     * @return String
+     */
+    String getString(String binding);
+
+    /**
+     * Returns the value of a binding as int.
+     *
+     * @param binding
+     * @return int
+     */
+    default int getInt(String binding) {
+        return Integer.parseInt(this.getString(binding));
+    }
+
+    /**
+     * Returns the value of a binding as double.
+     *
+     * @param binding
+     * @return double
+     */
+    default double getDouble(String binding) {
+        return Double.parseDouble(this.getString(binding));
+    }
+
+}
@@ -0,0 +1,25 @@
+package experiment.repository.triplestore.connector;
+
+/**
+ * Thrown when a query is cancelled because it exceeded the query timeout of the configuration.
+ */
+public class QueryTimeoutException extends RuntimeException {
+
+    private final String sparql;
+
+    private final long timeout;
+
+    public QueryTimeoutException(String sparql, long timeout, Throwable cause) {
+        super(String.format("Query cancelled after %s ms", timeout), cause);
+        this.sparql = sparql;
+        this.timeout = timeout;
+    }
+
+    public String getSparql() {
+        return sparql;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+}
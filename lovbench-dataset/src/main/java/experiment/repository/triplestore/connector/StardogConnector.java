@@ -6,6 +6,7 @@ import com.complexible.stardog.api.impl.SearchConnectionImpl;
 import com.complexible.stardog.api.search.SearchConnection;
 import com.complexible.stardog.search.SearchOptions;
 import com.complexible.stardog.sesame.StardogRepository;
+import experiment.configuration.ExperimentConfiguration;
 import org.openrdf.query.*;
 import org.openrdf.repository.Repository;
 import org.openrdf.repository.RepositoryConnection;
@@ -25,6 +26,11 @@ public class StardogConnector extends AbstractDBConnector {
      */
     private Repository repository;
 
+    /**
+     * Pool of open connections to the repository, shared by all threads that use this connector.
+     */
+    private ConnectionPool<RepositoryConnection> connectionPool;
+
     private static final Logger log = LoggerFactory.getLogger( StardogConnector.class );
 
 
@@ -37,26 +43,209 @@ public class StardogConnector extends AbstractDBConnector {
         );
 
         this.repository.initialize();
+        this.connectionPool = StardogConnector.createConnectionPool(this.repository, ExperimentConfiguration.getInstance().getDbPoolSize(), ExperimentConfiguration.getInstance().getDbPoolIdleTimeout());
+    }
+
+    /**
+     * Connector on an already initialized repository, e.g. an in-process stand-in for the Stardog endpoint.
+     *
+     * @param repository
+     * @param poolSize
+     * @param idleTimeout
+     */
+    public StardogConnector(Repository repository, int poolSize, long idleTimeout) {
+        super(null, null, null, null);
+        this.repository = repository;
+        this.connectionPool = StardogConnector.createConnectionPool(repository, poolSize, idleTimeout);
+    }
+
+    private static ConnectionPool<RepositoryConnection> createConnectionPool(Repository repository, int poolSize, long idleTimeout) {
+        return new ConnectionPool<>(new ConnectionPool.ConnectionFactory<RepositoryConnection>() {
+            @Override
+            public RepositoryConnection create() {
+                return repository.getConnection();
+            }
+
+            @Override
+            public boolean isValid(RepositoryConnection connection) {
+                return connection.isOpen();
+            }
+
+            @Override
+            public void close(RepositoryConnection connection) {
+                connection.close();
+            }
+        }, poolSize, idleTimeout);
     }
 
+    /**
+     * Runs a select query on a pooled connection. Can be called from several threads at the same time.
+     *
+     * @param sparql
+     * @param appendPrefix
+     * @return List<BindingSet>
+     */
     @Override
     public List<BindingSet> selectQuery(String sparql, boolean appendPrefix) {
         log.debug(sparql);
-        RepositoryConnection connection = this.repository.getConnection();
+        RepositoryConnection connection = this.connectionPool.borrow();
+
+        long start = System.nanoTime();
+        List<BindingSet> result;
+        try {
+            TupleQueryResult queryResult = this.prepareTupleQuery(connection, sparql).evaluate();
+            try {
+                result = QueryResults.asList(queryResult);
+            } finally {
+                queryResult.close();
+            }
+        } catch (QueryInterruptedException e) {
+            // The server cancelled the query, the connection can be used again
+            this.connectionPool.release(connection);
+            this.recordQuery(sparql, start, -1);
+            throw new QueryTimeoutException(sparql, this.getQueryTimeout(), e);
+        } catch (RuntimeException e) {
+            this.recordFailedQuery(start);
+            // The connection may be broken, do not hand it out again
+            this.connectionPool.invalidate(connection);
+            throw e;
+        }
 
+        this.connectionPool.release(connection);
+        this.recordQuery(sparql, start, result.size());
+        return result;
+    }
+
+    /**
+     * Prepares a query with the query timeout, after which the server cancels the query.
+     *
+     * @param connection
+     * @param sparql
+     * @return TupleQuery
+     */
+    private TupleQuery prepareTupleQuery(RepositoryConnection connection, String sparql) {
         TupleQuery tupleQuery = connection.prepareTupleQuery(QueryLanguage.SPARQL, sparql);
-        TupleQueryResult queryResult = tupleQuery.evaluate();
+        if (this.getQueryTimeout() > 0) {
+            // The maximum execution time is given in seconds
+            tupleQuery.setMaxExecutionTime((int) Math.max(1, (this.getQueryTimeout() + 999) / 1000));
+        }
+        return tupleQuery;
+    }
 
-        List<BindingSet> result = null;
+    @Override
+    public QueryResultIterator selectQueryIterator(String sparql, boolean appendPrefix) {
+        log.debug(sparql);
+        RepositoryConnection connection = this.connectionPool.borrow();
+        long start = System.nanoTime();
+        TupleQueryResult queryResult;
         try {
-            result = QueryResults.asList(queryResult);
-        } catch (Exception e) {
-            e.printStackTrace();
+            queryResult = this.prepareTupleQuery(connection, sparql).evaluate();
+        } catch (QueryInterruptedException e) {
+            this.connectionPool.release(connection);
+            this.recordQuery(sparql, start, -1);
+            throw new QueryTimeoutException(sparql, this.getQueryTimeout(), e);
+        } catch (RuntimeException e) {
+            this.connectionPool.invalidate(connection);
+            this.recordFailedQuery(start);
+            throw e;
         }
+        return new QueryResultIterator() {
+            int rows = 0;
 
-        queryResult.close();
-        connection.close();
-        return result;
+            /**
+             * Set if reading the result failed for another reason than a timeout, the connection may be broken then.
+             */
+            boolean failed = false;
+
+            boolean closed = false;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return queryResult.hasNext();
+                } catch (QueryInterruptedException e) {
+                    this.rows = -1;
+                    throw new QueryTimeoutException(sparql, getQueryTimeout(), e);
+                } catch (RuntimeException e) {
+                    this.failed = true;
+                    throw e;
+                }
+            }
+
+            @Override
+            public QueryResultRow next() {
+                BindingSet bindingSet;
+                try {
+                    bindingSet = queryResult.next();
+                } catch (QueryInterruptedException e) {
+                    this.rows = -1;
+                    throw new QueryTimeoutException(sparql, getQueryTimeout(), e);
+                } catch (RuntimeException e) {
+                    this.failed = true;
+                    throw e;
+                }
+                this.rows++;
+                return new QueryResultRow() {
+                    @Override
+                    public boolean isBound(String binding) {
+                        return bindingSet.hasBinding(binding);
+                    }
+
+                    @Override
+                    public String getString(String binding) {
+                        return bindingSet.hasBinding(binding) ? bindingSet.getValue(binding).stringValue() : null;
+                    }
+                };
+            }
+
+            /**
+             * Closes the result and gives the connection back to the pool once, or closes the connection if reading or closing the result failed.
+             */
+            @Override
+            public void close() {
+                if (this.closed) {
+                    return;
+                }
+                this.closed = true;
+                try {
+                    queryResult.close();
+                } catch (RuntimeException e) {
+                    this.failed = true;
+                    throw e;
+                } finally {
+                    if (this.failed) {
+                        connectionPool.invalidate(connection);
+                        recordFailedQuery(start);
+                    } else {
+                        connectionPool.release(connection);
+                        recordQuery(sparql, start, this.rows);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Queries beyond the size of the connection pool would only wait for a connection.
+     *
+     * @return int
+     */
+    @Override
+    protected int getQueryConcurrency() {
+        return this.connectionPool.getPoolSize();
+    }
+
+    /**
+     * Closes all pooled connections and shuts down the repository.
+     */
+    public void close() {
+        this.closeQueryExecutor();
+        this.connectionPool.close();
+        this.repository.shutDown();
+    }
+
+    public ConnectionPool<RepositoryConnection> getConnectionPool() {
+        return connectionPool;
     }
 
 }
@@ -0,0 +1,192 @@
+package experiment.repository.triplestore.graph;
+
+import experiment.model.Term;
+import org.apache.commons.lang3.tuple.Triple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact form of the ontology graph of an ontology (node -> property -> node, see AbstractOntologyRepository.getOntologyGraphTriples()).
+ *
+ * Terms are stored once in a node table and edges as three parallel int arrays of node indexes, in the order of the triples.
+ * The forward and the reversed graph are both served from the same arrays by swapping subject and object.
+ */
+public class OntologyGraph {
+
+    /**
+     * Terms by node index, for nodes and properties.
+     */
+    private final Term[] terms;
+
+    private final Map<Term, Integer> nodeIndexes;
+
+    private final int[] subjects;
+
+    private final int[] predicates;
+
+    private final int[] objects;
+
+    /**
+     * Undirected adjacency in compressed form: the neighbours of node i are neighbours[offsets[i]] to neighbours[offsets[i + 1] - 1].
+     * Built on first use.
+     */
+    private int[] offsets;
+
+    private int[] neighbours;
+
+    /**
+     * Builds the compact graph from the (forward) ontology graph triples.
+     *
+     * @param triples
+     */
+    public OntologyGraph(List<Triple<Term, Term, Term>> triples) {
+        Map<Term, Integer> nodeIndexes = new HashMap<>();
+        List<Term> terms = new ArrayList<>();
+        this.subjects = new int[triples.size()];
+        this.predicates = new int[triples.size()];
+        this.objects = new int[triples.size()];
+        int i = 0;
+        for (Triple<Term, Term, Term> triple : triples) {
+            this.subjects[i] = getNodeIndex(triple.getLeft(), nodeIndexes, terms);
+            this.predicates[i] = getNodeIndex(triple.getMiddle(), nodeIndexes, terms);
+            this.objects[i] = getNodeIndex(triple.getRight(), nodeIndexes, terms);
+            i++;
+        }
+        this.terms = terms.toArray(new Term[0]);
+        // Only subjects and objects are nodes of the graph, properties are edge labels
+        this.nodeIndexes = new HashMap<>();
+        for (int edge = 0; edge < this.subjects.length; edge++) {
+            this.nodeIndexes.put(this.terms[this.subjects[edge]], this.subjects[edge]);
+            this.nodeIndexes.put(this.terms[this.objects[edge]], this.objects[edge]);
+        }
+    }
+
+    /**
+     * Returns the triples of the graph, with subject and object swapped if reversed.
+     *
+     * @param reversed
+     * @return List<Triple<Term, Term, Term>>
+     */
+    public List<Triple<Term, Term, Term>> getTriples(boolean reversed) {
+        List<Triple<Term, Term, Term>> triples = new ArrayList<>(this.subjects.length);
+        for (int edge = 0; edge < this.subjects.length; edge++) {
+            triples.add(Triple.of(this.getSubject(edge, reversed), this.getPredicate(edge), this.getObject(edge, reversed)));
+        }
+        return triples;
+    }
+
+    public int countEdges() {
+        return this.subjects.length;
+    }
+
+    public int countNodes() {
+        return this.nodeIndexes.size();
+    }
+
+    public Term getSubject(int edge, boolean reversed) {
+        return this.terms[reversed ? this.objects[edge] : this.subjects[edge]];
+    }
+
+    public Term getPredicate(int edge) {
+        return this.terms[this.predicates[edge]];
+    }
+
+    public Term getObject(int edge, boolean reversed) {
+        return this.terms[reversed ? this.subjects[edge] : this.objects[edge]];
+    }
+
+    public boolean containsNode(Term term) {
+        return this.nodeIndexes.containsKey(term);
+    }
+
+    /**
+     * Returns the length of the shortest undirected path between two nodes, or -1 if there is none.
+     *
+     * @param from
+     * @param to
+     * @return int
+     */
+    public int getDistance(Term from, Term to) {
+        Integer fromIndex = this.nodeIndexes.get(from);
+        Integer toIndex = this.nodeIndexes.get(to);
+        if (fromIndex == null || toIndex == null) {
+            return -1;
+        }
+        if (fromIndex.equals(toIndex)) {
+            return 0;
+        }
+        this.buildAdjacency();
+        int[] distances = new int[this.terms.length];
+        Arrays.fill(distances, -1);
+        int[] queue = new int[this.terms.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = fromIndex;
+        distances[fromIndex] = 0;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int i = this.offsets[node]; i < this.offsets[node + 1]; i++) {
+                int neighbour = this.neighbours[i];
+                if (distances[neighbour] < 0) {
+                    distances[neighbour] = distances[node] + 1;
+                    if (neighbour == toIndex) {
+                        return distances[neighbour];
+                    }
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Estimates the memory held by the graph in bytes, without the (shared) terms themselves.
+     *
+     * @return long
+     */
+    public long estimateBytes() {
+        long bytes = 16L + 8L * this.terms.length + 3 * (16L + 4L * this.subjects.length);
+        // HashMap entry with boxed index
+        bytes += 48L * this.nodeIndexes.size();
+        if (this.offsets != null) {
+            bytes += 16L + 4L * this.offsets.length + 16L + 4L * this.neighbours.length;
+        }
+        return bytes;
+    }
+
+    private synchronized void buildAdjacency() {
+        if (this.offsets != null) {
+            return;
+        }
+        int[] offsets = new int[this.terms.length + 1];
+        for (int edge = 0; edge < this.subjects.length; edge++) {
+            offsets[this.subjects[edge] + 1]++;
+            offsets[this.objects[edge] + 1]++;
+        }
+        for (int i = 0; i < this.terms.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] neighbours = new int[offsets[this.terms.length]];
+        int[] next = Arrays.copyOf(offsets, this.terms.length);
+        for (int edge = 0; edge < this.subjects.length; edge++) {
+            neighbours[next[this.subjects[edge]]++] = this.objects[edge];
+            neighbours[next[this.objects[edge]]++] = this.subjects[edge];
+        }
+        this.neighbours = neighbours;
+        this.offsets = offsets;
+    }
+
+    private static int getNodeIndex(Term term, Map<Term, Integer> nodeIndexes, List<Term> terms) {
+        Integer index = nodeIndexes.get(term);
+        if (index == null) {
+            index = terms.size();
+            nodeIndexes.put(term, index);
+            terms.add(term);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,95 @@
+package experiment.repository.triplestore.graph;
+
+import experiment.feature.scoring.util.BoundedComputeOnceCache;
+import experiment.model.Ontology;
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded cache of the ontology graphs of a repository, shared by all features that work on ontology graphs.
+ *
+ * The ontology graph triples of an ontology are fetched from the repository once and kept in compact form (see OntologyGraph),
+ * which serves the forward and the reversed graph. The least recently used graph is evicted when the cache is full.
+ */
+public class OntologyGraphCache {
+
+    private final AbstractOntologyRepository repository;
+
+    private final BoundedComputeOnceCache<Ontology, OntologyGraph> graphs;
+
+    private static final Logger log = LoggerFactory.getLogger( OntologyGraphCache.class );
+
+    /**
+     * Cache for the ontology graphs of a repository that keeps at most maxSize graphs.
+     *
+     * @param repository
+     * @param maxSize
+     */
+    public OntologyGraphCache(AbstractOntologyRepository repository, int maxSize) {
+        this.repository = repository;
+        this.graphs = new BoundedComputeOnceCache<>(maxSize);
+    }
+
+    /**
+     * Returns the ontology graph of an ontology, fetching it from the repository if it is not cached.
+     * Concurrent requests for the same graph wait for one fetch, graphs of different ontologies can be fetched in parallel.
+     *
+     * @param ontology
+     * @return OntologyGraph
+     */
+    public OntologyGraph getGraph(Ontology ontology) {
+        return this.graphs.get(ontology, key -> {
+            OntologyGraph graph = new OntologyGraph(this.repository.getOntologyGraphTriples(ontology, false));
+            log.debug(String.format("Ontology graph of %s cached with %s nodes and %s edges", ontology.getOntologyUri(), graph.countNodes(), graph.countEdges()));
+            return graph;
+        });
+    }
+
+    public int size() {
+        return this.graphs.size();
+    }
+
+    public long getHits() {
+        return this.graphs.getHits();
+    }
+
+    public long getMisses() {
+        return this.graphs.getMisses();
+    }
+
+    public long getEvictions() {
+        return this.graphs.getEvictions();
+    }
+
+    /**
+     * Returns the share of requests that were served from the cache.
+     *
+     * @return double
+     */
+    public double getHitRate() {
+        return this.graphs.getHitRate();
+    }
+
+    /**
+     * Estimates the memory held by the cached graphs in bytes.
+     *
+     * @return long
+     */
+    public long getEstimatedBytes() {
+        long bytes = 0;
+        for (OntologyGraph graph : this.graphs.values()) {
+            bytes += graph.estimateBytes();
+        }
+        return bytes;
+    }
+
+    public void clear() {
+        this.graphs.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Ontology graph cache: %s/%s graphs, ~%s KB, %s hits, %s misses (hit rate %.3f), %s evictions", this.size(), this.graphs.getMaxSize(), this.getEstimatedBytes() / 1024, this.getHits(), this.getMisses(), this.getHitRate(), this.getEvictions());
+    }
+}
@@ -0,0 +1,486 @@
+package experiment.repository.triplestore.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reachability index over the rdfs:subClassOf or rdfs:subPropertyOf hierarchy of one ontology.
+ *
+ * The hierarchy is filled with its direct edges (sub -> super) and the nodes that are typed as class or property, and then built once:
+ * cycles are collapsed into strongly connected components, which are numbered in topological order (super components first),
+ * and the ancestors of each component are kept as a bitset over that order. Ancestor, descendant and sibling counts are answered
+ * from the built index without traversals, with the semantics of the sparql property paths predicate+ (a node is only its own
+ * ancestor or descendant if it is on a cycle).
+ *
+ * @param <N> node type
+ */
+public class HierarchyIndex<N> {
+
+    /**
+     * The hierarchies that are indexed per ontology.
+     */
+    public enum Hierarchy {
+        CLASSES,
+        PROPERTIES
+    }
+
+    private final Map<N, Integer> nodeIds = new HashMap<>();
+
+    private final List<N> nodes = new ArrayList<>();
+
+    private final Set<N> typedNodes = new LinkedHashSet<>();
+
+    private int[] edgeSubs = new int[16];
+
+    private int[] edgeSupers = new int[16];
+
+    private int edgeCount = 0;
+
+    private boolean built = false;
+
+    /**
+     * Direct super and sub nodes in compressed form: the parents of node i are parents[parentOffsets[i]] to parents[parentOffsets[i + 1] - 1].
+     */
+    private int[] parentOffsets;
+
+    private int[] parents;
+
+    private int[] childOffsets;
+
+    private int[] children;
+
+    /**
+     * Component of each node, and position of each node in topological order.
+     */
+    private int[] components;
+
+    private int[] ranks;
+
+    /**
+     * Nodes of component c are at the ranks componentStarts[c] to componentStarts[c + 1] - 1.
+     */
+    private int[] componentStarts;
+
+    private int[] rankedNodes;
+
+    private BitSet typed;
+
+    /**
+     * Ancestors of each component as ranks.
+     */
+    private BitSet[] ancestors;
+
+    private int[] ancestorCounts;
+
+    private int[] typedAncestorCounts;
+
+    private int[] descendantCounts;
+
+    private int[] typedDescendantCounts;
+
+    /**
+     * Adds a direct edge of the hierarchy (sub rdfs:subClassOf super).
+     *
+     * @param sub
+     * @param sup
+     */
+    public void addEdge(N sub, N sup) {
+        this.checkNotBuilt();
+        if (this.edgeCount == this.edgeSubs.length) {
+            this.edgeSubs = Arrays.copyOf(this.edgeSubs, this.edgeCount * 2);
+            this.edgeSupers = Arrays.copyOf(this.edgeSupers, this.edgeCount * 2);
+        }
+        this.edgeSubs[this.edgeCount] = this.getNodeId(sub);
+        this.edgeSupers[this.edgeCount] = this.getNodeId(sup);
+        this.edgeCount++;
+    }
+
+    /**
+     * Marks a node as typed, i.e. as class in the class hierarchy or as property in the property hierarchy.
+     *
+     * @param node
+     */
+    public void addTyped(N node) {
+        this.checkNotBuilt();
+        this.typedNodes.add(node);
+    }
+
+    /**
+     * Builds the index from the added edges. No edges can be added afterwards.
+     *
+     * @return HierarchyIndex<N>
+     */
+    public HierarchyIndex<N> build() {
+        this.checkNotBuilt();
+        int nodeCount = this.nodes.size();
+        this.parentOffsets = new int[nodeCount + 1];
+        this.parents = new int[this.edgeCount];
+        this.childOffsets = new int[nodeCount + 1];
+        this.children = new int[this.edgeCount];
+        fillAdjacency(this.edgeSubs, this.edgeSupers, this.edgeCount, this.parentOffsets, this.parents);
+        fillAdjacency(this.edgeSupers, this.edgeSubs, this.edgeCount, this.childOffsets, this.children);
+        this.edgeSubs = null;
+        this.edgeSupers = null;
+
+        int componentCount = this.findComponents();
+        this.rankNodes(componentCount);
+        this.typed = new BitSet(nodeCount);
+        for (N node : this.typedNodes) {
+            Integer id = this.nodeIds.get(node);
+            if (id != null) {
+                this.typed.set(this.ranks[id]);
+            }
+        }
+        this.typedNodes.clear();
+        this.buildAncestors(componentCount);
+        this.buildDescendantCounts(componentCount);
+        this.built = true;
+        return this;
+    }
+
+    /**
+     * Counts the nodes from which the node is reachable (?x predicate+ node), optionally only the typed ones.
+     *
+     * @param node
+     * @param typedOnly
+     * @return int
+     */
+    public int countDescendants(N node, boolean typedOnly) {
+        Integer id = this.getBuiltNodeId(node);
+        if (id == null) {
+            return 0;
+        }
+        return typedOnly ? this.typedDescendantCounts[this.components[id]] : this.descendantCounts[this.components[id]];
+    }
+
+    /**
+     * Counts the nodes that are reachable from the node (node predicate+ ?x), optionally only the typed ones.
+     *
+     * @param node
+     * @param typedOnly
+     * @return int
+     */
+    public int countAncestors(N node, boolean typedOnly) {
+        Integer id = this.getBuiltNodeId(node);
+        if (id == null) {
+            return 0;
+        }
+        return typedOnly ? this.typedAncestorCounts[this.components[id]] : this.ancestorCounts[this.components[id]];
+    }
+
+    /**
+     * Returns the nodes that are reachable from the node (node predicate+ ?x).
+     *
+     * @param node
+     * @return Set<N>
+     */
+    public Set<N> getAncestors(N node) {
+        Set<N> ancestorNodes = new LinkedHashSet<>();
+        Integer id = this.getBuiltNodeId(node);
+        if (id != null) {
+            BitSet ancestorRanks = this.ancestors[this.components[id]];
+            for (int rank = ancestorRanks.nextSetBit(0); rank >= 0; rank = ancestorRanks.nextSetBit(rank + 1)) {
+                ancestorNodes.add(this.nodes.get(this.rankedNodes[rank]));
+            }
+        }
+        return ancestorNodes;
+    }
+
+    /**
+     * Counts the nodes that share a direct super node with the node, including the node itself, optionally only the typed ones.
+     * Super nodes equal to excludedParent (e.g. owl:Thing) are not considered.
+     *
+     * @param node
+     * @param excludedParent
+     * @param typedOnly
+     * @return int
+     */
+    public int countSiblings(N node, N excludedParent, boolean typedOnly) {
+        Integer id = this.getBuiltNodeId(node);
+        if (id == null) {
+            return 0;
+        }
+        Integer excludedId = excludedParent == null ? null : this.nodeIds.get(excludedParent);
+        BitSet siblings = new BitSet(this.nodes.size());
+        for (int i = this.parentOffsets[id]; i < this.parentOffsets[id + 1]; i++) {
+            int parent = this.parents[i];
+            if (excludedId == null || parent != excludedId) {
+                for (int j = this.childOffsets[parent]; j < this.childOffsets[parent + 1]; j++) {
+                    siblings.set(this.ranks[this.children[j]]);
+                }
+            }
+        }
+        if (typedOnly) {
+            siblings.and(this.typed);
+        }
+        return siblings.cardinality();
+    }
+
+    /**
+     * Returns all nodes of the hierarchy, i.e. the nodes of its edges.
+     *
+     * @return List<N>
+     */
+    public List<N> getNodes() {
+        return Collections.unmodifiableList(this.nodes);
+    }
+
+    public boolean containsNode(N node) {
+        return this.nodeIds.containsKey(node);
+    }
+
+    public int countNodes() {
+        return this.nodes.size();
+    }
+
+    public int countEdges() {
+        return this.parents == null ? this.edgeCount : this.parents.length;
+    }
+
+    /**
+     * Estimates the memory held by the built index in bytes, without the nodes themselves.
+     *
+     * @return long
+     */
+    public long estimateBytes() {
+        long bytes = 48L * this.nodeIds.size() + 8L * this.nodes.size();
+        if (this.built) {
+            bytes += 4L * (this.parentOffsets.length + this.parents.length + this.childOffsets.length + this.children.length);
+            bytes += 4L * (this.components.length + this.ranks.length + this.rankedNodes.length + 5 * this.componentStarts.length);
+            for (BitSet ancestorRanks : this.ancestors) {
+                bytes += 16L + ancestorRanks.size() / 8;
+            }
+        }
+        return bytes;
+    }
+
+    private int getNodeId(N node) {
+        Integer id = this.nodeIds.get(node);
+        if (id == null) {
+            id = this.nodes.size();
+            this.nodeIds.put(node, id);
+            this.nodes.add(node);
+        }
+        return id;
+    }
+
+    private Integer getBuiltNodeId(N node) {
+        if (!this.built) {
+            throw new IllegalStateException("The hierarchy index has to be built before it can be queried.");
+        }
+        return this.nodeIds.get(node);
+    }
+
+    private void checkNotBuilt() {
+        if (this.built) {
+            throw new IllegalStateException("The hierarchy index is already built.");
+        }
+    }
+
+    /**
+     * Finds the strongly connected components of the hierarchy with Tarjan's algorithm (iteratively, as hierarchies can be deep).
+     * Components are numbered in the order they are completed, so every component is numbered after all of its super components.
+     *
+     * @return int number of components
+     */
+    private int findComponents() {
+        int nodeCount = this.nodes.size();
+        this.components = new int[nodeCount];
+        int[] index = new int[nodeCount];
+        int[] low = new int[nodeCount];
+        Arrays.fill(index, -1);
+        boolean[] onStack = new boolean[nodeCount];
+        int[] stack = new int[nodeCount];
+        int stackSize = 0;
+        int[] callNodes = new int[nodeCount];
+        int[] callEdges = new int[nodeCount];
+        int callSize = 0;
+        int counter = 0;
+        int componentCount = 0;
+        for (int root = 0; root < nodeCount; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            index[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callNodes[callSize] = root;
+            callEdges[callSize++] = this.parentOffsets[root];
+            while (callSize > 0) {
+                int node = callNodes[callSize - 1];
+                if (callEdges[callSize - 1] < this.parentOffsets[node + 1]) {
+                    int parent = this.parents[callEdges[callSize - 1]++];
+                    if (index[parent] < 0) {
+                        index[parent] = low[parent] = counter++;
+                        stack[stackSize++] = parent;
+                        onStack[parent] = true;
+                        callNodes[callSize] = parent;
+                        callEdges[callSize++] = this.parentOffsets[parent];
+                    } else if (onStack[parent]) {
+                        low[node] = Math.min(low[node], index[parent]);
+                    }
+                } else {
+                    callSize--;
+                    if (low[node] == index[node]) {
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            onStack[member] = false;
+                            this.components[member] = componentCount;
+                        } while (member != node);
+                        componentCount++;
+                    }
+                    if (callSize > 0) {
+                        int caller = callNodes[callSize - 1];
+                        low[caller] = Math.min(low[caller], low[node]);
+                    }
+                }
+            }
+        }
+        return componentCount;
+    }
+
+    /**
+     * Orders the nodes by component, so the members of a component have consecutive ranks.
+     *
+     * @param componentCount
+     */
+    private void rankNodes(int componentCount) {
+        int nodeCount = this.nodes.size();
+        this.componentStarts = new int[componentCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            this.componentStarts[this.components[node] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            this.componentStarts[c + 1] += this.componentStarts[c];
+        }
+        int[] next = Arrays.copyOf(this.componentStarts, componentCount);
+        this.ranks = new int[nodeCount];
+        this.rankedNodes = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            int rank = next[this.components[node]]++;
+            this.ranks[node] = rank;
+            this.rankedNodes[rank] = node;
+        }
+    }
+
+    /**
+     * Evaluates whether the members of a component reach themselves, i.e. it has several members or a self loop.
+     *
+     * @param component
+     * @return boolean
+     */
+    private boolean isCyclic(int component) {
+        if (this.componentStarts[component + 1] - this.componentStarts[component] > 1) {
+            return true;
+        }
+        int node = this.rankedNodes[this.componentStarts[component]];
+        for (int i = this.parentOffsets[node]; i < this.parentOffsets[node + 1]; i++) {
+            if (this.parents[i] == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the ancestors of all components in topological order (super components first).
+     * As super components have lower ranks, the bitsets stay as small as the ancestors allow.
+     *
+     * @param componentCount
+     */
+    private void buildAncestors(int componentCount) {
+        this.ancestors = new BitSet[componentCount];
+        this.ancestorCounts = new int[componentCount];
+        this.typedAncestorCounts = new int[componentCount];
+        for (int c = 0; c < componentCount; c++) {
+            BitSet ancestorRanks = new BitSet();
+            for (int rank = this.componentStarts[c]; rank < this.componentStarts[c + 1]; rank++) {
+                int node = this.rankedNodes[rank];
+                for (int i = this.parentOffsets[node]; i < this.parentOffsets[node + 1]; i++) {
+                    int parentComponent = this.components[this.parents[i]];
+                    if (parentComponent != c) {
+                        ancestorRanks.or(this.ancestors[parentComponent]);
+                        ancestorRanks.set(this.componentStarts[parentComponent], this.componentStarts[parentComponent + 1]);
+                    }
+                }
+            }
+            if (this.isCyclic(c)) {
+                ancestorRanks.set(this.componentStarts[c], this.componentStarts[c + 1]);
+            }
+            this.ancestors[c] = ancestorRanks;
+            this.ancestorCounts[c] = ancestorRanks.cardinality();
+            this.typedAncestorCounts[c] = countTyped(ancestorRanks, this.typed);
+        }
+    }
+
+    /**
+     * Computes the descendant counts of all components in reverse topological order (sub components first).
+     * The descendants of a component are only kept until all of its super components are done.
+     *
+     * @param componentCount
+     */
+    private void buildDescendantCounts(int componentCount) {
+        this.descendantCounts = new int[componentCount];
+        this.typedDescendantCounts = new int[componentCount];
+        BitSet[] descendants = new BitSet[componentCount];
+        int[] pendingParentEdges = new int[componentCount];
+        for (int node = 0; node < this.nodes.size(); node++) {
+            for (int i = this.parentOffsets[node]; i < this.parentOffsets[node + 1]; i++) {
+                if (this.components[this.parents[i]] != this.components[node]) {
+                    pendingParentEdges[this.components[node]]++;
+                }
+            }
+        }
+        for (int c = componentCount - 1; c >= 0; c--) {
+            BitSet descendantRanks = new BitSet();
+            for (int rank = this.componentStarts[c]; rank < this.componentStarts[c + 1]; rank++) {
+                int node = this.rankedNodes[rank];
+                for (int i = this.childOffsets[node]; i < this.childOffsets[node + 1]; i++) {
+                    int childComponent = this.components[this.children[i]];
+                    if (childComponent != c) {
+                        descendantRanks.or(descendants[childComponent]);
+                        descendantRanks.set(this.componentStarts[childComponent], this.componentStarts[childComponent + 1]);
+                        if (--pendingParentEdges[childComponent] == 0) {
+                            descendants[childComponent] = null;
+                        }
+                    }
+                }
+            }
+            if (this.isCyclic(c)) {
+                descendantRanks.set(this.componentStarts[c], this.componentStarts[c + 1]);
+            }
+            this.descendantCounts[c] = descendantRanks.cardinality();
+            this.typedDescendantCounts[c] = countTyped(descendantRanks, this.typed);
+            if (pendingParentEdges[c] > 0) {
+                descendants[c] = descendantRanks;
+            }
+        }
+    }
+
+    private static int countTyped(BitSet ranks, BitSet typed) {
+        BitSet typedRanks = (BitSet) ranks.clone();
+        typedRanks.and(typed);
+        return typedRanks.cardinality();
+    }
+
+    private static void fillAdjacency(int[] from, int[] to, int edgeCount, int[] offsets, int[] targets) {
+        for (int edge = 0; edge < edgeCount; edge++) {
+            offsets[from[edge] + 1]++;
+        }
+        for (int i = 0; i < offsets.length - 1; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            targets[next[from[edge]]++] = to[edge];
+        }
+    }
+}
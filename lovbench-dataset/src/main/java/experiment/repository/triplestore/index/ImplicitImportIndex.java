@@ -0,0 +1,109 @@
+package experiment.repository.triplestore.index;
+
+import experiment.model.CorpusDictionary;
+import experiment.model.Ontology;
+import experiment.repository.file.LOVPrefixes;
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the implicit imports of the collection, i.e., an import from an ontology to every other ontology whose URIs it uses.
+ *
+ * The index is filled in a single pass over the triples of all ontologies. A triple counts if all of its nodes are URIs and at least one of them
+ * belongs to neither the ontology itself nor to RDF, RDFS, OWL or XSD. The ontology of a URI is resolved once through the term prefix trie
+ * of LOVPrefixes and remembered for the rest of the pass. Triples of different ontologies may be added concurrently.
+ */
+public class ImplicitImportIndex {
+
+    /**
+     * The distinct implicit imports found so far.
+     */
+    private final Set<Pair<Ontology, Ontology>> imports = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Maps a full URI to the (interned) ontology that defines it.
+     */
+    private final Map<String, Ontology> ontologyOfUri = new ConcurrentHashMap<>();
+
+    /**
+     * Maps an ontology to its term prefix, or to its URI if no term prefix is known.
+     */
+    private final Map<Ontology, String> termPrefixOfOntology = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a triple of an ontology to the index. Non-URI positions are passed as null, such triples never indicate an import.
+     *
+     * @param ontology
+     * @param subjectUri
+     * @param predicateUri
+     * @param objectUri
+     */
+    public void addTriple(Ontology ontology, String subjectUri, String predicateUri, String objectUri) {
+        if (subjectUri == null || predicateUri == null || objectUri == null) {
+            return;
+        }
+        String termPrefix = this.termPrefixOfOntology.computeIfAbsent(ontology, k -> {
+            String prefix = LOVPrefixes.getInstance().getTermPrefixForOntologyPrefix(k.getOntologyPrefix());
+            return prefix == null ? k.getOntologyUri() : prefix;
+        });
+        if (isCandidate(subjectUri, ontology, termPrefix) || isCandidate(predicateUri, ontology, termPrefix) || isCandidate(objectUri, ontology, termPrefix)) {
+            this.addImport(ontology, subjectUri);
+            this.addImport(ontology, predicateUri);
+            this.addImport(ontology, objectUri);
+        }
+    }
+
+    /**
+     * Returns the distinct implicit imports as pairs of importing and imported ontology.
+     *
+     * @return Set<Pair<Ontology, Ontology>>
+     */
+    public Set<Pair<Ontology, Ontology>> getImports() {
+        return new HashSet<>(this.imports);
+    }
+
+    public int size() {
+        return this.imports.size();
+    }
+
+    /**
+     * Adds an import from the ontology to the ontology that defines the URI, if the URI is defined in another ontology.
+     *
+     * @param ontology
+     * @param uri
+     */
+    private void addImport(Ontology ontology, String uri) {
+        if (!LOVPrefixes.getInstance().isFullUri(uri) || uri.equals(ontology.getOntologyUri())) {
+            return;
+        }
+        Ontology importedOntology = this.ontologyOfUri.computeIfAbsent(uri, k -> CorpusDictionary.getInstance().getOntology(LOVPrefixes.getInstance().getOntologyUriOfTermUri(k)));
+        if (!importedOntology.getOntologyUri().equals(ontology.getOntologyUri())) {
+            this.imports.add(Pair.of(ontology, importedOntology));
+        }
+    }
+
+    /**
+     * Evaluates whether a URI used in an ontology belongs to neither the ontology itself nor to RDF, RDFS, OWL or XSD, i.e., whether it may indicate an implicit import.
+     *
+     * @param uri
+     * @param ontology
+     * @param termPrefix
+     * @return boolean
+     */
+    private static boolean isCandidate(String uri, Ontology ontology, String termPrefix) {
+        if (uri.startsWith(termPrefix) || uri.startsWith(ontology.getOntologyUri())) {
+            return false;
+        }
+        for (String namespace : AbstractOntologyRepository.IMPLICIT_IMPORT_EXCLUDED_NAMESPACES) {
+            if (uri.startsWith(namespace)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
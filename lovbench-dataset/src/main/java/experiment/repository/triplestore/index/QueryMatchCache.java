@@ -0,0 +1,79 @@
+package experiment.repository.triplestore.index;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of query matches per search word, which can be read and filled concurrently.
+ * When the cache is full, the entries that were added first are evicted.
+ *
+ * @param <V> match type
+ */
+public class QueryMatchCache<V> {
+
+    private final int maxSize;
+
+    private final Map<String, V> matches = new ConcurrentHashMap<>();
+
+    /**
+     * Cached search words in the order they were added, for eviction.
+     */
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    public QueryMatchCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the matches of a (normalised) search word, computing them if they are not cached.
+     *
+     * @param key
+     * @param compute
+     * @return V
+     */
+    public V get(String key, Function<String, V> compute) {
+        V match = this.matches.get(key);
+        if (match != null) {
+            this.hits.incrementAndGet();
+            return match;
+        }
+        this.misses.incrementAndGet();
+        match = compute.apply(key);
+        if (this.matches.putIfAbsent(key, match) == null) {
+            this.insertionOrder.add(key);
+            while (this.matches.size() > this.maxSize) {
+                String eldest = this.insertionOrder.poll();
+                if (eldest == null) {
+                    break;
+                }
+                this.matches.remove(eldest);
+            }
+        }
+        return match;
+    }
+
+    public void clear() {
+        this.matches.clear();
+        this.insertionOrder.clear();
+    }
+
+    public int size() {
+        return this.matches.size();
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+}
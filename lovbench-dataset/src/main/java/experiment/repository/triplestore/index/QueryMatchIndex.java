@@ -0,0 +1,439 @@
+package experiment.repository.triplestore.index;
+
+import experiment.model.CorpusDictionary;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import experiment.model.query.AbstractQuery;
+import experiment.model.query.TermQuery;
+import experiment.model.query.enums.QueryMatch;
+import experiment.model.query.enums.TermType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Substring index over the local names of terms and the values of their query match predicates (see QUERY_MATCH_*).
+ *
+ * A term matches a query if its local name or one of its values contains one of the search words, ignoring case,
+ * which is what the regex filter of AbstractQuery.getSearchWordsFilterExpression() evaluates. The distinct texts are
+ * lower cased and indexed by their character trigrams, so a search word is only compared with the texts that contain
+ * all of its trigrams. Texts are mapped to the terms that use them, with their ontology (term -> ontology postings).
+ * Search words that contain regex operators are evaluated with the query pattern on all texts.
+ *
+ * The matches of each search word are cached (see QueryMatchCache), so a search word is only looked up once, whether it is
+ * searched alone or as part of a query. The index is built for one query match configuration (see ExperimentConfiguration.getQueryMatch()).
+ */
+public class QueryMatchIndex {
+
+    /**
+     * Type flag of terms that are typed as class.
+     */
+    public static final int CLASS = 1;
+
+    /**
+     * Type flag of terms that are typed as property.
+     */
+    public static final int PROPERTY = 2;
+
+    /**
+     * Characters that make a search word a regex instead of a literal ('+' is escaped by AbstractQuery).
+     */
+    private static final String REGEX_OPERATORS = ".*?()[]{}|^$\\";
+
+    /**
+     * Number of search words whose matches are kept.
+     */
+    private static final int CACHE_SIZE = 4096;
+
+    /**
+     * Query match configuration the index was built for, or null if the index was built for the predicates only.
+     */
+    private final QueryMatch queryMatch;
+
+    /**
+     * URIs of the query match predicates the index was built with.
+     */
+    private final List<String> predicateUris;
+
+    /**
+     * Distinct texts, lower cased as by the case insensitive regex.
+     */
+    private final List<String> texts = new ArrayList<>();
+
+    private final Map<String, Integer> textIds = new HashMap<>();
+
+    /**
+     * Maps a trigram of three chars packed into a long to the IDs of the texts that contain it, in ascending order.
+     */
+    private final Map<Long, IntList> trigrams = new HashMap<>();
+
+    /**
+     * Maps a text ID to the terms that have it as local name or value.
+     */
+    private final List<IntList> textPostings = new ArrayList<>();
+
+    /**
+     * Indexed terms.
+     */
+    private final List<TermEntry> terms = new ArrayList<>();
+
+    /**
+     * Maps ontology and term URI to the position of the term in terms.
+     */
+    private final Map<Ontology, Map<String, Integer>> termIds = new HashMap<>();
+
+    /**
+     * Caches the matching terms per ontology for normalised search words.
+     */
+    private final QueryMatchCache<Map<Ontology, List<TermEntry>>> matchCache = new QueryMatchCache<>(CACHE_SIZE);
+
+    public QueryMatchIndex(List<String> predicateUris) {
+        this(null, predicateUris);
+    }
+
+    public QueryMatchIndex(QueryMatch queryMatch, List<String> predicateUris) {
+        this.queryMatch = queryMatch;
+        this.predicateUris = new ArrayList<>(predicateUris);
+    }
+
+    /**
+     * Adds a term of an ontology with its local name and the values of the query match predicates. Values that have no
+     * string form (blank nodes) are passed as null; they count as values, but never match.
+     * A term can be added several times, its types and values are merged.
+     *
+     * @param ontology
+     * @param termUri
+     * @param localName
+     * @param typeFlags CLASS and/or PROPERTY
+     * @param values
+     */
+    public void addTerm(Ontology ontology, String termUri, String localName, int typeFlags, Collection<String> values) {
+        Map<String, Integer> ontologyTerms = this.termIds.computeIfAbsent(ontology, k -> new HashMap<>());
+        Integer termId = ontologyTerms.get(termUri);
+        TermEntry entry;
+        if (termId == null) {
+            termId = this.terms.size();
+            entry = new TermEntry(ontology, CorpusDictionary.getInstance().getTerm(termUri));
+            this.terms.add(entry);
+            ontologyTerms.put(termUri, termId);
+            this.addText(localName, termId);
+        } else {
+            entry = this.terms.get(termId);
+        }
+        entry.typeFlags |= typeFlags;
+        if (!values.isEmpty()) {
+            entry.hasValue = true;
+        }
+        for (String value : values) {
+            this.addText(value, termId);
+        }
+        this.matchCache.clear();
+    }
+
+    /**
+     * Returns the terms per ontology that match the query and have one of the given types.
+     *
+     * @param query
+     * @param typeFlags
+     * @param requireValue if true, only terms with at least one value for the query match predicates match
+     * @return Map<Ontology, Set<Term>>
+     */
+    public Map<Ontology, Set<Term>> getQueryMatch(AbstractQuery query, int typeFlags, boolean requireValue) {
+        Map<Ontology, Set<Term>> queryMatch = new HashMap<>();
+        for (Map<Ontology, List<TermEntry>> searchWordMatch : this.getMatches(query)) {
+            for (Map.Entry<Ontology, List<TermEntry>> ontologyMatch : searchWordMatch.entrySet()) {
+                Set<Term> terms = queryMatch.get(ontologyMatch.getKey());
+                if (terms == null) {
+                    terms = new HashSet<>();
+                }
+                this.filter(query, ontologyMatch.getValue(), typeFlags, requireValue, terms);
+                if (!terms.isEmpty()) {
+                    queryMatch.put(ontologyMatch.getKey(), terms);
+                }
+            }
+        }
+        return queryMatch;
+    }
+
+    /**
+     * Returns the terms of an ontology that match the query and have one of the given types.
+     *
+     * @param query
+     * @param ontology
+     * @param typeFlags
+     * @param requireValue if true, only terms with at least one value for the query match predicates match
+     * @return Set<Term>
+     */
+    public Set<Term> getTermQueryMatch(AbstractQuery query, Ontology ontology, int typeFlags, boolean requireValue) {
+        Set<Term> terms = new HashSet<>();
+        for (Map<Ontology, List<TermEntry>> searchWordMatch : this.getMatches(query)) {
+            this.filter(query, searchWordMatch.getOrDefault(ontology, Collections.emptyList()), typeFlags, requireValue, terms);
+        }
+        return terms;
+    }
+
+    /**
+     * Returns the type flags that correspond to a term type.
+     *
+     * @param termType
+     * @return int
+     */
+    public static int getTypeFlags(TermType termType) {
+        switch (termType) {
+            case CLASS:
+                return CLASS;
+            case PROPERTY:
+                return PROPERTY;
+            default:
+                return CLASS | PROPERTY;
+        }
+    }
+
+    public QueryMatch getQueryMatch() {
+        return this.queryMatch;
+    }
+
+    public List<String> getPredicateUris() {
+        return Collections.unmodifiableList(this.predicateUris);
+    }
+
+    public int countTerms() {
+        return this.terms.size();
+    }
+
+    public int countTexts() {
+        return this.texts.size();
+    }
+
+    /**
+     * Returns the number of search word lookups that were answered from the match cache.
+     *
+     * @return long
+     */
+    public long getCacheHits() {
+        return this.matchCache.getHits();
+    }
+
+    public long getCacheMisses() {
+        return this.matchCache.getMisses();
+    }
+
+    /**
+     * Lower cases the ASCII letters of a text, as a case insensitive java or sparql regex without unicode case folding.
+     *
+     * @param text
+     * @return String
+     */
+    static String toLowerCase(String text) {
+        char[] chars = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                if (chars == null) {
+                    chars = text.toCharArray();
+                }
+                chars[i] = (char) (c + ('a' - 'A'));
+            }
+        }
+        return chars == null ? text : new String(chars);
+    }
+
+    private void addText(String text, int termId) {
+        if (text == null) {
+            return;
+        }
+        String lowerCaseText = toLowerCase(text);
+        Integer textId = this.textIds.get(lowerCaseText);
+        if (textId == null) {
+            textId = this.texts.size();
+            this.texts.add(lowerCaseText);
+            this.textIds.put(lowerCaseText, textId);
+            this.textPostings.add(new IntList());
+            Set<Long> textTrigrams = new HashSet<>();
+            for (int i = 0; i + 3 <= lowerCaseText.length(); i++) {
+                long trigram = trigram(lowerCaseText, i);
+                if (textTrigrams.add(trigram)) {
+                    this.trigrams.computeIfAbsent(trigram, k -> new IntList()).add(textId);
+                }
+            }
+        }
+        IntList postings = this.textPostings.get(textId);
+        if (postings.size == 0 || postings.values[postings.size - 1] != termId) {
+            postings.add(termId);
+        }
+    }
+
+    /**
+     * Returns the matching terms per ontology for each search word of the query. Search words are looked up in lower case, as the
+     * match ignores case. If a search word is a regex, all search words are evaluated together as the query pattern.
+     *
+     * @param query
+     * @return List<Map<Ontology, List<TermEntry>>>
+     */
+    private List<Map<Ontology, List<TermEntry>>> getMatches(AbstractQuery query) {
+        for (String searchWord : query.getSearchWords()) {
+            if (isRegex(searchWord)) {
+                // Regex keys always contain an operator, so they never collide with search words
+                Pattern pattern = query.getSearchWordsPattern();
+                return Collections.singletonList(this.matchCache.get(pattern.pattern(), key -> this.getTermMatches(this.getMatchingTexts(pattern))));
+            }
+        }
+        List<Map<Ontology, List<TermEntry>>> matches = new ArrayList<>();
+        for (String searchWord : new HashSet<>(query.getSearchWords())) {
+            matches.add(this.matchCache.get(toLowerCase(searchWord), key -> this.getTermMatches(this.getMatchingTexts(key))));
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the terms per ontology that have one of the matching texts.
+     *
+     * @param matchingTexts
+     * @return Map<Ontology, List<TermEntry>>
+     */
+    private Map<Ontology, List<TermEntry>> getTermMatches(BitSet matchingTexts) {
+        BitSet matchingTerms = new BitSet(this.terms.size());
+        for (int textId = matchingTexts.nextSetBit(0); textId >= 0; textId = matchingTexts.nextSetBit(textId + 1)) {
+            IntList postings = this.textPostings.get(textId);
+            for (int i = 0; i < postings.size; i++) {
+                matchingTerms.set(postings.values[i]);
+            }
+        }
+        Map<Ontology, List<TermEntry>> matches = new HashMap<>();
+        for (int termId = matchingTerms.nextSetBit(0); termId >= 0; termId = matchingTerms.nextSetBit(termId + 1)) {
+            TermEntry entry = this.terms.get(termId);
+            matches.computeIfAbsent(entry.ontology, k -> new ArrayList<>()).add(entry);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the texts that the pattern finds.
+     *
+     * @param pattern
+     * @return BitSet
+     */
+    private BitSet getMatchingTexts(Pattern pattern) {
+        BitSet matchingTexts = new BitSet(this.texts.size());
+        for (int textId = 0; textId < this.texts.size(); textId++) {
+            if (pattern.matcher(this.texts.get(textId)).find()) {
+                matchingTexts.set(textId);
+            }
+        }
+        return matchingTexts;
+    }
+
+    /**
+     * Returns the texts that contain a lower cased search word.
+     *
+     * @param lowerCaseSearchWord
+     * @return BitSet
+     */
+    private BitSet getMatchingTexts(String lowerCaseSearchWord) {
+        BitSet matchingTexts = new BitSet(this.texts.size());
+        if (lowerCaseSearchWord.length() < 3) {
+            for (int textId = 0; textId < this.texts.size(); textId++) {
+                if (this.texts.get(textId).contains(lowerCaseSearchWord)) {
+                    matchingTexts.set(textId);
+                }
+            }
+            return matchingTexts;
+        }
+        // All texts that contain the search word are in the postings of each of its trigrams, so the shortest postings suffice
+        IntList candidates = null;
+        for (int i = 0; i + 3 <= lowerCaseSearchWord.length(); i++) {
+            IntList postings = this.trigrams.get(trigram(lowerCaseSearchWord, i));
+            if (postings == null) {
+                return matchingTexts;
+            }
+            if (candidates == null || postings.size < candidates.size) {
+                candidates = postings;
+            }
+        }
+        for (int i = 0; i < candidates.size; i++) {
+            int textId = candidates.values[i];
+            if (this.texts.get(textId).contains(lowerCaseSearchWord)) {
+                matchingTexts.set(textId);
+            }
+        }
+        return matchingTexts;
+    }
+
+    private void filter(AbstractQuery query, List<TermEntry> entries, int typeFlags, boolean requireValue, Set<Term> terms) {
+        int filterFlags = CLASS | PROPERTY;
+        if (query instanceof TermQuery && ((TermQuery) query).getFilterTypes() != null) {
+            switch (((TermQuery) query).getFilterTypes()) {
+                case CLASS:
+                    filterFlags = CLASS;
+                    break;
+                case PROPERTY:
+                    filterFlags = PROPERTY;
+                    break;
+            }
+        }
+        for (TermEntry entry : entries) {
+            if ((entry.typeFlags & typeFlags) != 0 && (entry.typeFlags & filterFlags) != 0 && (!requireValue || entry.hasValue)) {
+                terms.add(entry.term);
+            }
+        }
+    }
+
+    private static boolean isRegex(String searchWord) {
+        for (int i = 0; i < searchWord.length(); i++) {
+            if (REGEX_OPERATORS.indexOf(searchWord.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * An indexed term of an ontology.
+     */
+    private static class TermEntry {
+
+        final Ontology ontology;
+
+        final Term term;
+
+        int typeFlags = 0;
+
+        boolean hasValue = false;
+
+        TermEntry(Ontology ontology, Term term) {
+            this.ontology = ontology;
+            this.term = term;
+        }
+    }
+
+    /**
+     * Growable list of ints.
+     */
+    private static class IntList {
+
+        int[] values = new int[4];
+
+        int size = 0;
+
+        void add(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = value;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package experiment.repository.triplestore.index;
+
+import experiment.model.Ontology;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from URIs to the ontologies in which they occur, together with the number of triples per ontology that contain the URI.
+ *
+ * The index is filled in a single pass over the collection and then answers document frequency questions from memory.
+ */
+public class TermOntologyIndex {
+
+    /**
+     * Maps a URI to the ontologies that contain it, and to the number of triples of that ontology in which the URI occurs.
+     */
+    private Map<String, Map<Ontology, Integer>> postings = new HashMap<>();
+
+    /**
+     * All ontologies that contributed at least one triple.
+     */
+    private Set<Ontology> ontologies = new HashSet<>();
+
+    /**
+     * Adds a triple of an ontology to the index. A URI is only counted once per triple, non-URI positions are passed as null.
+     *
+     * @param ontology
+     * @param subjectUri
+     * @param predicateUri
+     * @param objectUri
+     */
+    public void addTriple(Ontology ontology, String subjectUri, String predicateUri, String objectUri) {
+        this.ontologies.add(ontology);
+        if (subjectUri != null) {
+            this.addOccurrences(ontology, subjectUri, 1);
+        }
+        if (predicateUri != null && !predicateUri.equals(subjectUri)) {
+            this.addOccurrences(ontology, predicateUri, 1);
+        }
+        if (objectUri != null && !objectUri.equals(subjectUri) && !objectUri.equals(predicateUri)) {
+            this.addOccurrences(ontology, objectUri, 1);
+        }
+    }
+
+    /**
+     * Adds a pre-aggregated number of triples of an ontology that contain a URI.
+     *
+     * @param ontology
+     * @param uri
+     * @param count
+     */
+    public void addOccurrences(Ontology ontology, String uri, int count) {
+        this.ontologies.add(ontology);
+        this.postings.computeIfAbsent(uri, k -> new HashMap<>()).merge(ontology, count, Integer::sum);
+    }
+
+    /**
+     * Returns the ontologies that contain a URI.
+     *
+     * @param uri
+     * @return Set<Ontology>
+     */
+    public Set<Ontology> getOntologiesContaining(String uri) {
+        Map<Ontology, Integer> uriPostings = this.postings.get(uri);
+        if (uriPostings == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(uriPostings.keySet());
+    }
+
+    /**
+     * Counts the ontologies that contain at least one of the given URIs. Empty URIs are ignored.
+     *
+     * @param uris
+     * @return int
+     */
+    public int countOntologiesContaining(String... uris) {
+        Set<Ontology> containing = new HashSet<>();
+        for (String uri : uris) {
+            if (uri != null && !uri.isEmpty()) {
+                containing.addAll(this.getOntologiesContaining(uri));
+            }
+        }
+        return containing.size();
+    }
+
+    /**
+     * Returns the number of triples of an ontology that contain a URI.
+     *
+     * @param uri
+     * @param ontology
+     * @return int
+     */
+    public int getFrequency(String uri, Ontology ontology) {
+        Map<Ontology, Integer> uriPostings = this.postings.get(uri);
+        if (uriPostings == null || !uriPostings.containsKey(ontology)) {
+            return 0;
+        }
+        return uriPostings.get(ontology);
+    }
+
+    /**
+     * Counts the ontologies in the index.
+     *
+     * @return int
+     */
+    public int countOntologies() {
+        return this.ontologies.size();
+    }
+
+    /**
+     * Returns the number of distinct URIs in the index.
+     *
+     * @return int
+     */
+    public int size() {
+        return this.postings.size();
+    }
+}
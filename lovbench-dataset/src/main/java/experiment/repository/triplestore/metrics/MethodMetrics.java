@@ -0,0 +1,120 @@
+package experiment.repository.triplestore.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Query metrics of one repository method: number of queries, errors and result rows, and a latency histogram.
+ *
+ * The histogram has logarithmic buckets, four per power of two of the latency in microseconds, so percentiles are accurate to about 19%.
+ * Recording is lock-free and can be done from several threads at the same time.
+ */
+public class MethodMetrics {
+
+    /**
+     * Buckets per power of two.
+     */
+    private static final int BUCKETS_PER_DOUBLING = 4;
+
+    /**
+     * Number of buckets, the last bucket holds all latencies above 2^32 microseconds (about 72 minutes).
+     */
+    private static final int BUCKETS = 32 * BUCKETS_PER_DOUBLING;
+
+    private final String method;
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder totalMicros = new LongAdder();
+
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    public MethodMetrics(String method) {
+        this.method = method;
+    }
+
+    /**
+     * Records a query.
+     *
+     * @param durationNanos
+     * @param resultRows number of result rows, ignored if the query failed
+     * @param failed
+     */
+    public void record(long durationNanos, int resultRows, boolean failed) {
+        long micros = Math.max(0, durationNanos / 1000);
+        this.calls.increment();
+        if (failed) {
+            this.errors.increment();
+        } else {
+            this.rows.add(resultRows);
+        }
+        this.totalMicros.add(micros);
+        this.maxMicros.accumulateAndGet(micros, Math::max);
+        this.buckets.incrementAndGet(MethodMetrics.getBucket(micros));
+    }
+
+    private static int getBucket(long micros) {
+        if (micros <= 1) {
+            return 0;
+        }
+        return (int) Math.min(BUCKETS - 1, Math.floor(BUCKETS_PER_DOUBLING * Math.log(micros) / Math.log(2)));
+    }
+
+    /**
+     * Returns the upper bound of a bucket in microseconds.
+     *
+     * @param bucket
+     * @return double
+     */
+    private static double getUpperBound(int bucket) {
+        return Math.pow(2, (double) (bucket + 1) / BUCKETS_PER_DOUBLING);
+    }
+
+    /**
+     * Returns the latency in ms below which the given fraction of the queries lie, estimated by the upper bound of its histogram bucket.
+     *
+     * @param quantile between 0 and 1
+     * @return double
+     */
+    public double getPercentile(double quantile) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulativeCount += counts[i];
+            if (cumulativeCount >= rank) {
+                return Math.min(MethodMetrics.getUpperBound(i), this.maxMicros.get()) / 1000.0;
+            }
+        }
+        return this.maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * Returns a snapshot of the metrics.
+     *
+     * @return MethodStats
+     */
+    public MethodStats getStats() {
+        return new MethodStats(this.method, this.calls.sum(), this.errors.sum(), this.rows.sum(), this.totalMicros.sum() / 1000.0,
+                this.getPercentile(0.5), this.getPercentile(0.95), this.getPercentile(0.99), this.maxMicros.get() / 1000.0);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+}
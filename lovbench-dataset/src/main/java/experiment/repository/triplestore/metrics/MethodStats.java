@@ -0,0 +1,76 @@
+package experiment.repository.triplestore.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of the query metrics of a repository method (see MethodMetrics), with latencies in ms.
+ */
+public class MethodStats {
+
+    private final String method;
+
+    private final long calls;
+
+    private final long errors;
+
+    private final long rows;
+
+    private final double totalTime;
+
+    private final double p50;
+
+    private final double p95;
+
+    private final double p99;
+
+    private final double max;
+
+    @ConstructorProperties({"method", "calls", "errors", "rows", "totalTime", "p50", "p95", "p99", "max"})
+    public MethodStats(String method, long calls, long errors, long rows, double totalTime, double p50, double p95, double p99, double max) {
+        this.method = method;
+        this.calls = calls;
+        this.errors = errors;
+        this.rows = rows;
+        this.totalTime = totalTime;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP95() {
+        return p95;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,159 @@
+package experiment.repository.triplestore.metrics;
+
+import experiment.configuration.ExperimentConfiguration;
+import experiment.repository.file.FileUtil;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of the queries that the repositories issue, per repository method (see AbstractConnector.recordQuery()).
+ *
+ * The metrics are available through JMX (see QueryMetricsMXBean), are written to queryMetricsFile of the configuration
+ * every queryMetricsDumpInterval ms and can be printed as a summary table (see getSummary()).
+ */
+public class QueryMetrics implements QueryMetricsMXBean {
+
+    private final ConcurrentHashMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    private static QueryMetrics queryMetrics;
+
+    private static final Logger log = LoggerFactory.getLogger( QueryMetrics.class );
+
+    /**
+     * Returns the metrics singleton, which is registered with the platform MBean server and dumped periodically on first use.
+     *
+     * @return QueryMetrics
+     */
+    public static synchronized QueryMetrics getInstance() {
+        if (queryMetrics == null) {
+            queryMetrics = new QueryMetrics();
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(queryMetrics, new ObjectName("experiment:type=QueryMetrics"));
+            } catch (JMException e) {
+                log.warn(String.format("Query metrics are not available through JMX: %s", e.getMessage()));
+            }
+            long dumpInterval = ExperimentConfiguration.getInstance().getQueryMetricsDumpInterval();
+            if (dumpInterval > 0) {
+                ScheduledExecutorService dumpExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "query-metrics-dump");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                dumpExecutor.scheduleWithFixedDelay(() -> queryMetrics.writeJson(ExperimentConfiguration.getInstance().getQueryMetricsFile()), dumpInterval, dumpInterval, TimeUnit.MILLISECONDS);
+            }
+        }
+        return queryMetrics;
+    }
+
+    /**
+     * Records a query of a repository method.
+     *
+     * @param method
+     * @param durationNanos
+     * @param rows
+     * @param failed
+     */
+    public void record(String method, long durationNanos, int rows, boolean failed) {
+        this.methods.computeIfAbsent(method, MethodMetrics::new).record(durationNanos, rows, failed);
+    }
+
+    /**
+     * Returns the metrics of a method, or null if it has not issued any query.
+     *
+     * @param method
+     * @return MethodStats
+     */
+    public MethodStats getMethodStats(String method) {
+        MethodMetrics methodMetrics = this.methods.get(method);
+        return methodMetrics == null ? null : methodMetrics.getStats();
+    }
+
+    /**
+     * Returns the metrics of all methods, the methods with the highest total query time first.
+     *
+     * @return List<MethodStats>
+     */
+    @Override
+    public List<MethodStats> getMethodStats() {
+        List<MethodStats> methodStats = new ArrayList<>();
+        for (MethodMetrics methodMetrics : this.methods.values()) {
+            methodStats.add(methodMetrics.getStats());
+        }
+        methodStats.sort(Comparator.comparingDouble(MethodStats::getTotalTime).reversed().thenComparing(MethodStats::getMethod));
+        return methodStats;
+    }
+
+    /**
+     * Returns a table with the metrics of all methods.
+     *
+     * @return String
+     */
+    @Override
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        String format = "%-60s %10s %8s %12s %12s %10s %10s %10s %10s%n";
+        summary.append(String.format(format, "Method", "Calls", "Errors", "Rows", "Total ms", "p50 ms", "p95 ms", "p99 ms", "Max ms"));
+        for (MethodStats methodStats : this.getMethodStats()) {
+            summary.append(String.format(format, methodStats.getMethod(), methodStats.getCalls(), methodStats.getErrors(), methodStats.getRows(),
+                    String.format("%.1f", methodStats.getTotalTime()), String.format("%.2f", methodStats.getP50()), String.format("%.2f", methodStats.getP95()),
+                    String.format("%.2f", methodStats.getP99()), String.format("%.2f", methodStats.getMax())));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Writes the metrics of all methods to a JSON file, replacing its content.
+     *
+     * @param filename
+     */
+    public void writeJson(String filename) {
+        JSONArray methodsJson = new JSONArray();
+        for (MethodStats methodStats : this.getMethodStats()) {
+            JSONObject methodJson = new JSONObject();
+            methodJson.put("method", methodStats.getMethod());
+            methodJson.put("calls", methodStats.getCalls());
+            methodJson.put("errors", methodStats.getErrors());
+            methodJson.put("rows", methodStats.getRows());
+            methodJson.put("totalTime", methodStats.getTotalTime());
+            methodJson.put("p50", methodStats.getP50());
+            methodJson.put("p95", methodStats.getP95());
+            methodJson.put("p99", methodStats.getP99());
+            methodJson.put("max", methodStats.getMax());
+            methodsJson.put(methodJson);
+        }
+        JSONObject json = new JSONObject();
+        json.put("time", new Timestamp(System.currentTimeMillis()).toString());
+        json.put("methods", methodsJson);
+        File file = new File(filename);
+        FileUtil.createFolderIfNotExists(file);
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(json.toString(2));
+        } catch (IOException e) {
+            log.error(String.format("Failed to write the query metrics to %s: %s", filename, e.getMessage()));
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.methods.clear();
+    }
+}
@@ -0,0 +1,15 @@
+package experiment.repository.triplestore.metrics;
+
+import java.util.List;
+
+/**
+ * Management interface of the query metrics, registered as experiment:type=QueryMetrics.
+ */
+public interface QueryMetricsMXBean {
+
+    List<MethodStats> getMethodStats();
+
+    String getSummary();
+
+    void reset();
+}
@@ -0,0 +1,186 @@
+package experiment.repository.triplestore.partition;
+
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.sparql.core.DatasetGraph;
+import experiment.model.CorpusDictionary;
+import experiment.model.Ontology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * Partitions an in-memory dataset into one graph per ontology.
+ *
+ * Every ontology graph keeps its own triple indexes, so a lookup that is scoped to one ontology only touches that ontology,
+ * and operations over the whole collection can be fanned out over the partitions in parallel.
+ * The graphs of the dataset are taken over as they are: all datasets that JenaConnector loads store each named graph
+ * as a separate in-memory graph, so no triples are copied.
+ */
+public class OntologyPartitions {
+
+    /**
+     * Graphs of the non-empty ontologies, in the order of the dataset.
+     */
+    private final Map<Ontology, Graph> partitions = new LinkedHashMap<>();
+
+    /**
+     * Number of triples in all partitions.
+     */
+    private long size = 0;
+
+    /**
+     * Executor for fan-out operations, created on first use.
+     */
+    private ExecutorService executor;
+
+    private final int threads;
+
+    /**
+     * Marks the threads of the executor, so that fan-outs from within a fan-out run sequentially instead of waiting for a free thread.
+     */
+    private static final ThreadLocal<Boolean> isPartitionThread = ThreadLocal.withInitial(() -> false);
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private static final Logger log = LoggerFactory.getLogger( OntologyPartitions.class );
+
+    public OntologyPartitions(Dataset dataset, int threads) {
+        long start = System.currentTimeMillis();
+        this.threads = Math.max(1, threads);
+        DatasetGraph datasetGraph = dataset.asDatasetGraph();
+        List<Node> graphNodes = new ArrayList<>();
+        datasetGraph.listGraphNodes().forEachRemaining(graphNodes::add);
+        for (Node graphNode : graphNodes) {
+            Graph graph = datasetGraph.getGraph(graphNode);
+            if (graphNode.isURI() && !graph.isEmpty()) {
+                this.partitions.put(CorpusDictionary.getInstance().getOntology(graphNode.getURI()), graph);
+                this.size += graph.size();
+            }
+        }
+        log.info(String.format("Partitioned dataset into %s ontology graphs with %s triples in %s ms", this.partitions.size(), this.size, System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Returns the graph of an ontology, or an empty graph if the ontology is not in the dataset.
+     *
+     * @param ontology
+     * @return Graph
+     */
+    public Graph getPartition(Ontology ontology) {
+        Graph graph = this.partitions.get(ontology);
+        return graph == null ? Graph.emptyGraph : graph;
+    }
+
+    /**
+     * Returns all ontologies with a non-empty graph.
+     *
+     * @return Set<Ontology>
+     */
+    public Set<Ontology> getOntologies() {
+        return Collections.unmodifiableSet(this.partitions.keySet());
+    }
+
+    public int countPartitions() {
+        return this.partitions.size();
+    }
+
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * Applies a function to every partition in parallel and collects the results that are not null, in partition order.
+     *
+     * @param function
+     * @param <R>
+     * @return Map<Ontology, R>
+     */
+    public <R> Map<Ontology, R> mapPartitions(BiFunction<Ontology, Graph, R> function) {
+        Map<Ontology, R> results = new LinkedHashMap<>();
+        if (isPartitionThread.get() || this.threads == 1 || this.partitions.size() < 2) {
+            for (Map.Entry<Ontology, Graph> partition : this.partitions.entrySet()) {
+                R result = function.apply(partition.getKey(), partition.getValue());
+                if (result != null) {
+                    results.put(partition.getKey(), result);
+                }
+            }
+            return results;
+        }
+
+        Map<Ontology, Future<R>> futures = new HashMap<>();
+        ExecutorService executor = this.getExecutor();
+        for (Map.Entry<Ontology, Graph> partition : this.partitions.entrySet()) {
+            futures.put(partition.getKey(), executor.submit(() -> function.apply(partition.getKey(), partition.getValue())));
+        }
+        try {
+            for (Ontology ontology : this.partitions.keySet()) {
+                R result = futures.get(ontology).get();
+                if (result != null) {
+                    results.put(ontology, result);
+                }
+            }
+        } catch (InterruptedException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while processing ontology partitions", e);
+        } catch (ExecutionException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to process ontology partitions", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Returns the ontologies whose partition satisfies the predicate, tested in parallel.
+     *
+     * @param predicate
+     * @return Set<Ontology>
+     */
+    public Set<Ontology> filterPartitions(BiPredicate<Ontology, Graph> predicate) {
+        return new LinkedHashSet<>(this.mapPartitions((ontology, graph) -> predicate.test(ontology, graph) ? Boolean.TRUE : null).keySet());
+    }
+
+    /**
+     * Stops the threads of the fan-out executor.
+     */
+    public synchronized void close() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (this.executor == null) {
+            this.executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+                Thread thread = new Thread(() -> {
+                    isPartitionThread.set(true);
+                    runnable.run();
+                }, "ontology-partition-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return this.executor;
+    }
+}
@@ -0,0 +1,398 @@
+package experiment.repository.triplestore.util;
+
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.NodeFactory;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.query.DatasetFactory;
+import com.hp.hpl.jena.sparql.core.DatasetGraph;
+import com.hp.hpl.jena.sparql.core.DatasetGraphFactory;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import com.hp.hpl.jena.vocabulary.RDF;
+import experiment.model.CorpusDictionary;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import experiment.repository.triplestore.index.HierarchyIndex;
+import experiment.repository.triplestore.index.ImplicitImportIndex;
+import experiment.repository.triplestore.index.QueryMatchIndex;
+import experiment.repository.triplestore.index.TermOntologyIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Helper class to work directly on the graphs of an in-memory Jena dataset.
+ *
+ */
+public class JenaGraphUtil {
+
+    /**
+     * Returns the named graph of a dataset, or an empty graph if the dataset does not contain it.
+     * Asking the dataset directly for a missing graph would silently add an empty graph to it.
+     *
+     * @param dataset
+     * @param graphUri
+     * @return Graph
+     */
+    public static Graph getNamedGraph(Dataset dataset, String graphUri) {
+        if (!dataset.containsNamedModel(graphUri)) {
+            return Graph.emptyGraph;
+        }
+        return dataset.getNamedModel(graphUri).getGraph();
+    }
+
+    /**
+     * Returns a dataset with all graphs of the given dataset except one named graph.
+     * The graphs are shared, not copied, so the given dataset is left unchanged.
+     *
+     * @param dataset
+     * @param graphUri
+     * @return Dataset
+     */
+    public static Dataset withoutNamedGraph(Dataset dataset, String graphUri) {
+        DatasetGraph source = dataset.asDatasetGraph();
+        DatasetGraph view = DatasetGraphFactory.createMem();
+        view.setDefaultGraph(source.getDefaultGraph());
+        Node excluded = NodeFactory.createURI(graphUri);
+        Iterator<Node> graphNodes = source.listGraphNodes();
+        while (graphNodes.hasNext()) {
+            Node graphNode = graphNodes.next();
+            if (!graphNode.equals(excluded)) {
+                view.addGraph(graphNode, source.getGraph(graphNode));
+            }
+        }
+        return DatasetFactory.create(view);
+    }
+
+    /**
+     * Returns the URI of a node, or null if the node is not a URI.
+     *
+     * @param node
+     * @return String
+     */
+    public static String getUriOfNode(Node node) {
+        return node.isURI() ? node.getURI() : null;
+    }
+
+    /**
+     * Returns the string value of a node as it would be returned by JenaConnector in a BindingSet.
+     *
+     * @param node
+     * @return String
+     */
+    public static String getStringValue(Node node) {
+        if (node.isURI()) {
+            return node.getURI();
+        } else if (node.isBlank()) {
+            return node.getBlankNodeLabel();
+        } else if (node.isLiteral()) {
+            return node.getLiteralValue().toString();
+        }
+        return node.toString();
+    }
+
+    /**
+     * Returns the lexical form of a node as given by the SPARQL str() function, or null if str() is undefined for the node.
+     *
+     * @param node
+     * @return String
+     */
+    public static String getLexicalForm(Node node) {
+        if (node.isURI()) {
+            return node.getURI();
+        } else if (node.isLiteral()) {
+            return node.getLiteralLexicalForm();
+        }
+        return null;
+    }
+
+    /**
+     * Returns all objects of a subject for the given predicates.
+     *
+     * @param graph
+     * @param subject
+     * @param predicates
+     * @return List<Node>
+     */
+    public static List<Node> getObjects(Graph graph, Node subject, Node... predicates) {
+        List<Node> objects = new ArrayList<>();
+        for (Node predicate : predicates) {
+            ExtendedIterator<Triple> triples = graph.find(subject, predicate, Node.ANY);
+            try {
+                while (triples.hasNext()) {
+                    objects.add(triples.next().getObject());
+                }
+            } finally {
+                triples.close();
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Returns all subjects that have the given object for one of the given predicates.
+     *
+     * @param graph
+     * @param object
+     * @param predicates
+     * @return List<Node>
+     */
+    public static List<Node> getSubjects(Graph graph, Node object, Node... predicates) {
+        List<Node> subjects = new ArrayList<>();
+        for (Node predicate : predicates) {
+            ExtendedIterator<Triple> triples = graph.find(Node.ANY, predicate, object);
+            try {
+                while (triples.hasNext()) {
+                    subjects.add(triples.next().getSubject());
+                }
+            } finally {
+                triples.close();
+            }
+        }
+        return subjects;
+    }
+
+    /**
+     * Counts the triples of a graph that contain at least one of the given nodes in any position.
+     *
+     * @param graph
+     * @param nodes
+     * @return int
+     */
+    public static int countTriplesContaining(Graph graph, Collection<Node> nodes) {
+        Set<Triple> containing = new HashSet<>();
+        for (Node node : nodes) {
+            addAll(graph.find(node, Node.ANY, Node.ANY), containing);
+            addAll(graph.find(Node.ANY, node, Node.ANY), containing);
+            addAll(graph.find(Node.ANY, Node.ANY, node), containing);
+        }
+        return containing.size();
+    }
+
+    /**
+     * Counts the occurences of the given terms in one pass over the graph. The term URI and the alternative term URI both count for a term,
+     * but each triple is counted at most once per term. Terms that do not occur are not contained in the result.
+     *
+     * @param graph
+     * @param terms
+     * @return Map<Term, Integer>
+     */
+    public static Map<Term, Integer> countTermFrequencies(Graph graph, Set<Term> terms) {
+        Map<String, Term> uriToTerm = new HashMap<>();
+        for (Term term : terms) {
+            uriToTerm.put(term.getTermUri(), term);
+            if (!term.getAlternativeUri().isEmpty()) {
+                uriToTerm.put(term.getAlternativeUri(), term);
+            }
+        }
+
+        Map<Term, Integer> frequencies = new HashMap<>();
+        Set<Term> termsInTriple = new HashSet<>();
+        ExtendedIterator<Triple> triples = graph.find(Node.ANY, Node.ANY, Node.ANY);
+        try {
+            while (triples.hasNext()) {
+                Triple triple = triples.next();
+                termsInTriple.clear();
+                addTermOfNode(triple.getSubject(), uriToTerm, termsInTriple);
+                addTermOfNode(triple.getPredicate(), uriToTerm, termsInTriple);
+                addTermOfNode(triple.getObject(), uriToTerm, termsInTriple);
+                for (Term term : termsInTriple) {
+                    frequencies.merge(term, 1, Integer::sum);
+                }
+            }
+        } finally {
+            triples.close();
+        }
+        return frequencies;
+    }
+
+    /**
+     * Adds all triples of all named graphs of a dataset to a term ontology index.
+     *
+     * @param dataset
+     * @param index
+     */
+    public static void addToIndex(Dataset dataset, TermOntologyIndex index) {
+        Iterator<String> graphNames = dataset.listNames();
+        while (graphNames.hasNext()) {
+            String graphName = graphNames.next();
+            Ontology ontology = CorpusDictionary.getInstance().getOntology(graphName);
+            ExtendedIterator<Triple> triples = dataset.getNamedModel(graphName).getGraph().find(Node.ANY, Node.ANY, Node.ANY);
+            try {
+                while (triples.hasNext()) {
+                    Triple triple = triples.next();
+                    index.addTriple(ontology, getUriOfNode(triple.getSubject()), getUriOfNode(triple.getPredicate()), getUriOfNode(triple.getObject()));
+                }
+            } finally {
+                triples.close();
+            }
+        }
+    }
+
+    /**
+     * Adds all triples of all named graphs of a dataset to an implicit import index.
+     *
+     * @param dataset
+     * @param index
+     */
+    public static void addToIndex(Dataset dataset, ImplicitImportIndex index) {
+        Iterator<String> graphNames = dataset.listNames();
+        while (graphNames.hasNext()) {
+            String graphName = graphNames.next();
+            addToIndex(CorpusDictionary.getInstance().getOntology(graphName), dataset.getNamedModel(graphName).getGraph(), index);
+        }
+    }
+
+    /**
+     * Adds all triples of an ontology graph to an implicit import index.
+     *
+     * @param ontology
+     * @param graph
+     * @param index
+     */
+    public static void addToIndex(Ontology ontology, Graph graph, ImplicitImportIndex index) {
+        ExtendedIterator<Triple> triples = graph.find(Node.ANY, Node.ANY, Node.ANY);
+        try {
+            while (triples.hasNext()) {
+                Triple triple = triples.next();
+                index.addTriple(ontology, getUriOfNode(triple.getSubject()), getUriOfNode(triple.getPredicate()), getUriOfNode(triple.getObject()));
+            }
+        } finally {
+            triples.close();
+        }
+    }
+
+    /**
+     * Adds the typed terms of all named graphs of a dataset to a query match index.
+     *
+     * @param dataset
+     * @param index
+     * @param matchPredicates
+     * @param classTypes
+     * @param propertyTypes
+     */
+    public static void addToIndex(Dataset dataset, QueryMatchIndex index, Node[] matchPredicates, Set<Node> classTypes, Set<Node> propertyTypes) {
+        Iterator<String> graphNames = dataset.listNames();
+        while (graphNames.hasNext()) {
+            String graphName = graphNames.next();
+            addToIndex(CorpusDictionary.getInstance().getOntology(graphName), dataset.getNamedModel(graphName).getGraph(), index, matchPredicates, classTypes, propertyTypes);
+        }
+    }
+
+    /**
+     * Adds all URIs of an ontology graph that are typed as class or property to a query match index, with their local names and
+     * the lexical forms of their values for the query match predicates.
+     *
+     * @param ontology
+     * @param graph
+     * @param index
+     * @param matchPredicates
+     * @param classTypes
+     * @param propertyTypes
+     */
+    public static void addToIndex(Ontology ontology, Graph graph, QueryMatchIndex index, Node[] matchPredicates, Set<Node> classTypes, Set<Node> propertyTypes) {
+        Map<Node, Integer> typeFlags = new LinkedHashMap<>();
+        ExtendedIterator<Triple> typeTriples = graph.find(Node.ANY, RDF.type.asNode(), Node.ANY);
+        try {
+            while (typeTriples.hasNext()) {
+                Triple typeTriple = typeTriples.next();
+                if (typeTriple.getSubject().isURI()) {
+                    int flags = (classTypes.contains(typeTriple.getObject()) ? QueryMatchIndex.CLASS : 0) | (propertyTypes.contains(typeTriple.getObject()) ? QueryMatchIndex.PROPERTY : 0);
+                    if (flags != 0) {
+                        typeFlags.merge(typeTriple.getSubject(), flags, (a, b) -> a | b);
+                    }
+                }
+            }
+        } finally {
+            typeTriples.close();
+        }
+        for (Map.Entry<Node, Integer> term : typeFlags.entrySet()) {
+            List<String> values = new ArrayList<>();
+            for (Node value : getObjects(graph, term.getKey(), matchPredicates)) {
+                values.add(getLexicalForm(value));
+            }
+            index.addTerm(ontology, term.getKey().getURI(), term.getKey().getLocalName(), term.getValue(), values);
+        }
+    }
+
+    /**
+     * Adds the direct edges of a hierarchy predicate (rdfs:subClassOf or rdfs:subPropertyOf) of an ontology graph to a hierarchy index,
+     * together with the nodes that have one of the types. The nodes are converted into the node type of the index by nodeKey.
+     *
+     * @param graph
+     * @param predicate
+     * @param types
+     * @param index
+     * @param nodeKey
+     * @param <N>
+     */
+    public static <N> void addToIndex(Graph graph, Node predicate, Set<Node> types, HierarchyIndex<N> index, Function<Node, N> nodeKey) {
+        ExtendedIterator<Triple> edges = graph.find(Node.ANY, predicate, Node.ANY);
+        try {
+            while (edges.hasNext()) {
+                Triple edge = edges.next();
+                index.addEdge(nodeKey.apply(edge.getSubject()), nodeKey.apply(edge.getObject()));
+            }
+        } finally {
+            edges.close();
+        }
+        for (Node type : types) {
+            for (Node typedNode : getSubjects(graph, type, RDF.type.asNode())) {
+                index.addTyped(nodeKey.apply(typedNode));
+            }
+        }
+    }
+
+    /**
+     * Parses a VALUES list of full URIs in angle brackets, such as AbstractOntologyRepository.TYPE_CLASS_VALUES, into nodes.
+     *
+     * @param typeValues
+     * @return Set<Node>
+     */
+    public static Set<Node> parseTypeValues(String typeValues) {
+        Set<Node> types = new LinkedHashSet<>();
+        for (String typeValue : typeValues.trim().split("\\s+")) {
+            types.add(NodeFactory.createURI(typeValue.substring(1, typeValue.length() - 1)));
+        }
+        return types;
+    }
+
+    /**
+     * Returns the local name of a URI as the localname() function of ARQ.
+     *
+     * @param uri
+     * @return String
+     */
+    public static String getLocalName(String uri) {
+        return NodeFactory.createURI(uri).getLocalName();
+    }
+
+    private static void addTermOfNode(Node node, Map<String, Term> uriToTerm, Set<Term> terms) {
+        if (node.isURI()) {
+            Term term = uriToTerm.get(node.getURI());
+            if (term != null) {
+                terms.add(term);
+            }
+        }
+    }
+
+    private static void addAll(ExtendedIterator<Triple> triples, Set<Triple> target) {
+        try {
+            while (triples.hasNext()) {
+                target.add(triples.next());
+            }
+        } finally {
+            triples.close();
+        }
+    }
+}
@@ -43,7 +43,7 @@ public class ExtractFeaturesElasticsearch extends CmdGeneral {
         getUsage().addUsage("hostname", "ElasticSearch hostname (e.g., localhost)");
         getUsage().addUsage("transportPort", "ElasticSearch transport port (e.g., 9300)");
         getUsage().addUsage("termIndexName", "Target ElasticSearch term index (e.g., terms)");
-        getUsage().addUsage("lov.nq", "Filename or URL of the LOV N-Quads dump");
+        getUsage().addUsage("lov.nq", "Filename or URL of the LOV N-Quads dump, or a corpus snapshot compiled from it (see compile-corpus-lov)");
         getUsage().addUsage("features", "List of features to extract, only excepts importance and no relevance features");
 
     }
@@ -0,0 +1,30 @@
+package experiment.configuration;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ExperimentConfigurationTest {
+
+    @Test
+    public void runFilesFollowResultDir() {
+        ExperimentConfiguration configuration = ExperimentConfiguration.getInstance();
+        String resultDir = configuration.getResultDir();
+        try {
+            configuration.setResultDir("src/main/resources/results/1565049600000/");
+            assertEquals("src/main/resources/results/1565049600000/extraction_journal.csv", configuration.getExtractionJournalFile());
+            assertEquals("src/main/resources/results/1565049600000/slow_queries.log", configuration.getSlowQueryJournalFile());
+            assertEquals("src/main/resources/results/1565049600000/query_metrics.json", configuration.getQueryMetricsFile());
+
+            // Files that are set explicitly do not follow the resultDir
+            configuration.setExtractionJournalFile("journal.csv");
+            configuration.setResultDir("src/main/resources/results/1565136000000/");
+            assertEquals("journal.csv", configuration.getExtractionJournalFile());
+            configuration.setExtractionJournalFile(null);
+            assertEquals("src/main/resources/results/1565136000000/extraction_journal.csv", configuration.getExtractionJournalFile());
+        } finally {
+            configuration.setExtractionJournalFile(null);
+            configuration.setResultDir(resultDir);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package experiment.feature.extraction;
 
+import com.google.common.collect.Table;
 import experiment.TestUtil;
 import experiment.configuration.ExperimentConfiguration;
 import experiment.feature.extraction.ontology.importance.PageRankVoaf;
@@ -11,18 +12,31 @@ import experiment.feature.scoring.TermStatsScorer;
 import experiment.feature.scoring.graph.BetweennessScorer;
 import experiment.feature.scoring.graph.HubDWRankScorer;
 import experiment.model.Ontology;
+import experiment.model.Relevance;
 import experiment.model.Term;
 import experiment.model.query.TermQuery;
+import experiment.model.query.enums.ExtractionType;
+import experiment.model.query.enums.QueryTimeoutPolicy;
+import experiment.repository.file.ExtractionJournal;
 import experiment.repository.file.FeatureSetScores;
+import experiment.repository.file.GroundTruthTermRanking;
 import experiment.repository.triplestore.AbstractOntologyMetadataRepository;
 import experiment.repository.triplestore.AbstractOntologyRepository;
+import experiment.repository.triplestore.connector.QueryTimeoutException;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.*;
 
@@ -31,6 +45,9 @@ public class FeatureExtractorTermsTest {
     AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
     AbstractOntologyMetadataRepository metadataRepository = ExperimentConfiguration.getInstance().getRepositoryMetadata();
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private static final Logger log = LoggerFactory.getLogger( FeatureExtractorTermsTest.class );
 
     @Before
@@ -79,4 +96,258 @@ public class FeatureExtractorTermsTest {
 
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void queryTimeoutPolicy() throws Exception {
+        FeatureExtractorTerms extractorTerms = new FeatureExtractorTerms();
+        TextRelevancy feature = new TextRelevancy(repository);
+        Pair<TermQuery, Term> pair = Pair.of(new TermQuery("person"), new Term("http://schema.org/Person"));
+        this.withConfiguration(configuration -> configuration.setQueryTimeoutPolicy(QueryTimeoutPolicy.SKIP), () -> {
+            FeatureSetScores<TermQuery, Term> scores = new FeatureSetScores<>(ExtractionType.TERM);
+            scores.addScore(pair, new HubDWRank(repository, new HubDWRankScorer(repository)), 1.0);
+            extractorTerms.addScore(scores, pair, feature, extractorTerms.computeScore("timeout", () -> {
+                throw new QueryTimeoutException("SELECT", 1, null);
+            }));
+            assertTrue(scores.getFeatureScores().isEmpty());
+            assertTrue(scores.getSkippedPairs().contains(pair));
+            scores.addScore(pair, feature, 1.0);
+            assertTrue(scores.getFeatureScores().isEmpty());
+            return null;
+        });
+        this.withConfiguration(configuration -> configuration.setQueryTimeoutPolicy(QueryTimeoutPolicy.SENTINEL), () -> {
+            FeatureSetScores<TermQuery, Term> scores = new FeatureSetScores<>(ExtractionType.TERM);
+            extractorTerms.addScore(scores, pair, feature, extractorTerms.computeScore("timeout", () -> {
+                throw new QueryTimeoutException("SELECT", 1, null);
+            }));
+            assertEquals(ExperimentConfiguration.getInstance().getQueryTimeoutSentinel(), scores.getFeatureScores().get(pair).get(feature), 0.0);
+            return null;
+        });
+        this.withConfiguration(configuration -> configuration.setQueryTimeoutPolicy(QueryTimeoutPolicy.RETRY), () -> {
+            int[] attempts = new int[1];
+            Optional<Double> score = extractorTerms.computeScore("timeout once", () -> {
+                if (attempts[0]++ == 0) {
+                    throw new QueryTimeoutException("SELECT", 1, null);
+                }
+                return 2.0;
+            });
+            assertEquals(2.0, score.get(), 0.0);
+            assertEquals(2, attempts[0]);
+            assertFalse(extractorTerms.computeScore("timeout always", () -> {
+                throw new QueryTimeoutException("SELECT", 1, null);
+            }).isPresent());
+            return null;
+        });
+    }
+
+    @Test
+    public void parallelExtraction() throws Exception {
+        GroundTruthTermRanking groundTruth = this.createGroundTruth();
+
+        List<Call> sequentialCalls = new ArrayList<>();
+        String sequential = this.extract(groundTruth, this.createFeatures(sequentialCalls), 1, false, false);
+        List<Call> parallelCalls = Collections.synchronizedList(new ArrayList<>());
+        String parallel = this.extract(groundTruth, this.createFeatures(parallelCalls), 4, false, false);
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, parallel);
+
+        // The cells are computed once on the extraction threads instead of the calling thread
+        assertEquals(sequentialCalls.size(), parallelCalls.size());
+        for (Call call : sequentialCalls) {
+            assertEquals(Thread.currentThread().getName(), call.thread);
+        }
+        for (Call call : parallelCalls) {
+            assertTrue(call.thread, call.thread.startsWith("extraction-"));
+        }
+    }
+
+    @Test
+    public void queryMajorExtraction() throws Exception {
+        GroundTruthTermRanking groundTruth = this.createGroundTruth();
+
+        List<Call> featureMajorCalls = new ArrayList<>();
+        String featureMajor = this.extract(groundTruth, this.createFeatures(featureMajorCalls), 1, false, false);
+        List<Call> queryMajorCalls = new ArrayList<>();
+        assertEquals(featureMajor, this.extract(groundTruth, this.createFeatures(queryMajorCalls), 1, true, false));
+        assertEquals(featureMajor, this.extract(groundTruth, this.createFeatures(Collections.synchronizedList(new ArrayList<>())), 4, true, false));
+
+        // Feature-major extraction computes each query once per relevance feature, query-major extraction computes all relevance features of a query together
+        assertEquals(2 * groundTruth.getGroundTruthTable().rowKeySet().size(), countQueryBlocks(featureMajorCalls));
+        assertEquals(groundTruth.getGroundTruthTable().rowKeySet().size(), countQueryBlocks(queryMajorCalls));
+        assertEquals(featureMajorCalls.size(), queryMajorCalls.size());
+    }
+
+    @Test
+    public void checkpointedExtraction() throws Exception {
+        GroundTruthTermRanking groundTruth = this.createGroundTruth();
+        List<Table.Cell<TermQuery, Term, Relevance>> cells = new ArrayList<>(groundTruth.getGroundTruthTable().cellSet());
+
+        String uncheckpointed = this.extract(groundTruth, this.createFeatures(new ArrayList<>()), 1, false, false);
+        assertEquals(uncheckpointed, this.extract(groundTruth, this.createFeatures(Collections.synchronizedList(new ArrayList<>())), 4, false, true));
+
+        // An interrupted run journaled the scores of the first relevance feature for the query person
+        String person = new TermQuery("person").getKey();
+        File directory = folder.newFolder();
+        List<Call> calls = new ArrayList<>();
+        List<AbstractFeature> features = this.createFeatures(calls);
+        this.withConfiguration(configuration -> configuration.setResultDir(directory.getPath() + File.separator), () -> {
+            ExtractionJournal journal = new ExtractionJournal(ExperimentConfiguration.getInstance().getExtractionJournalFile(), FeatureExtractorTerms.fingerprint(features, cells));
+            for (Table.Cell<TermQuery, Term, Relevance> cell : cells) {
+                if (cell.getRowKey().getKey().equals(person)) {
+                    journal.record(features.get(1).getFeatureName(), cell.getRowKey().getKey(), cell.getColumnKey().toString(), 42.0);
+                }
+            }
+            journal.close();
+            return null;
+        });
+        String resumed = this.extract(groundTruth, features, 1, false, true, directory);
+        assertNotEquals(uncheckpointed, resumed);
+        assertTrue(resumed.contains("42.0"));
+        assertFalse(new File(directory, "extraction_journal.csv").exists());
+
+        // The journaled cells are not computed again
+        int journaledCells = groundTruth.getGroundTruthTable().row(new TermQuery("person")).size();
+        for (Call call : calls) {
+            assertFalse(call.toString(), call.feature.equals(features.get(1).getFeatureName()) && call.query.equals(person));
+        }
+        assertEquals(2 * cells.size() - journaledCells, calls.size());
+    }
+
+    private GroundTruthTermRanking createGroundTruth() {
+        GroundTruthTermRanking groundTruth = new GroundTruthTermRanking();
+        for (String query : Arrays.asList("person", "address", "house")) {
+            for (String term : Arrays.asList("http://schema.org/Person", "http://schema.org/House", "http://schema.org/PostalAddress")) {
+                groundTruth.getGroundTruthTable().put(new TermQuery(query), new Term(term), new Relevance("1"));
+            }
+        }
+        return groundTruth;
+    }
+
+    /**
+     * Returns one importance and two relevance features of terms and one feature of each type of ontologies. The relevance features of terms record the cells
+     * they compute to the calls.
+     */
+    private List<AbstractFeature> createFeatures(List<Call> calls) {
+        return Arrays.asList(
+                new HubDWRank(repository, new HubDWRankScorer(repository)),
+                new RecordingTextRelevancy(repository, "Recording_Text_Relevancy_1_T", calls),
+                new RecordingTextRelevancy(repository, "Recording_Text_Relevancy_2_T", calls),
+                new PageRankVoaf(repository, metadataRepository),
+                new BetweennessMeasure(repository, new BetweennessScorer(repository)));
+    }
+
+    /**
+     * Extracts the scores of the features into a new result directory, and returns the file with all scores.
+     */
+    private String extract(GroundTruthTermRanking groundTruth, List<AbstractFeature> features, int threads, boolean queryMajor, boolean checkpoints) throws Exception {
+        return this.extract(groundTruth, features, threads, queryMajor, checkpoints, folder.newFolder());
+    }
+
+    /**
+     * Extracts the scores of the features with the given number of threads, extraction order and checkpoints into the result directory,
+     * and returns the file with all scores. The journal of checkpointed extractions is in the result directory.
+     */
+    private String extract(GroundTruthTermRanking groundTruth, List<AbstractFeature> features, int threads, boolean queryMajor, boolean checkpoints, File directory) throws Exception {
+        File allScoresFile = new File(directory, "TermRankingScores.csv");
+        return this.withConfiguration(configuration -> {
+            configuration.setResultDir(directory.getPath() + File.separator);
+            configuration.setAllScoresTermFile(allScoresFile.getPath());
+            configuration.setExtractionThreads(threads);
+            configuration.setQueryMajorExtraction(queryMajor);
+            configuration.setExtractionCheckpoints(checkpoints);
+        }, () -> {
+            FeatureExtractorTerms extractorTerms = new FeatureExtractorTerms();
+            for (AbstractFeature feature : features) {
+                extractorTerms.addFeature(feature);
+            }
+            extractorTerms.extract(groundTruth);
+            return new String(Files.readAllBytes(allScoresFile.toPath()), StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * Runs the action with the configuration changed by configure, and restores the changed configuration afterwards.
+     */
+    private <T> T withConfiguration(Consumer<ExperimentConfiguration> configure, Callable<T> action) throws Exception {
+        ExperimentConfiguration configuration = ExperimentConfiguration.getInstance();
+        String resultDir = configuration.getResultDir();
+        String allScoresTermFile = configuration.getAllScoresTermFile();
+        int extractionThreads = configuration.getExtractionThreads();
+        boolean queryMajorExtraction = configuration.isQueryMajorExtraction();
+        boolean extractionCheckpoints = configuration.isExtractionCheckpoints();
+        QueryTimeoutPolicy queryTimeoutPolicy = configuration.getQueryTimeoutPolicy();
+        try {
+            configure.accept(configuration);
+            return action.call();
+        } finally {
+            configuration.setResultDir(resultDir);
+            configuration.setAllScoresTermFile(allScoresTermFile);
+            configuration.setExtractionThreads(extractionThreads);
+            configuration.setQueryMajorExtraction(queryMajorExtraction);
+            configuration.setExtractionCheckpoints(extractionCheckpoints);
+            configuration.setQueryTimeoutPolicy(queryTimeoutPolicy);
+        }
+    }
+
+    /**
+     * Returns the number of blocks of consecutive calls for the same query.
+     */
+    private static int countQueryBlocks(List<Call> calls) {
+        int blocks = 0;
+        for (int i = 0; i < calls.size(); i++) {
+            if (i == 0 || !calls.get(i).query.equals(calls.get(i - 1).query)) {
+                blocks++;
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * A cell computed by a RecordingTextRelevancy.
+     */
+    private static class Call {
+
+        final String feature;
+
+        final String query;
+
+        final String thread;
+
+        Call(String feature, String query, String thread) {
+            this.feature = feature;
+            this.query = query;
+            this.thread = thread;
+        }
+
+        @Override
+        public String toString() {
+            return feature + " " + query + " " + thread;
+        }
+    }
+
+    /**
+     * Text relevance feature with another name that records the cells it computes.
+     */
+    private static class RecordingTextRelevancy extends TextRelevancy {
+
+        private final String featureName;
+
+        private final List<Call> calls;
+
+        RecordingTextRelevancy(AbstractOntologyRepository repository, String featureName, List<Call> calls) {
+            super(repository);
+            this.featureName = featureName;
+            this.calls = calls;
+        }
+
+        @Override
+        public double getScore(TermQuery query, Term term) {
+            this.calls.add(new Call(this.featureName, query.getKey(), Thread.currentThread().getName()));
+            return super.getScore(query, term);
+        }
+
+        @Override
+        public String getFeatureName() {
+            return this.featureName;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package experiment.feature.extraction;
+
+import experiment.feature.scoring.AbstractScorer;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class FeaturePlannerTest {
+
+    @Test
+    public void sharedScorersArePrecomputedOnce() {
+        List<String> log = Collections.synchronizedList(new ArrayList<>());
+        TestScorer graph = new TestScorer("graph", 1.0, log);
+        TestScorer stats = new TestScorer("stats", 2.0, log, graph);
+        List<AbstractFeature> features = Arrays.asList(new TestFeature("a", 1.0, stats), new TestFeature("b", 1.0, stats), new TestFeature("c", 1.0, graph));
+
+        FeaturePlanner planner = new FeaturePlanner(features);
+        assertEquals(Arrays.asList(graph, stats), planner.getScorers());
+
+        Map<Ontology, Set<Term>> ontologiesAndTerms = new LinkedHashMap<>();
+        ontologiesAndTerms.put(new Ontology("http://example.org/o1"), Collections.singleton(new Term("http://example.org/o1#t")));
+        ontologiesAndTerms.put(new Ontology("http://example.org/o2"), Collections.singleton(new Term("http://example.org/o2#t")));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            planner.precompute(ontologiesAndTerms, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(4, log.size());
+        for (String ontology : Arrays.asList("http://example.org/o1", "http://example.org/o2")) {
+            int graphIndex = log.indexOf("graph " + ontology);
+            int statsIndex = log.indexOf("stats " + ontology);
+            assertTrue(graphIndex >= 0);
+            assertTrue(statsIndex > graphIndex);
+        }
+    }
+
+    @Test
+    public void expensiveScorersAndFeaturesFirst() {
+        List<String> log = new ArrayList<>();
+        TestScorer cheap = new TestScorer("cheap", 1.0, log);
+        TestScorer expensive = new TestScorer("expensive", 10.0, log);
+        TestFeature a = new TestFeature("a", 1.0, cheap);
+        TestFeature b = new TestFeature("b", 5.0, expensive);
+        TestFeature c = new TestFeature("c", 1.0);
+        TestFeature d = new TestFeature("d", 5.0);
+
+        FeaturePlanner planner = new FeaturePlanner(Arrays.asList(a, b, c, d));
+        assertEquals(Arrays.asList(expensive, cheap), planner.getScorers());
+        assertEquals(Arrays.asList(b, d, a, c), planner.getSchedule());
+
+        planner.precompute(Collections.singletonMap(new Ontology("http://example.org/o"), Collections.emptySet()), Runnable::run);
+        assertEquals(Arrays.asList("expensive http://example.org/o", "cheap http://example.org/o"), log);
+    }
+
+    @Test
+    public void prerequisitesAndCostHintsFromScorers() {
+        TestScorer cheap = new TestScorer("cheap", 2.0, new ArrayList<>());
+        TestScorer expensive = new TestScorer("expensive", 10.0, new ArrayList<>());
+        AbstractFeature both = new ScorerFeature("both", cheap, expensive);
+        AbstractFeature none = new ScorerFeature("none");
+        assertEquals(Arrays.asList(cheap, expensive), both.getPrerequisites());
+        assertEquals(10.0, both.getCostHint(), 0.0);
+        assertTrue(none.getPrerequisites().isEmpty());
+        assertEquals(AbstractFeature.DEFAULT_COST_HINT, none.getCostHint(), 0.0);
+
+        FeaturePlanner planner = new FeaturePlanner(Arrays.asList(none, new ScorerFeature("cheap", cheap), both));
+        assertEquals(Arrays.asList(expensive, cheap), planner.getScorers());
+        assertEquals(Arrays.asList("both", "cheap", "none"), planner.getSchedule().stream().map(AbstractFeature::getFeatureName).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void failedPrecomputationIsIgnored() {
+        List<String> log = new ArrayList<>();
+        TestScorer failing = new TestScorer("failing", 1.0, log) {
+            @Override
+            public void precompute(Ontology ontology, Set<Term> terms) {
+                throw new IllegalStateException("failed");
+            }
+        };
+        TestScorer dependent = new TestScorer("dependent", 1.0, log, failing);
+
+        FeaturePlanner planner = new FeaturePlanner(Collections.singletonList(new TestFeature("a", 1.0, dependent)));
+        planner.precompute(Collections.singletonMap(new Ontology("http://example.org/o"), Collections.emptySet()), Runnable::run);
+        assertEquals(Collections.singletonList("dependent http://example.org/o"), log);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cyclicPrerequisites() {
+        TestScorer first = new TestScorer("first", 1.0, new ArrayList<>());
+        TestScorer second = new TestScorer("second", 1.0, new ArrayList<>(), first);
+        first.prerequisites.add(second);
+        new FeaturePlanner(Collections.singletonList(new TestFeature("a", 1.0, first)));
+    }
+
+    private static class TestScorer extends AbstractScorer {
+
+        final String name;
+
+        final double costHint;
+
+        final List<String> log;
+
+        final List<AbstractScorer> prerequisites;
+
+        TestScorer(String name, double costHint, List<String> log, AbstractScorer... prerequisites) {
+            this.name = name;
+            this.costHint = costHint;
+            this.log = log;
+            this.prerequisites = new ArrayList<>(Arrays.asList(prerequisites));
+        }
+
+        @Override
+        public void precompute(Ontology ontology, Set<Term> terms) {
+            this.log.add(this.name + " " + ontology.getOntologyUri());
+        }
+
+        @Override
+        public double getCostHint() {
+            return this.costHint;
+        }
+
+        @Override
+        public List<AbstractScorer> getPrerequisites() {
+            return this.prerequisites;
+        }
+    }
+
+    /**
+     * Feature that declares its scorers through the constructor, like the features created by FeatureFactory.
+     */
+    private static class ScorerFeature extends AbstractFeature {
+
+        final String name;
+
+        ScorerFeature(String name, AbstractScorer... prerequisites) {
+            super(null, prerequisites);
+            this.name = name;
+        }
+
+        @Override
+        public String getFeatureName() {
+            return this.name;
+        }
+    }
+
+    private static class TestFeature extends AbstractFeature {
+
+        final String name;
+
+        final double costHint;
+
+        final List<AbstractScorer> prerequisites;
+
+        TestFeature(String name, double costHint, AbstractScorer... prerequisites) {
+            super(null);
+            this.name = name;
+            this.costHint = costHint;
+            this.prerequisites = Arrays.asList(prerequisites);
+        }
+
+        @Override
+        public String getFeatureName() {
+            return this.name;
+        }
+
+        @Override
+        public double getCostHint() {
+            return this.costHint;
+        }
+
+        @Override
+        public List<AbstractScorer> getPrerequisites() {
+            return this.prerequisites;
+        }
+    }
+}
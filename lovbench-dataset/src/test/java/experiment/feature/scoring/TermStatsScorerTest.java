@@ -0,0 +1,59 @@
+package experiment.feature.scoring;
+
+import experiment.TestUtil;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class TermStatsScorerTest {
+
+    AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
+
+    Ontology schema = new Ontology("http://schema.org/");
+
+    Ontology vcard = new Ontology("http://www.w3.org/2006/vcard/ns");
+
+    @Before
+    public void setUp() throws Exception {
+        new TestUtil().setNqFileConfiguration();
+    }
+
+    @Test
+    public void prefetch() {
+        Set<Ontology> ontologies = new HashSet<>(Arrays.asList(schema, vcard));
+        TermStatsScorer prefetched = new TermStatsScorer(repository);
+        prefetched.prefetch(ontologies, Runnable::run);
+        assertTrue(prefetched.isPrefetched(schema));
+        assertTrue(prefetched.isPrefetched(vcard));
+        assertFalse(prefetched.isPrefetched(new Ontology("http://xmlns.com/foaf/0.1/")));
+
+        TermStatsScorer lazy = new TermStatsScorer(repository);
+        int countTerms = 0;
+        for (Ontology ontology : ontologies) {
+            for (Term term : repository.getAllTerms(ontology)) {
+                assertEquals(term.toString(), lazy.countSubclasses(term), prefetched.countSubclasses(term));
+                assertEquals(term.toString(), lazy.countSuperclasses(term), prefetched.countSuperclasses(term));
+                assertEquals(term.toString(), lazy.countSiblings(term), prefetched.countSiblings(term));
+                assertEquals(term.toString(), lazy.countRelations(term), prefetched.countRelations(term));
+                assertEquals(term.toString(), lazy.countSubproperties(term), prefetched.countSubproperties(term));
+                assertEquals(term.toString(), lazy.countSuperproperties(term), prefetched.countSuperproperties(term));
+                countTerms++;
+            }
+        }
+        assertTrue(countTerms > 0);
+
+        // Prefetching again does not recompute the ontologies
+        int countCached = prefetched.subclasses.size();
+        prefetched.prefetch(ontologies, Runnable::run);
+        assertEquals(countCached, prefetched.subclasses.size());
+    }
+}
@@ -0,0 +1,90 @@
+package experiment.feature.scoring.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BoundedComputeOnceCacheTest {
+
+    @Test
+    public void concurrentGets() throws InterruptedException {
+        BoundedComputeOnceCache<String, String> cache = new BoundedComputeOnceCache<>(4);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("a", key -> {
+            computations.incrementAndGet();
+            started.countDown();
+            await(release);
+            return key.toUpperCase();
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get("a", key -> {
+            computations.incrementAndGet();
+            return "computed again";
+        }));
+        // The second request waits for the running computation
+        Thread.sleep(50);
+        assertEquals(1, cache.countComputations());
+        release.countDown();
+        assertEquals("A", first.join());
+        assertEquals("A", second.join());
+
+        assertEquals(1, computations.get());
+        assertEquals(0, cache.countComputations());
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void eviction() {
+        BoundedComputeOnceCache<String, String> cache = new BoundedComputeOnceCache<>(1);
+        assertEquals("A", cache.get("a", String::toUpperCase));
+        assertEquals("B", cache.get("b", String::toUpperCase));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictions());
+
+        // An evicted value is computed and cached again
+        assertEquals("a", cache.get("a", key -> key));
+        assertEquals("a", cache.get("a", String::toUpperCase));
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.countComputations());
+        assertEquals(3, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void failuresAreNotCached() {
+        BoundedComputeOnceCache<String, String> cache = new BoundedComputeOnceCache<>(4);
+        try {
+            cache.get("a", key -> {
+                throw new IllegalArgumentException(key);
+            });
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("a", e.getMessage());
+        }
+        assertEquals(0, cache.countComputations());
+        assertEquals("A", cache.get("a", String::toUpperCase));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void recursiveComputation() {
+        BoundedComputeOnceCache<String, String> cache = new BoundedComputeOnceCache<>(4);
+        cache.get("a", key -> cache.get(key, String::toUpperCase));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
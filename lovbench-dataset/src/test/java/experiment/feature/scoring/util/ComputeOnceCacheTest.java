@@ -0,0 +1,119 @@
+package experiment.feature.scoring.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ComputeOnceCacheTest {
+
+    @Test
+    public void computeOnce() throws InterruptedException {
+        ComputeOnceCache<Integer, Integer> cache = new ComputeOnceCache<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> cache.get(1, key -> {
+                    computations.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return key * 10;
+                }), executor));
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            // The other threads wait for the running computation
+            Thread.sleep(50);
+            release.countDown();
+            for (CompletableFuture<Integer> result : results) {
+                assertEquals(10, (int) result.join());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, computations.get());
+        assertEquals(10, (int) cache.get(1, key -> -1));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void failuresAreNotCached() {
+        ComputeOnceCache<String, String> cache = new ComputeOnceCache<>();
+        try {
+            cache.get("a", key -> {
+                throw new IllegalArgumentException(key);
+            });
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("a", e.getMessage());
+        }
+        assertFalse(cache.contains("a"));
+        assertEquals("A", cache.get("a", String::toUpperCase));
+    }
+
+    @Test
+    public void waitingThreadsReceiveFailure() throws InterruptedException {
+        ComputeOnceCache<String, String> cache = new ComputeOnceCache<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("a", key -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("failed");
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get("a", key -> "computed again"));
+        Thread.sleep(50);
+        release.countDown();
+        try {
+            first.join();
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("failed", e.getCause().getMessage());
+        }
+        // The second request either waited for the failed computation or computed the value after it was removed
+        try {
+            assertEquals("computed again", second.join());
+        } catch (RuntimeException e) {
+            assertEquals("failed", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void putAndGetIfPresent() {
+        ComputeOnceCache<String, Double> cache = new ComputeOnceCache<>();
+        assertNull(cache.getIfPresent("a"));
+        cache.put("a", 1.5);
+        assertEquals(1.5, cache.getIfPresent("a"), 0.0);
+        assertEquals(1.5, cache.get("a", key -> 2.0), 0.0);
+        cache.remove("a");
+        assertEquals(2.0, cache.get("a", key -> 2.0), 0.0);
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void recursiveComputation() {
+        ComputeOnceCache<String, String> cache = new ComputeOnceCache<>();
+        cache.get("a", key -> cache.get("a", String::toUpperCase));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package experiment.feature.scoring.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class IdCacheTest {
+
+    @Test
+    public void computeOnce() {
+        IdIntCache cache = new IdIntCache();
+        AtomicInteger computations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Long>> sums = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                sums.add(CompletableFuture.supplyAsync(() -> {
+                    long sum = 0;
+                    for (int id = 0; id < 20000; id += 3) {
+                        sum += cache.computeIfAbsent(id, key -> {
+                            computations.incrementAndGet();
+                            return key * 2;
+                        });
+                    }
+                    return sum;
+                }, executor));
+            }
+            for (CompletableFuture<Long> sum : sums) {
+                assertEquals(sums.get(0).join(), sum.join());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Each ID is computed by one thread, the others wait for it or read the value
+        assertEquals(6667, computations.get());
+        assertEquals(6667, cache.size());
+        assertEquals(1200, cache.get(600));
+        assertFalse(cache.contains(601));
+        assertEquals(0, cache.get(601));
+    }
+
+    @Test
+    public void failuresAreNotCached() {
+        IdDoubleCache cache = new IdDoubleCache();
+        try {
+            cache.computeIfAbsent(5, id -> {
+                throw new IllegalArgumentException("failed");
+            });
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertFalse(cache.contains(5));
+        assertEquals(0.5, cache.computeIfAbsent(5, id -> 0.5), 0.0);
+        assertEquals(0.5, cache.computeIfAbsent(5, id -> 1.0), 0.0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void recursiveComputation() {
+        IdCache<String> cache = new IdCache<>();
+        cache.computeIfAbsent(1, id -> cache.computeIfAbsent(1, key -> "a"));
+    }
+}
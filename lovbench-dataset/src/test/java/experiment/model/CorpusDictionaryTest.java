@@ -0,0 +1,112 @@
+package experiment.model;
+
+import experiment.TestUtil;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.feature.scoring.util.IdCache;
+import experiment.feature.scoring.util.IdDoubleCache;
+import experiment.feature.scoring.util.IdIntMap;
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CorpusDictionaryTest {
+
+    AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
+
+    @Before
+    public void setUp() throws Exception {
+        new TestUtil().setNqFileConfiguration();
+    }
+
+    @Test
+    public void ids() {
+        CorpusDictionary dictionary = CorpusDictionary.getInstance();
+        dictionary.register(repository);
+        int termCount = dictionary.countTerms();
+        int ontologyCount = dictionary.countOntologies();
+        assertTrue(termCount > 0);
+        assertTrue(ontologyCount >= repository.countOntologies());
+
+        // Registering again does not assign new IDs
+        dictionary.register(repository);
+        assertEquals(termCount, dictionary.countTerms());
+        assertEquals(ontologyCount, dictionary.countOntologies());
+
+        Term term = new Term("http://www.w3.org/2006/vcard/ns#Individual");
+        assertEquals(term.getId(), new Term("http://www.w3.org/2006/vcard/ns#Individual").getId());
+        assertEquals(term.getTermUri(), dictionary.getTermUri(term.getId()));
+        assertNotEquals(term.getId(), new Term("http://www.w3.org/2006/vcard/ns#Organization").getId());
+
+        Ontology ontology = new Ontology("http://www.w3.org/2006/vcard/ns");
+        assertEquals(ontology, term.getOntologyOfTerm());
+        assertEquals(ontology.getOntologyUri(), dictionary.getOntologyUri(ontology.getId()));
+    }
+
+    @Test
+    public void interning() {
+        CorpusDictionary dictionary = CorpusDictionary.getInstance();
+        Term term = dictionary.getTerm("http://schema.org/Person");
+        assertSame(term, dictionary.getTerm("http://schema.org/Person"));
+        assertEquals(new Term("http://schema.org/Person"), term);
+        assertSame(dictionary.getOntology("http://schema.org/"), dictionary.getOntology("http://schema.org/"));
+        assertSame(term.getOntologyOfTerm(), dictionary.getOntology(term.getOntologyUriOfTerm()));
+
+        // Prefixed and full URIs give the same term
+        assertSame(dictionary.getTerm("foaf:Person"), dictionary.getTerm("http://xmlns.com/foaf/0.1/Person"));
+        assertSame(dictionary.getTerm("http://xmlns.com/foaf/0.1/Agent"), dictionary.getTerm("foaf:Agent"));
+    }
+
+    @Test
+    public void equalityAfterUriChange() {
+        Term term = new Term("http://schema.org/Person");
+        term.setTermUri("http://schema.org/Place");
+        assertEquals(new Term("http://schema.org/Place"), term);
+        assertNotEquals(new Term("http://schema.org/Person"), term);
+    }
+
+    @Test
+    public void equalityById() {
+        CorpusDictionary dictionary = CorpusDictionary.getInstance();
+        int termCount = dictionary.countTerms();
+        Term term = new Term("http://example.org/unseen#Term");
+        assertEquals(new Term("http://example.org/unseen#Term"), term);
+        assertEquals(term.getId(), term.hashCode());
+        assertEquals(new Term("http://example.org/unseen#Term").hashCode(), term.hashCode());
+        assertNotEquals(new Term("http://example.org/unseen#Other"), term);
+        assertEquals(new Ontology("http://example.org/unseen"), new Ontology("http://example.org/unseen"));
+        // Comparing assigns the IDs of terms that are not interned
+        assertEquals(termCount + 2, dictionary.countTerms());
+
+        // A term that is not interned equals the canonical one
+        assertEquals(dictionary.getTerm("http://example.org/unseen#Term"), term);
+        assertEquals(dictionary.getOntology("http://example.org/unseen").hashCode(), new Ontology("http://example.org/unseen").hashCode());
+    }
+
+    @Test
+    public void idCaches() {
+        IdDoubleCache doubleCache = new IdDoubleCache();
+        assertFalse(doubleCache.contains(1000));
+        doubleCache.put(1000, 0.0);
+        assertTrue(doubleCache.contains(1000));
+        assertFalse(doubleCache.contains(999));
+        doubleCache.put(3, 2.5);
+        assertEquals(2.5, doubleCache.get(3), 0.0);
+        assertEquals(2, doubleCache.size());
+
+        IdCache<String> cache = new IdCache<>();
+        assertEquals("a", cache.computeIfAbsent(200, id -> "a"));
+        assertEquals("a", cache.computeIfAbsent(200, id -> "b"));
+        assertNull(cache.get(5000));
+        assertEquals(1, cache.size());
+
+        IdIntMap map = new IdIntMap(new int[]{70000, 5, 300}, new int[]{1, 2, 3});
+        assertTrue(map.contains(5));
+        assertFalse(map.contains(6));
+        assertEquals(1, map.get(70000));
+        assertEquals(3, map.get(300));
+        assertEquals(0, map.get(6));
+        assertEquals(3, map.size());
+    }
+}
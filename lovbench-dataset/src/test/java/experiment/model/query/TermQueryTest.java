@@ -0,0 +1,33 @@
+package experiment.model.query;
+
+import experiment.model.query.enums.TypeFilter;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TermQueryTest {
+
+    @Test
+    public void keyIncludesFilters() {
+        TermQuery query = new TermQuery("person name");
+        assertEquals("person name//////", query.getKey());
+
+        TermQuery classQuery = new TermQuery("person name");
+        classQuery.setFilterTypes(TypeFilter.CLASS);
+        classQuery.setFilterTags("People");
+        classQuery.setFilterVocs("foaf");
+        assertEquals("person name//class//People//foaf", classQuery.getKey());
+
+        // Queries that differ only in their filters have the same string representation but different keys
+        assertNotEquals(query, classQuery);
+        assertEquals(query.toString(), classQuery.toString());
+        assertNotEquals(query.getKey(), classQuery.getKey());
+
+        TermQuery equalQuery = new TermQuery("person name");
+        equalQuery.setFilterTypes(TypeFilter.CLASS);
+        equalQuery.setFilterTags("People");
+        equalQuery.setFilterVocs("foaf");
+        assertEquals(classQuery, equalQuery);
+        assertEquals(classQuery.getKey(), equalQuery.getKey());
+    }
+}
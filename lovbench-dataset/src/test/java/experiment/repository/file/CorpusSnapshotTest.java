@@ -0,0 +1,125 @@
+package experiment.repository.file;
+
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.rdf.model.Model;
+import experiment.TestUtil;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.repository.triplestore.connector.JenaConnector;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+public class CorpusSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    String nqFile = getClass().getClassLoader().getResource("lov.nq").getFile();
+
+    @Before
+    public void setUp() throws Exception {
+        new TestUtil().setNqFileConfiguration();
+    }
+
+    @Test
+    public void compileAndLoad() throws Exception {
+        String snapshotFile = new File(folder.getRoot(), "lov.snapshot").getPath();
+        Dataset dataset = ((JenaConnector) ExperimentConfiguration.getInstance().getRepository().getConnector()).getDataset();
+        CorpusSnapshot.write(dataset, snapshotFile, ExperimentConfiguration.getInstance().getLOVgraph());
+
+        assertTrue(CorpusSnapshot.isSnapshot(snapshotFile));
+        assertFalse(CorpusSnapshot.isSnapshot(nqFile));
+
+        Dataset loaded = CorpusSnapshot.load(snapshotFile);
+        assertTrue(dataset.getDefaultModel().isIsomorphicWith(loaded.getDefaultModel()));
+        int graphCount = 0;
+        Iterator<String> names = dataset.listNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            assertTrue(name, loaded.containsNamedModel(name));
+            Model model = dataset.getNamedModel(name);
+            Model loadedModel = loaded.getNamedModel(name);
+            assertEquals(name, model.size(), loadedModel.size());
+            assertTrue(name, model.isIsomorphicWith(loadedModel));
+            graphCount++;
+        }
+        Iterator<String> loadedNames = loaded.listNames();
+        while (loadedNames.hasNext()) {
+            loadedNames.next();
+            graphCount--;
+        }
+        assertEquals(0, graphCount);
+    }
+
+    @Test
+    public void loadWithoutGraph() throws Exception {
+        String snapshotFile = new File(folder.getRoot(), "lov.snapshot").getPath();
+        CorpusSnapshot.compile(nqFile, snapshotFile, ExperimentConfiguration.getInstance().getLOVgraph());
+
+        String lovGraph = ExperimentConfiguration.getInstance().getLOVgraph();
+        Dataset dataset = CorpusSnapshot.load(snapshotFile);
+        Dataset ontologies = CorpusSnapshot.load(snapshotFile, Collections.singleton(lovGraph));
+        assertTrue(dataset.containsNamedModel(lovGraph));
+        assertFalse(ontologies.containsNamedModel(lovGraph));
+        Iterator<String> names = dataset.listNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!name.equals(lovGraph)) {
+                assertTrue(name, ontologies.getNamedModel(name).isIsomorphicWith(dataset.getNamedModel(name)));
+            }
+        }
+    }
+
+    @Test
+    public void sharedDataset() throws Exception {
+        assertSame(new JenaConnector(nqFile).getDataset(), new JenaConnector(nqFile).getDataset());
+
+        // The ontology repository leaves the LOV graph out without removing it from the shared dataset
+        String lovGraph = ExperimentConfiguration.getInstance().getLOVgraph();
+        assertFalse(((JenaConnector) ExperimentConfiguration.getInstance().getRepository().getConnector()).getDataset().containsNamedModel(lovGraph));
+        assertTrue(((JenaConnector) ExperimentConfiguration.getInstance().getRepositoryMetadata().getConnector()).getDataset().containsNamedModel(lovGraph));
+        assertTrue(new JenaConnector(nqFile).getDataset().containsNamedModel(lovGraph));
+
+        String snapshotFile = new File(folder.getRoot(), "lov.snapshot").getPath();
+        CorpusSnapshot.compile(nqFile, snapshotFile, ExperimentConfiguration.getInstance().getLOVgraph());
+        JenaConnector snapshotConnector = new JenaConnector(snapshotFile);
+        String sparql = "SELECT (COUNT(DISTINCT ?g) AS ?graphs) WHERE { GRAPH ?g { ?s ?p ?o } }";
+        assertEquals(new JenaConnector(nqFile).selectQuery(sparql).get(0).getValue("graphs").stringValue(), snapshotConnector.selectQuery(sparql).get(0).getValue("graphs").stringValue());
+        JenaConnector.releaseDataset(snapshotFile);
+    }
+
+    @Test
+    public void closeReleasesDataset() throws Exception {
+        String snapshotFile = new File(folder.getRoot(), "lov.snapshot").getPath();
+        CorpusSnapshot.compile(nqFile, snapshotFile, ExperimentConfiguration.getInstance().getLOVgraph());
+        int loadedDatasets = JenaConnector.countLoadedDatasets();
+
+        JenaConnector first = new JenaConnector(snapshotFile);
+        JenaConnector second = new JenaConnector(snapshotFile);
+        assertSame(first.getDataset(), second.getDataset());
+        assertEquals(loadedDatasets + 1, JenaConnector.countLoadedDatasets());
+
+        // The dataset stays loaded while a connector on it is open
+        first.close();
+        first.close();
+        assertEquals(loadedDatasets + 1, JenaConnector.countLoadedDatasets());
+        assertSame(second.getDataset(), new JenaConnector(snapshotFile).getDataset());
+
+        JenaConnector.releaseDataset(snapshotFile);
+        assertEquals(loadedDatasets, JenaConnector.countLoadedDatasets());
+        JenaConnector third = new JenaConnector(snapshotFile);
+        assertNotSame(second.getDataset(), third.getDataset());
+        // Closing a connector on the dropped dataset does not release the reloaded one
+        second.close();
+        assertEquals(loadedDatasets + 1, JenaConnector.countLoadedDatasets());
+        third.close();
+        assertEquals(loadedDatasets, JenaConnector.countLoadedDatasets());
+    }
+}
@@ -0,0 +1,118 @@
+package experiment.repository.file;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+public class ExtractionJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void resume() throws IOException {
+        File file = new File(folder.getRoot(), "journal.csv");
+        ExtractionJournal journal = new ExtractionJournal(file.getPath(), "run");
+        journal.record("TF_T", "person", "http://schema.org/Person", 0.25);
+        journal.record("TF_T", "person name", "http://schema.org/name", 1.0 / 3);
+        assertEquals(0.25, journal.getScore("TF_T", "person", "http://schema.org/Person"), 0);
+        journal.close();
+
+        ExtractionJournal resumed = new ExtractionJournal(file.getPath(), "run");
+        assertEquals(2, resumed.size());
+        assertEquals(0.25, resumed.getScore("TF_T", "person", "http://schema.org/Person"), 0);
+        assertEquals(1.0 / 3, resumed.getScore("TF_T", "person name", "http://schema.org/name"), 0);
+        assertNull(resumed.getScore("TF_T", "person", "http://schema.org/name"));
+        assertNull(resumed.getScore("IDF_T", "person", "http://schema.org/Person"));
+        resumed.close();
+    }
+
+    @Test
+    public void incompleteRowIsIgnored() throws IOException {
+        File file = new File(folder.getRoot(), "journal.csv");
+        ExtractionJournal journal = new ExtractionJournal(file.getPath(), "run");
+        journal.record("TF_T", "person", "http://schema.org/Person", 0.25);
+        journal.close();
+        // A run that was killed while writing a row
+        Files.write(file.toPath(), "\"TF_T\",\"person\",\"http://schema.org/name\",\"0.".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        ExtractionJournal resumed = new ExtractionJournal(file.getPath(), "run");
+        assertEquals(1, resumed.size());
+        resumed.record("TF_T", "person", "http://schema.org/name", 0.5);
+        resumed.close();
+
+        ExtractionJournal resumedAgain = new ExtractionJournal(file.getPath(), "run");
+        assertEquals(0.5, resumedAgain.getScore("TF_T", "person", "http://schema.org/name"), 0);
+        resumedAgain.close();
+    }
+
+    @Test
+    public void flush() throws IOException {
+        File file = new File(folder.getRoot(), "journal.csv");
+        ExtractionJournal journal = new ExtractionJournal(file.getPath(), "run");
+        journal.record("TF_T", "person//class//", "http://schema.org/Person", 0.25);
+        journal.flush();
+
+        // The flushed scores are read by a run that starts while the journal is still open, e.g. after a crash
+        ExtractionJournal resumed = new ExtractionJournal(file.getPath(), "run");
+        assertEquals(0.25, resumed.getScore("TF_T", "person//class//", "http://schema.org/Person"), 0);
+        assertNull(resumed.getScore("TF_T", "person", "http://schema.org/Person"));
+        resumed.close();
+        journal.close();
+    }
+
+    @Test
+    public void flushOnTimer() throws IOException, InterruptedException {
+        File file = new File(folder.getRoot(), "journal.csv");
+        ExtractionJournal journal = new ExtractionJournal(file.getPath(), "run");
+        journal.record("TF_T", "person", "http://schema.org/Person", 0.25);
+        Thread.sleep(3 * ExtractionJournal.FLUSH_INTERVAL);
+
+        // The score is on the disk without an explicit flush
+        ExtractionJournal resumed = new ExtractionJournal(file.getPath(), "run");
+        assertEquals(0.25, resumed.getScore("TF_T", "person", "http://schema.org/Person"), 0);
+        resumed.close();
+        journal.close();
+    }
+
+    @Test
+    public void otherRun() throws IOException {
+        File file = new File(folder.getRoot(), "journal.csv");
+        ExtractionJournal journal = new ExtractionJournal(file.getPath(), "run");
+        journal.record("TF_T", "person", "http://schema.org/Person", 0.25);
+        journal.close();
+
+        try {
+            new ExtractionJournal(file.getPath(), "other run");
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("other run"));
+        }
+        // The journal is kept
+        ExtractionJournal resumed = new ExtractionJournal(file.getPath(), "run");
+        assertEquals(1, resumed.size());
+        resumed.close();
+    }
+
+    @Test
+    public void delete() throws IOException {
+        File file = new File(folder.getRoot(), "journal.csv");
+        ExtractionJournal journal = new ExtractionJournal(file.getPath(), "run");
+        journal.record("TF_T", "person", "http://schema.org/Person", 0.25);
+        assertTrue(file.exists());
+        journal.delete();
+        assertFalse(file.exists());
+
+        ExtractionJournal newJournal = new ExtractionJournal(file.getPath(), "run");
+        assertEquals(0, newJournal.size());
+        newJournal.close();
+    }
+}
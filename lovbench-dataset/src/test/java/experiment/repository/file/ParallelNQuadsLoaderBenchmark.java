@@ -0,0 +1,43 @@
+package experiment.repository.file;
+
+import com.hp.hpl.jena.query.Dataset;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+
+/**
+ * Compares the load time of ParallelNQuadsLoader with RDFDataMgr.loadDataset.
+ *
+ * Run with the path of an N-Quads dump (e.g. 2019-08-06_lov-fix.nq) and optionally the number of runs;
+ * without arguments, the test corpus is used.
+ */
+public class ParallelNQuadsLoaderBenchmark {
+
+    public static void main(String[] args) {
+        String nqFile = args.length > 0 ? args[0] : ParallelNQuadsLoaderBenchmark.class.getClassLoader().getResource("lov.nq").getFile();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        // Warm up both loaders once
+        RDFDataMgr.loadDataset(nqFile, Lang.NQUADS);
+        new ParallelNQuadsLoader().load(nqFile);
+
+        long riotTime = 0;
+        long parallelTime = 0;
+        for (int i = 0; i < runs; i++) {
+            long start = System.currentTimeMillis();
+            Dataset riotDataset = RDFDataMgr.loadDataset(nqFile, Lang.NQUADS);
+            riotTime += System.currentTimeMillis() - start;
+
+            start = System.currentTimeMillis();
+            Dataset parallelDataset = new ParallelNQuadsLoader().load(nqFile);
+            parallelTime += System.currentTimeMillis() - start;
+
+            if (riotDataset.getDefaultModel().size() != parallelDataset.getDefaultModel().size()) {
+                throw new IllegalStateException("Default graphs differ in size");
+            }
+        }
+        System.out.println(String.format("File: %s, runs: %s, threads: %s", nqFile, runs, Runtime.getRuntime().availableProcessors()));
+        System.out.println(String.format("RDFDataMgr.loadDataset: %s ms per run", riotTime / runs));
+        System.out.println(String.format("ParallelNQuadsLoader: %s ms per run", parallelTime / runs));
+        System.out.println(String.format("Speedup: %.2f", (double) riotTime / Math.max(parallelTime, 1)));
+    }
+}
@@ -0,0 +1,69 @@
+package experiment.repository.file;
+
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.rdf.model.Model;
+import experiment.configuration.ExperimentConfiguration;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.junit.Test;
+
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParallelNQuadsLoaderTest {
+
+    String nqFile = getClass().getClassLoader().getResource("lov.nq").getFile();
+
+    String lovGraph = ExperimentConfiguration.getInstance().getLOVgraph();
+
+    @Test
+    public void splitIntoChunks() throws Exception {
+        try (RandomAccessFile file = new RandomAccessFile(nqFile, "r"); FileChannel channel = file.getChannel()) {
+            List<long[]> chunks = new ParallelNQuadsLoader(2, 4096).splitIntoChunks(channel);
+            assertTrue(chunks.size() > 1);
+            assertEquals(0, chunks.get(0)[0]);
+            assertEquals(channel.size(), chunks.get(chunks.size() - 1)[1]);
+            for (int i = 1; i < chunks.size(); i++) {
+                assertEquals(chunks.get(i - 1)[1], chunks.get(i)[0]);
+            }
+        }
+    }
+
+    @Test
+    public void sameDatasetAsRiot() {
+        Dataset expected = RDFDataMgr.loadDataset(nqFile, Lang.NQUADS);
+        Dataset loaded = new ParallelNQuadsLoader(4, 4096).load(nqFile);
+
+        assertTrue(expected.getDefaultModel().isIsomorphicWith(loaded.getDefaultModel()));
+        int graphCount = 0;
+        Iterator<String> names = expected.listNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            assertTrue(name, loaded.containsNamedModel(name));
+            Model model = expected.getNamedModel(name);
+            Model loadedModel = loaded.getNamedModel(name);
+            assertEquals(name, model.size(), loadedModel.size());
+            assertTrue(name, model.isIsomorphicWith(loadedModel));
+            graphCount++;
+        }
+        Iterator<String> loadedNames = loaded.listNames();
+        while (loadedNames.hasNext()) {
+            loadedNames.next();
+            graphCount--;
+        }
+        assertEquals(0, graphCount);
+    }
+
+    @Test
+    public void excludeGraph() {
+        Dataset loaded = new ParallelNQuadsLoader(4, 4096).load(nqFile, Collections.singleton(lovGraph));
+        assertTrue(RDFDataMgr.loadDataset(nqFile, Lang.NQUADS).containsNamedModel(lovGraph));
+        assertFalse(loaded.containsNamedModel(lovGraph));
+        assertTrue(loaded.listNames().hasNext());
+    }
+}
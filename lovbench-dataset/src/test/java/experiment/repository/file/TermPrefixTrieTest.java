@@ -0,0 +1,74 @@
+package experiment.repository.file;
+
+import experiment.TestUtil;
+import experiment.model.Prefix;
+import experiment.model.Term;
+import experiment.model.Ontology;
+import experiment.configuration.ExperimentConfiguration;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TermPrefixTrieTest {
+
+    @Test
+    public void getMatch() {
+        TermPrefixTrie trie = new TermPrefixTrie();
+        Prefix dc = new Prefix("dc", "http://purl.org/dc/elements/1.1/", "http://purl.org/dc/elements/1.1/", "");
+        Prefix dcterms = new Prefix("dcterms", "http://purl.org/dc/terms/", "http://purl.org/dc/terms/", "");
+        Prefix schema = new Prefix("schema", "http://schema.org/", "http://schema.org/", "https://schema.org/");
+        trie.add(dc);
+        trie.add(dcterms);
+        trie.add(schema);
+
+        assertSame(dcterms, trie.getMatch("http://purl.org/dc/terms/title").getPrefix());
+        assertSame(dc, trie.getMatch("http://purl.org/dc/elements/1.1/title").getPrefix());
+        assertFalse(trie.getMatch("http://schema.org/Person").isAlternative());
+        assertTrue(trie.getMatch("https://schema.org/Person").isAlternative());
+        assertSame(schema, trie.getMatch("https://schema.org/Person").getPrefix());
+        assertNull(trie.getMatch("http://purl.org/dc/"));
+        assertNull(trie.getMatch("http://example.org/Thing"));
+    }
+
+    @Test
+    public void longestOntologyUriWins() {
+        TermPrefixTrie trie = new TermPrefixTrie();
+        Prefix outer = new Prefix("outer", "http://example.org/", "http://example.org/", "");
+        Prefix inner = new Prefix("inner", "http://example.org/inner", "http://example.org/inner#", "");
+        trie.add(outer);
+        trie.add(inner);
+
+        assertSame(inner, trie.getMatch("http://example.org/inner#Thing").getPrefix());
+        assertSame(outer, trie.getMatch("http://example.org/other#Thing").getPrefix());
+    }
+
+    @Test
+    public void parityWithLinearScan() {
+        new TestUtil().setNqFileConfiguration();
+        LOVPrefixes prefixes = LOVPrefixes.getInstance();
+        for (Ontology ontology : ExperimentConfiguration.getInstance().getRepository().getAllOntologies()) {
+            for (Term term : ExperimentConfiguration.getInstance().getRepository().getAllTerms(ontology)) {
+                assertEquals(term.getTermUri(), this.linearScan(prefixes, term.getTermUri()), prefixes.getOntologyUriOfTermUri(term.getTermUri()));
+            }
+        }
+    }
+
+    /**
+     * The lookup the trie replaces.
+     */
+    private String linearScan(LOVPrefixes prefixes, String termUri) {
+        String ontologyUri = "";
+        for (Map.Entry<String, Prefix> ontologyUri2prefix : prefixes.ontologyUri2prefixes.entrySet()) {
+            if ((termUri.startsWith(ontologyUri2prefix.getValue().getTermPrefix()) || (!ontologyUri2prefix.getValue().getAlternativeTermPrefix().isEmpty() && termUri.startsWith(ontologyUri2prefix.getValue().getAlternativeTermPrefix())))
+                    && (ontologyUri.equals("") || ontologyUri2prefix.getKey().length() > ontologyUri.length())) {
+                ontologyUri = ontologyUri2prefix.getKey();
+            }
+        }
+        if (ontologyUri.isEmpty()) {
+            ontologyUri = termUri.substring(0, Math.max(termUri.lastIndexOf('/'), termUri.lastIndexOf('#')));
+        }
+        return ontologyUri;
+    }
+}
@@ -0,0 +1,208 @@
+package experiment.repository.triplestore;
+
+import experiment.TestUtil;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.feature.extraction.ontology.relevance.BetweennessMeasure;
+import experiment.feature.extraction.ontology.relevance.TFIDFOntology;
+import experiment.feature.extraction.term.importance.Siblings;
+import experiment.feature.extraction.term.importance.Subclasses;
+import experiment.feature.scoring.graph.BetweennessScorer;
+import experiment.feature.scoring.TFIDFScorer;
+import experiment.feature.scoring.TermStatsScorer;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import experiment.model.query.TermQuery;
+import experiment.model.query.enums.TermType;
+import experiment.repository.triplestore.connector.JenaConnector;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LOVGraphRepositoryTest {
+
+    AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
+
+    LOVGraphRepository graphRepository;
+
+    Ontology vcard = new Ontology("http://www.w3.org/2006/vcard/ns");
+
+    Ontology schema = new Ontology("http://schema.org/");
+
+    private static final Logger log = LoggerFactory.getLogger( LOVGraphRepositoryTest.class );
+
+    @Before
+    public void setUp() throws Exception {
+        new TestUtil().setNqFileConfiguration();
+        graphRepository = new LOVGraphRepository((JenaConnector) repository.getConnector());
+    }
+
+    @Test
+    public void configuredGraphRepository() {
+        int loadedDatasets = JenaConnector.countLoadedDatasets();
+        ExperimentConfiguration.getInstance().setGraphRepository(true);
+        try {
+            AbstractOntologyRepository configuredRepository = ExperimentConfiguration.getInstance().getRepository();
+            assertTrue(configuredRepository instanceof LOVGraphRepository);
+            // The LOV graph is not loaded for the ontology repository
+            assertFalse(((JenaConnector) configuredRepository.getConnector()).getDataset().containsNamedModel(ExperimentConfiguration.getInstance().getLOVgraph()));
+            assertEquals(loadedDatasets + 1, JenaConnector.countLoadedDatasets());
+            assertEquals(repository.countOntologies(), configuredRepository.countOntologies());
+            assertEquals(repository.getAllTerms(vcard), configuredRepository.getAllTerms(vcard));
+        } finally {
+            ExperimentConfiguration.getInstance().setGraphRepository(false);
+        }
+        assertSame(repository, ExperimentConfiguration.getInstance().getRepository());
+        assertEquals(loadedDatasets, JenaConnector.countLoadedDatasets());
+    }
+
+    @Test
+    public void configuredPartitions() {
+        ExperimentConfiguration.getInstance().setGraphRepository(true);
+        try {
+            // Requests on the configured repository are answered on the partition of each ontology
+            LOVGraphRepository configuredRepository = (LOVGraphRepository) ExperimentConfiguration.getInstance().getRepository();
+            assertEquals(repository.countOntologies(), configuredRepository.getPartitions().countPartitions());
+            assertEquals(repository.getAllOntologies(), configuredRepository.getPartitions().getOntologies());
+            assertEquals(repository.ontologySize(schema), configuredRepository.getPartitions().getPartition(schema).size() * 3);
+            assertEquals(repository.ontologySize(schema), configuredRepository.ontologySize(schema));
+            assertEquals(repository.countSubClasses(new Term("http://schema.org/Person"), schema), configuredRepository.countSubClasses(new Term("http://schema.org/Person"), schema));
+            assertEquals(new HashSet<>(repository.getOntologyGraphTriples(vcard)), new HashSet<>(configuredRepository.getOntologyGraphTriples(vcard)));
+
+            // Requests across ontologies fan out over the partitions
+            TermQuery query = new TermQuery("person");
+            assertEquals(repository.getOntologyQueryMatch(query), configuredRepository.getOntologyQueryMatch(query));
+            assertEquals(repository.countOntologiesContainingTerm(new Term("http://schema.org/Person")), configuredRepository.countOntologiesContainingTerm(new Term("http://schema.org/Person")));
+        } finally {
+            ExperimentConfiguration.getInstance().setGraphRepository(false);
+        }
+    }
+
+    @Test
+    public void countOntologies() {
+        assertEquals(repository.countOntologies(), graphRepository.countOntologies());
+        assertEquals(repository.getAllOntologies(), graphRepository.getAllOntologies());
+    }
+
+    @Test
+    public void getAllTerms() {
+        for (Ontology ontology : repository.getAllOntologies()) {
+            assertEquals(repository.getAllTerms(ontology), graphRepository.getAllTerms(ontology));
+            assertEquals(repository.getAllTerms(ontology, TermType.CLASS), graphRepository.getAllTerms(ontology, TermType.CLASS));
+            assertEquals(repository.getPropertyCount(ontology), graphRepository.getPropertyCount(ontology));
+            assertEquals(repository.getClassCount(ontology), graphRepository.getClassCount(ontology));
+        }
+    }
+
+    @Test
+    public void termFrequencies() {
+        Ontology ontology = new Ontology("http://mex.aksw.org/mex-perf");
+        assertEquals(repository.termFrequencies(ontology), graphRepository.termFrequencies(ontology));
+        assertEquals(repository.ontologySize(ontology), graphRepository.ontologySize(ontology));
+        for (Term term : repository.getAllTerms(ontology)) {
+            assertEquals(repository.termFrequency(term, ontology), graphRepository.termFrequency(term, ontology));
+            assertEquals(repository.countOntologiesContainingTerm(term), graphRepository.countOntologiesContainingTerm(term));
+        }
+    }
+
+    @Test
+    public void termStats() {
+        for (Term term : repository.getAllTerms(vcard)) {
+            log.debug(term.getTermUri());
+            assertEquals(repository.countSubClasses(term, vcard), graphRepository.countSubClasses(term, vcard));
+            assertEquals(repository.countSuperClasses(term, vcard), graphRepository.countSuperClasses(term, vcard));
+            assertEquals(repository.countSiblings(term, vcard), graphRepository.countSiblings(term, vcard));
+            assertEquals(repository.countRelations(term, vcard), graphRepository.countRelations(term, vcard));
+            assertEquals(repository.countSubProperties(term, vcard), graphRepository.countSubProperties(term, vcard));
+            assertEquals(repository.countSuperProperties(term, vcard), graphRepository.countSuperProperties(term, vcard));
+        }
+        assertEquals(repository.countRelations(vcard), graphRepository.countRelations(vcard));
+        assertEquals(repository.countRelations(schema), graphRepository.countRelations(schema));
+    }
+
+    @Test
+    public void getOntologyGraphTriples() {
+        assertEquals(new HashSet<>(repository.getOntologyGraphTriples(vcard)), new HashSet<>(graphRepository.getOntologyGraphTriples(vcard)));
+        assertEquals(new HashSet<>(repository.getOntologyGraphTriples(schema, true)), new HashSet<>(graphRepository.getOntologyGraphTriples(schema, true)));
+    }
+
+    @Test
+    public void getOwlImports() {
+        assertEquals(repository.getOwlImports(), graphRepository.getOwlImports());
+        assertEquals(repository.getOwlImports(null, true), graphRepository.getOwlImports(null, true));
+    }
+
+    @Test
+    public void getTermQueryMatch() {
+        TermQuery query = new TermQuery("person");
+        assertEquals(repository.getTermQueryMatch(query, schema, TermType.CLASS), graphRepository.getTermQueryMatch(query, schema, TermType.CLASS));
+        assertEquals(repository.getTermQueryMatch(query, schema, TermType.PROPERTY), graphRepository.getTermQueryMatch(query, schema, TermType.PROPERTY));
+        assertEquals(repository.getOntologyQueryMatch(query), graphRepository.getOntologyQueryMatch(query));
+        assertEquals(repository.getTermQueryMatchLabels(query, new Term("http://schema.org/Person")), graphRepository.getTermQueryMatchLabels(query, new Term("http://schema.org/Person")));
+
+        query = new TermQuery("building");
+        Map<Term, Set<String>> labels = graphRepository.getClassQueryMatchRDFSLabels(query, schema);
+        assertFalse(labels.isEmpty());
+        assertEquals(repository.getClassQueryMatchRDFSLabels(query, schema), labels);
+    }
+
+    @Test
+    public void classMatches() {
+        for (String queryString : new String[]{"person", "building", "postal address", "name"}) {
+            TermQuery query = new TermQuery(queryString);
+            for (Ontology ontology : new Ontology[]{schema, vcard}) {
+                String message = queryString + " in " + ontology;
+                assertEquals(message, repository.countClassMatches(query, ontology), graphRepository.countClassMatches(query, ontology));
+                assertEquals(message, repository.countExactClassLabelMatches(query, ontology), graphRepository.countExactClassLabelMatches(query, ontology));
+                assertEquals(message, repository.countPartialClassLabelMatches(query, ontology), graphRepository.countPartialClassLabelMatches(query, ontology));
+            }
+        }
+        assertTrue(graphRepository.countClassMatches(new TermQuery("person"), schema) > 0);
+        assertTrue(graphRepository.countExactClassLabelMatches(new TermQuery("person"), schema) > 0);
+    }
+
+    @Test
+    public void getShortestPathLength() {
+        List<Term> starts = new ArrayList<>(repository.getTermQueryMatch(new TermQuery("person"), schema, TermType.CLASS));
+        List<Term> ends = new ArrayList<>(repository.getTermQueryMatch(new TermQuery("address"), schema, TermType.CLASS));
+        assertFalse(starts.isEmpty());
+        assertFalse(ends.isEmpty());
+        for (Term start : starts.subList(0, Math.min(3, starts.size()))) {
+            for (Term end : ends.subList(0, Math.min(3, ends.size()))) {
+                assertEquals(start + " to " + end, repository.getShortestPathLength(start, end), graphRepository.getShortestPathLength(start, end));
+            }
+            assertEquals(repository.getShortestPathLength(start, start), graphRepository.getShortestPathLength(start, start));
+        }
+    }
+
+    @Test
+    public void averageOntologySize() {
+        assertEquals(repository.averageOntologySize(), graphRepository.averageOntologySize(), 0.0);
+        assertEquals(graphRepository.averageOntologySize(), graphRepository.averageOntologySize(), 0.0);
+    }
+
+    @Test
+    public void scoreParity() {
+        TermQuery query = new TermQuery("person");
+
+        double score = new TFIDFOntology(repository, new TFIDFScorer(repository)).getScore(query, schema);
+        double graphScore = new TFIDFOntology(graphRepository, new TFIDFScorer(graphRepository)).getScore(query, schema);
+        assertEquals(0, Double.compare(score, graphScore));
+
+        score = new BetweennessMeasure(repository, new BetweennessScorer(repository)).getScore(query, schema);
+        graphScore = new BetweennessMeasure(graphRepository, new BetweennessScorer(graphRepository)).getScore(query, schema);
+        assertEquals(score, graphScore, 1e-9);
+
+        Set<Term> terms = repository.getAllTerms(vcard);
+        assertEquals(new Subclasses(repository, new TermStatsScorer(repository)).computeScores(terms, vcard), new Subclasses(graphRepository, new TermStatsScorer(graphRepository)).computeScores(terms, vcard));
+        assertEquals(new Siblings(repository, new TermStatsScorer(repository)).computeScores(terms, vcard), new Siblings(graphRepository, new TermStatsScorer(graphRepository)).computeScores(terms, vcard));
+    }
+}
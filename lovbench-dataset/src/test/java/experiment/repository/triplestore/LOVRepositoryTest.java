@@ -9,13 +9,20 @@ import experiment.configuration.ExperimentConfiguration;
 import experiment.model.query.TermQuery;
 import experiment.model.query.enums.TermType;
 import experiment.repository.triplestore.connector.JenaConnector;
+import experiment.repository.triplestore.util.JenaGraphUtil;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 
 import static org.junit.Assert.*;
@@ -24,6 +31,9 @@ public class LOVRepositoryTest {
 
     AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
 
     // Handling some irregularities of the LOV dump used for testing
     String[] knownMissingOrEmptyVocabsInDump = {
@@ -120,6 +130,39 @@ public class LOVRepositoryTest {
         assertNotEquals(0,repository.countSuperProperties(new Term("vcard:organization-unit"), new Ontology("http://www.w3.org/2006/vcard/ns")));
     }
 
+    @Test
+    public void termFrequencies() {
+        Ontology ontology = new Ontology("http://mex.aksw.org/mex-perf");
+        Map<Term,Integer> frequencies = repository.termFrequencies(ontology);
+        assertFalse(frequencies.isEmpty());
+        for (Term term : repository.getAllTerms(ontology)) {
+            int frequency = frequencies.containsKey(term) ? frequencies.get(term) : 0;
+            assertEquals(repository.termFrequency(term, ontology), frequency);
+        }
+    }
+
+    @Test
+    public void termFrequenciesWithAlternativeUri() throws IOException {
+        // schema.org terms are also used with the https:// prefix
+        File nqFile = folder.newFile("alternative.nq");
+        Files.write(nqFile.toPath(), Arrays.asList(
+                "<http://schema.org/Person> <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://www.w3.org/2000/01/rdf-schema#Class> <http://schema.org/> .",
+                "<http://schema.org/Person> <http://www.w3.org/2002/07/owl#sameAs> <https://schema.org/Person> <http://schema.org/> .",
+                "<https://schema.org/name> <http://schema.org/domainIncludes> <http://schema.org/Person> <http://schema.org/> ."
+        ), StandardCharsets.UTF_8);
+        JenaConnector connector = new JenaConnector(nqFile.getPath());
+        try {
+            Ontology ontology = new Ontology("http://schema.org/");
+            Set<Term> terms = new HashSet<>(Arrays.asList(new Term("http://schema.org/Person"), new Term("http://schema.org/name")));
+            Map<Term, Integer> frequencies = LOVRepository.queryTermFrequencies(connector, ontology, terms);
+            assertEquals(3, (int) frequencies.get(new Term("http://schema.org/Person")));
+            assertEquals(1, (int) frequencies.get(new Term("http://schema.org/name")));
+            assertEquals(JenaGraphUtil.countTermFrequencies(JenaGraphUtil.getNamedGraph(connector.getDataset(), ontology.getOntologyUri()), terms), frequencies);
+        } finally {
+            JenaConnector.releaseDataset(nqFile.getPath());
+        }
+    }
+
     @Test
     public void getAllOntologies() {
         assertEquals(repository.getAllOntologies().size(),repository.countOntologies());
@@ -256,4 +299,24 @@ public class LOVRepositoryTest {
                 new Term("http://schema.org/LegislativeBuilding")
         ))));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void queryContext() {
+        TermQuery query = new TermQuery("person");
+        Ontology ontology = new Ontology("http://schema.org/");
+        Set<Term> classMatches = this.repository.getTermQueryMatch(query, ontology, TermType.CLASS);
+
+        QueryContext context = this.repository.openQueryContext(query);
+        try {
+            Set<Term> contextMatches = this.repository.getTermQueryMatch(query, ontology, TermType.CLASS);
+            assertEquals(classMatches, contextMatches);
+            assertSame(contextMatches, this.repository.getTermQueryMatch(query, ontology, TermType.CLASS));
+            assertSame(this.repository.getClassQueryMatchRDFSLabels(query, ontology), this.repository.getClassQueryMatchRDFSLabels(query, ontology));
+            assertEquals(2, context.size());
+            assertNotSame(contextMatches, this.repository.getTermQueryMatch(new TermQuery("address"), ontology, TermType.CLASS));
+        } finally {
+            this.repository.closeQueryContext(query);
+        }
+        assertNotSame(this.repository.getTermQueryMatch(query, ontology, TermType.CLASS), this.repository.getTermQueryMatch(query, ontology, TermType.CLASS));
+    }
+}
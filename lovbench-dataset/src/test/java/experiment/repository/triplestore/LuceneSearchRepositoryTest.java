@@ -0,0 +1,89 @@
+package experiment.repository.triplestore;
+
+import experiment.TestUtil;
+import experiment.cli.CompareSearchRepositories;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.model.Term;
+import experiment.model.query.TermQuery;
+import experiment.repository.triplestore.connector.JenaConnector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class LuceneSearchRepositoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    LuceneSearchRepository repository;
+
+    Term person = new Term("http://xmlns.com/foaf/0.1/Person");
+
+    @Before
+    public void setUp() throws Exception {
+        new TestUtil().setNqFileConfiguration();
+        repository = new LuceneSearchRepository(folder.getRoot().getAbsolutePath());
+        repository.buildIndex(new JenaConnector(ExperimentConfiguration.getInstance().getLovNqFile()).getDataset());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        repository.close();
+    }
+
+    @Test
+    public void search() {
+        Map<Term, Double> result = repository.search(new TermQuery("person"));
+        assertTrue(result.containsKey(person));
+        assertTrue(result.get(person) > 0);
+
+        // The index is read from disk by a new repository on the same directory
+        LuceneSearchRepository reopened = new LuceneSearchRepository(folder.getRoot().getAbsolutePath());
+        assertEquals(result, reopened.search(new TermQuery("person")));
+        reopened.close();
+
+        // Query syntax is searched as text
+        repository.search(new TermQuery("c++ a:b (person"));
+        assertTrue(repository.search(new TermQuery("xyzzy")).isEmpty());
+    }
+
+    @Test
+    public void fieldBoosts() {
+        Map<Term, Double> result = repository.search(new TermQuery("person"));
+        repository.setFieldBoost(LuceneSearchRepository.FIELD_LABEL, 0);
+        repository.setFieldBoost(LuceneSearchRepository.FIELD_DESCRIPTION, 0);
+        repository.setFieldBoost(LuceneSearchRepository.FIELD_OTHER, 0);
+        assertTrue(repository.search(new TermQuery("person")).isEmpty());
+
+        repository.setFieldBoost(LuceneSearchRepository.FIELD_LABEL, 1);
+        Map<Term, Double> labelResult = repository.search(new TermQuery("person"));
+        assertTrue(labelResult.containsKey(person));
+        assertTrue(result.keySet().containsAll(labelResult.keySet()));
+    }
+
+    @Test
+    public void parity() {
+        Map<Term, Double> reference = new HashMap<>();
+        reference.put(new Term("http://example.org/a"), 3.0);
+        reference.put(new Term("http://example.org/b"), 2.0);
+        reference.put(new Term("http://example.org/c"), 1.0);
+        Map<Term, Double> candidate = new HashMap<>();
+        candidate.put(new Term("http://example.org/a"), 0.9);
+        candidate.put(new Term("http://example.org/b"), 0.5);
+        candidate.put(new Term("http://example.org/d"), 0.1);
+
+        double[] parity = CompareSearchRepositories.compare(reference, candidate, 2);
+        assertEquals(2, parity[0], 0);
+        assertEquals(0.5, parity[1], 1e-9);
+        assertEquals(1.0, parity[2], 1e-9);
+        assertEquals(1.0, parity[3], 1e-9);
+        assertTrue(Double.isNaN(CompareSearchRepositories.compare(reference, new HashMap<>(), 2)[3]));
+    }
+}
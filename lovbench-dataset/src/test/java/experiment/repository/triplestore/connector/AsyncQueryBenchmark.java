@@ -0,0 +1,80 @@
+package experiment.repository.triplestore.connector;
+
+import experiment.TestUtil;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import experiment.model.query.TermQuery;
+import experiment.repository.file.GroundTruthTermRanking;
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares the latency of the per-search-word label match counts (countExactClassLabelMatches, countPartialClassLabelMatches)
+ * on the ground-truth workload with one query thread, i.e. one query after the other, and with the asynchronous query executor.
+ *
+ * Run with the path of a ground truth file and optionally the number of runs; without arguments, the ground truth of the
+ * configuration is used. The configured repository is used, or the test corpus if the configuration has no database server.
+ */
+public class AsyncQueryBenchmark {
+
+    public static void main(String[] args) {
+        String groundTruthFile = args.length > 0 ? args[0] : ExperimentConfiguration.getInstance().getGroundTruthTermsFilePath();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        if (ExperimentConfiguration.getInstance().getDbServer() == null || ExperimentConfiguration.getInstance().getDbServer().isEmpty()) {
+            new TestUtil().setNqFileConfiguration();
+        }
+        AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
+
+        Set<Pair<TermQuery, Ontology>> workload = new LinkedHashSet<>();
+        GroundTruthTermRanking groundTruth = GroundTruthTermRanking.parse(groundTruthFile);
+        for (TermQuery query : groundTruth.getGroundTruthTable().rowKeySet()) {
+            for (Term term : groundTruth.getGroundTruthTable().row(query).keySet()) {
+                workload.add(Pair.of(query, term.getOntologyOfTerm()));
+            }
+        }
+
+        int threads = repository.getConnector().getQueryExecutor().getConcurrency();
+        // Warm up
+        List<Integer> expected = run(repository, workload, 1);
+        run(repository, workload, threads);
+
+        long sequentialTime = 0;
+        long asyncTime = 0;
+        for (int i = 0; i < runs; i++) {
+            long start = System.currentTimeMillis();
+            List<Integer> sequential = run(repository, workload, 1);
+            sequentialTime += System.currentTimeMillis() - start;
+
+            start = System.currentTimeMillis();
+            List<Integer> async = run(repository, workload, threads);
+            asyncTime += System.currentTimeMillis() - start;
+
+            if (!expected.equals(sequential) || !expected.equals(async)) {
+                throw new IllegalStateException("Label match counts differ between runs");
+            }
+        }
+        System.out.println(String.format("Ground truth: %s, (query, ontology) pairs: %s, runs: %s, connector: %s", groundTruthFile, workload.size(), runs, repository.getConnector().getClass().getSimpleName()));
+        System.out.println(String.format("1 query thread: %s ms per run", sequentialTime / runs));
+        System.out.println(String.format("%s query threads: %s ms per run", threads, asyncTime / runs));
+        System.out.println(String.format("Speedup: %.2f", (double) sequentialTime / Math.max(asyncTime, 1)));
+    }
+
+    private static List<Integer> run(AbstractOntologyRepository repository, Set<Pair<TermQuery, Ontology>> workload, int threads) {
+        ExperimentConfiguration.getInstance().setAsyncQueryThreads(threads);
+        repository.getConnector().closeQueryExecutor();
+        List<Integer> counts = new ArrayList<>();
+        for (Pair<TermQuery, Ontology> queryOntology : workload) {
+            counts.add(repository.countExactClassLabelMatches(queryOntology.getLeft(), queryOntology.getRight()));
+            counts.add(repository.countPartialClassLabelMatches(queryOntology.getLeft(), queryOntology.getRight()));
+        }
+        ExperimentConfiguration.getInstance().setAsyncQueryThreads(0);
+        repository.getConnector().closeQueryExecutor();
+        return counts;
+    }
+}
@@ -0,0 +1,170 @@
+package experiment.repository.triplestore.connector;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConnectionPoolTest {
+
+    /**
+     * In-process stand-in for an endpoint connection.
+     */
+    static class FakeConnection {
+
+        boolean open = true;
+
+        boolean healthy = true;
+    }
+
+    /**
+     * Stand-in endpoint that counts the connections open at the same time.
+     */
+    static class FakeEndpoint implements ConnectionPool.ConnectionFactory<FakeConnection> {
+
+        AtomicInteger open = new AtomicInteger();
+
+        AtomicInteger maxOpen = new AtomicInteger();
+
+        @Override
+        public FakeConnection create() {
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            return new FakeConnection();
+        }
+
+        @Override
+        public boolean isValid(FakeConnection connection) {
+            return connection.open && connection.healthy;
+        }
+
+        @Override
+        public void close(FakeConnection connection) {
+            connection.open = false;
+            open.decrementAndGet();
+        }
+    }
+
+    FakeEndpoint endpoint;
+
+    @Before
+    public void setUp() {
+        endpoint = new FakeEndpoint();
+    }
+
+    @Test
+    public void reuse() {
+        ConnectionPool<FakeConnection> pool = new ConnectionPool<>(endpoint, 2, 60000);
+        FakeConnection first = pool.borrow();
+        pool.release(first);
+        FakeConnection second = pool.borrow();
+        assertSame(first, second);
+        pool.release(second);
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(0, pool.getActiveCount());
+
+        pool.close();
+        assertEquals(0, endpoint.open.get());
+    }
+
+    @Test
+    public void poolSizeLimit() throws Exception {
+        int poolSize = 3;
+        ConnectionPool<FakeConnection> pool = new ConnectionPool<>(endpoint, poolSize, 60000);
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                FakeConnection connection = pool.borrow();
+                maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                Thread.sleep(1);
+                inUse.decrementAndGet();
+                pool.release(connection);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertTrue(maxInUse.get() <= poolSize);
+        assertTrue(endpoint.maxOpen.get() <= poolSize);
+        assertTrue(pool.getCreatedCount() <= poolSize);
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void borrowTimeout() {
+        ConnectionPool<FakeConnection> pool = new ConnectionPool<>(endpoint, 1, 60000, 10);
+        pool.borrow();
+        pool.borrow();
+    }
+
+    @Test
+    public void idleEviction() throws Exception {
+        ConnectionPool<FakeConnection> pool = new ConnectionPool<>(endpoint, 2, 5);
+        FakeConnection connection = pool.borrow();
+        pool.release(connection);
+        Thread.sleep(20);
+        pool.evictIdle();
+        assertFalse(connection.open);
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, pool.getEvictedCount());
+
+        assertNotSame(connection, pool.borrow());
+        assertEquals(2, pool.getCreatedCount());
+    }
+
+    @Test
+    public void idleEvictionOfUnusedPool() throws Exception {
+        ConnectionPool<FakeConnection> pool = new ConnectionPool<>(endpoint, 2, 20);
+        pool.release(pool.borrow());
+        // No further requests, the periodic sweep closes the connection
+        Thread.sleep(200);
+        assertEquals(0, endpoint.open.get());
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, pool.getEvictedCount());
+        pool.close();
+    }
+
+    @Test
+    public void healthCheck() {
+        ConnectionPool<FakeConnection> pool = new ConnectionPool<>(endpoint, 2, 60000);
+        FakeConnection connection = pool.borrow();
+        pool.release(connection);
+        connection.healthy = false;
+
+        FakeConnection replacement = pool.borrow();
+        assertNotSame(connection, replacement);
+        assertFalse(connection.open);
+        assertEquals(1, pool.getEvictedCount());
+    }
+
+    @Test
+    public void invalidate() {
+        ConnectionPool<FakeConnection> pool = new ConnectionPool<>(endpoint, 1, 60000);
+        FakeConnection connection = pool.borrow();
+        pool.invalidate(connection);
+        assertFalse(connection.open);
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(0, pool.getActiveCount());
+
+        assertNotSame(connection, pool.borrow());
+    }
+}
@@ -2,19 +2,32 @@ package experiment.repository.triplestore.connector;
 
 import experiment.TestUtil;
 import experiment.configuration.ExperimentConfiguration;
+import experiment.model.Ontology;
+import org.json.JSONObject;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.openrdf.query.BindingSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.Assert.*;
 
 public class JenaConnectorTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private static final Logger log = LoggerFactory.getLogger( JenaConnectorTest.class );
 
     @Before
@@ -70,4 +83,100 @@ public class JenaConnectorTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void selectQueryIterator() {
+        JenaConnector connector = (JenaConnector)ExperimentConfiguration.getInstance().getRepository().getConnector();
+        String selectQuery = "SELECT ?term ?label WHERE { GRAPH <http://www.w3.org/2006/vcard/ns> { ?term a owl:Class . OPTIONAL { ?term rdfs:label ?label } } }";
+        List<BindingSet> result = connector.selectQuery(selectQuery, true);
+        assertNotEquals(0, result.size());
+
+        List<String> streamed = new ArrayList<>();
+        try (QueryResultIterator rows = connector.selectQueryIterator(selectQuery, true)) {
+            while (rows.hasNext()) {
+                QueryResultRow row = rows.next();
+                streamed.add(row.getString("term") + " " + (row.isBound("label") ? row.getString("label") : null));
+            }
+        }
+        List<String> materialised = new ArrayList<>();
+        for (BindingSet bindingSet : result) {
+            materialised.add(bindingSet.getValue("term").stringValue() + " " + (bindingSet.hasBinding("label") ? bindingSet.getValue("label").stringValue() : null));
+        }
+        assertEquals(materialised, streamed);
+
+        List<String> handled = new ArrayList<>();
+        connector.selectQuery(selectQuery, true, row -> handled.add(row.getString("term")));
+        assertEquals(result.size(), handled.size());
+    }
+
+    @Test
+    public void selectQueryAsync() {
+        JenaConnector connector = (JenaConnector)ExperimentConfiguration.getInstance().getRepository().getConnector();
+        List<String> graphs = new ArrayList<>();
+        for (BindingSet graph : connector.selectQuery("SELECT DISTINCT ?g WHERE { GRAPH ?g { ?s ?p ?o } } LIMIT 20")) {
+            graphs.add(graph.getValue("g").stringValue());
+        }
+        List<CompletableFuture<List<BindingSet>>> results = new ArrayList<>();
+        for (String graph : graphs) {
+            results.add(connector.selectQueryAsync("SELECT (count(*) as ?count) WHERE { GRAPH <" + graph + "> { ?s ?p ?o } }"));
+        }
+        for (int i = 0; i < graphs.size(); i++) {
+            String sparql = "SELECT (count(*) as ?count) WHERE { GRAPH <" + graphs.get(i) + "> { ?s ?p ?o } }";
+            assertEquals(connector.selectQuery(sparql).get(0).getValue("count").stringValue(), QueryExecutor.join(results.get(i)).get(0).getValue("count").stringValue());
+        }
+        assertSame(connector.getQueryExecutor(), connector.getQueryExecutor());
+    }
+
+    @Test
+    public void queryTimeout() throws IOException {
+        JenaConnector connector = (JenaConnector)ExperimentConfiguration.getInstance().getRepository().getConnector();
+        String journalFile = ExperimentConfiguration.getInstance().getSlowQueryJournalFile();
+        long queryTimeout = ExperimentConfiguration.getInstance().getQueryTimeout();
+        File journal = new File(folder.getRoot(), "slow_queries.log");
+        String sparql = "SELECT (count(*) as ?count) WHERE { GRAPH ?g1 { ?a ?b ?c } GRAPH ?g2 { ?d ?e ?f } GRAPH ?g3 { ?g ?h ?i } }";
+        try {
+            ExperimentConfiguration.getInstance().setSlowQueryJournalFile(journal.getPath());
+            ExperimentConfiguration.getInstance().setQueryTimeout(1);
+            try {
+                connector.selectQuery(sparql);
+                fail("Query was not cancelled");
+            } catch (QueryTimeoutException e) {
+                assertEquals(sparql, e.getSparql());
+            }
+            List<String> entries = Files.readAllLines(journal.toPath());
+            assertEquals(1, entries.size());
+            assertEquals(-1, new JSONObject(entries.get(0)).getInt("results"));
+            assertEquals(sparql, new JSONObject(entries.get(0)).getString("sparql"));
+
+            // Without timeout the query is only journaled if it is slow
+            ExperimentConfiguration.getInstance().setQueryTimeout(0);
+            assertEquals(1, connector.selectQuery("SELECT (count(*) as ?count) WHERE { GRAPH ?g { ?s ?p ?o } }").size());
+            assertEquals(1, Files.readAllLines(journal.toPath()).size());
+        } finally {
+            ExperimentConfiguration.getInstance().setQueryTimeout(queryTimeout);
+            ExperimentConfiguration.getInstance().setSlowQueryJournalFile(journalFile);
+        }
+    }
+
+    @Test
+    public void slowQueryJournal() throws IOException {
+        String journalFile = ExperimentConfiguration.getInstance().getSlowQueryJournalFile();
+        File journal = new File(folder.getRoot(), "slow_queries.log");
+        ExperimentConfiguration.getInstance().setSlowQueryJournalFile(journal.getPath());
+        long slowQueryThreshold = ExperimentConfiguration.getInstance().getSlowQueryThreshold();
+        ExperimentConfiguration.getInstance().setSlowQueryThreshold(0);
+        Set<Ontology> ontologies;
+        try {
+            ontologies = ExperimentConfiguration.getInstance().getRepository().getAllOntologies();
+        } finally {
+            ExperimentConfiguration.getInstance().setSlowQueryThreshold(slowQueryThreshold);
+            ExperimentConfiguration.getInstance().setSlowQueryJournalFile(journalFile);
+        }
+        List<String> entries = Files.readAllLines(journal.toPath());
+        assertEquals(1, entries.size());
+        JSONObject entry = new JSONObject(entries.get(0));
+        assertEquals("LOVRepository.getAllOntologies", entry.getString("caller"));
+        assertEquals(ontologies.size(), entry.getInt("results"));
+        assertTrue(entry.getLong("duration") >= 0);
+    }
+
+}
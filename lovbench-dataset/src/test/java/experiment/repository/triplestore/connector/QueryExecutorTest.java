@@ -0,0 +1,108 @@
+package experiment.repository.triplestore.connector;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class QueryExecutorTest {
+
+    @Test
+    public void concurrencyLimit() {
+        QueryExecutor executor = new QueryExecutor("test", 2, 100);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int value = i;
+            results.add(executor.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(5);
+                running.decrementAndGet();
+                return value;
+            }));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, (int) QueryExecutor.join(results.get(i)));
+        }
+        assertTrue(maxRunning.get() <= 2);
+        executor.shutdown();
+    }
+
+    @Test
+    public void backPressure() throws InterruptedException {
+        QueryExecutor executor = new QueryExecutor("test", 1, 1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.submit(() -> await(blocked));
+        executor.submit(() -> await(blocked));
+        // The thread is busy and the queue is full, so the caller runs the query
+        Thread caller = Thread.currentThread();
+        assertEquals(caller, QueryExecutor.join(executor.submit(Thread::currentThread)));
+        blocked.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void nestedQueries() {
+        QueryExecutor executor = new QueryExecutor("test", 1, 10);
+        // A query that waits for another query would block the only thread if the inner query was queued
+        int result = QueryExecutor.join(executor.submit(() -> QueryExecutor.join(executor.submit(() -> 21)) * 2));
+        assertEquals(42, result);
+        executor.shutdown();
+        assertEquals(1, (int) QueryExecutor.join(executor.submit(() -> 1)));
+    }
+
+    @Test
+    public void shutdownCompletesQueuedQueries() throws InterruptedException {
+        QueryExecutor executor = new QueryExecutor("test", 1, 10);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = executor.submit(() -> await(blocked));
+        List<CompletableFuture<Integer>> queued = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            queued.add(executor.submit(() -> value));
+        }
+        executor.shutdown();
+        blocked.countDown();
+        assertTrue(QueryExecutor.join(running));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, (int) QueryExecutor.join(queued.get(i)));
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failures() {
+        QueryExecutor executor = new QueryExecutor("test", 1, 10);
+        try {
+            QueryExecutor.join(executor.submit(() -> {
+                throw new IllegalArgumentException("failed");
+            }));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package experiment.repository.triplestore.connector;
+
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class QueryJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void record() throws IOException {
+        QueryJournal journal = new QueryJournal(new File(folder.getRoot(), "journal/slow_queries.log").getPath(), 1024 * 1024, 2);
+        journal.record("LOVRepository.maximumFrequency", "SELECT ?s WHERE {\n ?s ?p \"o\" }", 1234, 5);
+        journal.record("LOVRepository.countRelations", "SELECT ?s WHERE { ?s ?p ?o }", 60000, -1);
+
+        assertEquals(2, Files.readAllLines(journal.getFile().toPath()).size());
+        JSONObject entry = new JSONObject(Files.readAllLines(journal.getFile().toPath()).get(0));
+        assertEquals("LOVRepository.maximumFrequency", entry.getString("caller"));
+        assertEquals("SELECT ?s WHERE {\n ?s ?p \"o\" }", entry.getString("sparql"));
+        assertEquals(1234, entry.getLong("duration"));
+        assertEquals(5, entry.getInt("results"));
+    }
+
+    @Test
+    public void roll() throws IOException {
+        File file = new File(folder.getRoot(), "slow_queries.log");
+        QueryJournal journal = new QueryJournal(file.getPath(), 1, 2);
+        for (int i = 0; i < 5; i++) {
+            journal.record("LOVRepository.getAllOntologies", "SELECT " + i, i, i);
+        }
+        // Each entry exceeds the maximum size, so every entry starts a new file and only the latest two are kept besides the current one
+        assertTrue(Files.readAllLines(file.toPath()).get(0).contains("SELECT 4"));
+        assertTrue(Files.readAllLines(new File(file.getPath() + ".1").toPath()).get(0).contains("SELECT 3"));
+        assertTrue(Files.readAllLines(new File(file.getPath() + ".2").toPath()).get(0).contains("SELECT 2"));
+        assertFalse(new File(file.getPath() + ".3").exists());
+    }
+}
@@ -0,0 +1,98 @@
+package experiment.repository.triplestore.connector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.repository.Repository;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.sail.SailRepository;
+import org.openrdf.sail.memory.MemoryStore;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class StardogConnectorTest {
+
+    StardogConnector connector;
+
+    @Before
+    public void setUp() {
+        // In-memory Sesame repository as a stand-in for the Stardog endpoint
+        Repository repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+        RepositoryConnection connection = repository.getConnection();
+        try {
+            connection.prepareUpdate(QueryLanguage.SPARQL, "INSERT DATA { GRAPH <http://example.org/o> { " +
+                    "<http://example.org/o#A> a <http://www.w3.org/2002/07/owl#Class> . " +
+                    "<http://example.org/o#B> a <http://www.w3.org/2002/07/owl#Class> . " +
+                    "<http://example.org/o#B> <http://www.w3.org/2000/01/rdf-schema#subClassOf> <http://example.org/o#A> . } }").execute();
+        } finally {
+            connection.close();
+        }
+        connector = new StardogConnector(repository, 2, 60000);
+    }
+
+    @After
+    public void tearDown() {
+        connector.close();
+    }
+
+    @Test
+    public void selectQuery() {
+        List<BindingSet> result = connector.selectQuery("SELECT ?class WHERE { GRAPH <http://example.org/o> { ?class a <http://www.w3.org/2002/07/owl#Class> } }");
+        assertEquals(2, result.size());
+        assertEquals(0, connector.getConnectionPool().getActiveCount());
+        assertEquals(1, connector.getConnectionPool().getIdleCount());
+
+        // The pooled connection is reused
+        connector.selectQuery("SELECT ?class WHERE { GRAPH ?g { ?class a <http://www.w3.org/2002/07/owl#Class> } }");
+        assertEquals(1, connector.getConnectionPool().getCreatedCount());
+    }
+
+    @Test
+    public void selectQueryIterator() {
+        Set<String> classes = new HashSet<>();
+        connector.selectQuery("SELECT ?class WHERE { GRAPH <http://example.org/o> { ?class a <http://www.w3.org/2002/07/owl#Class> } }", row -> classes.add(row.getString("class")));
+        assertEquals(2, classes.size());
+        assertTrue(classes.contains("http://example.org/o#B"));
+        assertEquals(0, connector.getConnectionPool().getActiveCount());
+    }
+
+    @Test
+    public void closeIteratorTwice() {
+        QueryResultIterator iterator = connector.selectQueryIterator("SELECT ?class WHERE { GRAPH <http://example.org/o> { ?class a <http://www.w3.org/2002/07/owl#Class> } }", true);
+        assertTrue(iterator.hasNext());
+        iterator.close();
+        iterator.close();
+        // The connection is given back once
+        assertEquals(0, connector.getConnectionPool().getActiveCount());
+        assertEquals(1, connector.getConnectionPool().getIdleCount());
+    }
+
+    @Test
+    public void selectQueryAsync() {
+        List<BindingSet> result = QueryExecutor.join(connector.selectQueryAsync("SELECT ?sub WHERE { GRAPH ?g { ?sub <http://www.w3.org/2000/01/rdf-schema#subClassOf> <http://example.org/o#A> } }"));
+        assertEquals(1, result.size());
+        assertEquals("http://example.org/o#B", result.get(0).getValue("sub").stringValue());
+    }
+
+    @Test
+    public void failedQueryAsync() {
+        try {
+            QueryExecutor.join(connector.selectQueryAsync("SELECT ?sub WHERE { GRAPH ?g { ?sub"));
+            fail("The malformed query did not fail");
+        } catch (RuntimeException e) {
+            // The failure of the query is passed on instead of an empty result
+            assertFalse(e instanceof NullPointerException);
+        }
+        // The connection of the failed query is not handed out again
+        assertEquals(0, connector.getConnectionPool().getActiveCount());
+        assertEquals(0, connector.getConnectionPool().getIdleCount());
+        assertEquals(2, connector.selectQuery("SELECT ?class WHERE { GRAPH <http://example.org/o> { ?class a <http://www.w3.org/2002/07/owl#Class> } }").size());
+    }
+}
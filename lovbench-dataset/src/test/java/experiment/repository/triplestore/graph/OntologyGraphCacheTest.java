@@ -0,0 +1,72 @@
+package experiment.repository.triplestore.graph;
+
+import edu.uci.ics.jung.algorithms.shortestpath.DijkstraDistance;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import experiment.TestUtil;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.feature.scoring.graph.util.JungGraphUtil;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OntologyGraphCacheTest {
+
+    AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
+
+    Ontology schema = new Ontology("http://schema.org/");
+
+    Ontology foaf = new Ontology("http://xmlns.com/foaf/0.1/");
+
+    @Before
+    public void setUp() throws Exception {
+        new TestUtil().setNqFileConfiguration();
+    }
+
+    @Test
+    public void views() {
+        OntologyGraph graph = new OntologyGraphCache(repository, 4).getGraph(schema);
+        assertTrue(graph.countEdges() > 0);
+        assertEquals(repository.getOntologyGraphTriples(schema, false), graph.getTriples(false));
+        assertEquals(repository.getOntologyGraphTriples(schema, true), graph.getTriples(true));
+    }
+
+    @Test
+    public void distances() {
+        OntologyGraph graph = new OntologyGraphCache(repository, 4).getGraph(foaf);
+        Graph<Term, String> jungGraph = JungGraphUtil.createOntologyGraph(repository.getOntologyGraphTriples(foaf), EdgeType.UNDIRECTED);
+        DijkstraDistance<Term, String> distance = new DijkstraDistance<>(jungGraph);
+        List<Term> nodes = new ArrayList<>(jungGraph.getVertices());
+        for (Term from : nodes) {
+            assertTrue(graph.containsNode(from));
+            for (Term to : nodes) {
+                Number expected = distance.getDistance(from, to);
+                assertEquals(from + " - " + to, expected == null ? -1 : expected.intValue(), graph.getDistance(from, to));
+            }
+        }
+        assertEquals(nodes.size(), graph.countNodes());
+        assertFalse(graph.containsNode(new Term("http://example.org/missing")));
+    }
+
+    @Test
+    public void statistics() {
+        OntologyGraphCache cache = new OntologyGraphCache(repository, 1);
+        OntologyGraph graph = cache.getGraph(schema);
+        assertSame(graph, cache.getGraph(schema));
+        cache.getGraph(foaf);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1.0 / 3, cache.getHitRate(), 1e-9);
+        assertTrue(cache.getEstimatedBytes() > 0);
+        assertSame(repository.getOntologyGraphCache(), repository.getOntologyGraphCache());
+    }
+}
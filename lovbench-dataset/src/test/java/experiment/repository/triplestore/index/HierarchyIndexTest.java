@@ -0,0 +1,94 @@
+package experiment.repository.triplestore.index;
+
+import experiment.TestUtil;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import org.junit.Test;
+import org.openrdf.query.BindingSet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class HierarchyIndexTest {
+
+    @Test
+    public void counts() {
+        // d -> b -> a, d -> c -> a, e -> d, f -> g -> f (cycle), h -> h (self loop), b -> thing, i -> thing
+        HierarchyIndex<String> index = new HierarchyIndex<>();
+        for (String[] edge : new String[][]{{"b", "a"}, {"c", "a"}, {"d", "b"}, {"d", "c"}, {"e", "d"}, {"f", "g"}, {"g", "f"}, {"h", "h"}, {"b", "thing"}, {"i", "thing"}}) {
+            index.addEdge(edge[0], edge[1]);
+        }
+        for (String typed : Arrays.asList("a", "b", "d", "f", "h", "i")) {
+            index.addTyped(typed);
+        }
+        index.addTyped("unknown");
+        index.build();
+
+        assertEquals(4, index.countDescendants("a", false));
+        assertEquals(2, index.countDescendants("a", true));
+        assertEquals(5, index.countAncestors("e", false));
+        assertEquals(3, index.countAncestors("e", true));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c", "thing")), index.getAncestors("d"));
+        assertEquals(0, index.countAncestors("a", false));
+        assertEquals(0, index.countDescendants("e", false));
+
+        // Nodes on a cycle reach themselves
+        assertEquals(2, index.countAncestors("f", false));
+        assertEquals(2, index.countDescendants("g", false));
+        assertEquals(1, index.countAncestors("h", true));
+        assertEquals(1, index.countDescendants("h", true));
+
+        // b shares a with c, thing is excluded
+        assertEquals(2, index.countSiblings("b", "thing", false));
+        assertEquals(1, index.countSiblings("b", "thing", true));
+        assertEquals(3, index.countSiblings("b", null, false));
+        assertEquals(0, index.countSiblings("i", "thing", false));
+
+        assertEquals(0, index.countDescendants("missing", false));
+        assertEquals(0, index.countSiblings("missing", "thing", false));
+        assertEquals(Collections.emptySet(), index.getAncestors("missing"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void notBuilt() {
+        new HierarchyIndex<String>().countAncestors("a", false);
+    }
+
+    @Test
+    public void parityWithPropertyPaths() {
+        new TestUtil().setNqFileConfiguration();
+        AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
+
+        for (Ontology ontology : Arrays.asList(new Ontology("http://schema.org/"), new Ontology("http://xmlns.com/foaf/0.1/"))) {
+            String graph = "GRAPH <" + ontology.getOntologyUri() + ">";
+            String sparqlTerms = "SELECT DISTINCT ?term WHERE { " + graph + " { ?term a ?type . } VALUES ?type " + AbstractOntologyRepository.getAllTypesValuesString() + " . FILTER (isURI(?term)) }";
+            int countTerms = 0;
+            for (BindingSet binding : repository.getConnector().selectQuery(sparqlTerms)) {
+                Term term = new Term(binding.getBinding("term").getValue().stringValue());
+                String uri = "<" + term.getTermUri() + ">";
+                assertEquals(term.toString(), count(repository, "SELECT (count(distinct ?x) as ?count) WHERE { " + graph + " { ?x a ?classType . ?x rdfs:subClassOf+ " + uri + " . } VALUES ?classType " + AbstractOntologyRepository.getTypeClassValuesString() + " . }"), repository.countSubClasses(term, ontology));
+                assertEquals(term.toString(), count(repository, "SELECT (count(distinct ?x) as ?count) WHERE { " + graph + " { ?x a ?classType . " + uri + " rdfs:subClassOf+ ?x . } VALUES ?classType " + AbstractOntologyRepository.getTypeClassValuesString() + " . }"), repository.countSuperClasses(term, ontology));
+                assertEquals(term.toString(), count(repository, "SELECT (count(distinct ?x) as ?count) WHERE { " + graph + " { " + uri + " rdfs:subClassOf ?superClass . ?x rdfs:subClassOf ?superClass . ?x a ?classType . } VALUES ?classType " + AbstractOntologyRepository.getTypeClassValuesString() + " . FILTER ( ?superClass not in ( owl:Thing )) }"), repository.countSiblings(term, ontology));
+                assertEquals(term.toString(), count(repository, "SELECT (count(distinct ?x) as ?count) WHERE { " + graph + " { ?x rdfs:subPropertyOf+ " + uri + " . ?x a ?propertyType . } VALUES ?propertyType " + AbstractOntologyRepository.getTypePropertyValuesString() + " . }"), repository.countSubProperties(term, ontology));
+                assertEquals(term.toString(), count(repository, "SELECT (count(distinct ?x) as ?count) WHERE { " + graph + " { " + uri + " rdfs:subPropertyOf+ ?x . ?x a ?propertyType . } VALUES ?propertyType " + AbstractOntologyRepository.getTypePropertyValuesString() + " . }"), repository.countSuperProperties(term, ontology));
+                countTerms++;
+            }
+            assertTrue(countTerms > 0);
+        }
+
+        // Built once per ontology and hierarchy
+        Ontology schema = new Ontology("http://schema.org/");
+        assertSame(repository.getHierarchyIndex(schema, HierarchyIndex.Hierarchy.CLASSES), repository.getHierarchyIndex(schema, HierarchyIndex.Hierarchy.CLASSES));
+        assertNotSame(repository.getHierarchyIndex(schema, HierarchyIndex.Hierarchy.CLASSES), repository.getHierarchyIndex(schema, HierarchyIndex.Hierarchy.PROPERTIES));
+        assertTrue(repository.getHierarchyIndexCache().size() <= ExperimentConfiguration.getInstance().getHierarchyIndexCacheSize());
+    }
+
+    private static int count(AbstractOntologyRepository repository, String sparql) {
+        return Integer.parseInt(repository.getConnector().selectQuery(sparql, true).get(0).getBinding("count").getValue().stringValue());
+    }
+}
@@ -0,0 +1,53 @@
+package experiment.repository.triplestore.index;
+
+import experiment.TestUtil;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import experiment.repository.file.LOVPrefixes;
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Test;
+import org.openrdf.query.BindingSet;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ImplicitImportIndexTest {
+
+    @Test
+    public void parityWithQueryPerOntology() {
+        new TestUtil().setNqFileConfiguration();
+        AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
+
+        Set<Pair<Ontology, Ontology>> expected = new HashSet<>();
+        for (Ontology ontology : repository.getAllOntologies()) {
+            String termPrefix = LOVPrefixes.getInstance().getTermPrefixForOntologyPrefix(ontology.getOntologyPrefix());
+            StringBuilder candidate = new StringBuilder();
+            for (String position : new String[]{"?a", "?b", "?c"}) {
+                candidate.append(candidate.length() == 0 ? "" : " || ").append("(!strstarts(str(").append(position).append("), \"").append(termPrefix).append("\") && !strstarts(str(").append(position).append("), \"").append(ontology.getOntologyUri()).append("\")");
+                for (String namespace : AbstractOntologyRepository.IMPLICIT_IMPORT_EXCLUDED_NAMESPACES) {
+                    candidate.append(" && !strstarts(str(").append(position).append("), \"").append(namespace).append("\")");
+                }
+                candidate.append(")");
+            }
+            String sparql = "SELECT DISTINCT ?a ?b ?c WHERE { GRAPH <" + ontology.getOntologyUri() + "> { ?a ?b ?c . FILTER (isURI(?a) && isURI(?b) && isURI(?c)) . FILTER (" + candidate + ") } }";
+            for (BindingSet triple : repository.getConnector().selectQuery(sparql)) {
+                for (String position : new String[]{"a", "b", "c"}) {
+                    Term term = new Term(triple.getBinding(position).getValue().stringValue());
+                    if (LOVPrefixes.getInstance().isFullUri(term.getTermUri()) && !term.getOntologyUriOfTerm().equals(ontology.getOntologyUri()) && !term.getTermUri().equals(ontology.getOntologyUri())) {
+                        expected.add(Pair.of(ontology, term.getOntologyOfTerm()));
+                    }
+                }
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, repository.getImplicitImports());
+
+        // Extracted once and shared by all callers
+        assertSame(repository.getImplicitImports(), repository.getImplicitImports());
+        assertTrue(repository.getOwlImports(null, true).containsAll(expected));
+    }
+}
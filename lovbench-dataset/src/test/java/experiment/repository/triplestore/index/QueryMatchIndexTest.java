@@ -0,0 +1,102 @@
+package experiment.repository.triplestore.index;
+
+import experiment.TestUtil;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import experiment.model.query.enums.QueryMatch;
+import experiment.model.query.TermQuery;
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import experiment.repository.triplestore.LOVRepository;
+import org.junit.Test;
+import org.openrdf.query.BindingSet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class QueryMatchIndexTest {
+
+    Ontology foaf = new Ontology("http://xmlns.com/foaf/0.1/");
+
+    Ontology schema = new Ontology("http://schema.org/");
+
+    @Test
+    public void substringMatch() {
+        QueryMatchIndex index = new QueryMatchIndex(Collections.singletonList("http://www.w3.org/2000/01/rdf-schema#label"));
+        index.addTerm(foaf, "http://xmlns.com/foaf/0.1/Person", "Person", QueryMatchIndex.CLASS, Arrays.asList("A person.", null));
+        index.addTerm(foaf, "http://xmlns.com/foaf/0.1/knows", "knows", QueryMatchIndex.PROPERTY, Collections.emptyList());
+        index.addTerm(schema, "http://schema.org/Place", "Place", QueryMatchIndex.CLASS, Collections.singletonList("Entities that have a somewhat fixed, physical extension."));
+
+        assertEquals(Collections.singleton(new Term("http://xmlns.com/foaf/0.1/Person")), index.getTermQueryMatch(new TermQuery("PERSON"), foaf, QueryMatchIndex.CLASS | QueryMatchIndex.PROPERTY, false));
+        assertEquals(Collections.singleton(new Term("http://xmlns.com/foaf/0.1/knows")), index.getTermQueryMatch(new TermQuery("now"), foaf, QueryMatchIndex.PROPERTY, false));
+        assertTrue(index.getTermQueryMatch(new TermQuery("now"), foaf, QueryMatchIndex.CLASS, false).isEmpty());
+        assertTrue(index.getTermQueryMatch(new TermQuery("knows"), foaf, QueryMatchIndex.PROPERTY, true).isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList(foaf, schema)), index.getQueryMatch(new TermQuery("pla per"), QueryMatchIndex.CLASS, false).keySet());
+
+        // Search words with regex operators are evaluated as regex
+        assertEquals(Collections.singleton(schema), index.getQueryMatch(new TermQuery("pl.ce"), QueryMatchIndex.CLASS, false).keySet());
+
+        // Only ASCII letters are folded, as by the case insensitive regex
+        assertEquals("straße Ä", QueryMatchIndex.toLowerCase("STRAßE Ä"));
+    }
+
+    @Test
+    public void parityWithRegexFilter() {
+        new TestUtil().setNqFileConfiguration();
+        AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
+        for (String queryString : Arrays.asList("person", "Person Organization", "address", "s", "time+", "xyzzy")) {
+            TermQuery query = new TermQuery(queryString);
+            String sparql = "SELECT DISTINCT ?g ?uri WHERE { GRAPH ?g { ?uri a ?valueType . OPTIONAL { " + repository.getQueryMatchConstraint("?uri", "?value") + " } " + query.getQueryFilterString("<http://jena.hpl.hp.com/ARQ/function#localname>(?uri)", "?value") + "  FILTER (isuri(?uri)) . VALUES ?valueType " + AbstractOntologyRepository.getAllTypesValuesString() + " . } }";
+            Map<Ontology, Set<Term>> expected = new HashMap<>();
+            for (BindingSet uriMatch : repository.getConnector().selectQuery(sparql, true)) {
+                expected.computeIfAbsent(new Ontology(uriMatch.getBinding("g").getValue().stringValue()), k -> new HashSet<>()).add(new Term(uriMatch.getBinding("uri").getValue().stringValue()));
+            }
+            assertEquals(queryString, expected, repository.getQueryMatch(query));
+            assertEquals(queryString, expected.keySet(), repository.getOntologyQueryMatch(query));
+        }
+        assertTrue(((LOVRepository) repository).getQueryMatchIndex().countTerms() > 0);
+    }
+
+    @Test
+    public void searchWordCache() {
+        QueryMatchIndex index = new QueryMatchIndex(QueryMatch.LOV, Collections.singletonList("http://www.w3.org/2000/01/rdf-schema#label"));
+        index.addTerm(foaf, "http://xmlns.com/foaf/0.1/Person", "Person", QueryMatchIndex.CLASS, Collections.singletonList("A person."));
+        index.addTerm(schema, "http://schema.org/Place", "Place", QueryMatchIndex.CLASS, Collections.emptyList());
+
+        Map<Ontology, Set<Term>> both = index.getQueryMatch(new TermQuery("person place"), QueryMatchIndex.CLASS, false);
+        assertEquals(2, index.getCacheMisses());
+        // Search words are shared between queries and ignore case
+        assertEquals(both.get(foaf), index.getTermQueryMatch(new TermQuery("PERSON"), foaf, QueryMatchIndex.CLASS, false));
+        assertEquals(both.get(schema), index.getTermQueryMatch(new TermQuery("Place"), schema, QueryMatchIndex.CLASS, false));
+        assertEquals(2, index.getCacheHits());
+        assertEquals(2, index.getCacheMisses());
+
+        // Adding terms invalidates the cached matches
+        index.addTerm(schema, "http://schema.org/Person", "Person", QueryMatchIndex.CLASS, Collections.emptyList());
+        assertEquals(new HashSet<>(Arrays.asList(foaf, schema)), index.getQueryMatch(new TermQuery("person"), QueryMatchIndex.CLASS, false).keySet());
+    }
+
+    @Test
+    public void queryMatchConfigurationChange() {
+        new TestUtil().setNqFileConfiguration();
+        LOVRepository repository = (LOVRepository) ExperimentConfiguration.getInstance().getRepository();
+        QueryMatch queryMatch = ExperimentConfiguration.getInstance().getQueryMatch();
+        try {
+            ExperimentConfiguration.getInstance().setQueryMatch(QueryMatch.LOV);
+            QueryMatchIndex lovIndex = repository.getQueryMatchIndex();
+            assertSame(lovIndex, repository.getQueryMatchIndex());
+            ExperimentConfiguration.getInstance().setQueryMatch(QueryMatch.DWRANK);
+            QueryMatchIndex dwRankIndex = repository.getQueryMatchIndex();
+            assertNotSame(lovIndex, dwRankIndex);
+            assertEquals(QueryMatch.DWRANK, dwRankIndex.getQueryMatch());
+        } finally {
+            ExperimentConfiguration.getInstance().setQueryMatch(queryMatch);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package experiment.repository.triplestore.index;
+
+import experiment.model.Ontology;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TermOntologyIndexTest {
+
+    @Test
+    public void countOntologiesContaining() {
+        Ontology foaf = new Ontology("http://xmlns.com/foaf/0.1/");
+        Ontology schema = new Ontology("http://schema.org/");
+
+        TermOntologyIndex index = new TermOntologyIndex();
+        index.addTriple(foaf, "http://xmlns.com/foaf/0.1/Person", "http://www.w3.org/1999/02/22-rdf-syntax-ns#type", "http://www.w3.org/2002/07/owl#Class");
+        index.addTriple(foaf, "http://xmlns.com/foaf/0.1/Person", "http://www.w3.org/2000/01/rdf-schema#label", null);
+        index.addTriple(schema, "http://schema.org/Person", "http://www.w3.org/2002/07/owl#equivalentClass", "http://xmlns.com/foaf/0.1/Person");
+
+        assertEquals(2, index.countOntologies());
+        assertEquals(2, index.countOntologiesContaining("http://xmlns.com/foaf/0.1/Person"));
+        assertEquals(1, index.countOntologiesContaining("http://schema.org/Person", ""));
+        assertEquals(0, index.countOntologiesContaining("http://example.org/missing"));
+        assertEquals(2, index.getFrequency("http://xmlns.com/foaf/0.1/Person", foaf));
+        assertEquals(1, index.getFrequency("http://xmlns.com/foaf/0.1/Person", schema));
+    }
+
+    @Test
+    public void addTripleCountsUriOncePerTriple() {
+        Ontology ontology = new Ontology("http://example.org/ontology");
+        TermOntologyIndex index = new TermOntologyIndex();
+        index.addTriple(ontology, "http://example.org/ontology#a", "http://example.org/ontology#a", "http://example.org/ontology#a");
+        assertEquals(1, index.getFrequency("http://example.org/ontology#a", ontology));
+    }
+}
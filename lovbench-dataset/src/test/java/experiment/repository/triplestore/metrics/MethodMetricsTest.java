@@ -0,0 +1,52 @@
+package experiment.repository.triplestore.metrics;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MethodMetricsTest {
+
+    @Test
+    public void percentiles() {
+        MethodMetrics metrics = new MethodMetrics("LOVRepository.getAllOntologies");
+        Random random = new Random(42);
+        long[] latencies = new long[10000];
+        for (int i = 0; i < latencies.length; i++) {
+            // Between 0.1 ms and 1 s
+            latencies[i] = (long) (100 * Math.pow(10000, random.nextDouble()));
+            metrics.record(TimeUnit.MICROSECONDS.toNanos(latencies[i]), 2, false);
+        }
+        Arrays.sort(latencies);
+        for (double quantile : new double[]{0.5, 0.95, 0.99}) {
+            double exact = latencies[(int) Math.ceil(quantile * latencies.length) - 1] / 1000.0;
+            double estimate = metrics.getPercentile(quantile);
+            // The estimate is the upper bound of the bucket, at most a factor 2^(1/4) above the exact value
+            assertTrue(estimate >= exact);
+            assertTrue(estimate <= exact * Math.pow(2, 0.25) + 0.001);
+        }
+        MethodStats stats = metrics.getStats();
+        assertEquals(10000, stats.getCalls());
+        assertEquals(20000, stats.getRows());
+        assertEquals(0, stats.getErrors());
+        assertEquals(latencies[latencies.length - 1] / 1000.0, stats.getMax(), 0.0);
+        assertEquals(stats.getMax(), metrics.getPercentile(1.0), 0.0);
+    }
+
+    @Test
+    public void errors() {
+        MethodMetrics metrics = new MethodMetrics("LOVRepository.maximumFrequency");
+        assertEquals(0.0, metrics.getPercentile(0.5), 0.0);
+        metrics.record(TimeUnit.MILLISECONDS.toNanos(5), 10, false);
+        metrics.record(TimeUnit.MILLISECONDS.toNanos(60000), -1, true);
+        MethodStats stats = metrics.getStats();
+        assertEquals(2, stats.getCalls());
+        assertEquals(1, stats.getErrors());
+        assertEquals(10, stats.getRows());
+        assertEquals(60005.0, stats.getTotalTime(), 0.0);
+        assertEquals(60000.0, stats.getMax(), 0.0);
+    }
+}
@@ -0,0 +1,95 @@
+package experiment.repository.triplestore.metrics;
+
+import experiment.TestUtil;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.model.Ontology;
+import experiment.model.Term;
+import experiment.repository.triplestore.LOVGraphRepository;
+import experiment.repository.triplestore.connector.JenaConnector;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class QueryMetricsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws Exception {
+        new TestUtil().setNqFileConfiguration();
+        ExperimentConfiguration.getInstance().setQueryMetrics(true);
+        QueryMetrics.getInstance().reset();
+    }
+
+    @After
+    public void tearDown() {
+        ExperimentConfiguration.getInstance().setQueryMetrics(false);
+    }
+
+    @Test
+    public void repositoryMethods() {
+        int ontologies = ExperimentConfiguration.getInstance().getRepository().getAllOntologies().size();
+        ExperimentConfiguration.getInstance().getRepository().getAllOntologies();
+        MethodStats stats = QueryMetrics.getInstance().getMethodStats("LOVRepository.getAllOntologies");
+        assertEquals(2, stats.getCalls());
+        assertEquals(0, stats.getErrors());
+        assertEquals(2 * ontologies, stats.getRows());
+        assertTrue(stats.getMax() >= stats.getP50());
+        assertTrue(QueryMetrics.getInstance().getSummary().contains("LOVRepository.getAllOntologies"));
+    }
+
+    @Test
+    public void graphRepositoryMethods() {
+        // The graph repository answers without queries, so its methods are measured themselves
+        LOVGraphRepository graphRepository = new LOVGraphRepository((JenaConnector) ExperimentConfiguration.getInstance().getRepository().getConnector());
+        Ontology ontology = new Ontology("http://schema.org/");
+        int terms = graphRepository.getAllTerms(ontology).size();
+        graphRepository.countSubClasses(new Term("http://schema.org/Person"), ontology);
+        MethodStats stats = QueryMetrics.getInstance().getMethodStats("LOVGraphRepository.getAllTerms");
+        assertEquals(1, stats.getCalls());
+        assertEquals(terms, stats.getRows());
+        assertEquals(1, QueryMetrics.getInstance().getMethodStats("LOVGraphRepository.countSubClasses").getCalls());
+    }
+
+    @Test
+    public void disabled() {
+        ExperimentConfiguration.getInstance().setQueryMetrics(false);
+        ExperimentConfiguration.getInstance().getRepository().getAllOntologies();
+        assertTrue(QueryMetrics.getInstance().getMethodStats().isEmpty());
+    }
+
+    @Test
+    public void dump() throws Exception {
+        QueryMetrics.getInstance().record("LOVRepository.countOntologies", TimeUnit.MILLISECONDS.toNanos(1), 1, false);
+        QueryMetrics.getInstance().record("LOVRepository.maximumFrequency", TimeUnit.MILLISECONDS.toNanos(100), 0, true);
+        List<MethodStats> methodStats = QueryMetrics.getInstance().getMethodStats();
+        assertEquals("LOVRepository.maximumFrequency", methodStats.get(0).getMethod());
+
+        File file = new File(folder.getRoot(), "query_metrics.json");
+        QueryMetrics.getInstance().writeJson(file.getPath());
+        JSONArray methods = new JSONObject(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)).getJSONArray("methods");
+        assertEquals(2, methods.length());
+        assertEquals("LOVRepository.maximumFrequency", methods.getJSONObject(0).getString("method"));
+        assertEquals(1, methods.getJSONObject(0).getLong("errors"));
+
+        CompositeData[] jmxStats = (CompositeData[]) ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName("experiment:type=QueryMetrics"), "MethodStats");
+        assertEquals(2, jmxStats.length);
+        assertEquals(1L, jmxStats[1].get("calls"));
+    }
+}
@@ -0,0 +1,80 @@
+package experiment.repository.triplestore.partition;
+
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.query.Dataset;
+import experiment.TestUtil;
+import experiment.configuration.ExperimentConfiguration;
+import experiment.model.Ontology;
+import experiment.repository.triplestore.AbstractOntologyRepository;
+import experiment.repository.triplestore.connector.JenaConnector;
+import experiment.repository.triplestore.util.JenaGraphUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class OntologyPartitionsTest {
+
+    AbstractOntologyRepository repository = ExperimentConfiguration.getInstance().getRepository();
+
+    Dataset dataset;
+
+    OntologyPartitions partitions;
+
+    @Before
+    public void setUp() throws Exception {
+        new TestUtil().setNqFileConfiguration();
+        dataset = ((JenaConnector) repository.getConnector()).getDataset();
+        partitions = new OntologyPartitions(dataset, 4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        partitions.close();
+    }
+
+    @Test
+    public void partitions() {
+        assertEquals(repository.getAllOntologies(), partitions.getOntologies());
+        long size = 0;
+        for (Ontology ontology : partitions.getOntologies()) {
+            Graph graph = partitions.getPartition(ontology);
+            assertSame(JenaGraphUtil.getNamedGraph(dataset, ontology.getOntologyUri()), graph);
+            size += graph.size();
+        }
+        assertEquals(size, partitions.size());
+        assertTrue(partitions.getPartition(new Ontology("http://example.org/missing")).isEmpty());
+        assertFalse(partitions.getOntologies().contains(new Ontology(ExperimentConfiguration.getInstance().getLOVgraph())));
+    }
+
+    @Test
+    public void fanOut() {
+        Map<Ontology, Integer> sizes = partitions.mapPartitions((ontology, graph) -> graph.size());
+        assertEquals(partitions.countPartitions(), sizes.size());
+        for (Map.Entry<Ontology, Integer> size : sizes.entrySet()) {
+            assertEquals(repository.ontologySize(size.getKey()), size.getValue() * 3);
+        }
+
+        Ontology vcard = new Ontology("http://www.w3.org/2006/vcard/ns");
+        Set<Ontology> filtered = partitions.filterPartitions((ontology, graph) -> ontology.equals(vcard));
+        assertEquals(1, filtered.size());
+        assertTrue(filtered.contains(vcard));
+
+        // Nested fan-outs run on the calling partition thread
+        Map<Ontology, Integer> nested = partitions.mapPartitions((ontology, graph) -> partitions.mapPartitions((inner, innerGraph) -> 1).size());
+        for (Integer count : nested.values()) {
+            assertEquals(partitions.countPartitions(), count.intValue());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failure() {
+        partitions.mapPartitions((ontology, graph) -> {
+            throw new IllegalArgumentException(ontology.getOntologyUri());
+        });
+    }
+}